@@ -0,0 +1,46 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.laptrinhjava.task_management_backend.service.TaskStatsService;
+
+/**
+ * Công cụ dòng lệnh tính lại bảng thống kê task_daily_stats từ các task đã hoàn thành, ví dụ:
+ * <pre>
+ * java -jar app.jar --spring.main.web-application-type=none --analytics.backfill=true
+ * </pre>
+ * Nên chạy khi đã tạm dừng ghi. Ứng dụng thoát sau khi tính xong.
+ */
+@Component
+public class AnalyticsBackfillRunner implements ApplicationRunner {
+
+    private final TaskStatsService taskStatsService;
+    private final ConfigurableApplicationContext context;
+
+    @Autowired
+    public AnalyticsBackfillRunner(TaskStatsService taskStatsService, ConfigurableApplicationContext context) {
+        this.taskStatsService = taskStatsService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("analytics.backfill") || !"true".equals(args.getOptionValues("analytics.backfill").get(0))) {
+            return;
+        }
+        int exitCode = 0;
+        try {
+            taskStatsService.rebuildCompletions();
+        } catch (RuntimeException ex) {
+            System.err.println("====== AnalyticsBackfillRunner: Tính lại thống kê thất bại: " + ex.getMessage() + " ======");
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,47 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Cho phép client chọn định dạng nhị phân qua header Accept:
+ * application/cbor hoặc application/x-jackson-smile (mặc định vẫn là JSON).
+ *
+ * Dùng lại Jackson2ObjectMapperBuilder của Spring Boot để giữ nguyên cấu hình (module, naming...) như JSON,
+ * chỉ khác là ngày giờ được ghi dạng số/mảng số thay vì chuỗi ISO để giảm kích thước payload.
+ * Spring Boot đặt các converter khai báo dạng bean lên trước và thay thế converter mặc định cùng kiểu.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder
+                .factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        return new MappingJackson2CborHttpMessageConverter(cborMapper);
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        // Smile tham chiếu lại các chuỗi giá trị lặp (projectName, assigneeName, status) thay vì ghi lại toàn bộ
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        ObjectMapper smileMapper = builder
+                .factory(smileFactory)
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper);
+    }
+}
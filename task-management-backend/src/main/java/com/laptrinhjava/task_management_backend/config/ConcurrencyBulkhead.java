@@ -0,0 +1,81 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Giới hạn số request chạy đồng thời cho từng endpoint nặng (mỗi endpoint một Semaphore riêng),
+ * để một endpoint bị dồn tải không chiếm hết connection pool của các endpoint khác.
+ */
+@Component
+public class ConcurrencyBulkhead {
+
+    private final ConcurrentHashMap<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+
+    @Autowired
+    public ConcurrencyBulkhead(MeterRegistry meterRegistry,
+                               @Value("${app.bulkhead.enabled:true}") boolean enabled,
+                               @Value("${app.bulkhead.max-concurrent:8}") int maxConcurrent,
+                               @Value("${app.bulkhead.max-wait-ms:100}") long maxWaitMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * Tạo interceptor cho một endpoint; chỉ áp dụng cho GET (các endpoint danh sách).
+     */
+    public HandlerInterceptor forEndpoint(String name) {
+        Semaphore semaphore = semaphores.computeIfAbsent(name, n -> new Semaphore(maxConcurrent, true));
+        Gauge.builder("app.bulkhead.active", semaphore, s -> maxConcurrent - s.availablePermits())
+                .tag("endpoint", name).register(meterRegistry);
+        Counter rejected = Counter.builder("app.bulkhead.rejected").tag("endpoint", name).register(meterRegistry);
+        String attribute = ConcurrencyBulkhead.class.getName() + "." + name;
+
+        return new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+                if (!enabled || !"GET".equals(request.getMethod())) {
+                    return true;
+                }
+                if (!semaphore.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                    rejected.increment();
+                    System.out.println("====== ConcurrencyBulkhead: Endpoint " + name + " đang quá tải, từ chối request ======");
+                    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                    response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Endpoint đang quá tải, vui lòng thử lại sau.");
+                    return false;
+                }
+                request.setAttribute(attribute, Boolean.TRUE);
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                if (request.getAttribute(attribute) != null) {
+                    request.removeAttribute(attribute);
+                    semaphore.release();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.laptrinhjava.task_management_backend.service.SyntheticDatasetGenerator;
+
+/**
+ * Công cụ dòng lệnh sinh dữ liệu giả lập, ví dụ 10 triệu task:
+ * <pre>
+ * java -jar app.jar --spring.profiles.active=dataset --app.dataset.users=20000 --app.dataset.projects=100000 --app.dataset.tasks=10000000
+ * </pre>
+ * Ứng dụng thoát sau khi sinh xong.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.dataset", name = "generate", havingValue = "true")
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+    private final SyntheticDatasetGenerator generator;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.dataset.users:1000}")
+    private int users;
+
+    @Value("${app.dataset.projects:5000}")
+    private int projects;
+
+    @Value("${app.dataset.tasks:500000}")
+    private long tasks;
+
+    @Value("${app.dataset.project-size-exponent:1.1}")
+    private double projectSizeExponent;
+
+    @Value("${app.dataset.history-days:365}")
+    private int historyDays;
+
+    @Value("${app.dataset.seed:42}")
+    private long seed;
+
+    @Value("${app.dataset.batch-size:2000}")
+    private int batchSize;
+
+    // Mặc định mỗi lần chạy một tiền tố mới để không trùng username/email với lần trước
+    @Value("${app.dataset.prefix:}")
+    private String prefix;
+
+    @Value("${app.dataset.rebuild-stats:true}")
+    private boolean rebuildStats;
+
+    @Autowired
+    public DatasetGeneratorRunner(SyntheticDatasetGenerator generator, ConfigurableApplicationContext context) {
+        this.generator = generator;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String runPrefix = prefix.isBlank() ? "ds" + Long.toString(System.currentTimeMillis(), 36) : prefix;
+        int exitCode = 0;
+        try {
+            generator.generate(new SyntheticDatasetGenerator.Spec(users, projects, tasks, projectSizeExponent, historyDays,
+                    seed, batchSize, runPrefix, rebuildStats));
+        } catch (RuntimeException ex) {
+            System.err.println("====== DatasetGeneratorRunner: Sinh dữ liệu thất bại: " + ex.getMessage() + " ======");
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,45 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Ghi nhớ thời điểm ghi gần nhất của từng người dùng để các lần đọc ngay sau đó
+ * không rơi vào replica còn đang trễ (read-your-writes).
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowMs;
+    private final ConcurrentMap<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    public void markWrite(String userKey) {
+        if (userKey != null && windowMs > 0) {
+            lastWriteByUser.put(userKey, System.currentTimeMillis());
+        }
+    }
+
+    public boolean isWithinWindow(String userKey) {
+        if (userKey == null || windowMs <= 0) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(userKey);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - lastWrite < windowMs) {
+            return true;
+        }
+        lastWriteByUser.remove(userKey, lastWrite);
+        return false;
+    }
+
+    // Dọn các mục đã hết hạn của người dùng không đọc lại (gọi định kỳ cùng health check)
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - windowMs;
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+}
@@ -0,0 +1,152 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.laptrinhjava.task_management_backend.util.SecurityUtils;
+
+/**
+ * DataSource định tuyến: giao dịch {@code @Transactional(readOnly = true)} được gửi sang một replica còn khoẻ
+ * (xoay vòng), mọi giao dịch khác đi vào primary.
+ *
+ * Lưu ý: cần bọc bởi {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} để connection
+ * chỉ được lấy sau khi transaction manager đã đánh dấu read-only cho giao dịch hiện tại.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final List<ReplicaTarget> replicas = new ArrayList<>();
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final int healthCheckTimeoutSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker, int healthCheckTimeoutSeconds) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new ReplicaTarget(name, dataSource)));
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    // Mở connection trên primary hoặc replica được chọn cho giao dịch hiện tại
+    private Connection connect(ConnectionOpener opener) throws SQLException {
+        ReplicaTarget replica = selectReplica();
+        if (replica == null) {
+            return opener.open(primary);
+        }
+        try {
+            return opener.open(replica.dataSource);
+        } catch (SQLException ex) {
+            // Failover: đánh dấu replica hỏng cho tới lần health check kế tiếp và đọc từ primary
+            replica.healthy = false;
+            System.err.println("====== ReplicaRoutingDataSource: Replica " + replica.name + " không khả dụng, chuyển sang primary: " + ex.getMessage() + " ======");
+            return opener.open(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    /**
+     * @return replica dùng cho connection hiện tại, hoặc null nếu phải dùng primary.
+     */
+    private ReplicaTarget selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWriteTransaction();
+            return null;
+        }
+        if (replicas.isEmpty() || readYourWritesTracker.isWithinWindow(SecurityUtils.currentUserKey())) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaTarget candidate = replicas.get((start + i) % size);
+            if (candidate.healthy) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    // Ghi nhận thời điểm ghi của người dùng khi giao dịch ghi commit thành công (mỗi giao dịch đăng ký một lần)
+    private void trackWriteTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        String userKey = SecurityUtils.currentUserKey();
+        if (userKey == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, userKey);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesTracker.markWrite(userKey);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReplicaRoutingDataSource.this);
+            }
+        });
+    }
+
+    /**
+     * Kiểm tra lại toàn bộ replica; replica hỏng sẽ được đưa trở lại khi kiểm tra thành công.
+     */
+    public void checkReplicaHealth() {
+        for (ReplicaTarget replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(healthCheckTimeoutSeconds);
+            } catch (SQLException ex) {
+                healthy = false;
+            }
+            if (replica.healthy != healthy) {
+                System.out.println("====== ReplicaRoutingDataSource: Replica " + replica.name + (healthy ? " đã hoạt động trở lại" : " không khả dụng") + " ======");
+            }
+            replica.healthy = healthy;
+        }
+        readYourWritesTracker.evictExpired();
+    }
+
+    public boolean isReplicaHealthy(String name) {
+        return replicas.stream().anyMatch(replica -> replica.name.equals(name) && replica.healthy);
+    }
+
+    private static final class ReplicaTarget {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private ReplicaTarget(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
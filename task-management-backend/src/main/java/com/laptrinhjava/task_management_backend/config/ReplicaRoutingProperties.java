@@ -0,0 +1,37 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Cấu hình định tuyến đọc sang replica (tiền tố app.datasource.routing).
+ * Primary vẫn lấy từ spring.datasource.*.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    // Sau khi người dùng ghi dữ liệu, các lần đọc của chính người đó trong khoảng này vẫn đi vào primary
+    private long readYourWritesWindowMs = 5000;
+
+    private long healthCheckIntervalMs = 10000;
+
+    // Thời gian chờ tối đa (giây) cho Connection.isValid khi kiểm tra sức khoẻ replica
+    private int healthCheckTimeoutSeconds = 2;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
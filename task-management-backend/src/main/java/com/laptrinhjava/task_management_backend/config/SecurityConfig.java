@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -22,7 +23,9 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.laptrinhjava.task_management_backend.controller.TaskController;
 import com.laptrinhjava.task_management_backend.service.CustomOAuth2UserService;
+import com.laptrinhjava.task_management_backend.service.IdempotencyService;
 
 @Configuration
 @EnableWebSecurity
@@ -43,6 +46,7 @@ public class SecurityConfig {
                 // Các path public (ví dụ: trang chủ, trang lỗi, các resource của OAuth2)
                 .requestMatchers("/", "/error", "/webjars/**").permitAll()
                 .requestMatchers("/login", "/oauth2/**", "/login/oauth2/code/**").permitAll() 
+                .requestMatchers("/actuator/health").permitAll()
                 
                 // Các API yêu cầu xác thực
                 .requestMatchers("/api/users/me").authenticated() // YÊU CẦU XÁC THỰC
@@ -107,7 +111,8 @@ public class SecurityConfig {
         System.out.println("====== SecurityConfig: Configuring CORS for origin: " + frontendUrl + " ======");
         configuration.setAllowedOrigins(Collections.singletonList(frontendUrl));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "X-Requested-With", "Accept", "Origin", "Cookie")); 
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "X-Requested-With", "Accept", "Origin", "Cookie", IdempotencyService.HEADER_IDEMPOTENCY_KEY)); 
+        configuration.setExposedHeaders(Arrays.asList(TaskController.HEADER_TOTAL_COUNT, TaskController.HEADER_HAS_NEXT, IdempotencyService.HEADER_REPLAYED, HttpHeaders.RETRY_AFTER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,44 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard của luồng hiện tại, được {@link ShardRoutingDataSource} đọc khi cần lấy connection.
+ * null nghĩa là shard mặc định (shard 0 - nơi chứa thư mục người dùng).
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Chạy action trên một shard rồi khôi phục shard trước đó của luồng.
+     */
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            set(previous);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.laptrinhjava.task_management_backend.service.ShardRebalancer;
+
+/**
+ * Công cụ dòng lệnh chuyển dữ liệu một chủ sở hữu sang shard khác, ví dụ:
+ * <pre>
+ * java -jar app.jar --spring.main.web-application-type=none --rebalance.owner-id=42 --rebalance.target-shard=1
+ * </pre>
+ * Ứng dụng thoát sau khi chuyển xong.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardRebalanceRunner implements ApplicationRunner {
+
+    private final ShardRebalancer shardRebalancer;
+    private final ConfigurableApplicationContext context;
+
+    @Autowired
+    public ShardRebalanceRunner(ShardRebalancer shardRebalancer, ConfigurableApplicationContext context) {
+        this.shardRebalancer = shardRebalancer;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("rebalance.owner-id") || !args.containsOption("rebalance.target-shard")) {
+            return;
+        }
+        long ownerId = Long.parseLong(args.getOptionValues("rebalance.owner-id").get(0));
+        int targetShard = Integer.parseInt(args.getOptionValues("rebalance.target-shard").get(0));
+        int exitCode = 0;
+        try {
+            shardRebalancer.moveOwner(ownerId, targetShard);
+        } catch (RuntimeException ex) {
+            System.err.println("====== ShardRebalanceRunner: Chuyển dữ liệu thất bại: " + ex.getMessage() + " ======");
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,112 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Điểm truy cập chung cho mọi đoạn code cần biết về shard. Khi không bật sharding, chỉ có một shard là DataSource
+ * hiện có, nên các tác vụ định kỳ và truy vấn gom dữ liệu có thể gọi {@link #forEachShard} mà không cần rẽ nhánh.
+ */
+@Component
+public class ShardRouter {
+
+    private final List<DataSource> shards;
+    private final boolean sharded;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    @Autowired
+    public ShardRouter(DataSource dataSource, ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource,
+                       ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        ShardRoutingDataSource routing = shardRoutingDataSource.getIfAvailable();
+        this.shards = routing != null ? routing.getShards() : List.of(dataSource);
+        this.sharded = routing != null;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * DataSource vật lý của một shard (không qua định tuyến), dùng cho JDBC trực tiếp.
+     */
+    public DataSource shardDataSource(int shard) {
+        return shards.get(shard);
+    }
+
+    public int currentShard() {
+        Integer shard = ShardContext.current();
+        return shard != null ? shard : 0;
+    }
+
+    /**
+     * Shard đã sinh ra id này. Mỗi shard cấp id theo bước nhảy bằng số shard (id ≡ shard + 1 mod N),
+     * nên id là duy nhất trên toàn cụm và vẫn giữ nguyên khi dữ liệu được chuyển sang shard khác.
+     */
+    public int originShardOf(long id) {
+        return (int) Math.floorMod(id - 1, (long) shards.size());
+    }
+
+    /**
+     * Chạy action trên một shard. Không được đổi shard khi đang ở trong giao dịch; EntityManager mở sẵn theo request
+     * (open-in-view) được tạm gỡ ra để action dùng connection của shard đích.
+     */
+    public <T> T onShard(int shard, Supplier<T> action) {
+        if (!sharded || shard == currentShard()) {
+            return ShardContext.callOn(shard, action);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Không thể chuyển sang shard " + shard + " khi đang trong một giao dịch");
+        }
+        EntityManagerFactory emf = entityManagerFactory.getIfAvailable();
+        EntityManagerHolder suspended = emf != null
+                ? (EntityManagerHolder) TransactionSynchronizationManager.unbindResourceIfPossible(emf)
+                : null;
+        try {
+            return ShardContext.callOn(shard, action);
+        } finally {
+            if (suspended != null) {
+                TransactionSynchronizationManager.bindResource(emf, suspended);
+            }
+        }
+    }
+
+    public void runOnShard(int shard, Runnable action) {
+        onShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Chạy action lần lượt trên từng shard và trả về kết quả theo thứ tự shard.
+     */
+    public <T> List<T> onEachShard(Supplier<T> action) {
+        List<T> results = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            results.add(onShard(shard, action));
+        }
+        return results;
+    }
+
+    public void forEachShard(Runnable action) {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            runOnShard(shard, action);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.laptrinhjava.task_management_backend.service.ShardDirectory;
+import com.laptrinhjava.task_management_backend.util.SecurityUtils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Gắn shard của người dùng hiện tại vào luồng xử lý request. Các endpoint theo id task hoặc id dự án được gửi tới shard
+ * đang chứa task/dự án đó (task được giao hoặc dự án được chia sẻ của người khác có thể nằm ở shard khác).
+ * Trong lúc chủ dữ liệu đang được chuyển shard, mọi request chạm tới dữ liệu đó đều nhận 503 — kể cả của thành viên
+ * và người được giao, với cờ đang chuyển đọc thẳng từ thư mục.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardRoutingInterceptor implements HandlerInterceptor {
+
+    private final ShardDirectory shardDirectory;
+
+    @Autowired
+    public ShardRoutingInterceptor(ShardDirectory shardDirectory) {
+        this.shardDirectory = shardDirectory;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        ShardDirectory.Placement placement = shardDirectory.placementFor(SecurityUtils.currentUserKey());
+        if (placement == null) {
+            return true;
+        }
+        if (placement.migrating()) {
+            return rejectWhileMigrating(response, "Dữ liệu của bạn đang được di chuyển, vui lòng thử lại sau.");
+        }
+        ShardDirectory.Location location = null;
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> pathVariables) {
+            try {
+                if (pathVariables.get("taskId") instanceof String taskId) {
+                    location = shardDirectory.locateTask(Long.parseLong(taskId), placement.shard());
+                } else if (pathVariables.get("projectId") instanceof String projectId) {
+                    location = shardDirectory.locateProject(Long.parseLong(projectId), placement.shard());
+                }
+            } catch (NumberFormatException ex) {
+                // Để controller trả lỗi 400 như bình thường
+            }
+        }
+        if (location == null) {
+            ShardContext.set(placement.shard());
+            return true;
+        }
+        // Dữ liệu của người khác: cache placement của chính mình không nói gì về chủ dữ liệu
+        if (location.ownerId() != null && location.ownerId() != placement.userId()
+                && shardDirectory.isMigrating(location.ownerId())) {
+            return rejectWhileMigrating(response, "Dữ liệu của dự án đang được di chuyển, vui lòng thử lại sau.");
+        }
+        ShardContext.set(location.shard());
+        return true;
+    }
+
+    private boolean rejectWhileMigrating(HttpServletResponse response, String message) throws Exception {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), message);
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ShardContext.clear();
+    }
+}
@@ -0,0 +1,42 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.util.Map;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+/**
+ * Hibernate chỉ áp dụng spring.jpa.hibernate.ddl-auto cho DataSource mặc định (shard 0). Integrator này chạy cùng
+ * hành động schema (update/create/validate...) cho các shard còn lại, trước khi ứng dụng dùng tới chúng.
+ */
+public class ShardSchemaIntegrator implements Integrator {
+
+    private final int shardCount;
+
+    public ShardSchemaIntegrator(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        ServiceRegistry serviceRegistry = bootstrapContext.getServiceRegistry();
+        Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        for (int shard = 1; shard < shardCount; shard++) {
+            System.out.println("====== ShardSchemaIntegrator: Áp dụng schema cho shard " + shard + " ======");
+            ShardContext.callOn(shard, () -> {
+                // Không đăng ký drop khi đóng (create-drop): shard phụ chỉ được tạo, không bị xoá theo vòng đời SessionFactory
+                SchemaManagementToolCoordinator.process(metadata, serviceRegistry, settings, action -> { });
+                return null;
+            });
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, org.hibernate.service.spi.SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Bật bằng app.sharding.enabled=true: dữ liệu của mỗi người dùng (project, task và các bảng phụ) nằm trên shard
+ * được ghi trong thư mục user_shards; bảng app_user được sao chép sang mọi shard để khoá ngoại owner/assignee vẫn đúng.
+ *
+ * Không dùng chung với định tuyến replica (app.datasource.routing.enabled) vì cả hai cùng thay DataSource chính.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({DataSourceProperties.class, ShardingProperties.class})
+public class ShardingDataSourceConfig {
+
+    // Các bảng có id dùng để suy ra shard gốc (xem ShardRouter.originShardOf)
+    private static final List<String> SHARD_AWARE_ID_TABLES = List.of("projects", "tasks", "recurring_tasks", "notifications", "outbox_events");
+
+    public ShardingDataSourceConfig(@Value("${app.datasource.routing.enabled:false}") boolean replicaRoutingEnabled) {
+        if (replicaRoutingEnabled) {
+            throw new IllegalStateException("app.sharding.enabled và app.datasource.routing.enabled không thể bật cùng lúc");
+        }
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties, ShardingProperties shardingProperties) {
+        int shardCount = 1 + (int) shardingProperties.getShards().stream().filter(shard -> StringUtils.hasText(shard.getUrl())).count();
+
+        List<DataSource> shards = new ArrayList<>();
+        HikariDataSource first = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        shards.add(withShardAwareIds(first, 0, shardCount));
+        for (ShardingProperties.Shard shard : shardingProperties.getShards()) {
+            if (!StringUtils.hasText(shard.getUrl())) {
+                continue;
+            }
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(StringUtils.hasText(shard.getUsername()) ? shard.getUsername() : dataSourceProperties.getUsername())
+                    .password(shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.getPassword())
+                    .driverClassName(StringUtils.hasText(shard.getDriverClassName()) ? shard.getDriverClassName() : dataSourceProperties.determineDriverClassName())
+                    .build();
+            shards.add(withShardAwareIds(dataSource, shards.size(), shardCount));
+        }
+        System.out.println("====== ShardingDataSourceConfig: Chia dữ liệu trên " + shards.size() + " shard ======");
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaCustomizer(ShardRoutingDataSource shardRoutingDataSource) {
+        int shardCount = shardRoutingDataSource.getShards().size();
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(new ShardSchemaIntegrator(shardCount)));
+    }
+
+    /**
+     * Với cơ sở dữ liệu không hỗ trợ auto_increment_increment theo session (H2 dùng cho dev/test), căn bộ đếm
+     * identity của từng shard ngay sau khi schema đã được tạo. Mốc bắt đầu là id lớn nhất trên toàn cụm chứ không
+     * của riêng shard: hàng đã được ShardRebalancer chuyển đi khỏi một shard không được để shard đó cấp lại id của nó.
+     */
+    @Bean
+    public SmartInitializingSingleton shardIdentityAligner(ShardRoutingDataSource shardRoutingDataSource) {
+        return () -> {
+            List<DataSource> shards = shardRoutingDataSource.getShards();
+            if (shards.stream().allMatch(shard -> isMySql(((HikariDataSource) shard).getJdbcUrl()))) {
+                return;
+            }
+            for (String table : SHARD_AWARE_ID_TABLES) {
+                long maxId = 0;
+                for (DataSource shard : shards) {
+                    maxId = Math.max(maxId, new JdbcTemplate(shard).queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class));
+                }
+                for (int shard = 0; shard < shards.size(); shard++) {
+                    HikariDataSource dataSource = (HikariDataSource) shards.get(shard);
+                    if (isMySql(dataSource.getJdbcUrl())) {
+                        continue;
+                    }
+                    long next = maxId + 1 + Math.floorMod(shard - maxId, (long) shards.size());
+                    new JdbcTemplate(dataSource).execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next
+                            + " SET INCREMENT BY " + shards.size());
+                }
+            }
+        };
+    }
+
+    // MySQL: mỗi connection của shard i cấp id i+1, i+1+N, i+1+2N...
+    private static DataSource withShardAwareIds(HikariDataSource dataSource, int shard, int shardCount) {
+        if (isMySql(dataSource.getJdbcUrl())) {
+            dataSource.setConnectionInitSql("SET SESSION auto_increment_increment = " + shardCount
+                    + ", auto_increment_offset = " + (shard + 1));
+        }
+        dataSource.setPoolName("shard-" + shard);
+        return dataSource;
+    }
+
+    private static boolean isMySql(String jdbcUrl) {
+        return jdbcUrl != null && jdbcUrl.startsWith("jdbc:mysql:");
+    }
+}
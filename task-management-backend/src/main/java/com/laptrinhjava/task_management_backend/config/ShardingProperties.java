@@ -0,0 +1,32 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Cấu hình chia shard theo chủ sở hữu (tiền tố app.sharding).
+ * Shard 0 lấy từ spring.datasource.* và chứa thư mục người dùng; shards[0], shards[1]... lần lượt là shard 1, 2...
+ */
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // Các node khác thấy kết quả rebalance sau tối đa khoảng này
+    private long directoryCacheTtlMs = 30000;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
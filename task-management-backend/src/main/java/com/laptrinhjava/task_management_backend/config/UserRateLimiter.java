@@ -0,0 +1,85 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token bucket theo từng người dùng, cài đặt bằng GCRA (Generic Cell Rate Algorithm).
+ *
+ * Mỗi người dùng chỉ cần một AtomicLong lưu "thời điểm đến lý thuyết" (TAT) kế tiếp; việc xin token là
+ * một vòng compareAndSet, không có lock và không có thread nạp token định kỳ.
+ */
+@Component
+public class UserRateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> theoreticalArrivals = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    // Khoảng cách giữa hai token (nano giây)
+    private final long emissionIntervalNanos;
+    // Độ lệch tối đa cho phép so với hiện tại = burst * emissionInterval
+    private final long burstWindowNanos;
+    private final Counter allowedCounter;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public UserRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.requests-per-second:20}") double requestsPerSecond,
+                           @Value("${app.rate-limit.burst:40}") int burst) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("app.rate-limit.requests-per-second phải > 0 và app.rate-limit.burst phải >= 1");
+        }
+        this.enabled = enabled;
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.burstWindowNanos = emissionIntervalNanos * burst;
+        this.allowedCounter = Counter.builder("app.ratelimit.requests").tag("outcome", "allowed").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("app.ratelimit.requests").tag("outcome", "rejected").register(meterRegistry);
+        Gauge.builder("app.ratelimit.tracked.users", theoreticalArrivals, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    /**
+     * Xin một token cho người dùng.
+     *
+     * @return 0 nếu request được phép; ngược lại là số nano giây cần chờ trước khi thử lại.
+     */
+    public long tryAcquire(String userKey) {
+        if (!enabled || userKey == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        AtomicLong tat = theoreticalArrivals.computeIfAbsent(userKey, k -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long overshoot = next - now - burstWindowNanos;
+            if (overshoot > 0) {
+                rejectedCounter.increment();
+                return overshoot;
+            }
+            if (tat.compareAndSet(current, next)) {
+                allowedCounter.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Bỏ các người dùng đã "đầy bucket" (TAT ở quá khứ) - trạng thái của họ tương đương với chưa từng xuất hiện.
+     * Một request đang chạy song song có thể vẫn giữ AtomicLong vừa bị bỏ; cùng lắm người đó được thêm một lượt, chấp nhận được.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleUsers() {
+        long now = System.nanoTime();
+        theoreticalArrivals.values().removeIf(tat -> tat.get() - now < 0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final ConcurrencyBulkhead concurrencyBulkhead;
+    // Chỉ có khi app.sharding.enabled=true
+    private final ObjectProvider<ShardRoutingInterceptor> shardRoutingInterceptor;
+
+    @Autowired
+    public WebMvcConfig(RateLimitInterceptor rateLimitInterceptor, ConcurrencyBulkhead concurrencyBulkhead,
+                        ObjectProvider<ShardRoutingInterceptor> shardRoutingInterceptor) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.concurrencyBulkhead = concurrencyBulkhead;
+        this.shardRoutingInterceptor = shardRoutingInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Rate limit chạy trước để request bị từ chối không chiếm chỗ trong bulkhead
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/**");
+
+        // Bulkhead cho các endpoint danh sách nặng
+        registry.addInterceptor(concurrencyBulkhead.forEndpoint("project-tasks")).addPathPatterns("/api/projects/*/tasks");
+        registry.addInterceptor(concurrencyBulkhead.forEndpoint("project-board")).addPathPatterns("/api/projects/*/board");
+        registry.addInterceptor(concurrencyBulkhead.forEndpoint("project-dependencies")).addPathPatterns("/api/projects/*/dependencies");
+        registry.addInterceptor(concurrencyBulkhead.forEndpoint("assigned-tasks")).addPathPatterns("/api/tasks/assigned");
+        registry.addInterceptor(concurrencyBulkhead.forEndpoint("task-subtree")).addPathPatterns("/api/tasks/*/subtree", "/api/tasks/*/progress");
+        registry.addInterceptor(concurrencyBulkhead.forEndpoint("task-history")).addPathPatterns("/api/tasks/*/history");
+        registry.addInterceptor(concurrencyBulkhead.forEndpoint("calendar")).addPathPatterns("/api/calendar");
+        registry.addInterceptor(concurrencyBulkhead.forEndpoint("sync")).addPathPatterns("/api/sync");
+
+        // Chọn shard sau cùng, chỉ cho request đã qua được các giới hạn trên
+        shardRoutingInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor).addPathPatterns("/api/**"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.laptrinhjava.task_management_backend.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.laptrinhjava.task_management_backend.dto.AnalyticsResponse;
+import com.laptrinhjava.task_management_backend.service.AnalyticsService;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    // Số task hoàn thành, cycle time trung bình và số task quá hạn của dự án theo ngày hoặc tuần
+    @GetMapping("/projects/{projectId}")
+    public ResponseEntity<AnalyticsResponse> getProjectAnalytics(@PathVariable Long projectId,
+                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                 @RequestParam(defaultValue = "week") String granularity) {
+        return ResponseEntity.ok(analyticsService.getProjectAnalytics(projectId, from, to, granularity));
+    }
+
+    // Như trên cho các task được giao cho một người, trong những dự án mà người gọi xem được
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<AnalyticsResponse> getUserAnalytics(@PathVariable Long userId,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestParam(defaultValue = "week") String granularity) {
+        return ResponseEntity.ok(analyticsService.getUserAnalytics(userId, from, to, granularity));
+    }
+}
@@ -0,0 +1,39 @@
+package com.laptrinhjava.task_management_backend.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.laptrinhjava.task_management_backend.dto.CalendarResponse;
+import com.laptrinhjava.task_management_backend.service.ShardedTaskQueryService;
+import com.laptrinhjava.task_management_backend.service.SingleFlight;
+
+@RestController
+@RequestMapping("/api/calendar")
+public class CalendarController {
+
+    private final ShardedTaskQueryService shardedTaskQueryService;
+    private final SingleFlight singleFlight;
+
+    @Autowired
+    public CalendarController(ShardedTaskQueryService shardedTaskQueryService, SingleFlight singleFlight) {
+        this.shardedTaskQueryService = shardedTaskQueryService;
+        this.singleFlight = singleFlight;
+    }
+
+    // Task đến hạn trong mọi dự án của người dùng và các task được giao cho họ, gom theo ngày hoặc tuần
+    @GetMapping
+    public ResponseEntity<CalendarResponse> getCalendar(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                        @RequestParam(defaultValue = "day") String granularity,
+                                                        @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(singleFlight.executeForCurrentUser("calendar",
+                () -> shardedTaskQueryService.getCalendarForCurrentUser(from, to, granularity, limit), from, to, granularity, limit));
+    }
+}
@@ -0,0 +1,38 @@
+package com.laptrinhjava.task_management_backend.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.laptrinhjava.task_management_backend.dto.NotificationResponse;
+import com.laptrinhjava.task_management_backend.service.NotificationService;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationService notificationService;
+
+    @Autowired
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<NotificationResponse>> getNotifications(@RequestParam(defaultValue = "false") boolean unreadOnly,
+                                                                       @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(notificationService.getNotificationsForCurrentUser(unreadOnly, size));
+    }
+
+    @PostMapping("/{notificationId}/read")
+    public ResponseEntity<NotificationResponse> markAsRead(@PathVariable Long notificationId) {
+        return ResponseEntity.ok(notificationService.markAsRead(notificationId));
+    }
+}
@@ -3,6 +3,7 @@ package com.laptrinhjava.task_management_backend.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,12 +12,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.laptrinhjava.task_management_backend.dto.LabelRequest;
+import com.laptrinhjava.task_management_backend.dto.LabelResponse;
+import com.laptrinhjava.task_management_backend.dto.ProjectMemberRequest;
+import com.laptrinhjava.task_management_backend.dto.ProjectMemberResponse;
 import com.laptrinhjava.task_management_backend.dto.ProjectRequestDTO;
 import com.laptrinhjava.task_management_backend.dto.ProjectResponseDTO;
+import com.laptrinhjava.task_management_backend.dto.WorkflowRequest;
+import com.laptrinhjava.task_management_backend.dto.WorkflowResponse;
+import com.laptrinhjava.task_management_backend.service.IdempotencyService;
+import com.laptrinhjava.task_management_backend.service.LabelService;
+import com.laptrinhjava.task_management_backend.service.ProjectMemberService;
 import com.laptrinhjava.task_management_backend.service.ProjectService;
+import com.laptrinhjava.task_management_backend.service.ShardedTaskQueryService;
+import com.laptrinhjava.task_management_backend.service.SingleFlight;
+import com.laptrinhjava.task_management_backend.service.WorkflowService;
 
 import jakarta.validation.Valid;
 
@@ -25,39 +39,120 @@ import jakarta.validation.Valid;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final IdempotencyService idempotencyService;
+    private final SingleFlight singleFlight;
+    private final ProjectMemberService projectMemberService;
+    private final ShardedTaskQueryService shardedTaskQueryService;
+    private final WorkflowService workflowService;
+    private final LabelService labelService;
 
     @Autowired
-    public ProjectController(ProjectService projectService) {
+    public ProjectController(ProjectService projectService, IdempotencyService idempotencyService, SingleFlight singleFlight,
+                             ProjectMemberService projectMemberService, ShardedTaskQueryService shardedTaskQueryService,
+                             WorkflowService workflowService, LabelService labelService) {
         this.projectService = projectService;
+        this.idempotencyService = idempotencyService;
+        this.singleFlight = singleFlight;
+        this.projectMemberService = projectMemberService;
+        this.shardedTaskQueryService = shardedTaskQueryService;
+        this.workflowService = workflowService;
+        this.labelService = labelService;
     }
 
     @GetMapping
     public ResponseEntity<List<ProjectResponseDTO>> getAllProjectsForCurrentUser() {
-        List<ProjectResponseDTO> projects = projectService.getAllProjectsForCurrentUser();
+        List<ProjectResponseDTO> projects = singleFlight.executeForCurrentUser("projects.list",
+                shardedTaskQueryService::getAllProjectsForCurrentUser);
         return ResponseEntity.ok(projects);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<ProjectResponseDTO> getProjectByIdForCurrentUser(@PathVariable Long id) {
-        ProjectResponseDTO project = projectService.getProjectByIdForCurrentUser(id);
+    @GetMapping("/{projectId}")
+    public ResponseEntity<ProjectResponseDTO> getProjectByIdForCurrentUser(@PathVariable Long projectId) {
+        ProjectResponseDTO project = singleFlight.executeForCurrentUser("projects.get",
+                () -> projectService.getProjectByIdForCurrentUser(projectId), projectId);
         return ResponseEntity.ok(project);
     }
 
     @PostMapping
-    public ResponseEntity<ProjectResponseDTO> createProject(@Valid @RequestBody ProjectRequestDTO projectRequestDTO) {
-        ProjectResponseDTO createdProject = projectService.createProject(projectRequestDTO);
-        return new ResponseEntity<>(createdProject, HttpStatus.CREATED);
+    public ResponseEntity<ProjectResponseDTO> createProject(@Valid @RequestBody ProjectRequestDTO projectRequestDTO,
+                                                            @RequestHeader(value = IdempotencyService.HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        IdempotencyService.Result<ProjectResponseDTO> result = idempotencyService.execute(idempotencyKey, "POST /api/projects",
+                projectRequestDTO, ProjectResponseDTO.class, () -> projectService.createProject(projectRequestDTO));
+        HttpHeaders headers = new HttpHeaders();
+        if (result.replayed()) {
+            headers.set(IdempotencyService.HEADER_REPLAYED, "true");
+        }
+        return new ResponseEntity<>(result.body(), headers, HttpStatus.CREATED);
     }
 
-    @PutMapping("/{id}")
-    public ResponseEntity<ProjectResponseDTO> updateProject(@PathVariable Long id, @Valid @RequestBody ProjectRequestDTO projectRequestDTO) {
-        ProjectResponseDTO updatedProject = projectService.updateProject(id, projectRequestDTO);
+    @PutMapping("/{projectId}")
+    public ResponseEntity<ProjectResponseDTO> updateProject(@PathVariable Long projectId, @Valid @RequestBody ProjectRequestDTO projectRequestDTO) {
+        ProjectResponseDTO updatedProject = projectService.updateProject(projectId, projectRequestDTO);
         return ResponseEntity.ok(updatedProject);
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
-        projectService.deleteProject(id);
+    @DeleteMapping("/{projectId}")
+    public ResponseEntity<Void> deleteProject(@PathVariable Long projectId) {
+        projectService.deleteProject(projectId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{projectId}/members")
+    public ResponseEntity<List<ProjectMemberResponse>> getMembers(@PathVariable Long projectId) {
+        return ResponseEntity.ok(projectMemberService.getMembers(projectId));
+    }
+
+    // Thêm thành viên hoặc đổi quyền của thành viên
+    @PutMapping("/{projectId}/members/{userId}")
+    public ResponseEntity<ProjectMemberResponse> putMember(@PathVariable Long projectId, @PathVariable Long userId,
+                                                           @Valid @RequestBody ProjectMemberRequest memberRequest) {
+        return ResponseEntity.ok(projectMemberService.putMember(projectId, userId, memberRequest));
+    }
+
+    @DeleteMapping("/{projectId}/members/{userId}")
+    public ResponseEntity<Void> removeMember(@PathVariable Long projectId, @PathVariable Long userId) {
+        projectMemberService.removeMember(projectId, userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{projectId}/workflow")
+    public ResponseEntity<WorkflowResponse> getWorkflow(@PathVariable Long projectId) {
+        return ResponseEntity.ok(workflowService.getWorkflow(projectId));
+    }
+
+    // Thay toàn bộ quy trình của dự án (các trạng thái và những lần chuyển được phép)
+    @PutMapping("/{projectId}/workflow")
+    public ResponseEntity<WorkflowResponse> putWorkflow(@PathVariable Long projectId, @Valid @RequestBody WorkflowRequest workflowRequest) {
+        return ResponseEntity.ok(workflowService.updateWorkflow(projectId, workflowRequest));
+    }
+
+    // Quay về quy trình mặc định (mỗi TaskStatus một trạng thái, chuyển tự do)
+    @DeleteMapping("/{projectId}/workflow")
+    public ResponseEntity<Void> resetWorkflow(@PathVariable Long projectId) {
+        workflowService.resetWorkflow(projectId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{projectId}/labels")
+    public ResponseEntity<List<LabelResponse>> getLabels(@PathVariable Long projectId) {
+        return ResponseEntity.ok(labelService.getLabels(projectId));
+    }
+
+    @PostMapping("/{projectId}/labels")
+    public ResponseEntity<LabelResponse> createLabel(@PathVariable Long projectId, @Valid @RequestBody LabelRequest labelRequest) {
+        return new ResponseEntity<>(labelService.createLabel(projectId, labelRequest), HttpStatus.CREATED);
+    }
+
+    @PutMapping("/{projectId}/labels/{labelId}")
+    public ResponseEntity<LabelResponse> updateLabel(@PathVariable Long projectId, @PathVariable Long labelId,
+                                                     @Valid @RequestBody LabelRequest labelRequest) {
+        return ResponseEntity.ok(labelService.updateLabel(projectId, labelId, labelRequest));
+    }
+
+    // Xoá nhãn cũng gỡ nhãn khỏi mọi task của dự án
+    @DeleteMapping("/{projectId}/labels/{labelId}")
+    public ResponseEntity<Void> deleteLabel(@PathVariable Long projectId, @PathVariable Long labelId) {
+        labelService.deleteLabel(projectId, labelId);
         return ResponseEntity.noContent().build();
     }
 }
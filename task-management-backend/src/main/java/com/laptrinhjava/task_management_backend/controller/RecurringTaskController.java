@@ -0,0 +1,49 @@
+package com.laptrinhjava.task_management_backend.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.laptrinhjava.task_management_backend.dto.RecurringTaskRequest;
+import com.laptrinhjava.task_management_backend.dto.RecurringTaskResponse;
+import com.laptrinhjava.task_management_backend.service.RecurringTaskService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api")
+public class RecurringTaskController {
+
+    private final RecurringTaskService recurringTaskService;
+
+    @Autowired
+    public RecurringTaskController(RecurringTaskService recurringTaskService) {
+        this.recurringTaskService = recurringTaskService;
+    }
+
+    @PostMapping("/projects/{projectId}/recurring-tasks")
+    public ResponseEntity<RecurringTaskResponse> createTemplate(@PathVariable Long projectId,
+                                                                @Valid @RequestBody RecurringTaskRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(recurringTaskService.createTemplate(projectId, request));
+    }
+
+    @GetMapping("/projects/{projectId}/recurring-tasks")
+    public ResponseEntity<List<RecurringTaskResponse>> getTemplates(@PathVariable Long projectId) {
+        return ResponseEntity.ok(recurringTaskService.getTemplatesForCurrentUser(projectId));
+    }
+
+    @DeleteMapping("/recurring-tasks/{templateId}")
+    public ResponseEntity<Void> deleteTemplate(@PathVariable Long templateId) {
+        recurringTaskService.deleteTemplate(templateId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,11 +13,35 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.laptrinhjava.task_management_backend.dto.BoardResponse;
+import com.laptrinhjava.task_management_backend.dto.BulkTaskRequest;
+import com.laptrinhjava.task_management_backend.dto.BulkTaskResponse;
+import com.laptrinhjava.task_management_backend.dto.DependencyAnalysisResponse;
+import com.laptrinhjava.task_management_backend.dto.NextTaskResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskDependenciesResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskDependencyRequest;
+import com.laptrinhjava.task_management_backend.dto.TaskFilter;
+import com.laptrinhjava.task_management_backend.dto.TaskHistoryResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskLabelsRequest;
+import com.laptrinhjava.task_management_backend.dto.TaskPageResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskParentRequest;
+import com.laptrinhjava.task_management_backend.dto.TaskProgressResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskMoveRequest;
 import com.laptrinhjava.task_management_backend.dto.TaskRequest;
 import com.laptrinhjava.task_management_backend.dto.TaskResponse;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+import com.laptrinhjava.task_management_backend.service.DependencyService;
+import com.laptrinhjava.task_management_backend.service.IdempotencyService;
+import com.laptrinhjava.task_management_backend.service.ShardedTaskQueryService;
+import com.laptrinhjava.task_management_backend.service.ShardedTaskWriteService;
+import com.laptrinhjava.task_management_backend.service.SingleFlight;
+import com.laptrinhjava.task_management_backend.service.TaskArchiveService;
+import com.laptrinhjava.task_management_backend.service.TaskBulkService;
 import com.laptrinhjava.task_management_backend.service.TaskService;
 
 import jakarta.validation.Valid;
@@ -25,47 +50,197 @@ import jakarta.validation.Valid;
 @RequestMapping("/api")
 public class TaskController {
 
+    public static final String HEADER_TOTAL_COUNT = "X-Total-Count";
+    public static final String HEADER_HAS_NEXT = "X-Has-Next";
+
     private final TaskService taskService;
+    private final IdempotencyService idempotencyService;
+    private final SingleFlight singleFlight;
+    private final ShardedTaskQueryService shardedTaskQueryService;
+    private final TaskArchiveService taskArchiveService;
+    private final DependencyService dependencyService;
+    private final TaskBulkService taskBulkService;
+    private final ShardedTaskWriteService shardedTaskWriteService;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, IdempotencyService idempotencyService, SingleFlight singleFlight,
+                          ShardedTaskQueryService shardedTaskQueryService, TaskArchiveService taskArchiveService,
+                          DependencyService dependencyService, TaskBulkService taskBulkService,
+                          ShardedTaskWriteService shardedTaskWriteService) {
         this.taskService = taskService;
+        this.idempotencyService = idempotencyService;
+        this.singleFlight = singleFlight;
+        this.shardedTaskQueryService = shardedTaskQueryService;
+        this.taskArchiveService = taskArchiveService;
+        this.dependencyService = dependencyService;
+        this.taskBulkService = taskBulkService;
+        this.shardedTaskWriteService = shardedTaskWriteService;
     }
 
     @PostMapping("/tasks")
-    public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody TaskRequest taskRequest) {
-        TaskResponse createdTaskDto = taskService.createTask(taskRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTaskDto);
+    public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody TaskRequest taskRequest,
+                                                   @RequestHeader(value = IdempotencyService.HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        IdempotencyService.Result<TaskResponse> result = idempotencyService.execute(idempotencyKey, "POST /api/tasks",
+                taskRequest, TaskResponse.class, () -> shardedTaskWriteService.createTask(taskRequest));
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.replayed()) {
+            response.header(IdempotencyService.HEADER_REPLAYED, "true");
+        }
+        return response.body(result.body());
+    }
+
+    // Đổi trạng thái, người được giao, dự án hoặc xoá nhiều task theo danh sách id hoặc filter
+    @PostMapping("/tasks:bulk")
+    public ResponseEntity<BulkTaskResponse> bulkUpdateTasks(@Valid @RequestBody BulkTaskRequest bulkRequest,
+                                                            @RequestHeader(value = IdempotencyService.HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        IdempotencyService.Result<BulkTaskResponse> result = idempotencyService.execute(idempotencyKey, "POST /api/tasks:bulk",
+                bulkRequest, BulkTaskResponse.class, () -> taskBulkService.execute(bulkRequest));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (result.replayed()) {
+            response.header(IdempotencyService.HEADER_REPLAYED, "true");
+        }
+        return response.body(result.body());
     }
 
     @GetMapping("/projects/{projectId}/tasks")
-    public ResponseEntity<List<TaskResponse>> getAllTasksByProjectId(@PathVariable Long projectId) {
-        List<TaskResponse> tasks = taskService.getAllTasksByProjectIdForCurrentUser(projectId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskResponse>> getAllTasksByProjectId(@PathVariable Long projectId, TaskFilter filter) {
+        TaskPageResponse tasks = singleFlight.executeForCurrentUser("projects.tasks",
+                () -> taskService.findTasksByProjectIdForCurrentUser(projectId, filter), projectId, filter);
+        return toListResponse(tasks);
     }
     
+    @GetMapping("/projects/{projectId}/board")
+    public ResponseEntity<BoardResponse> getBoard(@PathVariable Long projectId,
+                                                  @RequestParam(required = false) TaskStatus status,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "50") int size) {
+        BoardResponse board = singleFlight.executeForCurrentUser("projects.board",
+                () -> taskService.getBoardForCurrentUser(projectId, status, cursor, size), projectId, status, cursor, size);
+        return ResponseEntity.ok(board);
+    }
+
+    // Task nào đang bị chặn và đường găng của dự án
+    @GetMapping("/projects/{projectId}/dependencies")
+    public ResponseEntity<DependencyAnalysisResponse> getProjectDependencies(@PathVariable Long projectId) {
+        return ResponseEntity.ok(singleFlight.executeForCurrentUser("projects.dependencies",
+                () -> dependencyService.analyzeProjectForCurrentUser(projectId), projectId));
+    }
+
+    // Mọi task nhìn thấy được: dự án của mình, dự án được chia sẻ và task được giao
+    @GetMapping("/tasks")
+    public ResponseEntity<List<TaskResponse>> getVisibleTasks(TaskFilter filter) {
+        TaskPageResponse tasks = singleFlight.executeForCurrentUser("tasks.visible",
+                () -> shardedTaskQueryService.findTasksVisibleToCurrentUser(filter), filter);
+        return toListResponse(tasks);
+    }
+
     @GetMapping("/tasks/assigned")
-    public ResponseEntity<List<TaskResponse>> getAllTasksAssignedToCurrentUser() {
-        List<TaskResponse> tasks = taskService.getAllTasksAssignedToCurrentUser();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<List<TaskResponse>> getAllTasksAssignedToCurrentUser(TaskFilter filter) {
+        TaskPageResponse tasks = singleFlight.executeForCurrentUser("tasks.assigned",
+                () -> shardedTaskQueryService.findTasksAssignedToCurrentUser(filter), filter);
+        return toListResponse(tasks);
+    }
+
+    // Các task mở được giao cho tôi nên làm tiếp theo, xếp theo độ ưu tiên, hạn chót và tuổi task
+    @GetMapping("/tasks/next")
+    public ResponseEntity<List<NextTaskResponse>> getNextTasks(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(singleFlight.executeForCurrentUser("tasks.next",
+                () -> shardedTaskQueryService.findNextTasksForCurrentUser(limit), limit));
     }
 
     @GetMapping("/tasks/{taskId}")
     public ResponseEntity<TaskResponse> getTaskById(@PathVariable Long taskId) {
-        Optional<TaskResponse> taskDto = taskService.getTaskByIdForCurrentUser(taskId);
+        Optional<TaskResponse> taskDto = singleFlight.executeForCurrentUser("tasks.get",
+                () -> taskService.getTaskByIdForCurrentUser(taskId), taskId);
         return taskDto.map(ResponseEntity::ok)
                       .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/tasks/{taskId}/history")
+    public ResponseEntity<List<TaskHistoryResponse>> getTaskHistory(@PathVariable Long taskId,
+                                                                    @RequestParam(defaultValue = "0") int page,
+                                                                    @RequestParam(defaultValue = "50") int size) {
+        Page<TaskHistoryResponse> history = taskService.getTaskHistoryForCurrentUser(taskId, page, size);
+        return ResponseEntity.ok()
+                .header(HEADER_TOTAL_COUNT, String.valueOf(history.getTotalElements()))
+                .header(HEADER_HAS_NEXT, String.valueOf(history.hasNext()))
+                .body(history.getContent());
+    }
+
     @PutMapping("/tasks/{taskId}")
     public ResponseEntity<TaskResponse> updateTask(@PathVariable Long taskId, @Valid @RequestBody TaskRequest taskRequest) {
-        TaskResponse updatedTaskDto = taskService.updateTask(taskId, taskRequest);
+        TaskResponse updatedTaskDto = shardedTaskWriteService.updateTask(taskId, taskRequest);
         return ResponseEntity.ok(updatedTaskDto);
     }
 
+    @GetMapping("/tasks/{taskId}/subtree")
+    public ResponseEntity<List<TaskResponse>> getSubtree(@PathVariable Long taskId,
+                                                         @RequestParam(required = false) Integer maxDepth) {
+        // Không truyền maxDepth: lấy toàn bộ cây con
+        int depth = maxDepth != null ? maxDepth : Integer.MAX_VALUE;
+        return ResponseEntity.ok(singleFlight.executeForCurrentUser("tasks.subtree",
+                () -> taskService.getSubtreeForCurrentUser(taskId, depth), taskId, depth));
+    }
+
+    @GetMapping("/tasks/{taskId}/progress")
+    public ResponseEntity<List<TaskProgressResponse>> getProgress(@PathVariable Long taskId) {
+        return ResponseEntity.ok(singleFlight.executeForCurrentUser("tasks.progress",
+                () -> taskService.getProgressForCurrentUser(taskId), taskId));
+    }
+
+    @PutMapping("/tasks/{taskId}/parent")
+    public ResponseEntity<TaskResponse> changeParent(@PathVariable Long taskId, @RequestBody TaskParentRequest parentRequest) {
+        return ResponseEntity.ok(taskService.changeParent(taskId, parentRequest));
+    }
+
+    @GetMapping("/tasks/{taskId}/dependencies")
+    public ResponseEntity<TaskDependenciesResponse> getDependencies(@PathVariable Long taskId) {
+        return ResponseEntity.ok(singleFlight.executeForCurrentUser("tasks.dependencies",
+                () -> dependencyService.getTaskDependenciesForCurrentUser(taskId), taskId));
+    }
+
+    @PostMapping("/tasks/{taskId}/dependencies")
+    public ResponseEntity<TaskDependenciesResponse> addDependency(@PathVariable Long taskId,
+                                                                  @Valid @RequestBody TaskDependencyRequest dependencyRequest) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(dependencyService.addDependency(taskId, dependencyRequest));
+    }
+
+    @DeleteMapping("/tasks/{taskId}/dependencies/{blockedByTaskId}")
+    public ResponseEntity<Void> removeDependency(@PathVariable Long taskId, @PathVariable Long blockedByTaskId) {
+        dependencyService.removeDependency(taskId, blockedByTaskId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Thay toàn bộ nhãn của task
+    @PutMapping("/tasks/{taskId}/labels")
+    public ResponseEntity<TaskResponse> setLabels(@PathVariable Long taskId, @Valid @RequestBody TaskLabelsRequest labelsRequest) {
+        return ResponseEntity.ok(taskService.setLabels(taskId, labelsRequest));
+    }
+
+    @PutMapping("/tasks/{taskId}/position")
+    public ResponseEntity<TaskResponse> moveTask(@PathVariable Long taskId, @RequestBody TaskMoveRequest moveRequest) {
+        return ResponseEntity.ok(taskService.moveTask(taskId, moveRequest));
+    }
+
+    // Đưa task đã lưu trữ trở lại danh sách đang hoạt động
+    @PostMapping("/tasks/{taskId}/restore")
+    public ResponseEntity<TaskResponse> restoreTask(@PathVariable Long taskId) {
+        return ResponseEntity.ok(taskArchiveService.restore(taskId));
+    }
+
     @DeleteMapping("/tasks/{taskId}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long taskId) {
         taskService.deleteTask(taskId);
         return ResponseEntity.noContent().build();
     }
+
+    // Giữ body là mảng task như cũ (frontend không phải đổi), thông tin phân trang đưa vào header
+    private ResponseEntity<List<TaskResponse>> toListResponse(TaskPageResponse page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HEADER_HAS_NEXT, String.valueOf(page.isHasNext()));
+        if (page.getTotalElements() != null) {
+            response.header(HEADER_TOTAL_COUNT, String.valueOf(page.getTotalElements()));
+        }
+        return response.body(page.getContent());
+    }
 }
@@ -0,0 +1,23 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsPoint {
+    // Ngày đầu của ô (tuần bắt đầu từ thứ Hai), ngày cuối đã được cắt theo khoảng from/to
+    private LocalDate start;
+    private LocalDate end;
+    // Số task chuyển sang DONE trong ô và số task trong đó hoàn thành sau hạn chót
+    private long completed;
+    private long completedLate;
+    // Thời gian trung bình từ lúc tạo tới lúc hoàn thành (giờ), null nếu không có task hoàn thành
+    private Double averageCycleTimeHours;
+    // Số task quá hạn chưa xong ở ảnh chụp gần nhất trong ô, null nếu chưa có ảnh chụp nào
+    private Long overdueOpen;
+}
@@ -0,0 +1,20 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsResponse {
+    private LocalDate from;
+    private LocalDate to;
+    // "day" hoặc "week"
+    private String granularity;
+    // Mọi ô trong khoảng (kể cả ô không có số liệu), tăng dần theo ngày
+    private List<AnalyticsPoint> points;
+}
@@ -0,0 +1,22 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardColumnResponse {
+    private TaskStatus status;
+    // Đã sắp theo vị trí trong cột
+    private List<TaskResponse> tasks;
+    private long totalElements;
+    private boolean hasNext;
+    // Truyền lại qua ?status=...&cursor=... để lấy trang tiếp theo của riêng cột này
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardResponse {
+    private Long projectId;
+    // Mỗi TaskStatus một cột, theo thứ tự khai báo của enum
+    private List<BoardColumnResponse> columns;
+}
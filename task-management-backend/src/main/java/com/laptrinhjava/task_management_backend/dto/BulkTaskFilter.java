@@ -0,0 +1,25 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDate;
+
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Chọn task cho thao tác hàng loạt theo điều kiện (kết hợp AND), luôn trong phạm vi các dự án của người dùng.
+ * Phải có ít nhất một điều kiện.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskFilter {
+    private Long projectId;
+    private TaskStatus status;
+    private Long assigneeId;
+    // Khoảng hạn chót (bao gồm cả hai đầu)
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+}
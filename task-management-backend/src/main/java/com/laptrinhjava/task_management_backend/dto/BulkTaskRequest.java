@@ -0,0 +1,36 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import com.laptrinhjava.task_management_backend.model.BulkTaskOperation;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * POST /api/tasks:bulk — chọn task bằng taskIds hoặc filter (chỉ một trong hai), rồi áp một thao tác:
+ * SET_STATUS (status), SET_ASSIGNEE (assigneeId), MOVE_TO_PROJECT (targetProjectId) hoặc DELETE.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskRequest {
+
+    @NotNull(message = "Thao tác không được để trống")
+    private BulkTaskOperation operation;
+
+    private List<Long> taskIds;
+
+    @Valid
+    private BulkTaskFilter filter;
+
+    private TaskStatus status;
+
+    private Long assigneeId;
+
+    private Long targetProjectId;
+}
@@ -0,0 +1,22 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import com.laptrinhjava.task_management_backend.model.BulkTaskOperation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskResponse {
+    private BulkTaskOperation operation;
+    // Số task khớp điều kiện trong các dự án của người dùng
+    private int matched;
+    // Số task thực sự thay đổi (task đã có sẵn giá trị đích không được tính); với DELETE gồm cả task con
+    private int affected;
+    // Các id trong taskIds không tồn tại hoặc không thuộc dự án của người dùng
+    private List<Long> skippedTaskIds;
+}
@@ -0,0 +1,26 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarBucketResponse {
+    // Ngày đầu của ô (tuần bắt đầu từ thứ Hai), ngày cuối đã được cắt theo khoảng from/to
+    private LocalDate start;
+    private LocalDate end;
+    // Số task đến hạn trong ô theo trạng thái (chỉ các trạng thái có task)
+    private Map<TaskStatus, Long> counts;
+    private long total;
+    // Tối đa limit task đầu tiên, sắp theo hạn chót rồi theo id
+    private List<TaskResponse> tasks;
+    private boolean hasMore;
+}
@@ -0,0 +1,20 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarResponse {
+    private LocalDate from;
+    private LocalDate to;
+    // "day" hoặc "week"
+    private String granularity;
+    // Chỉ các ô có task, tăng dần theo ngày
+    private List<CalendarBucketResponse> buckets;
+}
@@ -0,0 +1,19 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CriticalPathTaskResponse {
+    private Long taskId;
+    private LocalDate dueDate;
+    // Ngày sớm nhất task có thể xong nếu mọi task chưa xong mất app.dependencies.task-duration-days ngày
+    private LocalDate earliestFinish;
+    // Số ngày còn dư so với hạn chót (âm: trễ hạn), null nếu task không có hạn chót
+    private Long slackDays;
+}
@@ -0,0 +1,23 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DependencyAnalysisResponse {
+    private Long projectId;
+    private int taskCount;
+    private int dependencyCount;
+    // Các task đang bị chặn, tăng dần theo id
+    private List<Long> blockedTaskIds;
+    // Ngày sớm nhất mọi task trong dự án có thể xong
+    private LocalDate projectedFinish;
+    // Chuỗi phụ thuộc quyết định việc trễ hạn (hoặc ngày xong) của dự án, theo thứ tự thực hiện
+    private List<CriticalPathTaskResponse> criticalPath;
+}
@@ -0,0 +1,20 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LabelRequest {
+
+    @NotBlank(message = "Tên nhãn không được để trống")
+    @Size(max = 50, message = "Tên nhãn tối đa 50 ký tự")
+    private String name;
+
+    @Size(max = 20, message = "Màu nhãn tối đa 20 ký tự")
+    private String color;
+}
@@ -0,0 +1,18 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LabelResponse {
+    private Long id;
+    private Long projectId;
+    private String name;
+    private String color;
+    private LocalDateTime createdAt;
+}
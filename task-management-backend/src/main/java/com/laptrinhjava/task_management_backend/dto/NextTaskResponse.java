@@ -0,0 +1,16 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một task trong danh sách "nên làm tiếp theo" (GET /api/tasks/next), kèm điểm dùng để xếp hạng (cao hơn làm trước).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NextTaskResponse {
+    private double score;
+    private TaskResponse task;
+}
@@ -0,0 +1,18 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResponse {
+    private Long id;
+    private Long taskId;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime readAt;
+}
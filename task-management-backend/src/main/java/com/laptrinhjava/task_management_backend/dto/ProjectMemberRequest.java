@@ -0,0 +1,17 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectMemberRequest {
+
+    @NotNull(message = "Quyền (role) không được để trống")
+    private ProjectRole role;
+}
@@ -0,0 +1,20 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectMemberResponse {
+    private Long userId;
+    private String name;
+    private String email;
+    private ProjectRole role;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,37 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDate;
+
+import com.laptrinhjava.task_management_backend.model.RecurrenceFrequency;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringTaskRequest {
+    @NotBlank(message = "Tiêu đề không được để trống")
+    private String title;
+
+    private String description;
+
+    @NotNull(message = "Chu kỳ lặp không được để trống")
+    private RecurrenceFrequency frequency;
+
+    // Lặp mỗi N ngày/tuần/tháng
+    @Min(value = 1, message = "Khoảng lặp phải >= 1")
+    private int repeatInterval = 1;
+
+    // Hạn chót của task đầu tiên
+    @NotNull(message = "Ngày bắt đầu không được để trống")
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private Long assigneeId;
+}
@@ -0,0 +1,31 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.laptrinhjava.task_management_backend.model.RecurrenceFrequency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringTaskResponse {
+    private Long id;
+    private Long projectId;
+    private String title;
+    private String description;
+    private RecurrenceFrequency frequency;
+    private int repeatInterval;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Long assigneeId;
+    private long generatedCount;
+    // Hạn chót của task gần nhất đã được tạo
+    private LocalDate lastGeneratedDate;
+    // Hạn chót của task kế tiếp sẽ được tạo (null: đã hết lịch)
+    private LocalDate nextDueDate;
+    private LocalDateTime createdAt;
+}
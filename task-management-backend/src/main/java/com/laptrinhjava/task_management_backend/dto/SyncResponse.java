@@ -0,0 +1,22 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponse {
+    // Các dự án/task được tạo hoặc cập nhật kể từ token cũ (client upsert theo id)
+    private List<ProjectResponseDTO> projects;
+    private List<TaskResponse> tasks;
+    // Các bản ghi đã bị xoá kể từ token cũ
+    private List<SyncTombstoneDTO> deleted;
+    // Token gửi lại ở lần đồng bộ kế tiếp
+    private String token;
+    // true: đây là ảnh chụp đầy đủ, client phải thay thế toàn bộ dữ liệu cục bộ
+    private boolean fullResync;
+}
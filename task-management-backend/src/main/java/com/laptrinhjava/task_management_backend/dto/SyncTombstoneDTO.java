@@ -0,0 +1,18 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.laptrinhjava.task_management_backend.model.SyncEntityType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncTombstoneDTO {
+    private SyncEntityType type;
+    private Long id;
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,20 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDependenciesResponse {
+    private Long taskId;
+    // Task chưa xong và còn ít nhất một task chặn chưa xong
+    private boolean blocked;
+    // Các task phải xong trước task này
+    private List<Long> blockedBy;
+    // Các task đang chờ task này
+    private List<Long> blocking;
+}
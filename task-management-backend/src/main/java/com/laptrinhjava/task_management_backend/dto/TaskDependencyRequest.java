@@ -0,0 +1,15 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDependencyRequest {
+    // Task phải xong trước (cùng dự án)
+    @NotNull(message = "blockedByTaskId không được để trống")
+    private Long blockedByTaskId;
+}
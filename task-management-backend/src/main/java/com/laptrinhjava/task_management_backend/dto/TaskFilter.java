@@ -0,0 +1,66 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bộ lọc dùng chung cho mọi endpoint trả về danh sách task.
+ * Các tham số được bind trực tiếp từ query string, ví dụ:
+ * {@code ?status=TODO,IN_PROGRESS&dueFrom=2025-01-01&labels=bug,backend&excludeLabels=blocked&q=Thiết kế&page=0&size=50&count=false}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFilter {
+
+    // Trạng thái (status IN ...)
+    private List<TaskStatus> status;
+
+    // Khoảng hạn chót (bao gồm cả hai đầu)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;
+
+    // Tập dự án (project_id IN ...)
+    private List<Long> projectIds;
+
+    private Long assigneeId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdSince;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedSince;
+
+    // Nhãn (theo tên, không phân biệt hoa thường): task phải có đủ mọi nhãn trong labels và không có nhãn nào trong excludeLabels
+    private List<String> labels;
+    private List<String> excludeLabels;
+
+    // Tiền tố tiêu đề (title LIKE 'q%'), dùng được index trên cột title
+    private String q;
+
+    // Phân trang: size == null nghĩa là trả về toàn bộ (giữ tương thích với frontend cũ)
+    private Integer page;
+    private Integer size;
+
+    // Sắp xếp theo một trong các trường: id, dueDate, createdAt, updatedAt, title
+    private String sort;
+    private String direction;
+
+    // Tắt câu lệnh COUNT khi client không cần tổng số bản ghi
+    private boolean count = true;
+
+    // Đọc thêm bảng lưu trữ tasks_archive (mặc định chỉ đọc bảng tasks)
+    private boolean includeArchived;
+}
@@ -0,0 +1,22 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.laptrinhjava.task_management_backend.model.TaskHistoryField;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskHistoryResponse {
+    private Long id;
+    private Long taskId;
+    private Long actorId;
+    private TaskHistoryField field;
+    private String oldValue;
+    private String newValue;
+    private LocalDateTime changedAt;
+}
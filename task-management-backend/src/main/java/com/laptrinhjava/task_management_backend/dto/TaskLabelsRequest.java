@@ -0,0 +1,18 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Thay toàn bộ nhãn của task; danh sách rỗng là gỡ hết nhãn
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskLabelsRequest {
+
+    @NotNull(message = "Danh sách nhãn (labelIds) không được để trống")
+    private List<Long> labelIds;
+}
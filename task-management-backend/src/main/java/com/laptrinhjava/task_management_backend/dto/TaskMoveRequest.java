@@ -0,0 +1,26 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Kéo thả trên bảng Kanban: đặt task vào cột {@code status}, ngay sau previousTaskId và/hoặc ngay trước nextTaskId.
+ * Chỉ cần gửi một trong hai; không gửi cả hai nghĩa là đưa xuống cuối cột.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskMoveRequest {
+    // null: giữ nguyên cột hiện tại
+    private TaskStatus status;
+
+    // Tên trạng thái trong quy trình của dự án; cột Kanban là nhóm TaskStatus của trạng thái này
+    private String state;
+
+    private Long previousTaskId;
+
+    private Long nextTaskId;
+}
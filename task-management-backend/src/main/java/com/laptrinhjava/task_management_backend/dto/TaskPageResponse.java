@@ -0,0 +1,19 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPageResponse {
+    private List<TaskResponse> content;
+    private int page;
+    private int size;
+    // null khi client tắt count (count=false)
+    private Long totalElements;
+    private boolean hasNext;
+}
@@ -0,0 +1,13 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskParentRequest {
+    // null: tách task (cùng cây con của nó) ra thành task gốc
+    private Long parentTaskId;
+}
@@ -0,0 +1,17 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tiến độ cộng dồn của một task cha: tính trên mọi cấp task con (không tính task đã lưu trữ).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskProgressResponse {
+    private Long taskId;
+    private long totalDescendants;
+    private long completedDescendants;
+}
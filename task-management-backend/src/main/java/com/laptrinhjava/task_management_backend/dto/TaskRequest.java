@@ -2,10 +2,10 @@ package com.laptrinhjava.task_management_backend.dto;
 
 import java.time.LocalDate;
 
+import com.laptrinhjava.task_management_backend.model.TaskPriority;
 import com.laptrinhjava.task_management_backend.model.TaskStatus;
 
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,14 +19,23 @@ public class TaskRequest {
 
     private String description;
 
-    @NotNull(message = "Trạng thái không được để trống")
+    // Có thể bỏ trống nếu gửi state (status khi đó là nhóm của state)
     private TaskStatus status;
 
+    // Tên trạng thái trong quy trình của dự án (xem /api/projects/{id}/workflow); null thì chọn theo status
+    private String state;
+
     private LocalDate dueDate;
 
+    // Bỏ trống khi tạo thì là MEDIUM, khi cập nhật thì giữ nguyên mức hiện tại
+    private TaskPriority priority;
+
     // Trường này BẮT BUỘC phải có
     private Long projectId; 
     
     // Trường này BẮT BUỘC phải có
     private Long assigneeId;
+
+    // Chỉ dùng khi tạo task con; đổi task cha qua PUT /api/tasks/{id}/parent
+    private Long parentTaskId;
 }
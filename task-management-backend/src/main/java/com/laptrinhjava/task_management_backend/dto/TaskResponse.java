@@ -2,7 +2,9 @@ package com.laptrinhjava.task_management_backend.dto;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
+import com.laptrinhjava.task_management_backend.model.TaskPriority;
 import com.laptrinhjava.task_management_backend.model.TaskStatus;
 
 import lombok.AllArgsConstructor;
@@ -20,9 +22,18 @@ public class TaskResponse {
     private LocalDate dueDate;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-    // Các trường này BẮT BUỘC phải có để khớp với constructor 11 tham số
+    // Các trường này BẮT BUỘC phải có để khớp với constructor 13 tham số
     private Long projectId;
     private String projectName;
     private Long assigneeId;
     private String assigneeName;
+    // true nếu task đang nằm trong bảng lưu trữ (chỉ xuất hiện khi gọi với includeArchived=true)
+    private boolean archived;
+    // Task cha trực tiếp, null nếu là task gốc
+    private Long parentTaskId;
+    // Tên trạng thái trong quy trình của dự án (thuộc nhóm status)
+    private String state;
+    // Tên các nhãn của task (theo thứ tự tên); null với task đã lưu trữ
+    private List<String> labels;
+    private TaskPriority priority;
 }
@@ -0,0 +1,19 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Thay toàn bộ quy trình của dự án; thứ tự các trạng thái là thứ tự hiển thị
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowRequest {
+
+    @NotEmpty(message = "Quy trình phải có ít nhất một trạng thái")
+    private List<@Valid WorkflowStateDTO> states;
+}
@@ -0,0 +1,17 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowResponse {
+    private Long projectId;
+    // false: dự án đang dùng quy trình mặc định (mỗi TaskStatus một trạng thái, chuyển tự do)
+    private boolean custom;
+    private List<WorkflowStateDTO> states;
+}
@@ -0,0 +1,31 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.util.List;
+
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một trạng thái của quy trình: tên (duy nhất trong dự án, không phân biệt hoa thường), nhóm TaskStatus
+ * và tên các trạng thái được phép chuyển tới.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowStateDTO {
+
+    @NotBlank(message = "Tên trạng thái không được để trống")
+    @Size(max = 50, message = "Tên trạng thái tối đa 50 ký tự")
+    private String name;
+
+    @NotNull(message = "Nhóm trạng thái (category) không được để trống")
+    private TaskStatus category;
+
+    private List<String> transitions;
+}
@@ -0,0 +1,89 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Task đã hoàn thành/huỷ được chuyển khỏi bảng tasks (bảng "nóng") sang tasks_archive.
+ * Cùng tên thuộc tính với {@link Task} để dùng chung TaskSpecifications; id giữ nguyên id gốc.
+ */
+@Entity
+@Table(name = "tasks_archive", indexes = {
+    @Index(name = "idx_tasks_archive_project_status", columnList = "project_id, status"),
+    @Index(name = "idx_tasks_archive_assignee_status", columnList = "assignee_id, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedTask {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Giữ vị trí Kanban để khôi phục về đúng chỗ cũ
+    @Column(name = "board_rank", length = 64)
+    private String boardRank;
+
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "workflow_state")
+    private Short workflowState;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private TaskPriority priority;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id")
+    @ToString.Exclude
+    private Project project;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assignee_id")
+    @ToString.Exclude
+    private User assignee;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
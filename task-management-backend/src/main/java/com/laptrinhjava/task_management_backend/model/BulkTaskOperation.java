@@ -0,0 +1,8 @@
+package com.laptrinhjava.task_management_backend.model;
+
+public enum BulkTaskOperation {
+    SET_STATUS,
+    SET_ASSIGNEE,
+    MOVE_TO_PROJECT,
+    DELETE
+}
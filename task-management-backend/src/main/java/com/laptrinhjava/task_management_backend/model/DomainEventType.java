@@ -0,0 +1,23 @@
+package com.laptrinhjava.task_management_backend.model;
+
+/**
+ * Loại sự kiện miền được ghi vào outbox; phần trước dấu "_" là loại aggregate.
+ */
+public enum DomainEventType {
+    TASK_CREATED(SyncEntityType.TASK),
+    TASK_UPDATED(SyncEntityType.TASK),
+    TASK_DELETED(SyncEntityType.TASK),
+    PROJECT_CREATED(SyncEntityType.PROJECT),
+    PROJECT_UPDATED(SyncEntityType.PROJECT),
+    PROJECT_DELETED(SyncEntityType.PROJECT);
+
+    private final SyncEntityType aggregateType;
+
+    DomainEventType(SyncEntityType aggregateType) {
+        this.aggregateType = aggregateType;
+    }
+
+    public SyncEntityType getAggregateType() {
+        return aggregateType;
+    }
+}
@@ -0,0 +1,46 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nhãn của một dự án, lưu trên shard của chủ dự án. Tên nhãn là duy nhất trong dự án (không phân biệt hoa thường);
+ * lọc "mọi task của tôi" theo nhãn so khớp theo tên nên có thêm index trên name.
+ */
+@Entity
+@Table(name = "labels",
+    uniqueConstraints = @UniqueConstraint(name = "uk_labels_project_name", columnNames = {"project_id", "name"}),
+    indexes = @Index(name = "idx_labels_name", columnList = "name"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Label {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    // Mã màu hiển thị, ví dụ #e11d48
+    @Column(length = 20)
+    private String color;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,69 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sự kiện chờ chuyển cho các hệ thống phía sau, được ghi trong cùng giao dịch với thay đổi sinh ra nó.
+ * OutboxRelay đọc theo thứ tự id (khoá chính) và xoá sau khi đã chuyển xong.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private SyncEntityType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 40)
+    private DomainEventType eventType;
+
+    // Chủ dự án: dùng khi chuyển dữ liệu của một người dùng sang shard khác
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    // JSON của DTO tại thời điểm thay đổi
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEvent(DomainEventType eventType, Long aggregateId, Long ownerId, String payload) {
+        this.aggregateType = eventType.getAggregateType();
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.ownerId = ownerId;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
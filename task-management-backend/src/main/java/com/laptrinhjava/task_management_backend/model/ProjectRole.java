@@ -0,0 +1,16 @@
+package com.laptrinhjava.task_management_backend.model;
+
+/**
+ * Quyền của người dùng trong một dự án, xếp từ thấp tới cao: mỗi quyền bao gồm mọi quyền đứng trước nó.
+ * OWNER chỉ dành cho chủ dự án, không cấp được qua thành viên.
+ */
+public enum ProjectRole {
+    VIEWER,  // xem dự án và task
+    EDITOR,  // tạo, sửa, xoá task
+    ADMIN,   // sửa thông tin dự án và quản lý thành viên
+    OWNER;   // xoá dự án
+
+    public boolean includes(ProjectRole required) {
+        return compareTo(required) >= 0;
+    }
+}
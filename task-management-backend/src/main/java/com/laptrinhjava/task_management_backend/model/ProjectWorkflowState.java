@@ -0,0 +1,62 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một trạng thái trong quy trình (workflow) riêng của dự án, lưu trên shard của chủ dự án.
+ * stateId là số nhỏ (0..63) ghi vào tasks.workflow_state; bit thứ k của transitions bật nghĩa là được chuyển sang trạng thái k.
+ * Dự án không có dòng nào dùng quy trình mặc định theo TaskStatus.
+ */
+@Entity
+@Table(name = "project_workflow_states",
+    uniqueConstraints = @UniqueConstraint(name = "uk_project_workflow_states_project_state", columnNames = {"project_id", "state_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectWorkflowState {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "state_id", nullable = false)
+    private short stateId;
+
+    @Column(nullable = false, length = 50)
+    private String name;
+
+    // Nhóm TaskStatus của trạng thái; tasks.status luôn bằng nhóm của trạng thái hiện tại
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TaskStatus category;
+
+    @Column(nullable = false)
+    private long transitions;
+
+    // Thứ tự hiển thị; trạng thái đầu tiên của mỗi nhóm là trạng thái mặc định của nhóm đó
+    @Column(nullable = false)
+    private int position;
+
+    public ProjectWorkflowState(Long projectId, short stateId, String name, TaskStatus category, long transitions, int position) {
+        this.projectId = projectId;
+        this.stateId = stateId;
+        this.name = name;
+        this.category = category;
+        this.transitions = transitions;
+        this.position = position;
+    }
+}
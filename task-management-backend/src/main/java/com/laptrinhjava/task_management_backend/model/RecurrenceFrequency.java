@@ -0,0 +1,22 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.time.LocalDate;
+
+public enum RecurrenceFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * Ngày của lần lặp thứ {@code occurrence} (bắt đầu từ 0), luôn tính từ ngày bắt đầu
+     * để lặp theo tháng không bị trôi ngày (31/1 → 28/2 → 31/3 thay vì 28/3).
+     */
+    public LocalDate occurrence(LocalDate start, int interval, long occurrence) {
+        long steps = occurrence * interval;
+        return switch (this) {
+            case DAILY -> start.plusDays(steps);
+            case WEEKLY -> start.plusWeeks(steps);
+            case MONTHLY -> start.plusMonths(steps);
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Mẫu task lặp lại. Bộ sinh tạo trước các task trong khoảng app.recurring-tasks.horizon-days tới;
+ * next_due_date là ngày của lần lặp kế tiếp chưa được tạo (null khi đã hết lịch), nên mỗi lần chạy
+ * chỉ quét một khoảng của index next_due_date thay vì toàn bộ bảng.
+ */
+@Entity
+@Table(name = "recurring_tasks", indexes = {
+    @Index(name = "idx_recurring_tasks_next_due", columnList = "next_due_date"),
+    @Index(name = "idx_recurring_tasks_project", columnList = "project_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "project_id", nullable = false)
+    @ToString.Exclude
+    private Project project;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    // Người được giao cho các task sinh ra (null: không giao cho ai)
+    @Column(name = "assignee_id")
+    private Long assigneeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RecurrenceFrequency frequency;
+
+    // Lặp mỗi repeat_interval ngày/tuần/tháng; "interval" là từ khoá của MySQL
+    @Column(name = "repeat_interval", nullable = false)
+    private int repeatInterval;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    // Ngày cuối cùng được phép sinh task (null: lặp mãi)
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    // Số lần lặp đã sinh; lần kế tiếp là frequency.occurrence(startDate, repeatInterval, generatedCount)
+    @Column(name = "generated_count", nullable = false)
+    private long generatedCount;
+
+    @Column(name = "last_generated_date")
+    private LocalDate lastGeneratedDate;
+
+    @Column(name = "next_due_date")
+    private LocalDate nextDueDate;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,6 @@
+package com.laptrinhjava.task_management_backend.model;
+
+public enum SyncEntityType {
+    PROJECT,
+    TASK
+}
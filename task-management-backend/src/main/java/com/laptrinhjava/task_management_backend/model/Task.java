@@ -11,6 +11,7 @@ import jakarta.persistence.FetchType; // Thêm import
 import jakarta.persistence.GeneratedValue; // Giữ nguyên từ file gốc của bạn
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -24,7 +25,26 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    // Thứ tự cột khớp với thứ tự predicate trong TaskSpecifications
+    @Index(name = "idx_tasks_project_status", columnList = "project_id, status"),
+    @Index(name = "idx_tasks_assignee_status", columnList = "assignee_id, status"),
+    @Index(name = "idx_tasks_due_date", columnList = "due_date"),
+    // Lịch: khoảng hạn chót trong các dự án của người dùng hoặc trong các task được giao cho họ
+    @Index(name = "idx_tasks_project_due", columnList = "project_id, due_date"),
+    @Index(name = "idx_tasks_assignee_due", columnList = "assignee_id, due_date"),
+    // Phục vụ bộ lọc updatedSince và đồng bộ tăng dần (/api/sync)
+    @Index(name = "idx_tasks_project_updated", columnList = "project_id, updated_at"),
+    @Index(name = "idx_tasks_assignee_updated", columnList = "assignee_id, updated_at"),
+    @Index(name = "idx_tasks_title", columnList = "title"),
+    // Tác vụ lưu trữ quét task đã xong theo tuổi
+    @Index(name = "idx_tasks_status_updated", columnList = "status, updated_at"),
+    // Bảng Kanban: mỗi cột là một khoảng liên tục của index này
+    @Index(name = "idx_tasks_project_status_rank", columnList = "project_id, status, board_rank"),
+    @Index(name = "idx_tasks_parent", columnList = "parent_id"),
+    // "Việc nên làm tiếp theo": quét các task mở của một người chỉ trên index (không đọc dòng dữ liệu)
+    @Index(name = "idx_tasks_assignee_status_rank_inputs", columnList = "assignee_id, status, priority, due_date, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -54,6 +74,36 @@ public class Task {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Vị trí trong cột Kanban (xem LexicographicRank); "rank" là từ khoá của MySQL 8 nên đặt tên board_rank
+    @Column(name = "board_rank", length = 64)
+    private String boardRank;
+
+    // Task cha trực tiếp (null: task gốc). Quan hệ nhiều cấp được lưu trong bảng task_closure
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // Hạn chót đã được nhắc gần nhất; chỉ ReminderScheduler ghi cột này (bằng một UPDATE có điều kiện).
+    // Đổi hạn chót làm hai giá trị lệch nhau nên hạn mới sẽ được nhắc lại
+    @Column(name = "reminded_due_date", insertable = false, updatable = false)
+    private LocalDate remindedDueDate;
+
+    // Lần đổi trạng thái gần nhất và thời điểm hoàn thành (null nếu chưa DONE); dùng cho thống kê thời gian xử lý
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    // Trạng thái trong quy trình của dự án (ProjectWorkflowState.stateId); null hoặc không khớp status
+    // thì hiểu là trạng thái mặc định của nhóm status trong quy trình đó
+    @Column(name = "workflow_state")
+    private Short workflowState;
+
+    // null (task tạo trước khi có cột này) được hiểu là MEDIUM
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private TaskPriority priority;
+
     // Mối quan hệ với Project
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id") // Tên cột khoá ngoại trong bảng tasks
@@ -74,6 +124,25 @@ public class Task {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        statusChangedAt = createdAt;
+        if (priority == null) {
+            priority = TaskPriority.MEDIUM;
+        }
+        if (status == TaskStatus.DONE) {
+            completedAt = createdAt;
+        }
+    }
+
+    /**
+     * Đổi trạng thái và ghi lại thời điểm chuyển; không làm gì nếu trạng thái không đổi.
+     */
+    public void changeStatus(TaskStatus newStatus, LocalDateTime at) {
+        if (newStatus == status) {
+            return;
+        }
+        status = newStatus;
+        statusChangedAt = at;
+        completedAt = newStatus == TaskStatus.DONE ? at : null;
     }
 
     @PreUpdate
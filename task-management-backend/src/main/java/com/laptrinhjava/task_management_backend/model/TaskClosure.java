@@ -0,0 +1,49 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bảng bao đóng của cây task con: mỗi cặp (tổ tiên, hậu duệ) một dòng, depth là số cấp giữa hai task (>= 1).
+ * Không lưu dòng depth = 0 của chính task để bảng nhỏ hơn; các truy vấn tự thêm task gốc khi cần.
+ * Cây con của một task là một lần quét khoảng theo khoá chính (ancestor_id, descendant_id).
+ */
+@Entity
+@Table(name = "task_closure", indexes = {
+    // Tra tổ tiên của một task (khi di chuyển hoặc tính đường dẫn)
+    @Index(name = "idx_task_closure_descendant", columnList = "descendant_id, depth")
+})
+@IdClass(TaskClosure.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskClosure {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,58 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Số liệu tổng hợp theo ngày cho một cặp (dự án, người được giao; 0 = chưa giao), lưu trên shard của chủ dự án.
+ * Các cột completed_* được cộng/trừ tăng dần trong cùng giao dịch với thay đổi trạng thái task;
+ * overdue_open_count là ảnh chụp hằng ngày số task quá hạn chưa xong. Chỉ đọc/ghi bằng JDBC (xem TaskStatsService).
+ */
+@Entity
+@Table(name = "task_daily_stats",
+    uniqueConstraints = @UniqueConstraint(name = "uk_task_daily_stats_project_date_user", columnNames = {"project_id", "stat_date", "user_id"}),
+    indexes = @Index(name = "idx_task_daily_stats_user_date", columnList = "user_id, stat_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    // Số task chuyển sang DONE trong ngày (trừ đi nếu sau đó bị mở lại)
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    // Trong số đó, số task hoàn thành sau hạn chót
+    @Column(name = "completed_late_count", nullable = false)
+    private long completedLateCount;
+
+    // Tổng thời gian từ lúc tạo (TODO) tới lúc DONE của các task trên, tính bằng giây
+    @Column(name = "cycle_time_seconds", nullable = false)
+    private long cycleTimeSeconds;
+
+    @Column(name = "overdue_open_count", nullable = false)
+    private long overdueOpenCount;
+}
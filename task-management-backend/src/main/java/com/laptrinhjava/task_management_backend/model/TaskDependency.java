@@ -0,0 +1,52 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cạnh "taskId bị chặn bởi blockedById": taskId chỉ bắt đầu được khi blockedById đã xong.
+ * Hai task luôn cùng dự án; project_id được lưu kèm để nạp cả đồ thị của một dự án bằng một lần quét index.
+ */
+@Entity
+@Table(name = "task_dependencies", indexes = {
+    @Index(name = "idx_task_dependencies_project", columnList = "project_id"),
+    @Index(name = "idx_task_dependencies_blocked_by", columnList = "blocked_by_id")
+})
+@IdClass(TaskDependency.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDependency {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Id
+    @Column(name = "blocked_by_id")
+    private Long blockedById;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long taskId;
+        private Long blockedById;
+    }
+}
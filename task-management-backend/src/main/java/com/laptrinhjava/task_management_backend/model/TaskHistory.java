@@ -0,0 +1,55 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một thay đổi ở mức trường của task (append-only, không bao giờ cập nhật/xoá).
+ * Không đặt khoá ngoại tới tasks để lịch sử vẫn còn sau khi task bị xoá.
+ * Bản ghi được ghi theo lô bằng JDBC (TaskHistoryService), entity này chỉ dùng để đọc và sinh bảng.
+ */
+@Entity
+@Table(name = "task_history", indexes = {
+    @Index(name = "idx_task_history_task", columnList = "task_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    // Người thực hiện thay đổi (null nếu do hệ thống)
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TaskHistoryField field;
+
+    @Column(name = "old_value", length = 100)
+    private String oldValue;
+
+    @Column(name = "new_value", length = 100)
+    private String newValue;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,11 @@
+package com.laptrinhjava.task_management_backend.model;
+
+public enum TaskHistoryField {
+    STATUS,
+    ASSIGNEE,
+    PROJECT,
+    DUE_DATE,
+    PARENT,
+    STATE,
+    PRIORITY
+}
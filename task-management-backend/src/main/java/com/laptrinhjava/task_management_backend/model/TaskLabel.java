@@ -0,0 +1,48 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Gắn nhãn labelId cho task taskId (cùng dự án). project_id được lưu kèm để nạp bitmap nhãn của cả dự án
+ * bằng một lần quét index. Task được lưu trữ vẫn giữ các dòng này để khôi phục lại đủ nhãn.
+ */
+@Entity
+@Table(name = "task_labels", indexes = {
+    @Index(name = "idx_task_labels_project", columnList = "project_id"),
+    @Index(name = "idx_task_labels_label", columnList = "label_id")
+})
+@IdClass(TaskLabel.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskLabel {
+
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Id
+    @Column(name = "label_id")
+    private Long labelId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long taskId;
+        private Long labelId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.laptrinhjava.task_management_backend.model;
+
+// Thứ tự khai báo là thứ tự tăng dần mức ưu tiên (ordinal dùng làm trọng số khi xếp hạng task)
+public enum TaskPriority {
+    LOW("Thấp"),
+    MEDIUM("Trung bình"),
+    HIGH("Cao"),
+    URGENT("Khẩn cấp");
+
+    private final String displayName;
+
+    TaskPriority(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -1,11 +1,25 @@
 package com.laptrinhjava.task_management_backend.model;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 public enum TaskStatus {
     TODO("Cần làm"),
     IN_PROGRESS("Đang làm"),
     DONE("Hoàn thành"),
     CANCELLED("Đã hủy"); // Bạn có thể thêm hoặc bớt trạng thái tùy theo nhu cầu
 
+    // Tra theo tên enum hoặc tên hiển thị, không phân biệt hoa thường
+    private static final Map<String, TaskStatus> BY_NAME = new HashMap<>();
+
+    static {
+        for (TaskStatus status : values()) {
+            BY_NAME.put(status.name().toLowerCase(Locale.ROOT), status);
+            BY_NAME.put(status.displayName.toLowerCase(Locale.ROOT), status);
+        }
+    }
+
     private final String displayName;
 
     TaskStatus(String displayName) {
@@ -18,11 +32,6 @@ public enum TaskStatus {
 
     // Optional: một phương thức để lấy enum từ string (hữu ích khi xử lý input)
     public static TaskStatus fromString(String text) {
-        for (TaskStatus b : TaskStatus.values()) {
-            if (b.name().equalsIgnoreCase(text) || b.displayName.equalsIgnoreCase(text)) {
-                return b;
-            }
-        }
-        return null; // hoặc throw IllegalArgumentException
+        return text != null ? BY_NAME.get(text.toLowerCase(Locale.ROOT)) : null; // hoặc throw IllegalArgumentException
     }
 }
@@ -0,0 +1,40 @@
+package com.laptrinhjava.task_management_backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Thư mục shard: người dùng nào có dữ liệu nằm ở shard nào. Chỉ có ý nghĩa trên shard 0.
+ */
+@Entity
+@Table(name = "user_shards", indexes = {
+    @Index(name = "idx_user_shards_shard", columnList = "shard_id"),
+    @Index(name = "idx_user_shards_migrating", columnList = "migrating")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserShard {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "shard_id", nullable = false)
+    private Integer shardId;
+
+    // Đang được chuyển sang shard khác; các request của người dùng tạm thời bị từ chối
+    @Column(nullable = false)
+    private boolean migrating;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.laptrinhjava.task_management_backend.model.ArchivedTask;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long>, ArchivedTaskRepositoryCustom {
+
+    // Bảng lưu trữ không nằm trong cascade của Project nên phải xoá trước khi xoá dự án
+    @Modifying
+    @Query("DELETE FROM ArchivedTask a WHERE a.project.id = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query("UPDATE ArchivedTask a SET a.workflowState = NULL WHERE a.project.id = :projectId AND a.workflowState IN :states")
+    int clearWorkflowStates(@Param("projectId") Long projectId, @Param("states") List<Short> states);
+}
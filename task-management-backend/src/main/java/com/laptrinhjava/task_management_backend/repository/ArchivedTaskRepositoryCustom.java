@@ -0,0 +1,13 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.laptrinhjava.task_management_backend.model.ArchivedTask;
+
+public interface ArchivedTaskRepositoryCustom {
+
+    // Giống TaskRepositoryCustom.findAll nhưng trên bảng tasks_archive
+    Slice<ArchivedTask> findAll(Specification<ArchivedTask> spec, Pageable pageable, boolean withCount);
+}
@@ -0,0 +1,21 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.laptrinhjava.task_management_backend.model.ArchivedTask;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class ArchivedTaskRepositoryImpl implements ArchivedTaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<ArchivedTask> findAll(Specification<ArchivedTask> spec, Pageable pageable, boolean withCount) {
+        return SpecificationSliceQuery.findAll(entityManager, ArchivedTask.class, spec, pageable, withCount, "project", "assignee");
+    }
+}
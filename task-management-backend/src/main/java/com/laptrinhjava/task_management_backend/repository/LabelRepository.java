@@ -0,0 +1,27 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.laptrinhjava.task_management_backend.model.Label;
+
+public interface LabelRepository extends JpaRepository<Label, Long> {
+
+    List<Label> findByProjectIdOrderByName(Long projectId);
+
+    Optional<Label> findByIdAndProjectId(Long id, Long projectId);
+
+    // Nhãn cùng tên ở mọi dự án trên shard hiện tại (lọc "mọi task của tôi"); chỉ lấy các cột cần thiết
+    @Query("SELECT l.id, l.projectId, l.name FROM Label l WHERE l.name IN :names")
+    List<Object[]> findByNameIn(@Param("names") Collection<String> names);
+
+    @Modifying
+    @Query("DELETE FROM Label l WHERE l.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
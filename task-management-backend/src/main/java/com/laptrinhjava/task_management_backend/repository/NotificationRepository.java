@@ -0,0 +1,21 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.laptrinhjava.task_management_backend.model.Notification;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    // Mới nhất trước, quét ngược theo index (user_id, id)
+    List<Notification> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    List<Notification> findByUserIdAndReadAtIsNullOrderByIdDesc(Long userId, Pageable pageable);
+
+    Optional<Notification> findByIdAndUserId(Long id, Long userId);
+}
@@ -0,0 +1,31 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.laptrinhjava.task_management_backend.model.ProjectMember;
+
+@Repository
+public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Long> {
+
+    List<ProjectMember> findByProjectIdOrderById(Long projectId);
+
+    Optional<ProjectMember> findByProjectIdAndUserId(Long projectId, Long userId);
+
+    // (project_id, role) của mọi dự án được chia sẻ cho người dùng, quét theo index user_id
+    @Query("SELECT m.projectId, m.role FROM ProjectMember m WHERE m.userId = :userId")
+    List<Object[]> findProjectRolesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT m.userId FROM ProjectMember m WHERE m.projectId = :projectId")
+    List<Long> findUserIdsByProjectId(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query("DELETE FROM ProjectMember m WHERE m.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
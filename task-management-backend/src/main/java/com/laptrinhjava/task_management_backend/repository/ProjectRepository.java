@@ -1,13 +1,19 @@
 package com.laptrinhjava.task_management_backend.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional; // Cần thiết nếu bạn có phương thức tìm theo đối tượng User
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository; // Nếu dùng custom query với @Query
 
 import com.laptrinhjava.task_management_backend.model.Project;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 
@@ -22,6 +28,18 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     // Hữu ích để kiểm tra quyền sở hữu trước khi cho phép thao tác (xem, sửa, xóa)
     Optional<Project> findByIdAndOwnerId(Long id, Long ownerId);
 
+    // Chỉ lấy ID các project của owner (không nạp entity)
+    @Query("SELECT p.id FROM Project p WHERE p.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    // Các project được tạo/cập nhật kể từ một thời điểm (index owner_id, updated_at)
+    List<Project> findByOwnerIdAndUpdatedAtGreaterThanEqual(Long ownerId, LocalDateTime since);
+
+    // Khoá dòng dự án (SELECT ... FOR UPDATE) để tuần tự hoá các thay đổi cấu trúc trong cùng một dự án
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Project p WHERE p.id = :id")
+    Optional<Project> findByIdForUpdate(@Param("id") Long id);
+
     // Bạn có thể thêm các phương thức truy vấn tùy chỉnh khác ở đây nếu cần
     // Ví dụ: Tìm các project được đánh dấu là yêu thích của một user
     // List<Project> findByOwnerIdAndIsFavoriteTrue(Long ownerId);
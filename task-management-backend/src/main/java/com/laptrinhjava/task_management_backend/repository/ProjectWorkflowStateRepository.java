@@ -0,0 +1,19 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.laptrinhjava.task_management_backend.model.ProjectWorkflowState;
+
+public interface ProjectWorkflowStateRepository extends JpaRepository<ProjectWorkflowState, Long> {
+
+    List<ProjectWorkflowState> findByProjectIdOrderByPosition(Long projectId);
+
+    @Modifying
+    @Query("DELETE FROM ProjectWorkflowState s WHERE s.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
@@ -0,0 +1,21 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.laptrinhjava.task_management_backend.model.RecurringTask;
+
+@Repository
+public interface RecurringTaskRepository extends JpaRepository<RecurringTask, Long> {
+
+    List<RecurringTask> findByProjectIdOrderByIdAsc(Long projectId);
+
+    @Modifying
+    @Query("DELETE FROM RecurringTask r WHERE r.project.id = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
@@ -0,0 +1,80 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Truy vấn theo Specification có fetch join các quan hệ cần cho DTO, với COUNT tuỳ chọn.
+ * Dùng chung cho các repository fragment của bảng tasks và tasks_archive.
+ */
+final class SpecificationSliceQuery {
+
+    private SpecificationSliceQuery() {
+    }
+
+    static <T> Slice<T> findAll(EntityManager entityManager, Class<T> type, Specification<T> spec, Pageable pageable,
+                                boolean withCount, String... fetches) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        for (String fetch : fetches) {
+            root.fetch(fetch, JoinType.LEFT);
+        }
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isUnpaged()) {
+            List<T> all = typedQuery.getResultList();
+            return new PageImpl<>(all, pageable, all.size());
+        }
+
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        if (withCount) {
+            typedQuery.setMaxResults(pageable.getPageSize());
+            List<T> content = typedQuery.getResultList();
+            // PageableExecutionUtils bỏ qua COUNT khi trang hiện tại đã đủ để suy ra tổng số
+            return PageableExecutionUtils.getPage(content, pageable, () -> count(entityManager, type, spec));
+        }
+
+        // Không đếm: lấy dư một bản ghi để biết còn trang sau hay không
+        typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        List<T> content = typedQuery.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static <T> long count(EntityManager entityManager, Class<T> type, Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
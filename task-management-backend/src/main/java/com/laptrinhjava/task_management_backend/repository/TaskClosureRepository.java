@@ -0,0 +1,68 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.laptrinhjava.task_management_backend.model.TaskClosure;
+
+@Repository
+public interface TaskClosureRepository extends JpaRepository<TaskClosure, TaskClosure.Key> {
+
+    /**
+     * Gắn task (cùng toàn bộ cây con của nó) vào dưới parentId bằng một câu lệnh:
+     * tích Descartes giữa {tổ tiên của parent, chính parent} và {chính task, hậu duệ của task}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO task_closure (ancestor_id, descendant_id, depth)"
+            + " SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1"
+            + " FROM (SELECT ancestor_id, depth FROM task_closure WHERE descendant_id = :parentId"
+            + "       UNION ALL SELECT id, 0 FROM tasks WHERE id = :parentId) a"
+            + " CROSS JOIN (SELECT descendant_id, depth FROM task_closure WHERE ancestor_id = :taskId"
+            + "       UNION ALL SELECT id, 0 FROM tasks WHERE id = :taskId) d", nativeQuery = true)
+    int attachSubtree(@Param("taskId") Long taskId, @Param("parentId") Long parentId);
+
+    @Query("SELECT c.ancestorId FROM TaskClosure c WHERE c.descendantId = :taskId")
+    List<Long> findAncestorIds(@Param("taskId") Long taskId);
+
+    @Query("SELECT c.descendantId FROM TaskClosure c WHERE c.ancestorId = :taskId")
+    List<Long> findDescendantIds(@Param("taskId") Long taskId);
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    boolean existsByAncestorId(Long ancestorId);
+
+    // Danh sách id được truyền vào thay vì subquery vì MySQL không cho DELETE đọc lại chính bảng đang xoá
+    @Modifying
+    @Query("DELETE FROM TaskClosure c WHERE c.ancestorId IN :ancestorIds AND c.descendantId IN :descendantIds")
+    int deletePaths(@Param("ancestorIds") Collection<Long> ancestorIds, @Param("descendantIds") Collection<Long> descendantIds);
+
+    @Modifying
+    @Query("DELETE FROM TaskClosure c WHERE c.descendantId IN :taskIds")
+    int deleteByDescendantIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM TaskClosure c WHERE c.ancestorId IN :taskIds")
+    int deleteByAncestorIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_closure WHERE descendant_id IN (SELECT id FROM tasks WHERE project_id = :projectId)"
+            + " OR descendant_id IN (SELECT id FROM tasks_archive WHERE project_id = :projectId)", nativeQuery = true)
+    int deleteByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * Số hậu duệ và số hậu duệ đã hoàn thành của mọi task có con trong cây con của rootId (kể cả rootId).
+     * Mỗi dòng: [taskId, total, done].
+     */
+    @Query(value = "SELECT c.ancestor_id, COUNT(*), SUM(CASE WHEN t.status = 'DONE' THEN 1 ELSE 0 END)"
+            + " FROM task_closure c JOIN tasks t ON t.id = c.descendant_id"
+            + " WHERE c.ancestor_id = :rootId"
+            + "    OR c.ancestor_id IN (SELECT descendant_id FROM task_closure WHERE ancestor_id = :rootId)"
+            + " GROUP BY c.ancestor_id", nativeQuery = true)
+    List<Object[]> rollUpProgress(@Param("rootId") Long rootId);
+}
@@ -0,0 +1,18 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.laptrinhjava.task_management_backend.model.TaskDailyStats;
+
+// Ghi/đọc số liệu đi qua JDBC trong TaskStatsService; repository chỉ dùng để dọn dữ liệu của dự án bị xoá
+@Repository
+public interface TaskDailyStatsRepository extends JpaRepository<TaskDailyStats, Long> {
+
+    @Modifying
+    @Query("DELETE FROM TaskDailyStats s WHERE s.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
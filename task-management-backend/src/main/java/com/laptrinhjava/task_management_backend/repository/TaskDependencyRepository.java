@@ -0,0 +1,43 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.laptrinhjava.task_management_backend.model.TaskDependency;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+@Repository
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, TaskDependency.Key> {
+
+    // Chỉ lấy hai cột id để dựng đồ thị, không nạp entity
+    @Query("SELECT d.taskId, d.blockedById FROM TaskDependency d WHERE d.projectId = :projectId")
+    List<Object[]> findEdgesByProjectId(@Param("projectId") Long projectId);
+
+    // Một bước mở rộng khi kiểm tra chu trình (quét theo khoá chính task_id, blocked_by_id)
+    @Query("SELECT DISTINCT d.blockedById FROM TaskDependency d WHERE d.taskId IN :taskIds")
+    List<Long> findBlockerIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT d.taskId FROM TaskDependency d WHERE d.blockedById = :blockedById ORDER BY d.taskId")
+    List<Long> findDependentIds(@Param("blockedById") Long blockedById);
+
+    // Số task chặn chưa ở trạng thái kết thúc
+    @Query("SELECT COUNT(d) FROM TaskDependency d, Task t WHERE t.id = d.blockedById AND d.taskId = :taskId"
+            + " AND t.status NOT IN :finishedStatuses")
+    long countOpenBlockers(@Param("taskId") Long taskId, @Param("finishedStatuses") Collection<TaskStatus> finishedStatuses);
+
+    boolean existsByTaskIdOrBlockedById(Long taskId, Long blockedById);
+
+    @Modifying
+    @Query("DELETE FROM TaskDependency d WHERE d.taskId IN :taskIds OR d.blockedById IN :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM TaskDependency d WHERE d.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
@@ -0,0 +1,15 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.laptrinhjava.task_management_backend.model.TaskHistory;
+
+@Repository
+public interface TaskHistoryRepository extends JpaRepository<TaskHistory, Long> {
+
+    // Mới nhất trước (index task_id, id)
+    Page<TaskHistory> findByTaskIdOrderByIdDesc(Long taskId, Pageable pageable);
+}
@@ -0,0 +1,44 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.laptrinhjava.task_management_backend.model.TaskLabel;
+
+@Repository
+public interface TaskLabelRepository extends JpaRepository<TaskLabel, TaskLabel.Key> {
+
+    // Cặp (nhãn, task) của các task còn ở bảng nóng, đã sắp theo nhãn rồi task để dựng bitmap tuần tự
+    @Query("SELECT tl.labelId, tl.taskId FROM TaskLabel tl WHERE tl.projectId = :projectId"
+            + " AND EXISTS (SELECT 1 FROM Task t WHERE t.id = tl.taskId) ORDER BY tl.labelId, tl.taskId")
+    List<Object[]> findPairsByProjectId(@Param("projectId") Long projectId);
+
+    // Tên nhãn của một trang task (cả task đã lưu trữ), sắp theo tên như LabelIndex
+    @Query("SELECT tl.taskId, l.name FROM TaskLabel tl, Label l WHERE l.id = tl.labelId AND tl.taskId IN :taskIds ORDER BY l.name")
+    List<Object[]> findLabelNamesByTaskIdIn(@Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT tl.labelId FROM TaskLabel tl WHERE tl.taskId = :taskId")
+    List<Long> findLabelIdsByTaskId(@Param("taskId") Long taskId);
+
+    @Modifying
+    @Query("DELETE FROM TaskLabel tl WHERE tl.taskId = :taskId AND tl.labelId IN :labelIds")
+    int deleteByTaskIdAndLabelIdIn(@Param("taskId") Long taskId, @Param("labelIds") Collection<Long> labelIds);
+
+    @Modifying
+    @Query("DELETE FROM TaskLabel tl WHERE tl.taskId IN :taskIds")
+    int deleteByTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM TaskLabel tl WHERE tl.labelId = :labelId")
+    int deleteByLabelId(@Param("labelId") Long labelId);
+
+    @Modifying
+    @Query("DELETE FROM TaskLabel tl WHERE tl.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+}
@@ -1,15 +1,28 @@
 package com.laptrinhjava.task_management_backend.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional; // Import TaskStatus nếu bạn có query theo status
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository; // Import nếu dùng @Query
 
 import com.laptrinhjava.task_management_backend.model.Task; // Import nếu dùng @Query với @Param
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
 
     // Tìm tất cả các task thuộc về một project cụ thể (dựa trên project.id)
     List<Task> findByProjectId(Long projectId);
@@ -26,12 +39,76 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     // Tìm task theo ID và project ID (hữu ích để kiểm tra task có thuộc project đó không)
     Optional<Task> findByIdAndProjectId(Long id, Long projectId);
 
+    // Các task thay đổi kể từ một thời điểm, dùng cho đồng bộ tăng dần (index project_id, updated_at)
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.project LEFT JOIN FETCH t.assignee WHERE t.project.id IN :projectIds AND t.updatedAt >= :since")
+    List<Task> findChangedInProjects(@Param("projectIds") List<Long> projectIds, @Param("since") LocalDateTime since);
+
+    // Tương tự nhưng theo người được giao (index assignee_id, updated_at)
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.project LEFT JOIN FETCH t.assignee WHERE t.assignee.id = :assigneeId AND t.updatedAt >= :since")
+    List<Task> findChangedAssignedTo(@Param("assigneeId") Long assigneeId, @Param("since") LocalDateTime since);
+
+    // Các truy vấn bảng Kanban bên dưới đều là quét theo index (project_id, status, board_rank)
+    // Không flush trước khi chạy: task đang sửa dở trong giao dịch chưa cần ghi xuống chỉ để đọc MAX
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT MAX(t.boardRank) FROM Task t WHERE t.project.id = :projectId AND t.status = :status")
+    String findMaxBoardRank(@Param("projectId") Long projectId, @Param("status") TaskStatus status);
+
+    @EntityGraph(attributePaths = "assignee")
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.status = :status ORDER BY t.boardRank ASC, t.id ASC")
+    List<Task> findBoardColumn(@Param("projectId") Long projectId, @Param("status") TaskStatus status, Pageable pageable);
+
+    // Phân trang keyset: các task đứng sau (rank, id) trong cột
+    @EntityGraph(attributePaths = "assignee")
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.status = :status"
+            + " AND (t.boardRank > :rank OR (t.boardRank = :rank AND t.id > :id)) ORDER BY t.boardRank ASC, t.id ASC")
+    List<Task> findBoardColumnAfter(@Param("projectId") Long projectId, @Param("status") TaskStatus status,
+                                    @Param("rank") String rank, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.status = :status"
+            + " AND (t.boardRank < :rank OR (t.boardRank = :rank AND t.id < :id)) ORDER BY t.boardRank DESC, t.id DESC")
+    List<Task> findBoardColumnBefore(@Param("projectId") Long projectId, @Param("status") TaskStatus status,
+                                     @Param("rank") String rank, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT t.status, COUNT(t) FROM Task t WHERE t.project.id = :projectId GROUP BY t.status")
+    List<Object[]> countByStatus(@Param("projectId") Long projectId);
+
+    // Task gốc và toàn bộ cây con trong một truy vấn (quét khoảng theo khoá chính của task_closure)
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.assignee JOIN TaskClosure c ON c.descendantId = t.id"
+            + " WHERE c.ancestorId = :rootId AND c.depth <= :maxDepth ORDER BY c.depth ASC, t.boardRank ASC, t.id ASC")
+    List<Task> findSubtree(@Param("rootId") Long rootId, @Param("maxDepth") int maxDepth);
+
+    // Chỉ các cột cần để dựng đồ thị phụ thuộc của dự án: id, trạng thái, hạn chót
+    @Query("SELECT t.id, t.status, t.dueDate FROM Task t WHERE t.project.id = :projectId")
+    List<Object[]> findGraphNodes(@Param("projectId") Long projectId);
+
+    // Lịch: số task đến hạn theo ngày và trạng thái trong các dự án đã cho hoặc được giao cho userId
+    @Query("SELECT t.dueDate, t.status, COUNT(t) FROM Task t WHERE t.dueDate BETWEEN :from AND :to"
+            + " AND (t.project.id IN :projectIds OR t.assignee.id = :userId) GROUP BY t.dueDate, t.status")
+    List<Object[]> countByDueDate(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                  @Param("projectIds") Collection<Long> projectIds, @Param("userId") Long userId);
+
+    // Cùng phạm vi như trên, chỉ lấy id của tối đa :limit task đầu tiên mỗi ngày (số dòng trả về không phụ thuộc tổng số task)
+    @Query(value = "SELECT c.id FROM (SELECT t.id, ROW_NUMBER() OVER (PARTITION BY t.due_date ORDER BY t.id) AS rn"
+            + " FROM tasks t WHERE t.due_date BETWEEN :from AND :to AND (t.project_id IN (:projectIds) OR t.assignee_id = :userId)) c"
+            + " WHERE c.rn <= :limit", nativeQuery = true)
+    List<Long> findFirstIdsPerDueDate(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                      @Param("projectIds") Collection<Long> projectIds, @Param("userId") Long userId,
+                                      @Param("limit") int limit);
+
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.project LEFT JOIN FETCH t.assignee WHERE t.id IN :ids")
+    List<Task> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
     // Ví dụ: Tìm các task theo trạng thái cho một project cụ thể
     // List<Task> findByProjectIdAndStatus(Long projectId, TaskStatus status);
 
     // Ví dụ: Đếm số lượng task trong một project
     // long countByProjectId(Long projectId);
 
+    // Trạng thái quy trình bị bỏ khỏi dự án: task quay về trạng thái mặc định của nhóm status (xem Workflow.stateOf)
+    @Modifying
+    @Query("UPDATE Task t SET t.workflowState = NULL WHERE t.project.id = :projectId AND t.workflowState IN :states")
+    int clearWorkflowStates(@Param("projectId") Long projectId, @Param("states") List<Short> states);
+
     // Bạn có thể thêm các phương thức truy vấn phức tạp hơn bằng @Query nếu cần
     // Ví dụ:
     // @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND (t.title LIKE %:keyword% OR t.description LIKE %:keyword%)")
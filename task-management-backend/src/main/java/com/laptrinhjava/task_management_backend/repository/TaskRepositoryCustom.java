@@ -0,0 +1,23 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.laptrinhjava.task_management_backend.model.Task;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+public interface TaskRepositoryCustom {
+
+    // Truy vấn theo Specification, fetch sẵn project và assignee (tránh N+1 khi convert sang DTO).
+    // withCount = true trả về Page (có tổng số), ngược lại trả về Slice (chỉ biết còn trang sau hay không).
+    Slice<Task> findAll(Specification<Task> spec, Pageable pageable, boolean withCount);
+
+    // (id, priority, dueDate, createdAt) của các task mở được giao cho một người, chỉ đọc index
+    // (assignee_id, status, priority, due_date, created_at). Trả về dạng luồng không nạp hết kết quả vào bộ nhớ;
+    // phải đóng luồng, gọi trong giao dịch và không chạy truy vấn khác trên kết nối khi luồng còn mở (MySQL).
+    Stream<Object[]> streamRankInputs(Long assigneeId, Collection<TaskStatus> statuses);
+}
@@ -0,0 +1,49 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.laptrinhjava.task_management_backend.model.Task;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Task> findAll(Specification<Task> spec, Pageable pageable, boolean withCount) {
+        return SpecificationSliceQuery.findAll(entityManager, Task.class, spec, pageable, withCount, "project", "assignee");
+    }
+
+    @Override
+    public Stream<Object[]> streamRankInputs(Long assigneeId, Collection<TaskStatus> statuses) {
+        return entityManager.createQuery(
+                        "SELECT t.id, t.priority, t.dueDate, t.createdAt FROM Task t WHERE t.assignee.id = :assigneeId AND t.status IN :statuses",
+                        Object[].class)
+                .setParameter("assigneeId", assigneeId)
+                .setParameter("statuses", statuses)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, streamFetchSize())
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // Connector/J bỏ qua fetch size dương (nạp hết kết quả) trừ khi bật useCursorFetch cho cả ứng dụng;
+    // Integer.MIN_VALUE bật đọc từng dòng cho riêng câu lệnh này. Các DB khác (H2 khi test) không nhận fetch size âm.
+    private int streamFetchSize() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect ? Integer.MIN_VALUE : STREAM_FETCH_SIZE;
+    }
+}
@@ -0,0 +1,116 @@
+package com.laptrinhjava.task_management_backend.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import com.laptrinhjava.task_management_backend.dto.TaskFilter;
+import com.laptrinhjava.task_management_backend.model.TaskLabel;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+/**
+ * Dịch {@link TaskFilter} thành một {@link Specification} duy nhất.
+ * Dùng được cho cả {@link com.laptrinhjava.task_management_backend.model.Task} và
+ * {@link com.laptrinhjava.task_management_backend.model.ArchivedTask} (cùng tên thuộc tính).
+ *
+ * Thứ tự các predicate bám theo các index khai báo trên bảng tasks:
+ * điều kiện bằng/IN trên project_id, assignee_id và status đứng trước (cột đầu của index ghép),
+ * sau đó là các điều kiện khoảng (due_date, created_at, updated_at), cuối cùng là LIKE tiền tố trên title.
+ */
+public final class TaskSpecifications {
+
+    // Không dùng '\' làm ký tự escape: MySQL coi backslash trong literal là escape nên câu SQL sẽ lỗi cú pháp
+    private static final char LIKE_ESCAPE = '!';
+
+    private TaskSpecifications() {
+    }
+
+    public static <T> Specification<T> inProject(Long projectId) {
+        return (root, query, cb) -> cb.equal(root.get("project").get("id"), projectId);
+    }
+
+    public static <T> Specification<T> assignedTo(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("assignee").get("id"), userId);
+    }
+
+    // Task thuộc các dự án truy cập được hoặc được giao cho người dùng (index merge trên project_id và assignee_id)
+    public static <T> Specification<T> visibleTo(Collection<Long> projectIds, Long userId) {
+        if (projectIds.isEmpty()) {
+            return assignedTo(userId);
+        }
+        return (root, query, cb) -> cb.or(root.get("project").get("id").in(projectIds), cb.equal(root.get("assignee").get("id"), userId));
+    }
+
+    public static <T> Specification<T> idIn(long[] ids) {
+        List<Long> values = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            values.add(id);
+        }
+        return (root, query, cb) -> root.get("id").in(values);
+    }
+
+    // Task có ít nhất một nhãn của mỗi nhóm (mỗi nhóm là các id nhãn cùng tên, trên các dự án khác nhau)
+    public static <T> Specification<T> labelled(List<? extends Collection<Long>> labelIdGroups) {
+        return (root, query, cb) -> cb.and(labelIdGroups.stream()
+                .map(labelIds -> cb.exists(taskLabels(root, query, cb, labelIds)))
+                .toArray(Predicate[]::new));
+    }
+
+    public static <T> Specification<T> notLabelled(Collection<Long> labelIds) {
+        return (root, query, cb) -> cb.not(cb.exists(taskLabels(root, query, cb, labelIds)));
+    }
+
+    // SELECT 1 FROM task_labels WHERE task_id = root.id AND label_id IN (...) (quét khoá chính task_id, label_id)
+    private static Subquery<Integer> taskLabels(Root<?> root, CriteriaQuery<?> query, CriteriaBuilder cb, Collection<Long> labelIds) {
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Root<TaskLabel> taskLabel = subquery.from(TaskLabel.class);
+        return subquery.select(cb.literal(1))
+                .where(cb.equal(taskLabel.get("taskId"), root.get("id")), taskLabel.get("labelId").in(labelIds));
+    }
+
+    public static <T> Specification<T> matching(TaskFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (!CollectionUtils.isEmpty(filter.getProjectIds())) {
+                predicates.add(root.get("project").get("id").in(filter.getProjectIds()));
+            }
+            if (filter.getAssigneeId() != null) {
+                predicates.add(cb.equal(root.get("assignee").get("id"), filter.getAssigneeId()));
+            }
+            if (!CollectionUtils.isEmpty(filter.getStatus())) {
+                predicates.add(root.get("status").in(filter.getStatus()));
+            }
+            if (filter.getDueFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), filter.getDueFrom()));
+            }
+            if (filter.getDueTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("dueDate"), filter.getDueTo()));
+            }
+            if (filter.getUpdatedSince() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("updatedAt"), filter.getUpdatedSince()));
+            }
+            if (filter.getCreatedSince() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getCreatedSince()));
+            }
+            if (StringUtils.hasText(filter.getQ())) {
+                // Không bọc lower(...) để MySQL (collation không phân biệt hoa thường) vẫn dùng được index
+                predicates.add(cb.like(root.get("title"), escapeLike(filter.getQ().trim()) + "%", LIKE_ESCAPE));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+}
@@ -1,8 +1,12 @@
 package com.laptrinhjava.task_management_backend.repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional; // Đảm bảo import User model
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.laptrinhjava.task_management_backend.model.User;
@@ -17,6 +21,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // Phương thức để tìm người dùng bằng username (hữu ích cho việc đảm bảo username là duy nhất)
     Optional<User> findByUsername(String username);
 
+    // Một câu UPDATE, không nạp entity (đăng nhập lại chỉ ghi khi tên hoặc ảnh đại diện thay đổi)
+    @Modifying
+    @Query("UPDATE User u SET u.name = :name, u.avatarUrl = :avatarUrl, u.updatedAt = :now WHERE u.id = :id")
+    int updateProfile(@Param("id") Long id, @Param("name") String name, @Param("avatarUrl") String avatarUrl,
+                      @Param("now") LocalDateTime now);
+
     // Bạn có thể thêm các phương thức truy vấn tùy chỉnh khác ở đây nếu cần
     // Ví dụ:
     // boolean existsByEmail(String email);
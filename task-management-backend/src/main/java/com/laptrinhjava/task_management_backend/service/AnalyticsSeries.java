@@ -0,0 +1,103 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.laptrinhjava.task_management_backend.dto.AnalyticsPoint;
+import com.laptrinhjava.task_management_backend.dto.AnalyticsResponse;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+
+/**
+ * Gom các dòng task_daily_stats (có thể từ nhiều shard, nhiều dòng cho cùng một ngày) thành chuỗi theo ngày/tuần.
+ *
+ * Số hoàn thành và cycle time được cộng dồn trong ô. Số quá hạn là ảnh chụp nên không cộng theo ngày:
+ * mỗi ô lấy ảnh chụp mới nhất trong ô, không muộn hơn hôm nay.
+ */
+final class AnalyticsSeries {
+
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final boolean weekly;
+    private final LocalDate today;
+    private final TreeMap<LocalDate, long[]> completedByBucket = new TreeMap<>();
+    private final TreeMap<LocalDate, Long> overdueByDay = new TreeMap<>();
+
+    private AnalyticsSeries(LocalDate from, LocalDate to, boolean weekly, LocalDate today) {
+        this.from = from;
+        this.to = to;
+        this.weekly = weekly;
+        this.today = today;
+    }
+
+    static AnalyticsSeries of(LocalDate from, LocalDate to, String granularity, int maxRangeDays, LocalDate today) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new BadRequestException("Cần truyền from và to (from <= to).");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > maxRangeDays) {
+            throw new BadRequestException("Khoảng thời gian tối đa là " + maxRangeDays + " ngày.");
+        }
+        boolean weekly;
+        if (granularity == null || "day".equalsIgnoreCase(granularity)) {
+            weekly = false;
+        } else if ("week".equalsIgnoreCase(granularity)) {
+            weekly = true;
+        } else {
+            throw new BadRequestException("granularity chỉ nhận day hoặc week: " + granularity);
+        }
+        return new AnalyticsSeries(from, to, weekly, today);
+    }
+
+    LocalDate from() {
+        return from;
+    }
+
+    LocalDate to() {
+        return to;
+    }
+
+    void add(LocalDate statDate, long completed, long completedLate, long cycleTimeSeconds, long overdueOpen) {
+        if (statDate.isBefore(from) || statDate.isAfter(to)) {
+            return;
+        }
+        long[] totals = completedByBucket.computeIfAbsent(bucketStart(statDate), key -> new long[3]);
+        totals[0] += completed;
+        totals[1] += completedLate;
+        totals[2] += cycleTimeSeconds;
+        overdueByDay.merge(statDate, overdueOpen, Long::sum);
+    }
+
+    AnalyticsResponse toResponse() {
+        List<AnalyticsPoint> points = new ArrayList<>();
+        for (LocalDate start = bucketStart(from); !start.isAfter(to); start = start.plusDays(weekly ? 7 : 1)) {
+            LocalDate clippedStart = start.isBefore(from) ? from : start;
+            LocalDate end = weekly ? start.plusDays(6) : start;
+            LocalDate clippedEnd = end.isAfter(to) ? to : end;
+
+            long[] totals = completedByBucket.getOrDefault(start, new long[3]);
+            Double averageCycleTimeHours = totals[0] > 0 ? totals[2] / SECONDS_PER_HOUR / totals[0] : null;
+
+            Long overdueOpen = null;
+            LocalDate snapshotLimit = clippedEnd.isAfter(today) ? today : clippedEnd;
+            if (!snapshotLimit.isBefore(clippedStart)) {
+                Map.Entry<LocalDate, Long> snapshot = overdueByDay.floorEntry(snapshotLimit);
+                if (snapshot != null && !snapshot.getKey().isBefore(clippedStart)) {
+                    overdueOpen = snapshot.getValue();
+                }
+            }
+            points.add(new AnalyticsPoint(clippedStart, clippedEnd, totals[0], totals[1], averageCycleTimeHours, overdueOpen));
+        }
+        return new AnalyticsResponse(from, to, weekly ? "week" : "day", points);
+    }
+
+    private LocalDate bucketStart(LocalDate day) {
+        return weekly ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+    }
+}
@@ -0,0 +1,100 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.dto.AnalyticsResponse;
+import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
+import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.UserRepository;
+
+/**
+ * Thống kê năng suất theo dự án hoặc theo người được giao, chỉ đọc bảng tổng hợp task_daily_stats
+ * (số dòng tỉ lệ với số ngày trong khoảng, không phụ thuộc số task).
+ *
+ * Không mở giao dịch: thống kê theo người dùng đọc lần lượt từng shard, giống lịch và danh sách task.
+ */
+@Service
+public class AnalyticsService {
+
+    private static final String SUMS = "SELECT stat_date, SUM(completed_count), SUM(completed_late_count), SUM(cycle_time_seconds),"
+            + " SUM(overdue_open_count) FROM task_daily_stats WHERE ";
+
+    private static final String PROJECT_SQL =
+            SUMS + "project_id = :projectId AND stat_date BETWEEN :from AND :to GROUP BY stat_date";
+
+    private static final String USER_SQL =
+            SUMS + "user_id = :userId AND stat_date BETWEEN :from AND :to AND project_id IN (:projectIds) GROUP BY stat_date";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ProjectAccessService projectAccessService;
+
+    @Value("${app.analytics.max-range-days:366}")
+    private int maxRangeDays;
+
+    @Autowired
+    public AnalyticsService(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, UserService userService,
+                            UserRepository userRepository, ProjectAccessService projectAccessService) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.shardRouter = shardRouter;
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.projectAccessService = projectAccessService;
+    }
+
+    // Đọc trên shard của dự án (ShardRoutingInterceptor định tuyến theo projectId trên đường dẫn)
+    public AnalyticsResponse getProjectAnalytics(Long projectId, LocalDate from, LocalDate to, String granularity) {
+        User currentUser = currentUser();
+        AnalyticsSeries series = AnalyticsSeries.of(from, to, granularity, maxRangeDays, LocalDate.now());
+        if (!projectAccessService.hasRole(currentUser.getId(), projectId, ProjectRole.VIEWER)) {
+            throw new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền truy cập. ID: " + projectId);
+        }
+        addRows(series, PROJECT_SQL, Map.of("projectId", projectId, "from", Date.valueOf(series.from()), "to", Date.valueOf(series.to())));
+        return series.toResponse();
+    }
+
+    // Chỉ tính các dự án mà người gọi xem được; người gọi xem chính mình thì gồm mọi dự án họ truy cập được
+    public AnalyticsResponse getUserAnalytics(Long userId, LocalDate from, LocalDate to, String granularity) {
+        User currentUser = currentUser();
+        AnalyticsSeries series = AnalyticsSeries.of(from, to, granularity, maxRangeDays, LocalDate.now());
+        if (!userId.equals(currentUser.getId()) && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Người dùng không tồn tại với ID: " + userId);
+        }
+        List<Long> projectIds = projectAccessService.accessibleProjectIds(currentUser.getId(), ProjectRole.VIEWER);
+        if (projectIds.isEmpty()) {
+            return series.toResponse();
+        }
+        Map<String, Object> params = Map.of("userId", userId, "projectIds", projectIds,
+                "from", Date.valueOf(series.from()), "to", Date.valueOf(series.to()));
+        shardRouter.forEachShard(() -> addRows(series, USER_SQL, params));
+        return series.toResponse();
+    }
+
+    private void addRows(AnalyticsSeries series, String sql, Map<String, Object> params) {
+        jdbcTemplate.query(sql, params, rs -> {
+            series.add(rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5));
+        });
+    }
+
+    private User currentUser() {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để xem thống kê.");
+        }
+        return currentUser;
+    }
+}
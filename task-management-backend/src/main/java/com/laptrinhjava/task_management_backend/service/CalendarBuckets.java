@@ -0,0 +1,117 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.laptrinhjava.task_management_backend.dto.CalendarBucketResponse;
+import com.laptrinhjava.task_management_backend.dto.CalendarResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskResponse;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+/**
+ * Gom số đếm và task đến hạn theo ngày (từ database hoặc từ kết quả của từng shard) vào các ô lịch theo ngày/tuần.
+ * Mỗi ô chỉ giữ tối đa limit task nên kích thước kết quả bị chặn bởi số ngày trong khoảng và limit.
+ */
+final class CalendarBuckets {
+
+    static final int MAX_TASKS_PER_BUCKET = 50;
+
+    private static final Comparator<TaskResponse> DUE_DATE_ORDER =
+            Comparator.comparing(TaskResponse::getDueDate).thenComparing(TaskResponse::getId);
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final boolean weekly;
+    private final int limit;
+    private final TreeMap<LocalDate, Bucket> buckets = new TreeMap<>();
+
+    private CalendarBuckets(LocalDate from, LocalDate to, boolean weekly, int limit) {
+        this.from = from;
+        this.to = to;
+        this.weekly = weekly;
+        this.limit = limit;
+    }
+
+    static CalendarBuckets of(LocalDate from, LocalDate to, String granularity, int limit, int maxRangeDays) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new BadRequestException("Cần truyền from và to (from <= to).");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > maxRangeDays) {
+            throw new BadRequestException("Khoảng thời gian tối đa là " + maxRangeDays + " ngày.");
+        }
+        if (limit < 1 || limit > MAX_TASKS_PER_BUCKET) {
+            throw new BadRequestException("Tham số limit không hợp lệ (1 <= limit <= " + MAX_TASKS_PER_BUCKET + ").");
+        }
+        boolean weekly;
+        if (granularity == null || "day".equalsIgnoreCase(granularity)) {
+            weekly = false;
+        } else if ("week".equalsIgnoreCase(granularity)) {
+            weekly = true;
+        } else {
+            throw new BadRequestException("granularity chỉ nhận day hoặc week: " + granularity);
+        }
+        return new CalendarBuckets(from, to, weekly, limit);
+    }
+
+    LocalDate from() {
+        return from;
+    }
+
+    LocalDate to() {
+        return to;
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    void addCount(LocalDate dueDate, TaskStatus status, long count) {
+        bucketOf(dueDate).counts.merge(status, count, Long::sum);
+    }
+
+    void addTask(TaskResponse task) {
+        bucketOf(task.getDueDate()).tasks.add(task);
+    }
+
+    // Trộn kết quả đã gom của một shard
+    void addAll(CalendarResponse part) {
+        for (CalendarBucketResponse bucket : part.getBuckets()) {
+            bucket.getCounts().forEach((status, count) -> addCount(bucket.getStart(), status, count));
+            bucket.getTasks().forEach(this::addTask);
+        }
+    }
+
+    CalendarResponse toResponse() {
+        List<CalendarBucketResponse> result = new ArrayList<>(buckets.size());
+        for (Map.Entry<LocalDate, Bucket> entry : buckets.entrySet()) {
+            LocalDate start = entry.getKey();
+            LocalDate end = weekly ? start.plusDays(6) : start;
+            Bucket bucket = entry.getValue();
+            long total = bucket.counts.values().stream().mapToLong(Long::longValue).sum();
+            bucket.tasks.sort(DUE_DATE_ORDER);
+            List<TaskResponse> tasks = new ArrayList<>(bucket.tasks.subList(0, Math.min(limit, bucket.tasks.size())));
+            result.add(new CalendarBucketResponse(start.isBefore(from) ? from : start, end.isAfter(to) ? to : end,
+                    bucket.counts, total, tasks, total > tasks.size()));
+        }
+        return new CalendarResponse(from, to, weekly ? "week" : "day", result);
+    }
+
+    private Bucket bucketOf(LocalDate day) {
+        LocalDate start = weekly ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+        return buckets.computeIfAbsent(start, key -> new Bucket());
+    }
+
+    private static final class Bucket {
+        private final Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        private final List<TaskResponse> tasks = new ArrayList<>();
+    }
+}
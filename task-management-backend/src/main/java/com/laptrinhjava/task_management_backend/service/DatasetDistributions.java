@@ -0,0 +1,126 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import com.laptrinhjava.task_management_backend.model.TaskPriority;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+/**
+ * Các phân phối dùng khi sinh dữ liệu giả lập (SyntheticDatasetGenerator), tách riêng để kiểm thử được.
+ *
+ * Kích thước dự án theo luật Zipf: dự án hạng k có số task tỉ lệ với 1 / k^s (vài dự án rất lớn, đa số nhỏ).
+ * Task được tạo rải đều trong historyDays ngày gần đây; task càng cũ càng có khả năng đã xong.
+ */
+final class DatasetDistributions {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private DatasetDistributions() {
+    }
+
+    /**
+     * Chia totalTasks task cho projectCount dự án theo Zipf; hạng của các dự án được xáo trộn ngẫu nhiên.
+     * Tổng các giá trị next() đúng bằng totalTasks. Bộ nhớ O(projectCount).
+     */
+    static final class ProjectSizes {
+
+        private final long totalTasks;
+        private final double exponent;
+        private final int[] ranks;
+        private final double norm;
+        private double cumulative;
+        private long emitted;
+        private int next;
+
+        ProjectSizes(long totalTasks, int projectCount, double exponent, Random random) {
+            this.totalTasks = totalTasks;
+            this.exponent = exponent;
+            this.ranks = new int[projectCount];
+            double sum = 0;
+            for (int i = 0; i < projectCount; i++) {
+                ranks[i] = i + 1;
+                sum += weight(i + 1);
+            }
+            this.norm = sum;
+            for (int i = projectCount - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = ranks[i];
+                ranks[i] = ranks[j];
+                ranks[j] = swap;
+            }
+        }
+
+        boolean hasNext() {
+            return next < ranks.length;
+        }
+
+        long next() {
+            cumulative += weight(ranks[next]);
+            next++;
+            long target = next == ranks.length ? totalTasks : Math.min(totalTasks, Math.round(totalTasks * cumulative / norm));
+            long count = target - emitted;
+            emitted = target;
+            return count;
+        }
+
+        private double weight(int rank) {
+            return 1.0 / Math.pow(rank, exponent);
+        }
+    }
+
+    record TaskSample(TaskStatus status, LocalDateTime createdAt, LocalDateTime updatedAt, LocalDate dueDate,
+                      LocalDateTime statusChangedAt, LocalDateTime completedAt, TaskPriority priority) {
+    }
+
+    /**
+     * Một task ngẫu nhiên tạo trong historyDays ngày trước now:
+     * 5% bị huỷ; tỉ lệ DONE tăng theo tuổi task (tối đa 60% với task từ 30 ngày trở lên), còn lại chia TODO/IN_PROGRESS 2:1;
+     * 20% không có hạn chót, còn lại hạn sau ngày tạo trung bình 14 ngày; thời gian hoàn thành trung bình 5 ngày;
+     * độ ưu tiên LOW/MEDIUM/HIGH/URGENT theo tỉ lệ 25/50/20/5%.
+     */
+    static TaskSample sampleTask(Random random, LocalDateTime now, int historyDays) {
+        long ageSeconds = (long) (random.nextDouble() * historyDays * SECONDS_PER_DAY);
+        LocalDateTime createdAt = now.minusSeconds(ageSeconds);
+        double ageDays = (double) ageSeconds / SECONDS_PER_DAY;
+
+        LocalDate dueDate = random.nextDouble() < 0.2 ? null
+                : createdAt.toLocalDate().plusDays(Math.round(exponential(random, 14)));
+
+        double draw = random.nextDouble();
+        double doneProbability = 0.6 * Math.min(1.0, ageDays / 30.0);
+        TaskStatus status;
+        if (draw < 0.05) {
+            status = TaskStatus.CANCELLED;
+        } else if (draw < 0.05 + doneProbability) {
+            status = TaskStatus.DONE;
+        } else if (random.nextInt(3) == 0) {
+            status = TaskStatus.IN_PROGRESS;
+        } else {
+            status = TaskStatus.TODO;
+        }
+
+        LocalDateTime statusChangedAt = createdAt;
+        LocalDateTime completedAt = null;
+        if (status != TaskStatus.TODO) {
+            long elapsed = status == TaskStatus.IN_PROGRESS
+                    ? (long) (random.nextDouble() * ageSeconds)
+                    : Math.min(ageSeconds, (long) (exponential(random, 5) * SECONDS_PER_DAY));
+            statusChangedAt = createdAt.plusSeconds(elapsed);
+            if (status == TaskStatus.DONE) {
+                completedAt = statusChangedAt;
+            }
+        }
+        double priorityDraw = random.nextDouble();
+        TaskPriority priority = priorityDraw < 0.25 ? TaskPriority.LOW
+                : priorityDraw < 0.75 ? TaskPriority.MEDIUM
+                : priorityDraw < 0.95 ? TaskPriority.HIGH
+                : TaskPriority.URGENT;
+        return new TaskSample(status, createdAt, statusChangedAt, dueDate, statusChangedAt, completedAt, priority);
+    }
+
+    private static double exponential(Random random, double mean) {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+}
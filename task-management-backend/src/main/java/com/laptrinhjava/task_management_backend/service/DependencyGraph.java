@@ -0,0 +1,328 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Đồ thị phụ thuộc của một dự án dưới dạng mảng nguyên thuỷ: node là chỉ số trong mảng id đã sắp xếp,
+ * cạnh được lưu kiểu CSR theo hai chiều (các task chặn node i, các task bị node i chặn).
+ * Với 50k task/cạnh, đồ thị chỉ chiếm vài MB và một lần duyệt toàn bộ mất vài mili giây.
+ * Bất biến: mỗi thay đổi trả về một đồ thị mới, request đang đọc bản cũ không bị ảnh hưởng.
+ */
+final class DependencyGraph {
+
+    static final int NO_DUE_DATE = Integer.MIN_VALUE;
+
+    private final long[] ids;
+    private final boolean[] finished;
+    // Hạn chót dạng LocalDate.toEpochDay(), NO_DUE_DATE nếu không có
+    private final int[] dueDays;
+    // Các task chặn node i: blockers[blockerStart[i] .. blockerStart[i + 1])
+    private final int[] blockerStart;
+    private final int[] blockers;
+    // Các task bị node i chặn
+    private final int[] dependentStart;
+    private final int[] dependents;
+
+    private DependencyGraph(long[] ids, boolean[] finished, int[] dueDays,
+                            int[] blockerStart, int[] blockers, int[] dependentStart, int[] dependents) {
+        this.ids = ids;
+        this.finished = finished;
+        this.dueDays = dueDays;
+        this.blockerStart = blockerStart;
+        this.blockers = blockers;
+        this.dependentStart = dependentStart;
+        this.dependents = dependents;
+    }
+
+    /**
+     * Dựng đồ thị; cạnh có đầu mút không thuộc tập node (task đã lưu trữ, dữ liệu cũ) bị bỏ qua.
+     */
+    static DependencyGraph build(long[] taskIds, boolean[] taskFinished, int[] taskDueDays,
+                                 long[] edgeTaskIds, long[] edgeBlockerIds, int edgeCount) {
+        int n = taskIds.length;
+        long[] ids = taskIds.clone();
+        Arrays.sort(ids);
+        boolean[] finished = new boolean[n];
+        int[] dueDays = new int[n];
+        for (int i = 0; i < n; i++) {
+            int index = Arrays.binarySearch(ids, taskIds[i]);
+            finished[index] = taskFinished[i];
+            dueDays[index] = taskDueDays[i];
+        }
+
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        int[] blockerCount = new int[n + 1];
+        int[] dependentCount = new int[n + 1];
+        int edges = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            int task = Arrays.binarySearch(ids, edgeTaskIds[e]);
+            int blocker = Arrays.binarySearch(ids, edgeBlockerIds[e]);
+            if (task < 0 || blocker < 0 || task == blocker) {
+                continue;
+            }
+            from[edges] = task;
+            to[edges] = blocker;
+            blockerCount[task + 1]++;
+            dependentCount[blocker + 1]++;
+            edges++;
+        }
+        for (int i = 0; i < n; i++) {
+            blockerCount[i + 1] += blockerCount[i];
+            dependentCount[i + 1] += dependentCount[i];
+        }
+        int[] blockers = new int[edges];
+        int[] dependents = new int[edges];
+        int[] blockerFill = Arrays.copyOf(blockerCount, n);
+        int[] dependentFill = Arrays.copyOf(dependentCount, n);
+        for (int e = 0; e < edges; e++) {
+            blockers[blockerFill[from[e]]++] = to[e];
+            dependents[dependentFill[to[e]]++] = from[e];
+        }
+        return new DependencyGraph(ids, finished, dueDays, blockerCount, blockers, dependentCount, dependents);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    int edgeCount() {
+        return blockers.length;
+    }
+
+    int indexOf(long taskId) {
+        int index = Arrays.binarySearch(ids, taskId);
+        return index >= 0 ? index : -1;
+    }
+
+    long idAt(int index) {
+        return ids[index];
+    }
+
+    int dueDayAt(int index) {
+        return dueDays[index];
+    }
+
+    boolean isFinished(int index) {
+        return finished[index];
+    }
+
+    long[] blockerIds(int index) {
+        return idsOf(blockers, blockerStart[index], blockerStart[index + 1]);
+    }
+
+    long[] dependentIds(int index) {
+        return idsOf(dependents, dependentStart[index], dependentStart[index + 1]);
+    }
+
+    // Chưa xong và còn ít nhất một task chặn chưa xong
+    boolean isBlocked(int index) {
+        if (finished[index]) {
+            return false;
+        }
+        for (int e = blockerStart[index]; e < blockerStart[index + 1]; e++) {
+            if (!finished[blockers[e]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lập lịch sớm nhất: mỗi task chưa xong mất durationDays ngày và chỉ bắt đầu khi mọi task chặn nó đã xong.
+     * Đường găng là chuỗi phụ thuộc dẫn tới task trễ hạn nhiều nhất so với hạn chót
+     * (nếu không task nào có hạn chót: task xong muộn nhất).
+     * @param today ngày hiện tại dạng epoch day
+     */
+    Schedule schedule(int today, int durationDays) {
+        int n = ids.length;
+        int[] remaining = new int[n];
+        int[] start = new int[n];
+        int[] earliestFinish = new int[n];
+        int[] via = new int[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            remaining[i] = blockerStart[i + 1] - blockerStart[i];
+            via[i] = -1;
+            if (remaining[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        // Duyệt theo thứ tự topo (Kahn); node nằm trong chu trình (dữ liệu cũ) không bao giờ được xếp lịch
+        while (head < tail) {
+            int node = queue[head++];
+            earliestFinish[node] = start[node] + (finished[node] ? 0 : durationDays);
+            for (int e = dependentStart[node]; e < dependentStart[node + 1]; e++) {
+                int dependent = dependents[e];
+                if (earliestFinish[node] > start[dependent]) {
+                    start[dependent] = earliestFinish[node];
+                    via[dependent] = node;
+                }
+                if (--remaining[dependent] == 0) {
+                    queue[tail++] = dependent;
+                }
+            }
+        }
+
+        int end = -1;
+        long worstLateness = Long.MIN_VALUE;
+        boolean anyDueDate = false;
+        int projectFinish = 0;
+        for (int q = 0; q < tail; q++) {
+            int node = queue[q];
+            projectFinish = Math.max(projectFinish, earliestFinish[node]);
+            if (finished[node]) {
+                continue;
+            }
+            boolean hasDue = dueDays[node] != NO_DUE_DATE;
+            if (hasDue && !anyDueDate) {
+                anyDueDate = true;
+                end = -1;
+                worstLateness = Long.MIN_VALUE;
+            }
+            if (anyDueDate && !hasDue) {
+                continue;
+            }
+            long lateness = hasDue ? (long) today + earliestFinish[node] - dueDays[node] : earliestFinish[node];
+            if (lateness > worstLateness || (lateness == worstLateness && earliestFinish[node] > earliestFinish[end])) {
+                worstLateness = lateness;
+                end = node;
+            }
+        }
+
+        int length = 0;
+        for (int node = end; node >= 0; node = via[node]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int node = end, i = length - 1; node >= 0; node = via[node], i--) {
+            path[i] = node;
+        }
+        return new Schedule(earliestFinish, path, projectFinish);
+    }
+
+    /**
+     * @param earliestFinish số ngày tính từ hôm nay tới khi từng task có thể xong sớm nhất
+     * @param criticalPath chỉ số node, từ đầu chuỗi tới task cuối
+     */
+    record Schedule(int[] earliestFinish, int[] criticalPath, int projectFinish) {
+    }
+
+    // Các thay đổi tăng dần: cập nhật trạng thái/hạn chót dùng lại nguyên phần cạnh, còn lại dựng lại từ bộ nhớ
+
+    DependencyGraph withTask(long taskId, boolean taskFinished, int dueDay) {
+        int index = indexOf(taskId);
+        if (index >= 0) {
+            boolean[] newFinished = finished.clone();
+            int[] newDueDays = dueDays.clone();
+            newFinished[index] = taskFinished;
+            newDueDays[index] = dueDay;
+            return new DependencyGraph(ids, newFinished, newDueDays, blockerStart, blockers, dependentStart, dependents);
+        }
+        int n = ids.length;
+        long[] newIds = Arrays.copyOf(ids, n + 1);
+        boolean[] newFinished = Arrays.copyOf(finished, n + 1);
+        int[] newDueDays = Arrays.copyOf(dueDays, n + 1);
+        newIds[n] = taskId;
+        newFinished[n] = taskFinished;
+        newDueDays[n] = dueDay;
+        return rebuild(newIds, newFinished, newDueDays, 0, 0, false);
+    }
+
+    DependencyGraph withoutTasks(Collection<Long> taskIds) {
+        Set<Long> removed = new HashSet<>(taskIds);
+        int n = ids.length;
+        long[] newIds = new long[n];
+        boolean[] newFinished = new boolean[n];
+        int[] newDueDays = new int[n];
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            if (!removed.contains(ids[i])) {
+                newIds[kept] = ids[i];
+                newFinished[kept] = finished[i];
+                newDueDays[kept] = dueDays[i];
+                kept++;
+            }
+        }
+        if (kept == n) {
+            return this;
+        }
+        return rebuild(Arrays.copyOf(newIds, kept), Arrays.copyOf(newFinished, kept), Arrays.copyOf(newDueDays, kept), 0, 0, false);
+    }
+
+    boolean hasEdge(long taskId, long blockedById) {
+        int task = indexOf(taskId);
+        int blocker = indexOf(blockedById);
+        if (task < 0 || blocker < 0) {
+            return false;
+        }
+        for (int e = blockerStart[task]; e < blockerStart[task + 1]; e++) {
+            if (blockers[e] == blocker) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Cạnh đã có thì giữ nguyên đồ thị (thay đổi có thể được áp lên bản vừa nạp lại đã chứa cạnh này)
+    DependencyGraph withEdge(long taskId, long blockedById) {
+        if (hasEdge(taskId, blockedById)) {
+            return this;
+        }
+        return rebuild(ids, finished, dueDays, taskId, blockedById, true);
+    }
+
+    DependencyGraph withoutEdge(long taskId, long blockedById) {
+        int task = indexOf(taskId);
+        int blocker = indexOf(blockedById);
+        int m = blockers.length;
+        long[] edgeTasks = new long[m];
+        long[] edgeBlockers = new long[m];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            for (int e = blockerStart[i]; e < blockerStart[i + 1]; e++) {
+                if (i == task && blockers[e] == blocker) {
+                    continue;
+                }
+                edgeTasks[count] = ids[i];
+                edgeBlockers[count] = ids[blockers[e]];
+                count++;
+            }
+        }
+        return build(ids, finished, dueDays, edgeTasks, edgeBlockers, count);
+    }
+
+    private DependencyGraph rebuild(long[] nodeIds, boolean[] nodeFinished, int[] nodeDueDays,
+                                    long extraTaskId, long extraBlockerId, boolean withExtraEdge) {
+        int m = blockers.length + (withExtraEdge ? 1 : 0);
+        long[] edgeTasks = new long[m];
+        long[] edgeBlockers = new long[m];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            for (int e = blockerStart[i]; e < blockerStart[i + 1]; e++) {
+                edgeTasks[count] = ids[i];
+                edgeBlockers[count] = ids[blockers[e]];
+                count++;
+            }
+        }
+        if (withExtraEdge) {
+            edgeTasks[count] = extraTaskId;
+            edgeBlockers[count] = extraBlockerId;
+            count++;
+        }
+        return build(nodeIds, nodeFinished, nodeDueDays, edgeTasks, edgeBlockers, count);
+    }
+
+    private long[] idsOf(int[] nodes, int from, int to) {
+        long[] result = new long[to - from];
+        for (int e = from; e < to; e++) {
+            result[e - from] = ids[nodes[e]];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,106 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static com.laptrinhjava.task_management_backend.util.TransactionCallbacks.afterCommit;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+import com.laptrinhjava.task_management_backend.repository.TaskDependencyRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskRepository;
+
+/**
+ * Cache đồ thị phụ thuộc theo dự án (id dự án duy nhất trên mọi shard nên dùng làm khoá trực tiếp).
+ *
+ * Thay đổi trên node này được áp tăng dần vào đồ thị sau khi giao dịch commit; TTL chỉ để bắt kịp
+ * thay đổi từ các node khác. Nếu có thay đổi xảy ra trong lúc đang nạp, bản vừa nạp không được đưa vào cache.
+ */
+@Service
+public class DependencyGraphCache {
+
+    private final TaskRepository taskRepository;
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final VersionedTtlCache<DependencyGraph> cache;
+
+    @Autowired
+    public DependencyGraphCache(TaskRepository taskRepository, TaskDependencyRepository taskDependencyRepository,
+                                @Value("${app.dependencies.graph-ttl-ms:300000}") long ttlMs,
+                                @Value("${app.dependencies.max-cached-projects:1000}") int maxCachedProjects) {
+        this.taskRepository = taskRepository;
+        this.taskDependencyRepository = taskDependencyRepository;
+        this.cache = new VersionedTtlCache<>(ttlMs, maxCachedProjects);
+    }
+
+    /**
+     * Đồ thị hiện tại của dự án; gọi trong giao dịch (chỉ đọc) đã kiểm tra quyền truy cập dự án.
+     */
+    DependencyGraph graphFor(Long projectId) {
+        return cache.get(projectId, this::load);
+    }
+
+    private DependencyGraph load(Long projectId) {
+        List<Object[]> nodes = taskRepository.findGraphNodes(projectId);
+        long[] ids = new long[nodes.size()];
+        boolean[] finished = new boolean[nodes.size()];
+        int[] dueDays = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            Object[] row = nodes.get(i);
+            ids[i] = (Long) row[0];
+            finished[i] = isFinished((TaskStatus) row[1]);
+            dueDays[i] = toDueDay((LocalDate) row[2]);
+        }
+        List<Object[]> edges = taskDependencyRepository.findEdgesByProjectId(projectId);
+        long[] edgeTasks = new long[edges.size()];
+        long[] edgeBlockers = new long[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            edgeTasks[i] = (Long) edges.get(i)[0];
+            edgeBlockers[i] = (Long) edges.get(i)[1];
+        }
+        return DependencyGraph.build(ids, finished, dueDays, edgeTasks, edgeBlockers, edges.size());
+    }
+
+    // Các thay đổi dưới đây chỉ được áp sau khi giao dịch hiện tại commit
+
+    public void taskChanged(Long projectId, Long taskId, TaskStatus status, LocalDate dueDate) {
+        update(projectId, graph -> graph.withTask(taskId, isFinished(status), toDueDay(dueDate)));
+    }
+
+    public void tasksRemoved(Long projectId, Collection<Long> taskIds) {
+        update(projectId, graph -> graph.withoutTasks(taskIds));
+    }
+
+    public void dependencyAdded(Long projectId, Long taskId, Long blockedById) {
+        update(projectId, graph -> graph.withEdge(taskId, blockedById));
+    }
+
+    public void dependencyRemoved(Long projectId, Long taskId, Long blockedById) {
+        update(projectId, graph -> graph.withoutEdge(taskId, blockedById));
+    }
+
+    public void evict(Long projectId) {
+        afterCommit(() -> cache.remove(projectId));
+    }
+
+    // Dùng khi thay đổi hàng loạt trên nhiều dự án (ví dụ: lưu trữ task cũ)
+    public void clear() {
+        afterCommit(cache::clear);
+    }
+
+    private void update(Long projectId, UnaryOperator<DependencyGraph> change) {
+        afterCommit(() -> cache.update(projectId, change));
+    }
+
+    static boolean isFinished(TaskStatus status) {
+        return status == TaskStatus.DONE || status == TaskStatus.CANCELLED;
+    }
+
+    private static int toDueDay(LocalDate dueDate) {
+        return dueDate != null ? (int) dueDate.toEpochDay() : DependencyGraph.NO_DUE_DATE;
+    }
+}
@@ -0,0 +1,196 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.laptrinhjava.task_management_backend.dto.CriticalPathTaskResponse;
+import com.laptrinhjava.task_management_backend.dto.DependencyAnalysisResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskDependenciesResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskDependencyRequest;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.exception.ConflictException;
+import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
+import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.Task;
+import com.laptrinhjava.task_management_backend.model.TaskDependency;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.ProjectRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskDependencyRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskRepository;
+
+/**
+ * Quan hệ "bị chặn bởi" giữa các task trong cùng dự án.
+ * Ghi: kiểm tra chu trình trên database (dưới khoá dòng dự án). Đọc cả dự án: dùng đồ thị trong {@link DependencyGraphCache}.
+ */
+@Service
+public class DependencyService {
+
+    private static final List<TaskStatus> FINISHED_STATUSES = List.of(TaskStatus.DONE, TaskStatus.CANCELLED);
+    // Số id tối đa trong một mệnh đề IN khi mở rộng một tầng lúc tìm chu trình
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final UserService userService;
+    private final TaskService taskService;
+    private final DependencyGraphCache dependencyGraphCache;
+
+    @Value("${app.dependencies.task-duration-days:1}")
+    private int taskDurationDays;
+
+    @Autowired
+    public DependencyService(TaskDependencyRepository taskDependencyRepository, TaskRepository taskRepository,
+                             ProjectRepository projectRepository, UserService userService, TaskService taskService,
+                             DependencyGraphCache dependencyGraphCache) {
+        this.taskDependencyRepository = taskDependencyRepository;
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.userService = userService;
+        this.taskService = taskService;
+        this.dependencyGraphCache = dependencyGraphCache;
+    }
+
+    /**
+     * Đánh dấu taskId bị chặn bởi blockedByTaskId. Chỉ chủ dự án; hai task phải cùng dự án và không tạo chu trình.
+     */
+    @Transactional
+    public TaskDependenciesResponse addDependency(Long taskId, TaskDependencyRequest request) {
+        Task task = findOwnedTask(taskId);
+        Long projectId = task.getProject().getId();
+        Long blockedById = request.getBlockedByTaskId();
+        if (blockedById.equals(taskId)) {
+            throw new BadRequestException("Task không thể bị chặn bởi chính nó. ID task: " + taskId);
+        }
+        taskRepository.findByIdAndProjectId(blockedById, projectId)
+            .orElseThrow(() -> new BadRequestException("Task chặn không tồn tại trong dự án này. ID task: " + blockedById));
+
+        // Hai request thêm cạnh ngược chiều nhau chạy song song sẽ cùng qua được bước kiểm tra chu trình nếu không khoá
+        projectRepository.findByIdForUpdate(projectId)
+            .orElseThrow(() -> new ResourceNotFoundException("Dự án không tồn tại. ID dự án: " + projectId));
+        if (taskDependencyRepository.existsById(new TaskDependency.Key(taskId, blockedById))) {
+            throw new ConflictException("Task " + taskId + " đã bị chặn bởi task " + blockedById + ".");
+        }
+        if (isBlockedTransitively(blockedById, taskId)) {
+            throw new BadRequestException("Phụ thuộc tạo thành chu trình: task " + taskId
+                    + " đang (gián tiếp) chặn task " + blockedById + ".");
+        }
+
+        taskDependencyRepository.save(new TaskDependency(taskId, blockedById, projectId, LocalDateTime.now()));
+        dependencyGraphCache.dependencyAdded(projectId, taskId, blockedById);
+        return describe(task);
+    }
+
+    @Transactional
+    public void removeDependency(Long taskId, Long blockedById) {
+        Task task = findOwnedTask(taskId);
+        TaskDependency.Key key = new TaskDependency.Key(taskId, blockedById);
+        if (!taskDependencyRepository.existsById(key)) {
+            throw new ResourceNotFoundException("Task " + taskId + " không bị chặn bởi task " + blockedById + ".");
+        }
+        taskDependencyRepository.deleteById(key);
+        dependencyGraphCache.dependencyRemoved(task.getProject().getId(), taskId, blockedById);
+    }
+
+    /**
+     * Các task chặn và bị chặn bởi một task (chủ dự án hoặc người được giao).
+     */
+    @Transactional(readOnly = true)
+    public TaskDependenciesResponse getTaskDependenciesForCurrentUser(Long taskId) {
+        taskService.getTaskByIdForCurrentUser(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        Task task = taskRepository.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        return describe(task);
+    }
+
+    /**
+     * Trạng thái bị chặn của mọi task trong dự án và đường găng tính theo hạn chót.
+     */
+    @Transactional(readOnly = true)
+    public DependencyAnalysisResponse analyzeProjectForCurrentUser(Long projectId) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực.");
+        }
+        projectRepository.findByIdAndOwnerId(projectId, currentUser.getId())
+            .orElseThrow(() -> new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền truy cập. ID dự án: " + projectId));
+
+        DependencyGraph graph = dependencyGraphCache.graphFor(projectId);
+        LocalDate today = LocalDate.now();
+        DependencyGraph.Schedule schedule = graph.schedule((int) today.toEpochDay(), taskDurationDays);
+
+        List<Long> blockedTaskIds = new ArrayList<>();
+        for (int i = 0; i < graph.size(); i++) {
+            if (graph.isBlocked(i)) {
+                blockedTaskIds.add(graph.idAt(i));
+            }
+        }
+        List<CriticalPathTaskResponse> criticalPath = new ArrayList<>();
+        for (int node : schedule.criticalPath()) {
+            LocalDate earliestFinish = today.plusDays(schedule.earliestFinish()[node]);
+            int dueDay = graph.dueDayAt(node);
+            LocalDate dueDate = dueDay != DependencyGraph.NO_DUE_DATE ? LocalDate.ofEpochDay(dueDay) : null;
+            criticalPath.add(new CriticalPathTaskResponse(graph.idAt(node), dueDate, earliestFinish,
+                    dueDate != null ? dueDate.toEpochDay() - earliestFinish.toEpochDay() : null));
+        }
+        return new DependencyAnalysisResponse(projectId, graph.size(), graph.edgeCount(), blockedTaskIds,
+                today.plusDays(schedule.projectFinish()), criticalPath);
+    }
+
+    private Task findOwnedTask(Long taskId) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để cập nhật task.");
+        }
+        Task task = taskRepository.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        if (task.getProject() == null || !task.getProject().getOwner().getId().equals(currentUser.getId())) {
+            throw new UnauthorizedAccessException("Bạn không có quyền thay đổi phụ thuộc vì không phải là chủ sở hữu dự án. ID task: " + taskId);
+        }
+        return task;
+    }
+
+    // Duyệt theo chiều rộng các task chặn của fromTaskId, mỗi tầng một truy vấn
+    private boolean isBlockedTransitively(Long fromTaskId, Long targetTaskId) {
+        Set<Long> visited = new HashSet<>();
+        visited.add(fromTaskId);
+        List<Long> frontier = List.of(fromTaskId);
+        while (!frontier.isEmpty()) {
+            List<Long> next = new ArrayList<>();
+            for (int from = 0; from < frontier.size(); from += ID_CHUNK_SIZE) {
+                for (Long blockerId : taskDependencyRepository.findBlockerIds(
+                        frontier.subList(from, Math.min(from + ID_CHUNK_SIZE, frontier.size())))) {
+                    if (blockerId.equals(targetTaskId)) {
+                        return true;
+                    }
+                    if (visited.add(blockerId)) {
+                        next.add(blockerId);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return false;
+    }
+
+    // Đọc thẳng từ database (hai lần quét index) để phản ánh ngay thay đổi trong giao dịch hiện tại
+    private TaskDependenciesResponse describe(Task task) {
+        List<Long> blockedBy = new ArrayList<>(taskDependencyRepository.findBlockerIds(List.of(task.getId())));
+        blockedBy.sort(null);
+        boolean blocked = !FINISHED_STATUSES.contains(task.getStatus())
+                && taskDependencyRepository.countOpenBlockers(task.getId(), FINISHED_STATUSES) > 0;
+        return new TaskDependenciesResponse(task.getId(), blocked, blockedBy,
+                taskDependencyRepository.findDependentIds(task.getId()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Gửi mỗi lô sự kiện tới một URL bằng một POST (mảng JSON). Chỉ phản hồi 2xx được coi là đã nhận.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.outbox.http", name = "enabled", havingValue = "true")
+public class HttpOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI url;
+    private final Duration timeout;
+
+    @Autowired
+    public HttpOutboxSink(ObjectMapper objectMapper,
+                          @Value("${app.outbox.http.url:}") String url,
+                          @Value("${app.outbox.http.timeout-ms:5000}") long timeoutMs) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("Cần cấu hình app.outbox.http.url khi app.outbox.http.enabled=true");
+        }
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String name() {
+        return "http";
+    }
+
+    @Override
+    public void publish(List<Event> events) {
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        events.forEach(event -> body.add(OutboxRelay.toJson(objectMapper, event)));
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Không gửi được sự kiện outbox tới " + url, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bị ngắt khi gửi sự kiện outbox", ex);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Đích HTTP trả về " + response.statusCode() + " cho lô outbox");
+        }
+    }
+}
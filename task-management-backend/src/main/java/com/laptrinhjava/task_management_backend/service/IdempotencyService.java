@@ -0,0 +1,146 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.exception.ConflictException;
+import com.laptrinhjava.task_management_backend.util.SecurityUtils;
+
+/**
+ * Xử lý header Idempotency-Key cho các endpoint tạo mới.
+ *
+ * Lần đầu một khoá xuất hiện, request được xử lý bình thường và response được lưu lại (theo TTL).
+ * Các lần gửi lại trả về đúng response đó mà không chạm vào bảng nghiệp vụ; request trùng đến trong lúc
+ * lần đầu còn đang chạy sẽ chờ kết quả của lần đầu. Khoá được tách theo người dùng và theo endpoint.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String HEADER_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final InMemoryIdempotencyStore memoryStore;
+    // null khi app.idempotency.store=memory (chỉ một node)
+    private final JdbcIdempotencyStore jdbcStore;
+    private final ObjectMapper objectMapper;
+    private final ShardRouter shardRouter;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+
+    @Autowired
+    public IdempotencyService(ObjectMapper objectMapper, JdbcTemplate jdbcTemplate, ShardRouter shardRouter,
+                              @Value("${app.idempotency.store:memory}") String store,
+                              @Value("${app.idempotency.stripes:64}") int stripes,
+                              @Value("${app.idempotency.max-entries:100000}") int maxEntries,
+                              @Value("${app.idempotency.ttl-ms:86400000}") long ttlMs,
+                              @Value("${app.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.shardRouter = shardRouter;
+        this.memoryStore = new InMemoryIdempotencyStore(stripes, maxEntries);
+        this.jdbcStore = "jdbc".equalsIgnoreCase(store) ? new JdbcIdempotencyStore(jdbcTemplate) : null;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.waitTimeout = Duration.ofMillis(waitTimeoutMs);
+    }
+
+    public <T> Result<T> execute(String idempotencyKey, String operation, Object request, Class<T> responseType, Supplier<T> action) {
+        String userKey = SecurityUtils.currentUserKey();
+        if (!StringUtils.hasText(idempotencyKey) || userKey == null) {
+            return new Result<>(action.get(), false);
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key không được dài quá " + MAX_KEY_LENGTH + " ký tự.");
+        }
+
+        String key = sha256(userKey + "|" + operation + "|" + idempotencyKey);
+        String fingerprint = sha256(toJson(request));
+
+        IdempotencyStore.Reservation local = memoryStore.reserve(key, fingerprint, ttl);
+        if (!local.isOwner()) {
+            return replay(local, fingerprint, responseType);
+        }
+
+        boolean ownsSharedKey = false;
+        try {
+            if (jdbcStore != null) {
+                IdempotencyStore.Reservation shared = jdbcStore.reserve(key, fingerprint, ttl);
+                if (!shared.isOwner()) {
+                    Result<T> replayed = replay(shared, fingerprint, responseType);
+                    memoryStore.complete(key, toJson(replayed.body()));
+                    return replayed;
+                }
+                ownsSharedKey = true;
+            }
+
+            T response = action.get();
+            String body = toJson(response);
+            if (jdbcStore != null) {
+                jdbcStore.complete(key, body);
+            }
+            memoryStore.complete(key, body);
+            return new Result<>(response, false);
+        } catch (RuntimeException ex) {
+            if (ownsSharedKey) {
+                jdbcStore.abandon(key, ex);
+            }
+            memoryStore.abandon(key, ex);
+            throw ex;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:600000}")
+    public void purgeExpiredKeys() {
+        if (jdbcStore != null) {
+            // Khoá được lưu trên shard của người dùng (cùng DataSource định tuyến với dữ liệu nghiệp vụ)
+            shardRouter.forEachShard(jdbcStore::purgeExpired);
+        }
+    }
+
+    private <T> Result<T> replay(IdempotencyStore.Reservation reservation, String fingerprint, Class<T> responseType) {
+        if (!reservation.getFingerprint().equals(fingerprint)) {
+            throw new ConflictException("Idempotency-Key đã được dùng cho một request có nội dung khác.");
+        }
+        String body = reservation.awaitResponse(waitTimeout);
+        try {
+            return new Result<>(objectMapper.readValue(body, responseType), true);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Không đọc được response đã lưu cho Idempotency-Key", ex);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Không serialize được dữ liệu cho Idempotency-Key", ex);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public record Result<T>(T body, boolean replayed) {
+    }
+}
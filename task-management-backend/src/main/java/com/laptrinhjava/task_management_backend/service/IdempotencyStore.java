@@ -0,0 +1,32 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.Duration;
+
+/**
+ * Nơi lưu khoá idempotency và response đã trả về cho khoá đó.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Giành quyền xử lý một khoá. Nếu khoá chưa tồn tại (hoặc đã hết hạn), người gọi trở thành "owner"
+     * và phải gọi {@link #complete} hoặc {@link #abandon} sau khi xử lý xong.
+     */
+    Reservation reserve(String key, String fingerprint, Duration ttl);
+
+    void complete(String key, String responseBody);
+
+    // Xử lý thất bại: giải phóng khoá để lần thử lại được xử lý từ đầu
+    void abandon(String key, RuntimeException failure);
+
+    /**
+     * Kết quả của {@link #reserve}: owner = true nghĩa là người gọi phải tự xử lý request;
+     * ngược lại {@link #awaitResponse} chờ (hoặc trả ngay) response của lần xử lý đầu tiên.
+     */
+    interface Reservation {
+        boolean isOwner();
+
+        String getFingerprint();
+
+        String awaitResponse(Duration timeout);
+    }
+}
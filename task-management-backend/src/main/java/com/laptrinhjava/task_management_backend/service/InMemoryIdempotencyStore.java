@@ -0,0 +1,172 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.laptrinhjava.task_management_backend.exception.ConflictException;
+
+/**
+ * Bộ nhớ idempotency trong tiến trình: chia thành nhiều "stripe", mỗi stripe là một LinkedHashMap có giới hạn
+ * kích thước và khoá riêng, nên các request khác khoá hầu như không tranh chấp nhau.
+ * Mục hết hạn (TTL) bị loại khi chạm tới, mục cũ nhất đã có response bị loại khi stripe đầy.
+ * Request trùng khoá đang chạy dùng chung một CompletableFuture thay vì chạy lại.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Stripe[] stripes;
+    private final int maxEntriesPerStripe;
+
+    public InMemoryIdempotencyStore(int stripeCount, int maxEntries) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / count);
+    }
+
+    @Override
+    public Reservation reserve(String key, String fingerprint, Duration ttl) {
+        Stripe stripe = stripeFor(key);
+        long now = System.currentTimeMillis();
+        stripe.lock.lock();
+        try {
+            Entry existing = stripe.entries.get(key);
+            if (existing != null && existing.expiresAt > now) {
+                return new MemoryReservation(false, existing);
+            }
+            Entry entry = new Entry(fingerprint, now + ttl.toMillis());
+            stripe.entries.remove(key);
+            stripe.entries.put(key, entry);
+            evict(stripe, now);
+            return new MemoryReservation(true, entry);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public void complete(String key, String responseBody) {
+        Entry entry = get(key);
+        if (entry != null) {
+            entry.response.complete(responseBody);
+        }
+    }
+
+    @Override
+    public void abandon(String key, RuntimeException failure) {
+        Stripe stripe = stripeFor(key);
+        Entry entry;
+        stripe.lock.lock();
+        try {
+            entry = stripe.entries.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (entry != null) {
+            // Các request đang chờ nhận cùng lỗi với request đầu tiên
+            entry.response.completeExceptionally(failure);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Entry get(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            return stripe.entries.get(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Mục được thêm theo thứ tự thời gian với cùng TTL, nên phần đầu map luôn là mục hết hạn sớm nhất.
+     * Mục đang xử lý (chưa có response) không bao giờ bị loại: nếu không complete() sẽ không tìm thấy mục,
+     * các request đang chờ bị hết giờ và lần thử lại với cùng khoá sẽ chạy lại request. Vì vậy stripe có thể tạm vượt
+     * giới hạn, tối đa bằng số request đang chạy.
+     */
+    private void evict(Stripe stripe, long now) {
+        Iterator<Entry> iterator = stripe.entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (!eldest.response.isDone()) {
+                continue;
+            }
+            if (eldest.expiresAt > now && stripe.entries.size() <= maxEntriesPerStripe) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Entry> entries = new LinkedHashMap<>();
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<String> response = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private record MemoryReservation(boolean owner, Entry entry) implements Reservation {
+
+        @Override
+        public boolean isOwner() {
+            return owner;
+        }
+
+        @Override
+        public String getFingerprint() {
+            return entry.fingerprint;
+        }
+
+        @Override
+        public String awaitResponse(Duration timeout) {
+            try {
+                return entry.response.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException(ex.getCause());
+            } catch (TimeoutException ex) {
+                throw new ConflictException("Request với Idempotency-Key này vẫn đang được xử lý, vui lòng thử lại sau.");
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ConflictException("Request với Idempotency-Key này vẫn đang được xử lý, vui lòng thử lại sau.");
+            }
+        }
+    }
+}
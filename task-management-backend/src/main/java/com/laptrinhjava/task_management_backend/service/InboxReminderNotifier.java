@@ -0,0 +1,24 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+// Ghi nhắc hạn vào hộp thư trong ứng dụng (GET /api/notifications)
+@Service
+@ConditionalOnProperty(prefix = "app.reminders", name = "notifier", havingValue = "inbox")
+public class InboxReminderNotifier implements ReminderNotifier {
+
+    private final NotificationService notificationService;
+
+    @Autowired
+    public InboxReminderNotifier(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @Override
+    public void notify(Reminder reminder) {
+        notificationService.deliver(reminder.recipientId(), reminder.taskId(),
+                "Task \"" + reminder.title() + "\" đến hạn ngày " + reminder.dueDate() + ".");
+    }
+}
@@ -0,0 +1,110 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.laptrinhjava.task_management_backend.exception.ConflictException;
+
+/**
+ * Lưu khoá idempotency trong bảng idempotency_keys để các node khác nhau cùng nhìn thấy.
+ * Khoá chính của bảng đảm bảo chỉ một node giành được quyền xử lý; các node khác thăm dò tới khi có response.
+ * Mọi câu lệnh chạy ngoài giao dịch nghiệp vụ (auto-commit) để các node khác thấy ngay.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Reservation reserve(String key, String fingerprint, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, fingerprint, created_at, expires_at) VALUES (?, ?, ?, ?)",
+                        key, fingerprint, Timestamp.valueOf(now), Timestamp.valueOf(now.plus(ttl)));
+                return new JdbcReservation(true, key, fingerprint);
+            } catch (DuplicateKeyException ex) {
+                List<String> existing = jdbcTemplate.queryForList(
+                        "SELECT fingerprint FROM idempotency_keys WHERE idempotency_key = ? AND expires_at > ?",
+                        String.class, key, Timestamp.valueOf(now));
+                if (!existing.isEmpty()) {
+                    return new JdbcReservation(false, key, existing.get(0));
+                }
+                // Bản ghi cũ đã hết hạn: xoá rồi thử giành lại
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?", key, Timestamp.valueOf(now));
+            }
+        }
+        throw new ConflictException("Request với Idempotency-Key này vẫn đang được xử lý, vui lòng thử lại sau.");
+    }
+
+    @Override
+    public void complete(String key, String responseBody) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET response_body = ? WHERE idempotency_key = ?", responseBody, key);
+    }
+
+    @Override
+    public void abandon(String key, RuntimeException failure) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND response_body IS NULL", key);
+    }
+
+    public int purgeExpired() {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private final class JdbcReservation implements Reservation {
+        private final boolean owner;
+        private final String key;
+        private final String fingerprint;
+
+        private JdbcReservation(boolean owner, String key, String fingerprint) {
+            this.owner = owner;
+            this.key = key;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public boolean isOwner() {
+            return owner;
+        }
+
+        @Override
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        @Override
+        public String awaitResponse(Duration timeout) {
+            long deadline = System.currentTimeMillis() + timeout.toMillis();
+            while (true) {
+                List<String> body = jdbcTemplate.queryForList(
+                        "SELECT response_body FROM idempotency_keys WHERE idempotency_key = ?", String.class, key);
+                if (body.isEmpty()) {
+                    // Node đầu tiên xử lý thất bại và đã giải phóng khoá
+                    throw new ConflictException("Request đầu tiên với Idempotency-Key này đã thất bại, vui lòng gửi lại.");
+                }
+                if (body.get(0) != null) {
+                    return body.get(0);
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new ConflictException("Request với Idempotency-Key này vẫn đang được xử lý, vui lòng thử lại sau.");
+                }
+                try {
+                    Thread.sleep(POLL_INTERVAL_MS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new ConflictException("Request với Idempotency-Key này vẫn đang được xử lý, vui lòng thử lại sau.");
+                }
+            }
+        }
+    }
+}
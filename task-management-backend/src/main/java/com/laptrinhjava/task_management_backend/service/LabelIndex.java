@@ -0,0 +1,139 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.laptrinhjava.task_management_backend.model.Label;
+
+/**
+ * Nhãn của một dự án cùng bitmap id task (bảng nóng) của từng nhãn. Lọc "A AND B AND NOT C" là phép giao/hiệu
+ * trên các bitmap, không chạm tới cơ sở dữ liệu. Bất biến như {@link DependencyGraph}: mỗi thay đổi trả về bản mới.
+ */
+final class LabelIndex {
+
+    // Sắp theo tên nhãn (thứ tự trả về cho client)
+    private final long[] labelIds;
+    private final String[] names;
+    private final TaskIdBitmap[] tasks;
+    private final Map<String, Integer> byName;
+    private final Map<Long, Integer> byId;
+
+    private LabelIndex(long[] labelIds, String[] names, TaskIdBitmap[] tasks) {
+        this.labelIds = labelIds;
+        this.names = names;
+        this.tasks = tasks;
+        this.byName = new HashMap<>();
+        this.byId = new HashMap<>();
+        for (int i = 0; i < labelIds.length; i++) {
+            byName.put(key(names[i]), i);
+            byId.put(labelIds[i], i);
+        }
+    }
+
+    /**
+     * @param labels nhãn của dự án, đã sắp theo tên
+     * @param pairs  cặp (labelId, taskId) đã sắp theo labelId rồi taskId
+     */
+    static LabelIndex build(List<Label> labels, List<Object[]> pairs) {
+        long[] labelIds = new long[labels.size()];
+        String[] names = new String[labels.size()];
+        TaskIdBitmap[] tasks = new TaskIdBitmap[labels.size()];
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < labels.size(); i++) {
+            labelIds[i] = labels.get(i).getId();
+            names[i] = labels.get(i).getName();
+            tasks[i] = TaskIdBitmap.EMPTY;
+            positions.put(labelIds[i], i);
+        }
+        long[] buffer = new long[pairs.size()];
+        int start = 0;
+        while (start < pairs.size()) {
+            Long labelId = (Long) pairs.get(start)[0];
+            int end = start;
+            int count = 0;
+            while (end < pairs.size() && labelId.equals(pairs.get(end)[0])) {
+                buffer[count++] = (Long) pairs.get(end)[1];
+                end++;
+            }
+            Integer position = positions.get(labelId);
+            // Nhãn vừa bị xoá giữa hai truy vấn thì bỏ qua
+            if (position != null) {
+                tasks[position] = TaskIdBitmap.ofSorted(buffer, count);
+            }
+            start = end;
+        }
+        return new LabelIndex(labelIds, names, tasks);
+    }
+
+    /**
+     * Task có đủ mọi nhãn trong all và không có nhãn nào trong none (so tên không phân biệt hoa thường).
+     * Trả về null khi all rỗng: tập "mọi task của dự án" không nằm trong index.
+     */
+    TaskIdBitmap match(Collection<String> all, Collection<String> none) {
+        if (all == null || all.isEmpty()) {
+            return null;
+        }
+        // Giao từ bitmap nhỏ nhất để các kết quả trung gian nhỏ ngay từ đầu
+        List<TaskIdBitmap> required = new ArrayList<>(all.size());
+        for (String name : all) {
+            Integer index = byName.get(key(name));
+            if (index == null) {
+                return TaskIdBitmap.EMPTY;
+            }
+            required.add(tasks[index]);
+        }
+        required.sort((a, b) -> Long.compare(a.cardinality(), b.cardinality()));
+        TaskIdBitmap result = required.get(0);
+        for (int i = 1; i < required.size() && !result.isEmpty(); i++) {
+            result = result.and(required.get(i));
+        }
+        if (none != null) {
+            for (String name : none) {
+                Integer index = byName.get(key(name));
+                if (index != null && !result.isEmpty()) {
+                    result = result.andNot(tasks[index]);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Id nhãn theo tên, null nếu dự án không có nhãn này
+    Long labelId(String name) {
+        Integer index = byName.get(key(name));
+        return index != null ? labelIds[index] : null;
+    }
+
+    LabelIndex withTaskLabels(long taskId, Collection<Long> removed, Collection<Long> added) {
+        TaskIdBitmap[] changed = tasks.clone();
+        for (Long labelId : removed) {
+            Integer index = byId.get(labelId);
+            if (index != null) {
+                changed[index] = changed[index].without(taskId);
+            }
+        }
+        for (Long labelId : added) {
+            Integer index = byId.get(labelId);
+            if (index != null) {
+                changed[index] = changed[index].with(taskId);
+            }
+        }
+        return new LabelIndex(labelIds, names, changed);
+    }
+
+    LabelIndex withoutTasks(Collection<Long> taskIds) {
+        long[] sorted = taskIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        TaskIdBitmap removed = TaskIdBitmap.ofSorted(sorted, sorted.length);
+        TaskIdBitmap[] changed = Arrays.stream(tasks).map(bitmap -> bitmap.andNot(removed)).toArray(TaskIdBitmap[]::new);
+        return new LabelIndex(labelIds, names, changed);
+    }
+
+    static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,67 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static com.laptrinhjava.task_management_backend.util.TransactionCallbacks.afterCommit;
+
+import java.util.Collection;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.laptrinhjava.task_management_backend.repository.LabelRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskLabelRepository;
+
+/**
+ * Cache bitmap nhãn theo dự án, nạp lần đầu khi dự án được lọc hoặc hiển thị theo nhãn.
+ *
+ * Gắn/gỡ nhãn và xoá task trên node này được áp tăng dần vào bitmap sau khi giao dịch commit; thêm/sửa/xoá nhãn
+ * bỏ cả dự án khỏi cache. TTL chỉ để bắt kịp thay đổi từ các node khác (như DependencyGraphCache).
+ */
+@Service
+public class LabelIndexCache {
+
+    private final LabelRepository labelRepository;
+    private final TaskLabelRepository taskLabelRepository;
+    private final VersionedTtlCache<LabelIndex> cache;
+
+    @Autowired
+    public LabelIndexCache(LabelRepository labelRepository, TaskLabelRepository taskLabelRepository,
+                           @Value("${app.labels.index-ttl-ms:300000}") long ttlMs,
+                           @Value("${app.labels.max-cached-projects:1000}") int maxCachedProjects) {
+        this.labelRepository = labelRepository;
+        this.taskLabelRepository = taskLabelRepository;
+        this.cache = new VersionedTtlCache<>(ttlMs, maxCachedProjects);
+    }
+
+    /**
+     * Index nhãn hiện tại của dự án; gọi trong giao dịch trên shard của dự án.
+     */
+    LabelIndex indexFor(Long projectId) {
+        return cache.get(projectId, id -> LabelIndex.build(labelRepository.findByProjectIdOrderByName(id),
+                taskLabelRepository.findPairsByProjectId(id)));
+    }
+
+    // Các thay đổi dưới đây chỉ được áp sau khi giao dịch hiện tại commit
+
+    public void taskLabelsChanged(Long projectId, Long taskId, Collection<Long> removedLabelIds, Collection<Long> addedLabelIds) {
+        update(projectId, index -> index.withTaskLabels(taskId, removedLabelIds, addedLabelIds));
+    }
+
+    public void tasksRemoved(Long projectId, Collection<Long> taskIds) {
+        update(projectId, index -> index.withoutTasks(taskIds));
+    }
+
+    public void evict(Long projectId) {
+        afterCommit(() -> cache.remove(projectId));
+    }
+
+    // Dùng khi thay đổi hàng loạt trên nhiều dự án (ví dụ: lưu trữ task cũ)
+    public void clear() {
+        afterCommit(cache::clear);
+    }
+
+    private void update(Long projectId, UnaryOperator<LabelIndex> change) {
+        afterCommit(() -> cache.update(projectId, change));
+    }
+}
@@ -0,0 +1,221 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.laptrinhjava.task_management_backend.dto.LabelRequest;
+import com.laptrinhjava.task_management_backend.dto.LabelResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskFilter;
+import com.laptrinhjava.task_management_backend.exception.ConflictException;
+import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
+import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.Label;
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.LabelRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskLabelRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskSpecifications;
+
+/**
+ * Nhãn của dự án và việc dịch bộ lọc nhãn (labels/excludeLabels) của danh sách task.
+ * Gắn/gỡ nhãn trên từng task nằm ở TaskService cùng các thay đổi khác của task.
+ */
+@Service
+public class LabelService {
+
+    private final LabelRepository labelRepository;
+    private final TaskLabelRepository taskLabelRepository;
+    private final LabelIndexCache labelIndexCache;
+    private final UserService userService;
+    private final ProjectAccessService projectAccessService;
+    private final int maxFilterIds;
+    private final int maxFilterProjects;
+
+    @Autowired
+    public LabelService(LabelRepository labelRepository, TaskLabelRepository taskLabelRepository,
+                        LabelIndexCache labelIndexCache, UserService userService, ProjectAccessService projectAccessService,
+                        @Value("${app.labels.max-filter-ids:1000}") int maxFilterIds,
+                        @Value("${app.labels.max-filter-projects:50}") int maxFilterProjects) {
+        this.labelRepository = labelRepository;
+        this.taskLabelRepository = taskLabelRepository;
+        this.labelIndexCache = labelIndexCache;
+        this.userService = userService;
+        this.projectAccessService = projectAccessService;
+        this.maxFilterIds = maxFilterIds;
+        this.maxFilterProjects = maxFilterProjects;
+    }
+
+    @Transactional(readOnly = true)
+    public List<LabelResponse> getLabels(Long projectId) {
+        requireRole(projectId, ProjectRole.VIEWER);
+        return labelRepository.findByProjectIdOrderByName(projectId).stream()
+                .map(LabelService::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public LabelResponse createLabel(Long projectId, LabelRequest request) {
+        requireRole(projectId, ProjectRole.EDITOR);
+        requireUniqueName(projectId, null, request.getName());
+        Label label = labelRepository.save(new Label(null, projectId, request.getName().trim(), request.getColor(), LocalDateTime.now()));
+        labelIndexCache.evict(projectId);
+        return toResponse(label);
+    }
+
+    @Transactional
+    public LabelResponse updateLabel(Long projectId, Long labelId, LabelRequest request) {
+        requireRole(projectId, ProjectRole.EDITOR);
+        Label label = labelRepository.findByIdAndProjectId(labelId, projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Nhãn không tồn tại trong dự án này. ID nhãn: " + labelId));
+        requireUniqueName(projectId, labelId, request.getName());
+        label.setName(request.getName().trim());
+        label.setColor(request.getColor());
+        labelIndexCache.evict(projectId);
+        return toResponse(labelRepository.save(label));
+    }
+
+    // Xoá nhãn và gỡ nhãn khỏi mọi task (kể cả task đã lưu trữ)
+    @Transactional
+    public void deleteLabel(Long projectId, Long labelId) {
+        requireRole(projectId, ProjectRole.EDITOR);
+        Label label = labelRepository.findByIdAndProjectId(labelId, projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Nhãn không tồn tại trong dự án này. ID nhãn: " + labelId));
+        taskLabelRepository.deleteByLabelId(labelId);
+        labelRepository.delete(label);
+        labelIndexCache.evict(projectId);
+    }
+
+    // Tên nhãn là duy nhất trong dự án, không phân biệt hoa thường
+    private void requireUniqueName(Long projectId, Long labelId, String name) {
+        String key = LabelIndex.key(name);
+        for (Label existing : labelRepository.findByProjectIdOrderByName(projectId)) {
+            if (!existing.getId().equals(labelId) && LabelIndex.key(existing.getName()).equals(key)) {
+                throw new ConflictException("Dự án đã có nhãn tên '" + existing.getName() + "'.");
+            }
+        }
+    }
+
+    static boolean hasLabelFilter(TaskFilter filter) {
+        return !names(filter.getLabels()).isEmpty() || !names(filter.getExcludeLabels()).isEmpty();
+    }
+
+    /**
+     * Dịch bộ lọc nhãn trên shard hiện tại. Trong một dự án (projectId khác null) nhãn lấy từ index đã cache;
+     * với "mọi task của tôi" (projectId null), nhãn được tìm theo tên trên mọi dự án rồi giao bitmap của từng dự án
+     * có đủ các nhãn bắt buộc (tối đa app.labels.max-filter-projects dự án).
+     * Chỉ tính bitmap khi không đọc bảng lưu trữ (bitmap chỉ chứa task ở bảng nóng).
+     */
+    LabelCriteria criteria(Long projectId, TaskFilter filter) {
+        Set<String> all = names(filter.getLabels());
+        Set<String> none = names(filter.getExcludeLabels());
+        boolean useIndex = !filter.isIncludeArchived() && !all.isEmpty();
+
+        if (projectId != null) {
+            LabelIndex index = labelIndexCache.indexFor(projectId);
+            List<Collection<Long>> required = new ArrayList<>();
+            for (String name : all) {
+                Long labelId = index.labelId(name);
+                required.add(labelId != null ? List.of(labelId) : List.of());
+            }
+            List<Long> excluded = none.stream().map(index::labelId).filter(id -> id != null).toList();
+            return new LabelCriteria(useIndex ? index.match(all, none) : null, required, excluded, maxFilterIds);
+        }
+
+        // Không bọc lower(...) để MySQL (collation không phân biệt hoa thường) vẫn dùng được index trên name
+        Set<String> requested = new LinkedHashSet<>();
+        requested.addAll(trimmed(filter.getLabels()));
+        requested.addAll(trimmed(filter.getExcludeLabels()));
+        Map<String, List<Long>> idsByName = new HashMap<>();
+        Map<Long, Set<String>> namesByProject = new LinkedHashMap<>();
+        for (Object[] row : labelRepository.findByNameIn(requested)) {
+            String key = LabelIndex.key((String) row[2]);
+            idsByName.computeIfAbsent(key, k -> new ArrayList<>()).add((Long) row[0]);
+            namesByProject.computeIfAbsent((Long) row[1], k -> new HashSet<>()).add(key);
+        }
+        List<Collection<Long>> required = all.stream().<Collection<Long>>map(name -> idsByName.getOrDefault(name, List.of())).toList();
+        List<Long> excluded = none.stream().flatMap(name -> idsByName.getOrDefault(name, List.of()).stream()).toList();
+
+        TaskIdBitmap matched = null;
+        if (useIndex) {
+            List<Long> candidates = namesByProject.entrySet().stream()
+                    .filter(entry -> entry.getValue().containsAll(all))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            if (candidates.size() <= maxFilterProjects) {
+                matched = TaskIdBitmap.EMPTY;
+                for (Long candidate : candidates) {
+                    matched = matched.or(labelIndexCache.indexFor(candidate).match(all, none));
+                }
+            }
+        }
+        return new LabelCriteria(matched, required, excluded, maxFilterIds);
+    }
+
+    private static Set<String> names(List<String> names) {
+        return trimmed(names).stream().map(LabelIndex::key).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static List<String> trimmed(List<String> names) {
+        if (names == null) {
+            return List.of();
+        }
+        return names.stream().filter(name -> name != null && !name.isBlank()).map(String::trim).toList();
+    }
+
+    /**
+     * Bộ lọc nhãn đã dịch: matched là tập id task khớp (null nếu không tính được từ bitmap), required là các nhóm id nhãn
+     * (mỗi tên nhãn một nhóm, task phải có ít nhất một nhãn của mỗi nhóm), excluded là id các nhãn bị loại trừ.
+     */
+    record LabelCriteria(TaskIdBitmap matched, List<Collection<Long>> required, Collection<Long> excluded, int maxFilterIds) {
+
+        // Chắc chắn không task nào khớp: thiếu một nhãn bắt buộc hoặc phép giao bitmap rỗng
+        boolean isEmpty() {
+            return (matched != null && matched.isEmpty()) || required.stream().anyMatch(Collection::isEmpty);
+        }
+
+        /**
+         * Tập id nhỏ thì thu hẹp thành id IN (...), ngược lại dùng EXISTS trên task_labels cho từng nhãn.
+         */
+        <T> Specification<T> toSpecification() {
+            if (matched != null && matched.cardinality() <= maxFilterIds) {
+                return TaskSpecifications.idIn(matched.toArray());
+            }
+            Specification<T> specification = TaskSpecifications.labelled(required);
+            return excluded.isEmpty() ? specification : specification.and(TaskSpecifications.notLabelled(excluded));
+        }
+    }
+
+    private static LabelResponse toResponse(Label label) {
+        return new LabelResponse(label.getId(), label.getProjectId(), label.getName(), label.getColor(), label.getCreatedAt());
+    }
+
+    // Không có quyền xem thì coi như dự án không tồn tại; có quyền xem nhưng thiếu quyền thì báo không đủ quyền
+    private void requireRole(Long projectId, ProjectRole required) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để quản lý nhãn.");
+        }
+        ProjectRole role = projectAccessService.roleOf(currentUser.getId(), projectId);
+        if (role == null) {
+            throw new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền truy cập. ID: " + projectId);
+        }
+        if (!role.includes(required)) {
+            throw new UnauthorizedAccessException("Bạn không có quyền sửa nhãn của dự án này. ID dự án: " + projectId);
+        }
+    }
+}
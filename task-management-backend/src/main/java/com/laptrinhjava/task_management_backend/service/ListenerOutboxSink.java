@@ -0,0 +1,34 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Phát lại từng sự kiện trong tiến trình dưới dạng {@link OutboxSink.Event}, nhận bằng {@code @EventListener}.
+ * Listener ném ngoại lệ làm cả lô được giao lại.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.outbox.listener", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ListenerOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public ListenerOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "listener";
+    }
+
+    @Override
+    public void publish(List<Event> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
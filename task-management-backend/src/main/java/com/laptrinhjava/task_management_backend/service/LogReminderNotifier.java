@@ -0,0 +1,15 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnProperty(prefix = "app.reminders", name = "notifier", havingValue = "log", matchIfMissing = true)
+public class LogReminderNotifier implements ReminderNotifier {
+
+    @Override
+    public void notify(Reminder reminder) {
+        System.out.println("====== LogReminderNotifier: Nhắc người dùng " + reminder.recipientId() + ": task " + reminder.taskId()
+                + " (" + reminder.title() + ") đến hạn ngày " + reminder.dueDate() + " ======");
+    }
+}
@@ -0,0 +1,86 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.dto.NotificationResponse;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
+import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.Notification;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.NotificationRepository;
+
+/**
+ * Hộp thư thông báo trong ứng dụng. Thông báo được ghi vào shard của người nhận (có thể khác shard chứa task)
+ * để người dùng chỉ cần đọc shard của mình.
+ */
+@Service
+public class NotificationService {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final NotificationRepository notificationRepository;
+    private final UserService userService;
+    private final ShardRouter shardRouter;
+    private final ShardDirectory shardDirectory;
+
+    @Autowired
+    public NotificationService(NotificationRepository notificationRepository, UserService userService,
+                               ShardRouter shardRouter, ShardDirectory shardDirectory) {
+        this.notificationRepository = notificationRepository;
+        this.userService = userService;
+        this.shardRouter = shardRouter;
+        this.shardDirectory = shardDirectory;
+    }
+
+    // Gọi ngoài giao dịch (chuyển sang shard của người nhận)
+    public void deliver(Long userId, Long taskId, String message) {
+        shardRouter.runOnShard(shardDirectory.shardOf(userId),
+                () -> notificationRepository.save(new Notification(userId, taskId, message)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getNotificationsForCurrentUser(boolean unreadOnly, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Tham số size không hợp lệ (1 <= size <= " + MAX_PAGE_SIZE + ").");
+        }
+        User currentUser = requireCurrentUser();
+        PageRequest page = PageRequest.of(0, size);
+        List<Notification> notifications = unreadOnly
+                ? notificationRepository.findByUserIdAndReadAtIsNullOrderByIdDesc(currentUser.getId(), page)
+                : notificationRepository.findByUserIdOrderByIdDesc(currentUser.getId(), page);
+        return notifications.stream().map(this::convertToDto).collect(Collectors.toList());
+    }
+
+    @Transactional
+    public NotificationResponse markAsRead(Long notificationId) {
+        User currentUser = requireCurrentUser();
+        Notification notification = notificationRepository.findByIdAndUserId(notificationId, currentUser.getId())
+            .orElseThrow(() -> new ResourceNotFoundException("Thông báo không tồn tại với ID: " + notificationId));
+        if (notification.getReadAt() == null) {
+            notification.setReadAt(LocalDateTime.now());
+        }
+        return convertToDto(notification);
+    }
+
+    private User requireCurrentUser() {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực.");
+        }
+        return currentUser;
+    }
+
+    private NotificationResponse convertToDto(Notification notification) {
+        return new NotificationResponse(notification.getId(), notification.getTaskId(), notification.getMessage(),
+                notification.getCreatedAt(), notification.getReadAt());
+    }
+}
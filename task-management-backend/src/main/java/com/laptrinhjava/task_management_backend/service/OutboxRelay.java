@@ -0,0 +1,182 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Chuyển sự kiện từ outbox_events tới các {@link OutboxSink} đã bật, từng lô theo thứ tự id trên mỗi shard.
+ *
+ * Mỗi lô chạy trong một giao dịch: khoá các dòng cũ nhất (FOR UPDATE), giao cho mọi đích rồi mới xoá. Đích lỗi làm
+ * giao dịch rollback nên lô được giao lại sau một khoảng chờ tăng dần (giao ít nhất một lần). Node khác chạy cùng lúc
+ * chờ trên khoá dòng nên thứ tự giao vẫn giữ nguyên.
+ * Độ trễ (tuổi của sự kiện cũ nhất chưa giao) của từng shard được xuất qua gauge app.outbox.lag.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final String LOCK_BATCH_SQL =
+            "SELECT id, aggregate_type, aggregate_id, event_type, owner_id, created_at, payload FROM outbox_events"
+                    + " ORDER BY id LIMIT :limit FOR UPDATE";
+
+    private static final String DELETE_SQL = "DELETE FROM outbox_events WHERE id IN (:ids)";
+
+    private static final String OLDEST_SQL = "SELECT created_at FROM outbox_events ORDER BY id LIMIT 1";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final List<OutboxSink> sinks;
+    private final ShardState[] states;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    @Value("${app.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.relay.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.outbox.relay.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${app.outbox.relay.max-backoff-ms:60000}")
+    private long maxBackoffMs;
+
+    @Autowired
+    public OutboxRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                       ObjectProvider<OutboxSink> sinks, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.sinks = sinks.orderedStream().toList();
+        this.states = new ShardState[shardRouter.getShardCount()];
+        for (int shard = 0; shard < states.length; shard++) {
+            ShardState state = new ShardState();
+            states[shard] = state;
+            Gauge.builder("app.outbox.lag", state, s -> s.lagMillis / 1000.0)
+                    .baseUnit("seconds")
+                    .tag("shard", String.valueOf(shard))
+                    .register(meterRegistry);
+        }
+        this.publishedCounter = Counter.builder("app.outbox.published").register(meterRegistry);
+        this.failedCounter = Counter.builder("app.outbox.failed.batches").register(meterRegistry);
+        if (this.sinks.isEmpty()) {
+            System.out.println("====== OutboxRelay: Chưa bật đích nào, sự kiện được giữ lại trong outbox_events ======");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:1000}", initialDelayString = "${app.outbox.relay.interval-ms:1000}")
+    public void relayScheduled() {
+        if (enabled && !sinks.isEmpty()) {
+            shardRouter.forEachShard(this::relayCurrentShard);
+        }
+    }
+
+    /**
+     * Giao các sự kiện đang chờ trên shard hiện tại (tối đa max-batches-per-run lô), bỏ qua nếu shard đang trong thời gian chờ.
+     * @return số sự kiện đã giao
+     */
+    public int relayCurrentShard() {
+        ShardState state = states[shardRouter.currentShard()];
+        if (sinks.isEmpty() || System.currentTimeMillis() < state.nextAttemptAt) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer delivered = transactionTemplate.execute(status -> relayBatch());
+                total += delivered;
+                if (delivered < batchSize) {
+                    break;
+                }
+            }
+            state.failures = 0;
+            state.nextAttemptAt = 0;
+        } catch (RuntimeException ex) {
+            state.failures++;
+            long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(state.failures - 1, 20));
+            state.nextAttemptAt = System.currentTimeMillis() + backoff;
+            failedCounter.increment();
+            System.out.println("====== OutboxRelay: Giao lô thất bại trên shard " + shardRouter.currentShard() + " (lần " + state.failures
+                    + ", thử lại sau " + backoff + " ms): " + ex.getMessage() + " ======");
+        } finally {
+            List<Timestamp> oldest = jdbcTemplate.getJdbcTemplate().queryForList(OLDEST_SQL, Timestamp.class);
+            state.lagMillis = oldest.isEmpty() ? 0
+                    : Math.max(0, System.currentTimeMillis() - oldest.get(0).getTime());
+        }
+        return total;
+    }
+
+    private int relayBatch() {
+        List<OutboxSink.Event> events = jdbcTemplate.query(LOCK_BATCH_SQL, Map.of("limit", batchSize),
+                (rs, rowNum) -> new OutboxSink.Event(rs.getLong("id"), rs.getString("aggregate_type"), rs.getLong("aggregate_id"),
+                        rs.getString("event_type"), rs.getLong("owner_id"), rs.getTimestamp("created_at").toLocalDateTime(),
+                        rs.getString("payload")));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.publish(events);
+            } catch (RuntimeException ex) {
+                throw new IllegalStateException("Đích " + sink.name() + ": " + ex.getMessage(), ex);
+            }
+        }
+        jdbcTemplate.update(DELETE_SQL, Map.of("ids", events.stream().map(OutboxSink.Event::id).toList()));
+        publishedCounter.increment(events.size());
+        return events.size();
+    }
+
+    // Độ trễ hiện tại của shard (mili giây), tính ở lần chạy gần nhất
+    public long lagMillis(int shard) {
+        return states[shard].lagMillis;
+    }
+
+    /**
+     * Dạng JSON dùng chung cho các đích ghi ra ngoài: các trường của sự kiện, payload được nhúng nguyên dạng JSON.
+     */
+    static String toJson(ObjectMapper objectMapper, OutboxSink.Event event) {
+        try {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("id", event.id());
+            node.put("aggregateType", event.aggregateType());
+            node.put("aggregateId", event.aggregateId());
+            node.put("eventType", event.eventType());
+            node.put("ownerId", event.ownerId());
+            node.put("createdAt", event.createdAt().toString());
+            node.set("payload", objectMapper.readTree(event.payload()));
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Sự kiện outbox có payload không hợp lệ. ID: " + event.id(), ex);
+        }
+    }
+
+    private static final class ShardState {
+        private volatile int failures;
+        private volatile long nextAttemptAt;
+        private volatile long lagMillis;
+    }
+}
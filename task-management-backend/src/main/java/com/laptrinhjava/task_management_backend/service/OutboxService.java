@@ -0,0 +1,85 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laptrinhjava.task_management_backend.dto.ProjectResponseDTO;
+import com.laptrinhjava.task_management_backend.dto.TaskResponse;
+import com.laptrinhjava.task_management_backend.model.DomainEventType;
+import com.laptrinhjava.task_management_backend.model.OutboxEvent;
+import com.laptrinhjava.task_management_backend.repository.OutboxEventRepository;
+
+/**
+ * Ghi sự kiện miền vào bảng outbox_events. Bắt buộc chạy trong giao dịch của thay đổi (MANDATORY):
+ * thay đổi và sự kiện cùng commit hoặc cùng rollback, không có ghi kép.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void taskChanged(DomainEventType eventType, Long ownerId, TaskResponse task) {
+        outboxEventRepository.save(new OutboxEvent(eventType, task.getId(), ownerId, toJson(task)));
+    }
+
+    /**
+     * Thay đổi hàng loạt (không nạp lại task): payload chỉ gồm id, projectId, các trường đã đổi và "partial": true.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void tasksPatched(Long ownerId, List<Map<String, Object>> patches) {
+        List<OutboxEvent> events = new ArrayList<>(patches.size());
+        for (Map<String, Object> patch : patches) {
+            Map<String, Object> payload = new LinkedHashMap<>(patch);
+            payload.put("partial", true);
+            events.add(new OutboxEvent(DomainEventType.TASK_UPDATED, (Long) patch.get("id"), ownerId, toJson(payload)));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void tasksDeleted(Long ownerId, Long projectId, Collection<Long> taskIds) {
+        List<OutboxEvent> events = new ArrayList<>(taskIds.size());
+        for (Long taskId : taskIds) {
+            events.add(new OutboxEvent(DomainEventType.TASK_DELETED, taskId, ownerId,
+                    toJson(Map.of("id", taskId, "projectId", projectId))));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void projectChanged(DomainEventType eventType, Long ownerId, ProjectResponseDTO project) {
+        outboxEventRepository.save(new OutboxEvent(eventType, project.getId(), ownerId, toJson(project)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void projectDeleted(Long ownerId, Long projectId) {
+        outboxEventRepository.save(new OutboxEvent(DomainEventType.PROJECT_DELETED, projectId, ownerId,
+                toJson(Map.of("id", projectId))));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Không thể chuyển sự kiện outbox sang JSON", ex);
+        }
+    }
+}
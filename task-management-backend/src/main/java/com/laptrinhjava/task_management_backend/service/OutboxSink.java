@@ -0,0 +1,22 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Đích nhận sự kiện từ OutboxRelay. Mỗi lô được giao theo thứ tự id; ném ngoại lệ nghĩa là lô chưa được nhận
+ * và sẽ được giao lại toàn bộ (cho mọi đích) sau một khoảng chờ. Đích cần bỏ qua sự kiện trùng theo id.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<Event> events);
+
+    /**
+     * @param payload JSON của DTO (TaskResponse, ProjectResponseDTO) hoặc {"id", "projectId"} với sự kiện xoá
+     */
+    record Event(long id, String aggregateType, long aggregateId, String eventType, long ownerId,
+                 LocalDateTime createdAt, String payload) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+
+/**
+ * Tập dự án một người dùng truy cập được, kèm quyền cao nhất trên mỗi dự án: mảng id đã sắp xếp và mảng quyền song song,
+ * tra cứu bằng tìm kiếm nhị phân. Bất biến, nên được đọc đồng thời mà không cần khoá.
+ */
+final class ProjectAccessIndex {
+
+    static final ProjectAccessIndex EMPTY = new ProjectAccessIndex(new long[0], new byte[0]);
+
+    private static final ProjectRole[] ROLES = ProjectRole.values();
+
+    private final long[] projectIds;
+    private final byte[] roles;
+
+    private ProjectAccessIndex(long[] projectIds, byte[] roles) {
+        this.projectIds = projectIds;
+        this.roles = roles;
+    }
+
+    /**
+     * Dựng index từ các cặp (projectIds[i], roles[i]) chưa sắp xếp; dự án xuất hiện nhiều lần giữ quyền cao nhất.
+     */
+    static ProjectAccessIndex build(long[] projectIds, ProjectRole[] roles, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(projectIds[a], projectIds[b]));
+        long[] ids = new long[count];
+        byte[] levels = new byte[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            long id = projectIds[order[i]];
+            byte level = (byte) roles[order[i]].ordinal();
+            if (size > 0 && ids[size - 1] == id) {
+                levels[size - 1] = (byte) Math.max(levels[size - 1], level);
+            } else {
+                ids[size] = id;
+                levels[size] = level;
+                size++;
+            }
+        }
+        return new ProjectAccessIndex(Arrays.copyOf(ids, size), Arrays.copyOf(levels, size));
+    }
+
+    // Quyền của người dùng trên dự án, null nếu không truy cập được
+    ProjectRole roleOf(long projectId) {
+        int index = Arrays.binarySearch(projectIds, projectId);
+        return index >= 0 ? ROLES[roles[index]] : null;
+    }
+
+    boolean allows(long projectId, ProjectRole required) {
+        ProjectRole role = roleOf(projectId);
+        return role != null && role.includes(required);
+    }
+
+    // Id các dự án có ít nhất quyền required, theo thứ tự tăng dần
+    List<Long> projectIds(ProjectRole required) {
+        List<Long> ids = new ArrayList<>(projectIds.length);
+        for (int i = 0; i < projectIds.length; i++) {
+            if (roles[i] >= required.ordinal()) {
+                ids.add(projectIds[i]);
+            }
+        }
+        return ids;
+    }
+
+    int size() {
+        return projectIds.length;
+    }
+}
@@ -0,0 +1,104 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static com.laptrinhjava.task_management_backend.util.TransactionCallbacks.afterCommit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+import com.laptrinhjava.task_management_backend.repository.ProjectMemberRepository;
+import com.laptrinhjava.task_management_backend.repository.ProjectRepository;
+
+/**
+ * Kiểm tra quyền trên dự án bằng index đã cache theo người dùng ({@link ProjectAccessIndex}), không join trên đường nóng.
+ *
+ * Index gồm dự án người dùng sở hữu (OWNER) và dự án được chia sẻ (quyền trong project_members). Thay đổi thành viên
+ * hoặc tạo/xoá dự án trên node này làm mới index của những người liên quan sau khi giao dịch commit; TTL chỉ để bắt kịp
+ * thay đổi từ các node khác. Khi bật sharding, thành viên nằm trên shard của chủ dự án nên index được nạp từ mọi shard.
+ */
+@Service
+public class ProjectAccessService {
+
+    private static final String OWNED_SQL = "SELECT id FROM projects WHERE owner_id = ?";
+    private static final String MEMBER_SQL = "SELECT project_id, role FROM project_members WHERE user_id = ?";
+
+    private final ProjectRepository projectRepository;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ShardRouter shardRouter;
+    private final VersionedTtlCache<ProjectAccessIndex> cache;
+
+    @Autowired
+    public ProjectAccessService(ProjectRepository projectRepository, ProjectMemberRepository projectMemberRepository,
+                                ShardRouter shardRouter,
+                                @Value("${app.projects.access-cache-ttl-ms:30000}") long ttlMs,
+                                @Value("${app.projects.access-cache-max-users:10000}") int maxCachedUsers) {
+        this.projectRepository = projectRepository;
+        this.projectMemberRepository = projectMemberRepository;
+        this.shardRouter = shardRouter;
+        this.cache = new VersionedTtlCache<>(ttlMs, maxCachedUsers);
+    }
+
+    // Quyền của người dùng trên dự án, null nếu không truy cập được
+    public ProjectRole roleOf(Long userId, Long projectId) {
+        return projectId != null ? indexFor(userId).roleOf(projectId) : null;
+    }
+
+    public boolean hasRole(Long userId, Long projectId, ProjectRole required) {
+        return projectId != null && indexFor(userId).allows(projectId, required);
+    }
+
+    // Id các dự án người dùng có ít nhất quyền required (dùng cho điều kiện project_id IN (...))
+    public List<Long> accessibleProjectIds(Long userId, ProjectRole required) {
+        return indexFor(userId).projectIds(required);
+    }
+
+    private ProjectAccessIndex indexFor(Long userId) {
+        return cache.get(userId, this::load);
+    }
+
+    private ProjectAccessIndex load(Long userId) {
+        List<Long> owned = new ArrayList<>();
+        List<Object[]> shared = new ArrayList<>();
+        if (!shardRouter.isSharded()) {
+            owned.addAll(projectRepository.findIdsByOwnerId(userId));
+            shared.addAll(projectMemberRepository.findProjectRolesByUserId(userId));
+        } else {
+            // Đọc thẳng từng shard (không qua định tuyến) để dùng được cả khi đang trong giao dịch
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(shardRouter.shardDataSource(shard));
+                owned.addAll(jdbcTemplate.queryForList(OWNED_SQL, Long.class, userId));
+                shared.addAll(jdbcTemplate.query(MEMBER_SQL, (rs, rowNum) ->
+                        new Object[] { rs.getLong(1), ProjectRole.valueOf(rs.getString(2)) }, userId));
+            }
+        }
+        int count = owned.size() + shared.size();
+        long[] projectIds = new long[count];
+        ProjectRole[] roles = new ProjectRole[count];
+        int i = 0;
+        for (Long projectId : owned) {
+            projectIds[i] = projectId;
+            roles[i++] = ProjectRole.OWNER;
+        }
+        for (Object[] row : shared) {
+            projectIds[i] = (Long) row[0];
+            roles[i++] = (ProjectRole) row[1];
+        }
+        return ProjectAccessIndex.build(projectIds, roles, count);
+    }
+
+    // Index của những người dùng này được nạp lại ở lần kiểm tra kế tiếp, sau khi giao dịch hiện tại commit
+    public void invalidate(Collection<Long> userIds) {
+        afterCommit(() -> cache.removeAll(userIds));
+    }
+
+    public void invalidate(Long userId) {
+        invalidate(List.of(userId));
+    }
+}
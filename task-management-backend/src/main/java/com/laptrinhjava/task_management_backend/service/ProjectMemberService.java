@@ -0,0 +1,137 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.laptrinhjava.task_management_backend.dto.ProjectMemberRequest;
+import com.laptrinhjava.task_management_backend.dto.ProjectMemberResponse;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
+import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.Project;
+import com.laptrinhjava.task_management_backend.model.ProjectMember;
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.ProjectMemberRepository;
+import com.laptrinhjava.task_management_backend.repository.ProjectRepository;
+import com.laptrinhjava.task_management_backend.repository.UserRepository;
+
+/**
+ * Quản lý thành viên dự án. ADMIN thêm/sửa/xoá thành viên VIEWER, EDITOR; chỉ chủ dự án cấp hoặc thu hồi quyền ADMIN.
+ * Thành viên luôn có thể tự rời dự án. Index quyền của người bị thay đổi được làm mới sau khi commit.
+ */
+@Service
+public class ProjectMemberService {
+
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final ProjectAccessService projectAccessService;
+
+    @Autowired
+    public ProjectMemberService(ProjectMemberRepository projectMemberRepository, ProjectRepository projectRepository,
+                                UserRepository userRepository, UserService userService,
+                                ProjectAccessService projectAccessService) {
+        this.projectMemberRepository = projectMemberRepository;
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.projectAccessService = projectAccessService;
+    }
+
+    // Chủ dự án đứng đầu (quyền OWNER), sau đó là các thành viên theo thứ tự được thêm
+    @Transactional(readOnly = true)
+    public List<ProjectMemberResponse> getMembers(Long projectId) {
+        User currentUser = currentUser();
+        requireRole(projectId, currentUser, ProjectRole.VIEWER);
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Dự án không tồn tại. ID: " + projectId));
+        List<ProjectMember> members = projectMemberRepository.findByProjectIdOrderById(projectId);
+        Map<Long, User> users = userRepository.findAllById(members.stream().map(ProjectMember::getUserId).toList()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<ProjectMemberResponse> responses = new ArrayList<>(members.size() + 1);
+        User owner = project.getOwner();
+        responses.add(new ProjectMemberResponse(owner.getId(), owner.getName(), owner.getEmail(), ProjectRole.OWNER, project.getCreatedAt()));
+        for (ProjectMember member : members) {
+            User user = users.get(member.getUserId());
+            responses.add(new ProjectMemberResponse(member.getUserId(), user != null ? user.getName() : null,
+                    user != null ? user.getEmail() : null, member.getRole(), member.getCreatedAt()));
+        }
+        return responses;
+    }
+
+    @Transactional
+    public ProjectMemberResponse putMember(Long projectId, Long userId, ProjectMemberRequest request) {
+        User currentUser = currentUser();
+        ProjectRole actorRole = requireRole(projectId, currentUser, ProjectRole.ADMIN);
+        if (request.getRole() == ProjectRole.OWNER) {
+            throw new BadRequestException("Không thể cấp quyền OWNER cho thành viên.");
+        }
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ResourceNotFoundException("Dự án không tồn tại. ID: " + projectId));
+        if (project.getOwner().getId().equals(userId)) {
+            throw new BadRequestException("Chủ dự án luôn có toàn quyền, không thể thay đổi quyền của chủ dự án.");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Người dùng không tồn tại với ID: " + userId));
+
+        ProjectMember member = projectMemberRepository.findByProjectIdAndUserId(projectId, userId)
+                .orElseGet(() -> new ProjectMember(projectId, userId, request.getRole()));
+        if (actorRole != ProjectRole.OWNER && (request.getRole() == ProjectRole.ADMIN || member.getRole() == ProjectRole.ADMIN)) {
+            throw new UnauthorizedAccessException("Chỉ chủ dự án mới được cấp hoặc thu hồi quyền ADMIN. ID dự án: " + projectId);
+        }
+        member.setRole(request.getRole());
+        ProjectMember saved = projectMemberRepository.save(member);
+        projectAccessService.invalidate(userId);
+        return new ProjectMemberResponse(userId, user.getName(), user.getEmail(), saved.getRole(), saved.getCreatedAt());
+    }
+
+    @Transactional
+    public void removeMember(Long projectId, Long userId) {
+        User currentUser = currentUser();
+        ProjectRole actorRole = requireRole(projectId, currentUser, ProjectRole.VIEWER);
+        ProjectMember member = projectMemberRepository.findByProjectIdAndUserId(projectId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Người dùng không phải thành viên của dự án. ID người dùng: " + userId));
+        boolean leaving = userId.equals(currentUser.getId());
+        if (!leaving) {
+            if (!actorRole.includes(ProjectRole.ADMIN)) {
+                throw new UnauthorizedAccessException("Bạn không có quyền quản lý thành viên của dự án này. ID dự án: " + projectId);
+            }
+            if (actorRole != ProjectRole.OWNER && member.getRole() == ProjectRole.ADMIN) {
+                throw new UnauthorizedAccessException("Chỉ chủ dự án mới được thu hồi quyền ADMIN. ID dự án: " + projectId);
+            }
+        }
+        // Task đang giao cho người này vẫn thuộc dự án; họ vẫn thấy các task đó qua danh sách "được giao"
+        projectMemberRepository.delete(member);
+        projectAccessService.invalidate(userId);
+    }
+
+    private User currentUser() {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để quản lý thành viên dự án.");
+        }
+        return currentUser;
+    }
+
+    // Không có quyền xem thì coi như dự án không tồn tại; có quyền xem nhưng thiếu quyền thì báo không đủ quyền
+    private ProjectRole requireRole(Long projectId, User user, ProjectRole required) {
+        ProjectRole role = projectAccessService.roleOf(user.getId(), projectId);
+        if (role == null) {
+            throw new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền truy cập. ID: " + projectId);
+        }
+        if (!role.includes(required)) {
+            throw new UnauthorizedAccessException("Bạn không có quyền quản lý thành viên của dự án này. ID dự án: " + projectId);
+        }
+        return role;
+    }
+}
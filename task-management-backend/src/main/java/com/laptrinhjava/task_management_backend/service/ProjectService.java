@@ -4,9 +4,24 @@ import com.laptrinhjava.task_management_backend.dto.ProjectRequestDTO;
 import com.laptrinhjava.task_management_backend.dto.ProjectResponseDTO;
 import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
 import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.DomainEventType;
 import com.laptrinhjava.task_management_backend.model.Project;
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+import com.laptrinhjava.task_management_backend.model.SyncEntityType;
+import com.laptrinhjava.task_management_backend.model.SyncTombstone;
+import com.laptrinhjava.task_management_backend.model.Task;
 import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.ArchivedTaskRepository;
+import com.laptrinhjava.task_management_backend.repository.LabelRepository;
+import com.laptrinhjava.task_management_backend.repository.ProjectMemberRepository;
+import com.laptrinhjava.task_management_backend.repository.ProjectWorkflowStateRepository;
 import com.laptrinhjava.task_management_backend.repository.ProjectRepository;
+import com.laptrinhjava.task_management_backend.repository.RecurringTaskRepository;
+import com.laptrinhjava.task_management_backend.repository.SyncTombstoneRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskClosureRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskDailyStatsRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskDependencyRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskLabelRepository;
 import com.laptrinhjava.task_management_backend.repository.UserRepository; // Cần để lấy user mặc định
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,9 +31,12 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils; // Cần cho PostConstruct
 
 import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,15 +45,53 @@ public class ProjectService {
     private final ProjectRepository projectRepository;
     private final UserService userService;
     private final UserRepository userRepository; 
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskClosureRepository taskClosureRepository;
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final DependencyGraphCache dependencyGraphCache;
+    private final RecurringTaskRepository recurringTaskRepository;
+    private final OutboxService outboxService;
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ProjectAccessService projectAccessService;
+    private final ProjectWorkflowStateRepository workflowStateRepository;
+    private final WorkflowService workflowService;
+    private final LabelRepository labelRepository;
+    private final TaskLabelRepository taskLabelRepository;
+    private final LabelIndexCache labelIndexCache;
+    private final TaskDailyStatsRepository taskDailyStatsRepository;
 
     @Value("${default.user.email:}")
     private String defaultUserEmailForDevData;
 
     @Autowired
-    public ProjectService(ProjectRepository projectRepository, UserService userService, UserRepository userRepository) {
+    public ProjectService(ProjectRepository projectRepository, UserService userService, UserRepository userRepository,
+                          SyncTombstoneRepository syncTombstoneRepository, ArchivedTaskRepository archivedTaskRepository,
+                          TaskClosureRepository taskClosureRepository, TaskDependencyRepository taskDependencyRepository,
+                          DependencyGraphCache dependencyGraphCache, RecurringTaskRepository recurringTaskRepository,
+                          OutboxService outboxService, ProjectMemberRepository projectMemberRepository,
+                          ProjectAccessService projectAccessService, ProjectWorkflowStateRepository workflowStateRepository,
+                          WorkflowService workflowService, LabelRepository labelRepository,
+                          TaskLabelRepository taskLabelRepository, LabelIndexCache labelIndexCache,
+                          TaskDailyStatsRepository taskDailyStatsRepository) {
         this.projectRepository = projectRepository;
         this.userService = userService;
         this.userRepository = userRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskClosureRepository = taskClosureRepository;
+        this.taskDependencyRepository = taskDependencyRepository;
+        this.dependencyGraphCache = dependencyGraphCache;
+        this.recurringTaskRepository = recurringTaskRepository;
+        this.outboxService = outboxService;
+        this.projectMemberRepository = projectMemberRepository;
+        this.projectAccessService = projectAccessService;
+        this.workflowStateRepository = workflowStateRepository;
+        this.workflowService = workflowService;
+        this.labelRepository = labelRepository;
+        this.taskLabelRepository = taskLabelRepository;
+        this.labelIndexCache = labelIndexCache;
+        this.taskDailyStatsRepository = taskDailyStatsRepository;
     }
 
     private ProjectResponseDTO convertToDTO(Project project) {
@@ -63,7 +119,10 @@ public class ProjectService {
         if (currentUser == null) {
             throw new UnauthorizedAccessException("Người dùng chưa được xác thực để lấy danh sách dự án.");
         }
-        return projectRepository.findByOwnerId(currentUser.getId()).stream()
+        // Dự án của mình và dự án được chia sẻ, theo index quyền đã cache (khi bật sharding: phần nằm trên shard hiện tại)
+        List<Long> projectIds = projectAccessService.accessibleProjectIds(currentUser.getId(), ProjectRole.VIEWER);
+        return projectRepository.findAllById(projectIds).stream()
+                .sorted(Comparator.comparing(Project::getId))
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -74,7 +133,7 @@ public class ProjectService {
         if (currentUser == null) {
             throw new UnauthorizedAccessException("Người dùng chưa được xác thực để xem dự án.");
         }
-        Project project = projectRepository.findByIdAndOwnerId(id, currentUser.getId())
+        Project project = findProjectWithRole(id, currentUser, ProjectRole.VIEWER)
                 .orElseThrow(() -> new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền truy cập. ID: " + id));
         return convertToDTO(project);
     }
@@ -94,7 +153,10 @@ public class ProjectService {
         project.setOwner(currentUser);
         
         Project savedProject = projectRepository.save(project);
-        return convertToDTO(savedProject);
+        projectAccessService.invalidate(currentUser.getId());
+        ProjectResponseDTO response = convertToDTO(savedProject);
+        outboxService.projectChanged(DomainEventType.PROJECT_CREATED, currentUser.getId(), response);
+        return response;
     }
 
     @Transactional
@@ -103,7 +165,7 @@ public class ProjectService {
         if (currentUser == null) {
             throw new UnauthorizedAccessException("Người dùng chưa được xác thực để cập nhật dự án.");
         }
-        Project project = projectRepository.findByIdAndOwnerId(id, currentUser.getId())
+        Project project = findProjectWithRole(id, currentUser, ProjectRole.ADMIN)
                 .orElseThrow(() -> new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền cập nhật. ID: " + id));
 
         project.setName(projectRequestDTO.getName());
@@ -113,7 +175,9 @@ public class ProjectService {
         project.setFavorite(projectRequestDTO.isFavorite());
         
         Project updatedProject = projectRepository.save(project);
-        return convertToDTO(updatedProject);
+        ProjectResponseDTO response = convertToDTO(updatedProject);
+        outboxService.projectChanged(DomainEventType.PROJECT_UPDATED, project.getOwner().getId(), response);
+        return response;
     }
 
     @Transactional
@@ -122,9 +186,49 @@ public class ProjectService {
         if (currentUser == null) {
             throw new UnauthorizedAccessException("Người dùng chưa được xác thực để xóa dự án.");
         }
-        Project project = projectRepository.findByIdAndOwnerId(id, currentUser.getId())
+        Project project = findProjectWithRole(id, currentUser, ProjectRole.OWNER)
                 .orElseThrow(() -> new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền xóa. ID: " + id));
+        List<Long> affectedUserIds = new ArrayList<>(projectMemberRepository.findUserIdsByProjectId(project.getId()));
+        affectedUserIds.add(currentUser.getId());
+        List<SyncTombstone> tombstones = new ArrayList<>();
+        tombstones.add(new SyncTombstone(SyncEntityType.PROJECT, project.getId(), currentUser.getId()));
+        // Người được giao (khác chủ dự án) không nhận tombstone của dự án nên cần tombstone cho từng task
+        project.getTasks().stream()
+                .filter(task -> task.getAssignee() != null && !task.getAssignee().getId().equals(currentUser.getId()))
+                .forEach(task -> tombstones.add(new SyncTombstone(SyncEntityType.TASK, task.getId(), task.getAssignee().getId())));
+        taskClosureRepository.deleteByProjectId(project.getId());
+        taskDependencyRepository.deleteByProjectId(project.getId());
+        archivedTaskRepository.deleteByProjectId(project.getId());
+        recurringTaskRepository.deleteByProjectId(project.getId());
+        projectMemberRepository.deleteByProjectId(project.getId());
+        workflowStateRepository.deleteByProjectId(project.getId());
+        taskLabelRepository.deleteByProjectId(project.getId());
+        labelRepository.deleteByProjectId(project.getId());
+        taskDailyStatsRepository.deleteByProjectId(project.getId());
         projectRepository.delete(project);
+        projectAccessService.invalidate(affectedUserIds);
+        syncTombstoneRepository.saveAll(tombstones);
+        // Task bị xoá cùng dự án cũng có sự kiện riêng để bên nhận không phải tự suy ra
+        outboxService.tasksDeleted(currentUser.getId(), project.getId(),
+                project.getTasks().stream().map(Task::getId).toList());
+        outboxService.projectDeleted(currentUser.getId(), project.getId());
+        dependencyGraphCache.evict(project.getId());
+        workflowService.evict(project.getId());
+        labelIndexCache.evict(project.getId());
+    }
+
+    private Optional<Project> findProjectWithRole(Long projectId, User user, ProjectRole required) {
+        if (!projectAccessService.hasRole(user.getId(), projectId, required)) {
+            return Optional.empty();
+        }
+        return projectRepository.findById(projectId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProjectResponseDTO> findProjectsChangedSince(User user, LocalDateTime since) {
+        return projectRepository.findByOwnerIdAndUpdatedAtGreaterThanEqual(user.getId(), since).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
     }
     
     @PostConstruct
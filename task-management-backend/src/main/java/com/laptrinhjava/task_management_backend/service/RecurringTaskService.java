@@ -0,0 +1,281 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.dto.RecurringTaskRequest;
+import com.laptrinhjava.task_management_backend.dto.RecurringTaskResponse;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
+import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.Project;
+import com.laptrinhjava.task_management_backend.model.RecurringTask;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.ProjectRepository;
+import com.laptrinhjava.task_management_backend.repository.RecurringTaskRepository;
+import com.laptrinhjava.task_management_backend.repository.UserRepository;
+import com.laptrinhjava.task_management_backend.util.LexicographicRank;
+
+/**
+ * Mẫu task lặp lại và bộ sinh task định kỳ.
+ *
+ * Mỗi lô chạy trong một giao dịch riêng: khoá các mẫu đến hạn (quét theo index next_due_date), chèn các task
+ * của chúng bằng một batch INSERT rồi tăng generated_count/next_due_date trong cùng giao dịch.
+ * Dừng giữa chừng hay khởi động lại không bao giờ sinh trùng, và nhiều node chạy cùng lúc sẽ chờ nhau trên khoá dòng.
+ */
+@Service
+public class RecurringTaskService {
+
+    private static final String SELECT_DUE_SQL =
+            "SELECT id FROM recurring_tasks WHERE next_due_date <= :horizon%s ORDER BY next_due_date, id LIMIT :limit FOR UPDATE";
+
+    private static final String INSERT_TASK_SQL =
+            "INSERT INTO tasks (title, description, status, due_date, created_at, updated_at, status_changed_at, board_rank, project_id, assignee_id, priority)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'MEDIUM')";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final RecurringTaskRepository recurringTaskRepository;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final TaskRankService taskRankService;
+    private final DependencyGraphCache dependencyGraphCache;
+    private final TaskService taskService;
+    private final ShardDirectory shardDirectory;
+
+    @Value("${app.recurring-tasks.enabled:true}")
+    private boolean enabled;
+
+    // Tạo trước các task có hạn chót trong khoảng này tính từ hôm nay
+    @Value("${app.recurring-tasks.horizon-days:14}")
+    private int horizonDays;
+
+    @Value("${app.recurring-tasks.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.recurring-tasks.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    // Giới hạn số task một mẫu sinh trong một lô (mẫu bị bỏ lỡ lâu ngày được bù dần qua các lô sau)
+    @Value("${app.recurring-tasks.max-occurrences-per-batch:100}")
+    private int maxOccurrencesPerBatch;
+
+    @Autowired
+    public RecurringTaskService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                                RecurringTaskRepository recurringTaskRepository, ProjectRepository projectRepository,
+                                UserRepository userRepository, UserService userService, TaskRankService taskRankService,
+                                DependencyGraphCache dependencyGraphCache, TaskService taskService, ShardDirectory shardDirectory) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.recurringTaskRepository = recurringTaskRepository;
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.taskRankService = taskRankService;
+        this.dependencyGraphCache = dependencyGraphCache;
+        this.taskService = taskService;
+        this.shardDirectory = shardDirectory;
+    }
+
+    @Scheduled(fixedDelayString = "${app.recurring-tasks.interval-ms:300000}", initialDelayString = "${app.recurring-tasks.interval-ms:300000}")
+    public void generateScheduledTasks() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate horizon = LocalDate.now().plusDays(horizonDays);
+        shardRouter.forEachShard(() -> {
+            int generated = generateUpTo(horizon);
+            if (generated > 0) {
+                System.out.println("====== RecurringTaskService: Đã tạo " + generated + " task lặp lại trên shard " + shardRouter.currentShard() + " ======");
+            }
+        });
+    }
+
+    /**
+     * Sinh task cho các mẫu có lần lặp kế tiếp không muộn hơn horizon, tối đa max-batches-per-run lô trên shard hiện tại.
+     * @return số task đã tạo
+     */
+    public int generateUpTo(LocalDate horizon) {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int[] result = transactionTemplate.execute(status -> generateBatch(horizon));
+            if (result == null) {
+                break;
+            }
+            total += result[1];
+            if (result[0] < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    // Trả về [số mẫu đã khoá, số task đã tạo]
+    private int[] generateBatch(LocalDate horizon) {
+        // Mẫu của chủ đang được chuyển shard để lại cho lần chạy sau, trên shard đích
+        List<Long> migratingOwners = shardDirectory.migratingOwners();
+        List<Long> ids = jdbcTemplate.queryForList(ShardDirectory.excludingMigrating(SELECT_DUE_SQL, migratingOwners),
+                Map.of("horizon", horizon, "limit", batchSize, "migratingOwners", migratingOwners), Long.class);
+        if (ids.isEmpty()) {
+            return new int[] {0, 0};
+        }
+        List<RecurringTask> templates = recurringTaskRepository.findAllById(ids);
+        return new int[] {ids.size(), materialize(templates, horizon)};
+    }
+
+    /**
+     * Chèn task cho các lần lặp tới horizon và cập nhật con trỏ của từng mẫu (ghi xuống khi giao dịch commit).
+     */
+    private int materialize(List<RecurringTask> templates, LocalDate horizon) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Task mới được xếp xuống cuối cột TODO của dự án, theo thứ tự hạn chót
+        Map<Long, String> lastRanks = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (RecurringTask template : templates) {
+            Long projectId = template.getProject().getId();
+            int generated = 0;
+            while (template.getNextDueDate() != null && !template.getNextDueDate().isAfter(horizon)
+                    && generated < maxOccurrencesPerBatch) {
+                String rank = lastRanks.containsKey(projectId)
+                        ? LexicographicRank.after(lastRanks.get(projectId))
+                        : taskRankService.rankAtEnd(projectId, TaskStatus.TODO);
+                lastRanks.put(projectId, rank);
+                rows.add(new Object[] {template.getTitle(), template.getDescription(), TaskStatus.TODO.name(),
+                        Date.valueOf(template.getNextDueDate()), now, now, now, rank, projectId, template.getAssigneeId()});
+
+                template.setLastGeneratedDate(template.getNextDueDate());
+                template.setGeneratedCount(template.getGeneratedCount() + 1);
+                template.setNextDueDate(nextOccurrence(template));
+                generated++;
+            }
+        }
+        if (!rows.isEmpty()) {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.getJdbcTemplate().batchUpdate(connection -> connection.prepareStatement(INSERT_TASK_SQL, new String[] {"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            new ArgumentPreparedStatementSetter(rows.get(i)).setValues(statement);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rows.size();
+                        }
+                    }, keys);
+            lastRanks.keySet().forEach(dependencyGraphCache::evict);
+            // Bên nhận outbox thấy task sinh tự động giống như task tạo qua API
+            taskService.recordCreatedTasks(keys.getKeyList().stream()
+                    .map(key -> ((Number) key.values().iterator().next()).longValue())
+                    .toList());
+        }
+        return rows.size();
+    }
+
+    private static LocalDate nextOccurrence(RecurringTask template) {
+        LocalDate next = template.getFrequency().occurrence(template.getStartDate(), template.getRepeatInterval(),
+                template.getGeneratedCount());
+        return template.getEndDate() != null && next.isAfter(template.getEndDate()) ? null : next;
+    }
+
+    /**
+     * Tạo mẫu lặp lại cho dự án của người dùng và sinh ngay các task trong khoảng horizon-days tới.
+     * Ngày bắt đầu phải từ hôm nay trở đi.
+     */
+    @Transactional
+    public RecurringTaskResponse createTemplate(Long projectId, RecurringTaskRequest request) {
+        Project project = findOwnedProject(projectId);
+        // Ngày bắt đầu trong quá khứ sẽ sinh ngay hàng loạt task đã quá hạn (và bộ sinh tiếp tục bù các lần còn lại)
+        if (request.getStartDate().isBefore(LocalDate.now())) {
+            throw new BadRequestException("Ngày bắt đầu không được trước hôm nay.");
+        }
+        if (request.getEndDate() != null && request.getEndDate().isBefore(request.getStartDate())) {
+            throw new BadRequestException("Ngày kết thúc phải sau hoặc bằng ngày bắt đầu.");
+        }
+        if (request.getAssigneeId() != null && !userRepository.existsById(request.getAssigneeId())) {
+            throw new ResourceNotFoundException("Người được giao không tồn tại với ID: " + request.getAssigneeId());
+        }
+
+        RecurringTask template = new RecurringTask();
+        template.setProject(project);
+        template.setTitle(request.getTitle());
+        template.setDescription(request.getDescription());
+        template.setAssigneeId(request.getAssigneeId());
+        template.setFrequency(request.getFrequency());
+        template.setRepeatInterval(request.getRepeatInterval());
+        template.setStartDate(request.getStartDate());
+        template.setEndDate(request.getEndDate());
+        template.setGeneratedCount(0);
+        template.setNextDueDate(request.getStartDate());
+        RecurringTask saved = recurringTaskRepository.save(template);
+        materialize(List.of(saved), LocalDate.now().plusDays(horizonDays));
+        return convertToDto(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringTaskResponse> getTemplatesForCurrentUser(Long projectId) {
+        findOwnedProject(projectId);
+        return recurringTaskRepository.findByProjectIdOrderByIdAsc(projectId).stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    // Dừng lặp; các task đã được tạo vẫn được giữ lại
+    @Transactional
+    public void deleteTemplate(Long templateId) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực.");
+        }
+        RecurringTask template = recurringTaskRepository.findById(templateId)
+            .orElseThrow(() -> new ResourceNotFoundException("Mẫu lặp lại không tồn tại với ID: " + templateId));
+        if (!template.getProject().getOwner().getId().equals(currentUser.getId())) {
+            throw new UnauthorizedAccessException("Bạn không có quyền xoá mẫu lặp lại này. ID: " + templateId);
+        }
+        recurringTaskRepository.delete(template);
+    }
+
+    private Project findOwnedProject(Long projectId) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực.");
+        }
+        return projectRepository.findByIdAndOwnerId(projectId, currentUser.getId())
+            .orElseThrow(() -> new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền truy cập. ID dự án: " + projectId));
+    }
+
+    private RecurringTaskResponse convertToDto(RecurringTask template) {
+        return new RecurringTaskResponse(template.getId(), template.getProject().getId(), template.getTitle(),
+                template.getDescription(), template.getFrequency(), template.getRepeatInterval(), template.getStartDate(),
+                template.getEndDate(), template.getAssigneeId(), template.getGeneratedCount(),
+                template.getLastGeneratedDate(), template.getNextDueDate(), template.getCreatedAt());
+    }
+}
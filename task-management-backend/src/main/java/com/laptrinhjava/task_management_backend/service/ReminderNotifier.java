@@ -0,0 +1,18 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDate;
+
+/**
+ * Kênh gửi nhắc hạn task. Chọn bằng app.reminders.notifier (log | webhook | inbox).
+ * Được gọi ngoài giao dịch, sau khi lần nhắc đã được đánh dấu là đã gửi (mỗi hạn chót gửi tối đa một lần).
+ */
+public interface ReminderNotifier {
+
+    void notify(Reminder reminder);
+
+    /**
+     * @param recipientId người được giao task, hoặc chủ dự án nếu task chưa giao cho ai
+     */
+    record Reminder(long taskId, long projectId, String title, LocalDate dueDate, long recipientId) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Hàng đợi nhắc hạn theo thời điểm kích hoạt (min-heap), mỗi task có tối đa một mục còn hiệu lực.
+ *
+ * Huỷ/đổi lịch chỉ cập nhật bảng id → mục; mục cũ còn nằm trong heap bị bỏ qua khi tới lượt và heap được dựng lại
+ * khi số mục cũ vượt quá số mục còn hiệu lực. Lấy k mục đến hạn tốn O(k log n) với n là số mục trong hàng đợi.
+ * Không an toàn luồng: người gọi tự đồng bộ.
+ */
+final class ReminderQueue {
+
+    private static final Comparator<Entry> FIRE_ORDER =
+            Comparator.comparingLong(Entry::fireAt).thenComparingLong(Entry::taskId);
+
+    private PriorityQueue<Entry> heap = new PriorityQueue<>(FIRE_ORDER);
+    private final Map<Long, Entry> live = new HashMap<>();
+
+    /**
+     * Đặt (hoặc thay) lịch nhắc của task.
+     */
+    void schedule(long taskId, int shard, LocalDate dueDate, long fireAt) {
+        Entry entry = new Entry(taskId, shard, dueDate, fireAt);
+        live.put(taskId, entry);
+        heap.add(entry);
+        compactIfNeeded();
+    }
+
+    // Dùng khi nạp lại từ database: không ghi đè lịch vừa được cập nhật từ thay đổi trên node này
+    boolean scheduleIfAbsent(long taskId, int shard, LocalDate dueDate, long fireAt) {
+        if (live.containsKey(taskId)) {
+            return false;
+        }
+        schedule(taskId, shard, dueDate, fireAt);
+        return true;
+    }
+
+    void cancel(long taskId) {
+        if (live.remove(taskId) != null) {
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Lấy ra tối đa max mục có fireAt <= now, theo thứ tự kích hoạt.
+     */
+    List<Entry> pollDue(long now, int max) {
+        List<Entry> due = new ArrayList<>();
+        while (due.size() < max && !heap.isEmpty() && heap.peek().fireAt() <= now) {
+            Entry entry = heap.poll();
+            if (live.get(entry.taskId()) == entry) {
+                live.remove(entry.taskId());
+                due.add(entry);
+            }
+        }
+        return due;
+    }
+
+    // Thời điểm kích hoạt sớm nhất còn hiệu lực, Long.MAX_VALUE nếu hàng đợi rỗng
+    long nextFireAt() {
+        while (!heap.isEmpty() && live.get(heap.peek().taskId()) != heap.peek()) {
+            heap.poll();
+        }
+        return heap.isEmpty() ? Long.MAX_VALUE : heap.peek().fireAt();
+    }
+
+    boolean contains(long taskId) {
+        return live.containsKey(taskId);
+    }
+
+    int size() {
+        return live.size();
+    }
+
+    private void compactIfNeeded() {
+        if (heap.size() > 2 * live.size() + 64) {
+            PriorityQueue<Entry> rebuilt = new PriorityQueue<>(Math.max(1, live.size()), FIRE_ORDER);
+            rebuilt.addAll(live.values());
+            heap = rebuilt;
+        }
+    }
+
+    record Entry(long taskId, int shard, LocalDate dueDate, long fireAt) {
+    }
+}
@@ -0,0 +1,262 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static com.laptrinhjava.task_management_backend.util.TransactionCallbacks.afterCommit;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+/**
+ * Nhắc hạn task: mỗi task chưa xong được nhắc một lần vào lúc fire-at, lead-days ngày trước hạn chót.
+ *
+ * Chỉ các lần nhắc có hạn chót trong cửa sổ [hôm nay, hôm nay + lead-days + window-days] được giữ trong một hàng đợi
+ * theo thời điểm kích hoạt ({@link ReminderQueue}). Cửa sổ được nạp lại định kỳ bằng một lần quét khoảng trên index
+ * due_date của từng shard và được giữ đồng bộ với thay đổi trên node này sau mỗi giao dịch (TaskService).
+ * Mỗi nhịp chỉ lấy các mục đã đến hạn ra khỏi hàng đợi, nên chi phí không phụ thuộc tổng số task.
+ *
+ * Trước khi gửi, lần nhắc được "nhận" bằng cách khoá dòng task và ghi reminded_due_date trong một giao dịch:
+ * task đã xong, đã đổi hạn hoặc đã được node khác nhắc sẽ bị bỏ qua. Nhắc được gửi tối đa một lần cho mỗi hạn chót.
+ */
+@Service
+public class ReminderScheduler {
+
+    private static final String OPEN_AND_NOT_REMINDED = " AND status NOT IN ('" + TaskStatus.DONE.name() + "', '"
+            + TaskStatus.CANCELLED.name() + "') AND (reminded_due_date IS NULL OR reminded_due_date <> due_date)";
+
+    private static final String SELECT_WINDOW_SQL =
+            "SELECT id, due_date FROM tasks WHERE due_date BETWEEN :from AND :to" + OPEN_AND_NOT_REMINDED
+                    + " ORDER BY due_date, id LIMIT :limit";
+
+    private static final String LOCK_CLAIMABLE_SQL =
+            "SELECT id, due_date FROM tasks WHERE id IN (:ids)" + OPEN_AND_NOT_REMINDED + "%s FOR UPDATE";
+
+    private static final String MARK_REMINDED_SQL =
+            "UPDATE tasks SET reminded_due_date = due_date WHERE id IN (:ids)";
+
+    // Người nhận: người được giao, nếu chưa giao cho ai thì chủ dự án
+    private static final String SELECT_DETAILS_SQL =
+            "SELECT t.id, t.project_id, t.title, t.due_date, COALESCE(t.assignee_id, p.owner_id) AS recipient_id"
+                    + " FROM tasks t JOIN projects p ON p.id = t.project_id WHERE t.id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final ReminderNotifier notifier;
+    private final ShardDirectory shardDirectory;
+    private final ReminderQueue queue = new ReminderQueue();
+    private final LocalTime fireAt;
+
+    // Hạn chót muộn nhất mà hàng đợi đang phản ánh đầy đủ (null: chưa nạp lần nào)
+    private volatile LocalDate windowEnd;
+
+    @Value("${app.reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reminders.lead-days:1}")
+    private int leadDays;
+
+    @Value("${app.reminders.window-days:2}")
+    private int windowDays;
+
+    @Value("${app.reminders.max-queued:100000}")
+    private int maxQueued;
+
+    @Value("${app.reminders.max-fired-per-tick:500}")
+    private int maxFiredPerTick;
+
+    @Autowired
+    public ReminderScheduler(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                             ReminderNotifier notifier, ShardDirectory shardDirectory,
+                             @Value("${app.reminders.fire-at:09:00}") String fireAt) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.notifier = notifier;
+        this.shardDirectory = shardDirectory;
+        this.fireAt = LocalTime.parse(fireAt);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.refill-interval-ms:600000}", initialDelayString = "${app.reminders.tick-ms:10000}")
+    public void refillScheduled() {
+        if (enabled) {
+            refill();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.tick-ms:10000}", initialDelayString = "${app.reminders.tick-ms:10000}")
+    public void fireScheduled() {
+        if (enabled && windowEnd != null) {
+            fireDue(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Nạp các lần nhắc trong cửa sổ từ mọi shard vào hàng đợi.
+     * @return số lần nhắc mới được đưa vào hàng đợi
+     */
+    public int refill() {
+        LocalDate today = LocalDate.now();
+        LocalDate end = today.plusDays(leadDays + windowDays);
+        List<List<Object[]>> perShard = shardRouter.onEachShard(() -> jdbcTemplate.query(SELECT_WINDOW_SQL,
+                Map.of("from", Date.valueOf(today), "to", Date.valueOf(end), "limit", maxQueued),
+                (rs, rowNum) -> new Object[] {rs.getLong(1), rs.getDate(2).toLocalDate(), shardRouter.currentShard()}));
+
+        // Shard có nhiều hơn max-queued lần nhắc: cửa sổ bị thu lại tới trước ngày cuối cùng đọc được (có thể bị cắt dở)
+        LocalDate effectiveEnd = end;
+        for (List<Object[]> rows : perShard) {
+            if (rows.size() >= maxQueued && !rows.isEmpty()) {
+                LocalDate lastDue = (LocalDate) rows.get(rows.size() - 1)[1];
+                if (lastDue.isAfter(today) && lastDue.minusDays(1).isBefore(effectiveEnd)) {
+                    effectiveEnd = lastDue.minusDays(1);
+                }
+            }
+        }
+
+        int added = 0;
+        synchronized (queue) {
+            for (List<Object[]> rows : perShard) {
+                for (Object[] row : rows) {
+                    LocalDate dueDate = (LocalDate) row[1];
+                    if (!dueDate.isAfter(effectiveEnd)
+                            && queue.scheduleIfAbsent((Long) row[0], (Integer) row[2], dueDate, fireTimeOf(dueDate))) {
+                        added++;
+                    }
+                }
+            }
+            windowEnd = effectiveEnd;
+        }
+        return added;
+    }
+
+    /**
+     * Gửi các lần nhắc có thời điểm kích hoạt không muộn hơn now. Gọi ngoài giao dịch.
+     * @return số lần nhắc đã gửi
+     */
+    public int fireDue(long now) {
+        int fired = 0;
+        while (true) {
+            List<ReminderQueue.Entry> due;
+            synchronized (queue) {
+                due = queue.pollDue(now, maxFiredPerTick);
+            }
+            if (due.isEmpty()) {
+                break;
+            }
+            // Task của chủ đang được chuyển shard không được đánh dấu ở shard nguồn; lần nạp lại sau sẽ lấy từ shard đích
+            List<Long> migratingOwners = shardDirectory.migratingOwners();
+            Map<Integer, List<ReminderQueue.Entry>> byShard = new TreeMap<>();
+            for (ReminderQueue.Entry entry : due) {
+                byShard.computeIfAbsent(entry.shard(), shard -> new ArrayList<>()).add(entry);
+            }
+            for (Map.Entry<Integer, List<ReminderQueue.Entry>> shardEntries : byShard.entrySet()) {
+                List<ReminderNotifier.Reminder> claimed = shardRouter.onShard(shardEntries.getKey(),
+                        () -> transactionTemplate.execute(status -> claim(shardEntries.getValue(), migratingOwners)));
+                for (ReminderNotifier.Reminder reminder : claimed) {
+                    try {
+                        notifier.notify(reminder);
+                        fired++;
+                    } catch (RuntimeException ex) {
+                        System.out.println("====== ReminderScheduler: Gửi nhắc cho task " + reminder.taskId() + " thất bại: " + ex.getMessage() + " ======");
+                    }
+                }
+            }
+            if (due.size() < maxFiredPerTick) {
+                break;
+            }
+        }
+        if (fired > 0) {
+            System.out.println("====== ReminderScheduler: Đã gửi " + fired + " nhắc hạn ======");
+        }
+        return fired;
+    }
+
+    // Khoá các task còn cần nhắc đúng với hạn chót trong hàng đợi, đánh dấu đã nhắc và trả về thông tin để gửi
+    private List<ReminderNotifier.Reminder> claim(List<ReminderQueue.Entry> entries, List<Long> migratingOwners) {
+        Map<Long, LocalDate> expected = new HashMap<>();
+        entries.forEach(entry -> expected.put(entry.taskId(), entry.dueDate()));
+        List<Long> claimedIds = new ArrayList<>();
+        jdbcTemplate.query(ShardDirectory.excludingMigrating(LOCK_CLAIMABLE_SQL, migratingOwners),
+                Map.of("ids", expected.keySet(), "migratingOwners", migratingOwners), rs -> {
+            long taskId = rs.getLong(1);
+            LocalDate dueDate = rs.getDate(2).toLocalDate();
+            if (dueDate.equals(expected.get(taskId))) {
+                claimedIds.add(taskId);
+            } else {
+                // Hạn chót đã được đổi trên node khác: xếp lịch lại theo hạn mới
+                taskChangedOnShard(taskId, shardRouter.currentShard(), dueDate);
+            }
+        });
+        if (claimedIds.isEmpty()) {
+            return List.of();
+        }
+        jdbcTemplate.update(MARK_REMINDED_SQL, Map.of("ids", claimedIds));
+        return jdbcTemplate.query(SELECT_DETAILS_SQL, Map.of("ids", claimedIds),
+                (rs, rowNum) -> new ReminderNotifier.Reminder(rs.getLong("id"), rs.getLong("project_id"), rs.getString("title"),
+                        rs.getDate("due_date").toLocalDate(), rs.getLong("recipient_id")));
+    }
+
+    // Các thay đổi dưới đây chỉ được áp sau khi giao dịch hiện tại commit
+
+    public void taskChanged(Long taskId, TaskStatus status, LocalDate dueDate) {
+        int shard = shardRouter.currentShard();
+        afterCommit(() -> {
+            if (DependencyGraphCache.isFinished(status)) {
+                cancel(taskId);
+            } else {
+                taskChangedOnShard(taskId, shard, dueDate);
+            }
+        });
+    }
+
+    public void tasksRemoved(Collection<Long> taskIds) {
+        afterCommit(() -> taskIds.forEach(this::cancel));
+    }
+
+    private void taskChangedOnShard(long taskId, int shard, LocalDate dueDate) {
+        LocalDate end = windowEnd;
+        synchronized (queue) {
+            // Ngoài cửa sổ (hoặc hàng đợi đã đầy): lần nạp sau sẽ đưa vào khi tới lúc
+            if (end == null || dueDate == null || dueDate.isBefore(LocalDate.now()) || dueDate.isAfter(end)
+                    || (queue.size() >= maxQueued && !queue.contains(taskId))) {
+                queue.cancel(taskId);
+            } else {
+                queue.schedule(taskId, shard, dueDate, fireTimeOf(dueDate));
+            }
+        }
+    }
+
+    private void cancel(long taskId) {
+        synchronized (queue) {
+            queue.cancel(taskId);
+        }
+    }
+
+    public int queuedCount() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private long fireTimeOf(LocalDate dueDate) {
+        return dueDate.minusDays(leadDays).atTime(fireAt).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,255 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static com.laptrinhjava.task_management_backend.util.TransactionCallbacks.afterCommit;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.model.User;
+
+/**
+ * Thư mục người dùng → shard (bảng user_shards trên shard 0), có cache cục bộ theo email.
+ *
+ * Người dùng mới được xếp vào shard đang có ít người nhất; người dùng đã có dữ liệu trên shard 0 từ trước khi bật
+ * sharding được giữ ở shard 0 (có thể chuyển đi bằng {@link ShardRebalancer}).
+ */
+@Service
+public class ShardDirectory {
+
+    private static final String SELECT_PLACEMENT_SQL =
+            "SELECT u.id, s.shard_id, s.migrating FROM app_user u LEFT JOIN user_shards s ON s.user_id = u.id WHERE u.email = ?";
+
+    /**
+     * Điều kiện loại dữ liệu của các chủ đang được chuyển shard, cho câu lệnh có cột project_id và tham số :migratingOwners
+     * (chỉ nối vào khi {@link #migratingOwners()} không rỗng).
+     */
+    public static final String NOT_MIGRATING = " AND project_id NOT IN (SELECT id FROM projects WHERE owner_id IN (:migratingOwners))";
+
+    // sql chứa đúng một %s tại chỗ đặt điều kiện {@link #NOT_MIGRATING}
+    public static String excludingMigrating(String sql, List<Long> migratingOwners) {
+        return sql.formatted(migratingOwners.isEmpty() ? "" : NOT_MIGRATING);
+    }
+
+    private final ShardRouter shardRouter;
+    private final long cacheTtlNanos;
+    private final Map<String, Placement> cache = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ShardDirectory(ShardRouter shardRouter, @Value("${app.sharding.directory-cache-ttl-ms:30000}") long cacheTtlMs) {
+        this.shardRouter = shardRouter;
+        this.cacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(cacheTtlMs);
+    }
+
+    /**
+     * @return vị trí dữ liệu của người dùng theo email, hoặc null nếu người dùng chưa tồn tại.
+     */
+    public Placement placementFor(String email) {
+        if (!shardRouter.isSharded() || email == null) {
+            return null;
+        }
+        Placement cached = cache.get(email);
+        if (cached != null && System.nanoTime() - cached.loadedAt() < cacheTtlNanos) {
+            return cached;
+        }
+        Placement placement = loadPlacement(email);
+        if (placement != null) {
+            cache.put(email, placement);
+        }
+        return placement;
+    }
+
+    private Placement loadPlacement(String email) {
+        JdbcTemplate directory = directory();
+        List<Placement> rows = directory.query(SELECT_PLACEMENT_SQL, (rs, rowNum) -> new Placement(
+                rs.getLong(1), rs.getObject(2) != null ? rs.getInt(2) : -1, rs.getBoolean(3), System.nanoTime()), email);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Placement placement = rows.get(0);
+        if (placement.shard() >= 0) {
+            return placement;
+        }
+        assignShard(placement.userId());
+        return loadPlacement(email);
+    }
+
+    private void assignShard(long userId) {
+        JdbcTemplate directory = directory();
+        int shard;
+        Integer legacyProjects = directory.queryForObject("SELECT COUNT(*) FROM projects WHERE owner_id = ?", Integer.class, userId);
+        if (legacyProjects != null && legacyProjects > 0) {
+            shard = 0;
+        } else {
+            int[] users = new int[shardRouter.getShardCount()];
+            directory.query("SELECT shard_id, COUNT(*) FROM user_shards GROUP BY shard_id", rs -> {
+                int id = rs.getInt(1);
+                if (id >= 0 && id < users.length) {
+                    users[id] = rs.getInt(2);
+                }
+            });
+            shard = 0;
+            for (int i = 1; i < users.length; i++) {
+                if (users[i] < users[shard]) {
+                    shard = i;
+                }
+            }
+        }
+        try {
+            directory.update("INSERT INTO user_shards (user_id, shard_id, migrating, updated_at) VALUES (?, ?, FALSE, ?)",
+                    userId, shard, Timestamp.valueOf(LocalDateTime.now()));
+            System.out.println("====== ShardDirectory: Xếp người dùng " + userId + " vào shard " + shard + " ======");
+        } catch (DuplicateKeyException ex) {
+            // Request khác vừa xếp chỗ cho người dùng này
+        }
+    }
+
+    public int shardOf(long userId) {
+        if (!shardRouter.isSharded()) {
+            return 0;
+        }
+        List<Integer> shards = directory().queryForList("SELECT shard_id FROM user_shards WHERE user_id = ?", Integer.class, userId);
+        return shards.isEmpty() ? 0 : shards.get(0);
+    }
+
+    /**
+     * Đọc thẳng từ thư mục (không qua cache): dùng khi request chạm tới dữ liệu của người khác, vì cache trên các node
+     * khác có thể chưa thấy cờ đang chuyển.
+     */
+    public boolean isMigrating(long userId) {
+        if (!shardRouter.isSharded()) {
+            return false;
+        }
+        return !directory().queryForList("SELECT 1 FROM user_shards WHERE user_id = ? AND migrating = TRUE", Integer.class, userId).isEmpty();
+    }
+
+    /**
+     * Các chủ sở hữu đang được chuyển shard, đọc thẳng từ thư mục. Tác vụ định kỳ đọc lại ở mỗi lô và bỏ qua dữ liệu
+     * của họ ({@link #NOT_MIGRATING}).
+     */
+    public List<Long> migratingOwners() {
+        if (!shardRouter.isSharded()) {
+            return List.of();
+        }
+        return directory().queryForList("SELECT user_id FROM user_shards WHERE migrating = TRUE", Long.class);
+    }
+
+    void markMigrating(long userId, boolean migrating) {
+        directory().update("UPDATE user_shards SET migrating = ?, updated_at = ? WHERE user_id = ?",
+                migrating, Timestamp.valueOf(LocalDateTime.now()), userId);
+        invalidate(userId);
+    }
+
+    // Cờ đang chuyển vẫn được giữ cho tới khi shard nguồn đã xoá xong (markMigrating(userId, false))
+    void completeMove(long userId, int targetShard) {
+        directory().update("UPDATE user_shards SET shard_id = ?, updated_at = ? WHERE user_id = ?",
+                targetShard, Timestamp.valueOf(LocalDateTime.now()), userId);
+        invalidate(userId);
+    }
+
+    private void invalidate(long userId) {
+        cache.values().removeIf(placement -> placement.userId() == userId);
+    }
+
+    /**
+     * Tìm shard đang chứa task: thử shard của người dùng trước, rồi shard gốc theo id, cuối cùng là các shard còn lại
+     * (task của người khác được giao cho mình, hoặc đã bị rebalance); tính cả task trong bảng lưu trữ.
+     * Trả về homeShard (ownerId = null) nếu không tìm thấy.
+     */
+    public Location locateTask(long taskId, int homeShard) {
+        return locate(homeShard, shard -> taskOwner(shard, taskId), shardRouter.originShardOf(taskId));
+    }
+
+    /**
+     * Tìm shard đang chứa dự án (dự án người khác chia sẻ cho mình nằm trên shard của chủ dự án), cùng thứ tự thử như
+     * {@link #locateTask}. Trả về homeShard (ownerId = null) nếu không tìm thấy.
+     */
+    public Location locateProject(long projectId, int homeShard) {
+        return locate(homeShard, shard -> projectOwner(shard, projectId), shardRouter.originShardOf(projectId));
+    }
+
+    private Location locate(int homeShard, IntFunction<Long> ownerOn, int origin) {
+        if (!shardRouter.isSharded()) {
+            return new Location(homeShard, null);
+        }
+        Long owner = ownerOn.apply(homeShard);
+        if (owner != null) {
+            return new Location(homeShard, owner);
+        }
+        if (origin != homeShard && (owner = ownerOn.apply(origin)) != null) {
+            return new Location(origin, owner);
+        }
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            if (shard != homeShard && shard != origin && (owner = ownerOn.apply(shard)) != null) {
+                return new Location(shard, owner);
+            }
+        }
+        return new Location(homeShard, null);
+    }
+
+    private Long projectOwner(int shard, long projectId) {
+        List<Long> owners = new JdbcTemplate(shardRouter.shardDataSource(shard))
+                .queryForList("SELECT owner_id FROM projects WHERE id = ?", Long.class, projectId);
+        return owners.isEmpty() ? null : owners.get(0);
+    }
+
+    private Long taskOwner(int shard, long taskId) {
+        List<Long> owners = new JdbcTemplate(shardRouter.shardDataSource(shard)).queryForList(
+                "SELECT p.owner_id FROM tasks t JOIN projects p ON p.id = t.project_id WHERE t.id = ?"
+                        + " UNION ALL SELECT p.owner_id FROM tasks_archive a JOIN projects p ON p.id = a.project_id WHERE a.id = ?",
+                Long.class, taskId, taskId);
+        return owners.isEmpty() ? null : owners.get(0);
+    }
+
+    /**
+     * Sao chép bản ghi người dùng (đã lưu trên shard 0) sang các shard còn lại, giữ nguyên id.
+     * Nếu đang trong giao dịch thì chỉ sao chép sau khi commit.
+     */
+    public void replicateUser(User user) {
+        if (!shardRouter.isSharded() || user.getId() == null) {
+            return;
+        }
+        afterCommit(() -> copyUserToShards(user));
+    }
+
+    private void copyUserToShards(User user) {
+        Timestamp createdAt = Timestamp.valueOf(user.getCreatedAt() != null ? user.getCreatedAt() : LocalDateTime.now());
+        Timestamp updatedAt = Timestamp.valueOf(user.getUpdatedAt() != null ? user.getUpdatedAt() : LocalDateTime.now());
+        for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+            JdbcTemplate target = new JdbcTemplate(shardRouter.shardDataSource(shard));
+            int updated = target.update("UPDATE app_user SET username = ?, name = ?, email = ?, avatar_url = ?, role = ?, updated_at = ? WHERE id = ?",
+                    user.getUsername(), user.getName(), user.getEmail(), user.getAvatarUrl(), user.getRole(), updatedAt, user.getId());
+            if (updated == 0) {
+                target.update("INSERT INTO app_user (id, username, name, email, avatar_url, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                        user.getId(), user.getUsername(), user.getName(), user.getEmail(), user.getAvatarUrl(), user.getRole(), createdAt, updatedAt);
+            }
+        }
+    }
+
+    private JdbcTemplate directory() {
+        return new JdbcTemplate(shardRouter.shardDataSource(0));
+    }
+
+    /**
+     * @param ownerId chủ của dự án/task tìm được, null nếu không tìm thấy
+     */
+    public record Location(int shard, Long ownerId) {
+    }
+
+    /**
+     * @param shard -1 nếu người dùng chưa được xếp shard
+     */
+    public record Placement(long userId, int shard, boolean migrating, long loadedAt) {
+    }
+}
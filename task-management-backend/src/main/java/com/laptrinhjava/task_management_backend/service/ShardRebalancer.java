@@ -0,0 +1,237 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+
+/**
+ * Chuyển toàn bộ dữ liệu của một chủ sở hữu sang shard khác.
+ *
+ * Trình tự: đánh dấu người dùng "đang chuyển" → chờ hết thời gian cache thư mục và thời gian xả request đang chạy,
+ * đẩy lịch sử task còn trong hàng đợi → chép dữ liệu sang shard đích trong một giao dịch → trỏ thư mục sang shard
+ * đích → xoá dữ liệu ở shard nguồn → bỏ đánh dấu. Trong suốt thời gian đánh dấu, mọi request chạm tới dữ liệu của
+ * người dùng (kể cả của thành viên dự án và người được giao) nhận 503, các tác vụ định kỳ bỏ qua dữ liệu đó
+ * ({@link ShardDirectory#NOT_MIGRATING}). Id được giữ nguyên vì id là duy nhất trên toàn cụm. Có thể chạy lại an toàn
+ * nếu bị dừng giữa chừng.
+ *
+ * Cũng dùng để chuyển riêng một task sang dự án nằm trên shard khác ({@link #copyTask}, {@link #deleteTask}).
+ */
+@Service
+public class ShardRebalancer {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Các bảng theo chủ sở hữu, theo thứ tự chèn (bảng cha trước). Tham số duy nhất là id chủ sở hữu.
+    static final List<ScopedTable> OWNER_SCOPED_TABLES = List.of(
+            new ScopedTable("projects", "owner_id = ?"),
+            new ScopedTable("project_workflow_states", "project_id IN (SELECT id FROM projects WHERE owner_id = ?)"),
+            new ScopedTable("project_members", "project_id IN (SELECT id FROM projects WHERE owner_id = ?)"),
+            new ScopedTable("recurring_tasks", "project_id IN (SELECT id FROM projects WHERE owner_id = ?)"),
+            new ScopedTable("tasks", "project_id IN (SELECT id FROM projects WHERE owner_id = ?)"),
+            new ScopedTable("tasks_archive", "project_id IN (SELECT id FROM projects WHERE owner_id = ?)"),
+            new ScopedTable("task_closure",
+                    "descendant_id IN (SELECT t.id FROM tasks t JOIN projects p ON p.id = t.project_id WHERE p.owner_id = ?"
+                            + " UNION SELECT a.id FROM tasks_archive a JOIN projects p ON p.id = a.project_id WHERE p.owner_id = ?)"),
+            new ScopedTable("task_dependencies", "project_id IN (SELECT id FROM projects WHERE owner_id = ?)"),
+            new ScopedTable("labels", "project_id IN (SELECT id FROM projects WHERE owner_id = ?)"),
+            new ScopedTable("task_labels", "project_id IN (SELECT id FROM projects WHERE owner_id = ?)"),
+            new ScopedTable("task_history",
+                    "task_id IN (SELECT t.id FROM tasks t JOIN projects p ON p.id = t.project_id WHERE p.owner_id = ?"
+                            + " UNION SELECT a.id FROM tasks_archive a JOIN projects p ON p.id = a.project_id WHERE p.owner_id = ?)"),
+            new ScopedTable("task_daily_stats", "project_id IN (SELECT id FROM projects WHERE owner_id = ?)"),
+            new ScopedTable("sync_tombstones", "user_id = ?"),
+            new ScopedTable("notifications", "user_id = ?"),
+            new ScopedTable("outbox_events", "owner_id = ?"));
+
+    // Các dòng theo một task (không có cha, con hay phụ thuộc) khi task đổi sang dự án trên shard khác. Tham số là id task;
+    // nhãn thuộc dự án cũ nên không được chép
+    static final List<ScopedTable> TASK_SCOPED_TABLES = List.of(
+            new ScopedTable("tasks", "id = ?"),
+            new ScopedTable("task_closure", "descendant_id = ?"),
+            new ScopedTable("task_history", "task_id = ?"));
+
+    private final ShardRouter shardRouter;
+    private final ShardDirectory shardDirectory;
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskHistoryService taskHistoryService;
+    private final long fenceWaitMillis;
+
+    @Autowired
+    public ShardRebalancer(ShardRouter shardRouter, ShardDirectory shardDirectory, JdbcTemplate jdbcTemplate,
+                           TaskHistoryService taskHistoryService,
+                           @Value("${app.sharding.directory-cache-ttl-ms:30000}") long cacheTtlMillis,
+                           @Value("${app.sharding.move-drain-ms:5000}") long drainMillis) {
+        this.shardRouter = shardRouter;
+        this.shardDirectory = shardDirectory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskHistoryService = taskHistoryService;
+        // Node khác có thể còn giữ placement "không đang chuyển" tới hết TTL, và request đã qua kiểm tra có thể vẫn đang ghi
+        this.fenceWaitMillis = cacheTtlMillis + drainMillis;
+    }
+
+    /**
+     * @return số dòng đã chuyển
+     */
+    public synchronized int moveOwner(long ownerId, int targetShard) {
+        if (!shardRouter.isSharded()) {
+            throw new IllegalStateException("Sharding chưa được bật");
+        }
+        if (targetShard < 0 || targetShard >= shardRouter.getShardCount()) {
+            throw new IllegalArgumentException("Shard không tồn tại: " + targetShard);
+        }
+        int sourceShard = shardDirectory.shardOf(ownerId);
+        if (sourceShard == targetShard) {
+            return 0;
+        }
+        System.out.println("====== ShardRebalancer: Chuyển dữ liệu của người dùng " + ownerId + " từ shard " + sourceShard + " sang shard " + targetShard + " ======");
+
+        DataSource source = shardRouter.shardDataSource(sourceShard);
+        DataSource target = shardRouter.shardDataSource(targetShard);
+        shardDirectory.markMigrating(ownerId, true);
+        int moved;
+        try {
+            awaitFence();
+            moved = inTransaction(target).execute(status -> {
+                deleteOwnerRows(new JdbcTemplate(target), ownerId); // phần còn sót từ lần chạy bị dừng trước đó
+                return copyOwnerRows(new JdbcTemplate(source), new JdbcTemplate(target), ownerId);
+            });
+            shardDirectory.completeMove(ownerId, targetShard);
+        } catch (RuntimeException ex) {
+            shardDirectory.markMigrating(ownerId, false);
+            throw ex;
+        }
+        // Vẫn đánh dấu trong lúc xoá: thành viên ở shard nguồn sẽ tìm thấy bản cũ trước bản ở shard đích
+        try {
+            inTransaction(source).executeWithoutResult(status -> deleteOwnerRows(new JdbcTemplate(source), ownerId));
+        } finally {
+            shardDirectory.markMigrating(ownerId, false);
+        }
+        System.out.println("====== ShardRebalancer: Đã chuyển " + moved + " dòng của người dùng " + ownerId + " ======");
+        return moved;
+    }
+
+    private void awaitFence() {
+        try {
+            Thread.sleep(fenceWaitMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bị ngắt khi chờ trước khi chuyển dữ liệu", ex);
+        }
+        // Lịch sử của các request vừa xả xong còn trong hàng đợi ghi không đồng bộ của node này
+        taskHistoryService.flush();
+    }
+
+    /**
+     * Chép các dòng của một task từ shard nguồn sang shard hiện tại và gắn task vào dự án đích; trạng thái quy trình và
+     * thứ hạng trên bảng để trống cho dự án mới tính lại. Gọi trong giao dịch trên shard đích; bản ở shard nguồn chỉ
+     * được xoá ({@link #deleteTask}) sau khi giao dịch đó commit.
+     */
+    public void copyTask(long taskId, int sourceShard, long targetProjectId) {
+        JdbcTemplate source = new JdbcTemplate(shardRouter.shardDataSource(sourceShard));
+        Map<String, Object> moved = new HashMap<>();
+        moved.put("project_id", targetProjectId);
+        moved.put("workflow_state", null);
+        moved.put("board_rank", null);
+        for (ScopedTable table : TASK_SCOPED_TABLES) {
+            copyRows(source, jdbcTemplate, table, taskId, table.name().equals("tasks") ? moved : Map.of());
+        }
+    }
+
+    // Xoá task đã chép sang shard khác khỏi shard hiện tại (gọi trong giao dịch trên shard nguồn)
+    public void deleteTask(long taskId) {
+        jdbcTemplate.update("DELETE FROM task_labels WHERE task_id = ?", taskId);
+        for (int i = TASK_SCOPED_TABLES.size() - 1; i >= 0; i--) {
+            ScopedTable table = TASK_SCOPED_TABLES.get(i);
+            jdbcTemplate.update("DELETE FROM " + table.name() + " WHERE " + table.condition(), table.args(taskId));
+        }
+    }
+
+    private int copyOwnerRows(JdbcTemplate source, JdbcTemplate target, long ownerId) {
+        int total = 0;
+        for (ScopedTable table : OWNER_SCOPED_TABLES) {
+            total += copyRows(source, target, table, ownerId, Map.of());
+        }
+        return total;
+    }
+
+    // Chép theo lô các dòng thoả điều kiện của bảng; overrides thay giá trị các cột theo tên (chữ thường)
+    private static int copyRows(JdbcTemplate source, JdbcTemplate target, ScopedTable table, long id, Map<String, Object> overrides) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        String[] insertSql = new String[1];
+        int[] copied = new int[1];
+        source.query("SELECT * FROM " + table.name() + " WHERE " + table.condition(), rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int columns = metaData.getColumnCount();
+            if (insertSql[0] == null) {
+                insertSql[0] = insertStatement(table.name(), metaData);
+            }
+            Object[] row = new Object[columns];
+            for (int i = 0; i < columns; i++) {
+                String column = metaData.getColumnName(i + 1).toLowerCase(Locale.ROOT);
+                row[i] = overrides.containsKey(column) ? overrides.get(column) : rs.getObject(i + 1);
+            }
+            batch.add(row);
+            if (batch.size() == BATCH_SIZE) {
+                target.batchUpdate(insertSql[0], batch);
+                copied[0] += batch.size();
+                batch.clear();
+            }
+        }, table.args(id));
+        if (!batch.isEmpty()) {
+            target.batchUpdate(insertSql[0], batch);
+            copied[0] += batch.size();
+        }
+        return copied[0];
+    }
+
+    private static String insertStatement(String table, ResultSetMetaData metaData) throws java.sql.SQLException {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (i > 1) {
+                columns.append(", ");
+                placeholders.append(", ");
+            }
+            columns.append(metaData.getColumnName(i));
+            placeholders.append('?');
+        }
+        return "INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders + ")";
+    }
+
+    // Xoá theo thứ tự ngược (bảng con trước) để không vi phạm khoá ngoại
+    private static void deleteOwnerRows(JdbcTemplate jdbcTemplate, long ownerId) {
+        for (int i = OWNER_SCOPED_TABLES.size() - 1; i >= 0; i--) {
+            ScopedTable table = OWNER_SCOPED_TABLES.get(i);
+            jdbcTemplate.update("DELETE FROM " + table.name() + " WHERE " + table.condition(), table.args(ownerId));
+        }
+    }
+
+    private static TransactionTemplate inTransaction(DataSource dataSource) {
+        return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    record ScopedTable(String name, String condition) {
+
+        // Mỗi dấu ? trong điều kiện đều nhận cùng một id (chủ sở hữu hoặc task)
+        Object[] args(long id) {
+            Object[] args = new Object[(int) condition.chars().filter(c -> c == '?').count()];
+            Arrays.fill(args, id);
+            return args;
+        }
+    }
+}
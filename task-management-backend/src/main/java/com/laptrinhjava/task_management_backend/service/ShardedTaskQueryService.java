@@ -0,0 +1,89 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.dto.CalendarResponse;
+import com.laptrinhjava.task_management_backend.dto.NextTaskResponse;
+import com.laptrinhjava.task_management_backend.dto.ProjectResponseDTO;
+import com.laptrinhjava.task_management_backend.dto.TaskFilter;
+import com.laptrinhjava.task_management_backend.dto.TaskPageResponse;
+
+/**
+ * Các truy vấn không gắn với một chủ sở hữu nên phải gom từ mọi shard ("task được giao cho tôi", mọi task nhìn thấy,
+ * lịch, danh sách dự án gồm cả dự án được chia sẻ).
+ * Khi không bật sharding, gọi thẳng TaskService.
+ */
+@Service
+public class ShardedTaskQueryService {
+
+    private final TaskService taskService;
+    private final ProjectService projectService;
+    private final ShardRouter shardRouter;
+
+    @Autowired
+    public ShardedTaskQueryService(TaskService taskService, ProjectService projectService, ShardRouter shardRouter) {
+        this.taskService = taskService;
+        this.projectService = projectService;
+        this.shardRouter = shardRouter;
+    }
+
+    public TaskPageResponse findTasksAssignedToCurrentUser(TaskFilter filter) {
+        if (!shardRouter.isSharded()) {
+            return taskService.findTasksAssignedToCurrentUser(filter);
+        }
+
+        // Mỗi shard trả về đủ (page + 1) * size bản ghi đầu tiên, sau đó trộn và cắt đúng trang cần lấy
+        TaskPageMerger merger = TaskPageMerger.widen(filter);
+        return merger.merge(shardRouter.onEachShard(() -> taskService.findTasksAssignedToCurrentUser(filter)));
+    }
+
+    public TaskPageResponse findTasksVisibleToCurrentUser(TaskFilter filter) {
+        if (!shardRouter.isSharded()) {
+            return taskService.findTasksVisibleToCurrentUser(filter);
+        }
+        TaskPageMerger merger = TaskPageMerger.widen(filter);
+        return merger.merge(shardRouter.onEachShard(() -> taskService.findTasksVisibleToCurrentUser(filter)));
+    }
+
+    // Dự án được chia sẻ nằm trên shard của chủ dự án
+    public List<ProjectResponseDTO> getAllProjectsForCurrentUser() {
+        if (!shardRouter.isSharded()) {
+            return projectService.getAllProjectsForCurrentUser();
+        }
+        return shardRouter.onEachShard(projectService::getAllProjectsForCurrentUser).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(ProjectResponseDTO::getId))
+                .toList();
+    }
+
+    public CalendarResponse getCalendarForCurrentUser(LocalDate from, LocalDate to, String granularity, int limit) {
+        if (!shardRouter.isSharded()) {
+            return taskService.getCalendarForCurrentUser(from, to, granularity, limit);
+        }
+
+        // Mỗi shard đã cắt limit task mỗi ô; cộng dồn số đếm rồi cắt lại sau khi trộn
+        CalendarBuckets calendar = taskService.newCalendar(from, to, granularity, limit);
+        shardRouter.onEachShard(() -> taskService.getCalendarForCurrentUser(from, to, granularity, limit)).forEach(calendar::addAll);
+        return calendar.toResponse();
+    }
+
+    // Mỗi shard trả về limit task tốt nhất của nó nên limit task tốt nhất toàn cục nằm trong hợp các kết quả
+    public List<NextTaskResponse> findNextTasksForCurrentUser(int limit) {
+        if (!shardRouter.isSharded()) {
+            return taskService.findNextTasksForCurrentUser(limit);
+        }
+        taskService.requireNextLimit(limit);
+        return shardRouter.onEachShard(() -> taskService.findNextTasksForCurrentUser(limit)).stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingDouble(NextTaskResponse::getScore).reversed()
+                        .thenComparing(next -> next.getTask().getId()))
+                .limit(limit)
+                .toList();
+    }
+}
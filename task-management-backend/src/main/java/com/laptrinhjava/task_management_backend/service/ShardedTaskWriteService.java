@@ -0,0 +1,65 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.dto.TaskRequest;
+import com.laptrinhjava.task_management_backend.dto.TaskResponse;
+import com.laptrinhjava.task_management_backend.exception.ServiceUnavailableException;
+
+/**
+ * Các thao tác ghi mà dự án đích chỉ có trong body (không có trên đường dẫn để ShardRoutingInterceptor định tuyến):
+ * tạo task, hoặc chuyển task sang dự án khác. Dự án được chia sẻ nằm trên shard của chủ dự án, nên shard được xác định
+ * trước khi mở giao dịch; nếu chủ dự án đang được chuyển shard thì từ chối (503) như ShardRoutingInterceptor.
+ * Khi không bật sharding, gọi thẳng TaskService.
+ */
+@Service
+public class ShardedTaskWriteService {
+
+    private final TaskService taskService;
+    private final ShardRouter shardRouter;
+    private final ShardDirectory shardDirectory;
+
+    @Autowired
+    public ShardedTaskWriteService(TaskService taskService, ShardRouter shardRouter, ShardDirectory shardDirectory) {
+        this.taskService = taskService;
+        this.shardRouter = shardRouter;
+        this.shardDirectory = shardDirectory;
+    }
+
+    public TaskResponse createTask(TaskRequest taskRequest) {
+        if (!shardRouter.isSharded() || taskRequest.getProjectId() == null) {
+            return taskService.createTask(taskRequest);
+        }
+        int shard = locateProject(taskRequest.getProjectId(), shardRouter.currentShard());
+        return shardRouter.onShard(shard, () -> taskService.createTask(taskRequest));
+    }
+
+    /**
+     * Request đã được định tuyến tới shard chứa task. Nếu dự án mới nằm trên shard khác, task (cùng lịch sử) được chép
+     * sang đó và cập nhật trong một giao dịch, rồi mới bị xoá ở shard cũ; id giữ nguyên vì id là duy nhất trên toàn cụm.
+     */
+    public TaskResponse updateTask(Long taskId, TaskRequest taskRequest) {
+        if (!shardRouter.isSharded() || taskRequest.getProjectId() == null) {
+            return taskService.updateTask(taskId, taskRequest);
+        }
+        int taskShard = shardRouter.currentShard();
+        int projectShard = locateProject(taskRequest.getProjectId(), taskShard);
+        if (projectShard == taskShard) {
+            return taskService.updateTask(taskId, taskRequest);
+        }
+        TaskService.MovedFrom from = taskService.checkMoveToProject(taskId, taskRequest.getProjectId());
+        TaskResponse response = shardRouter.onShard(projectShard, () -> taskService.moveInFromShard(taskId, taskShard, taskRequest, from));
+        taskService.moveOutToShard(taskId);
+        return response;
+    }
+
+    private int locateProject(long projectId, int homeShard) {
+        ShardDirectory.Location location = shardDirectory.locateProject(projectId, homeShard);
+        if (location.ownerId() != null && shardDirectory.isMigrating(location.ownerId())) {
+            throw new ServiceUnavailableException("Dữ liệu của dự án đang được di chuyển, vui lòng thử lại sau.");
+        }
+        return location.shard();
+    }
+}
@@ -0,0 +1,88 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.laptrinhjava.task_management_backend.util.SecurityUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Gộp các lời gọi đọc giống hệt nhau đang chạy đồng thời (cùng người dùng, cùng thao tác, cùng tham số)
+ * thành một lần tính duy nhất; các lời gọi đến sau chờ và nhận chung kết quả (hoặc chung exception).
+ *
+ * Đây không phải cache: khoá bị gỡ ngay khi lần tính kết thúc, lời gọi đến sau đó sẽ truy vấn lại từ đầu.
+ * Vì kết quả được chia sẻ giữa nhiều request, nơi gọi không được sửa đối tượng trả về.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter executedCounter;
+    private final Counter coalescedCounter;
+
+    @Autowired
+    public SingleFlight(MeterRegistry meterRegistry, @Value("${app.single-flight.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.executedCounter = Counter.builder("app.singleflight.calls").tag("outcome", "executed").register(meterRegistry);
+        this.coalescedCounter = Counter.builder("app.singleflight.calls").tag("outcome", "coalesced").register(meterRegistry);
+    }
+
+    /**
+     * Thực thi loader, gộp với lời gọi đang chạy có cùng khoá của người dùng hiện tại (nếu có).
+     * Tham số được chụp lại dưới dạng chuỗi ngay khi vào, nên việc loader sửa tham số không ảnh hưởng tới khoá.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executeForCurrentUser(String operation, Supplier<T> loader, Object... args) {
+        String userKey = SecurityUtils.currentUserKey();
+        if (!enabled || userKey == null) {
+            return loader.get();
+        }
+        String key = userKey + "|" + operation + "|" + Arrays.deepToString(args);
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return (T) await(existing);
+        }
+
+        executedCounter.increment();
+        T result;
+        try {
+            result = loader.get();
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+        // Gỡ khoá trước khi hoàn tất để không request nào nhận được kết quả "cũ" sau khi lần tính đã xong
+        inFlight.remove(key, mine);
+        mine.complete(result);
+        return result;
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.dto.ProjectResponseDTO;
+import com.laptrinhjava.task_management_backend.dto.SyncResponse;
+import com.laptrinhjava.task_management_backend.dto.SyncTombstoneDTO;
+import com.laptrinhjava.task_management_backend.dto.TaskResponse;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.SyncTombstoneRepository;
+
+/**
+ * Đồng bộ tăng dần cho frontend: trả về các dự án/task thay đổi và tombstone kể từ token trước.
+ *
+ * Token là thời điểm (updated_at) mã hoá base64. Token mới được lùi lại một khoảng "overlap" so với thời điểm bắt đầu
+ * truy vấn để không bỏ sót các giao dịch commit muộn; client nhận lại vài bản ghi trùng và upsert theo id.
+ */
+@Service
+public class SyncService {
+
+    private static final String TOKEN_VERSION = "v1:";
+    // Ảnh chụp đầy đủ: mọi bản ghi đều có updated_at lớn hơn mốc này
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final UserService userService;
+    private final ProjectService projectService;
+    private final TaskService taskService;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final ShardRouter shardRouter;
+
+    @Value("${app.sync.overlap-ms:2000}")
+    private long overlapMs;
+
+    @Value("${app.sync.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+
+    @Autowired
+    public SyncService(UserService userService, ProjectService projectService, TaskService taskService,
+                       SyncTombstoneRepository syncTombstoneRepository, ShardRouter shardRouter) {
+        this.userService = userService;
+        this.projectService = projectService;
+        this.taskService = taskService;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    @Transactional(readOnly = true)
+    public SyncResponse syncForCurrentUser(String sinceToken) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để đồng bộ dữ liệu.");
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = decodeToken(sinceToken);
+
+        // Token cũ hơn thời gian lưu tombstone: không thể biết chắc những gì đã bị xoá, trả về ảnh chụp đầy đủ
+        boolean fullResync = since == null || since.isBefore(startedAt.minusDays(tombstoneRetentionDays));
+        LocalDateTime effectiveSince = fullResync ? BEGINNING : since;
+
+        List<ProjectResponseDTO> projects = projectService.findProjectsChangedSince(currentUser, effectiveSince);
+        List<TaskResponse> tasks = taskService.findTasksChangedSince(currentUser, effectiveSince);
+        List<SyncTombstoneDTO> deleted = fullResync
+                ? Collections.emptyList()
+                : syncTombstoneRepository.findByUserIdAndDeletedAtGreaterThanEqual(currentUser.getId(), effectiveSince).stream()
+                        .map(tombstone -> new SyncTombstoneDTO(tombstone.getEntityType(), tombstone.getEntityId(), tombstone.getDeletedAt()))
+                        .collect(Collectors.toList());
+
+        return new SyncResponse(projects, tasks, deleted, encodeToken(startedAt.minusNanos(overlapMs * 1_000_000)), fullResync);
+    }
+
+    @Scheduled(cron = "${app.sync.tombstone-cleanup-cron:0 30 3 * * *}")
+    public void purgeExpiredTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        shardRouter.forEachShard(() -> {
+            int purged = syncTombstoneRepository.deleteOlderThan(cutoff);
+            if (purged > 0) {
+                System.out.println("====== SyncService: Đã xoá " + purged + " tombstone hết hạn trên shard " + shardRouter.currentShard() + " ======");
+            }
+        });
+    }
+
+    private static String encodeToken(LocalDateTime instant) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((TOKEN_VERSION + instant).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LocalDateTime decodeToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(TOKEN_VERSION)) {
+                throw new BadRequestException("Token đồng bộ không hợp lệ.");
+            }
+            return LocalDateTime.parse(decoded.substring(TOKEN_VERSION.length()));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new BadRequestException("Token đồng bộ không hợp lệ.");
+        }
+    }
+}
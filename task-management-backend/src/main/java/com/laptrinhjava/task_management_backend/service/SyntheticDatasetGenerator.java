@@ -0,0 +1,252 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+import com.laptrinhjava.task_management_backend.util.LexicographicRank;
+
+/**
+ * Sinh dữ liệu giả lập quy mô lớn (người dùng, dự án, task) để đo hiệu năng và ước lượng dung lượng.
+ *
+ * Ghi thẳng bằng JDBC batch (với MySQL nên bật rewriteBatchedStatements, xem application-dataset.properties),
+ * mỗi lô là một giao dịch; bộ nhớ chỉ phụ thuộc số người dùng/dự án và kích thước lô, không phụ thuộc số task.
+ * Khi bật sharding, người dùng được chia vòng tròn cho các shard và bản ghi người dùng được chép sang mọi shard như
+ * ShardDirectory.replicateUser; dự án và task nằm trên shard của chủ sở hữu.
+ *
+ * Id do database cấp: sau mỗi lô INSERT, id được đọc lại theo thứ tự (id lớn hơn id lớn nhất trước lô),
+ * nên không được có ghi đồng thời vào cùng database trong lúc sinh. Cùng seed cho cùng dữ liệu.
+ */
+@Service
+public class SyntheticDatasetGenerator {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO app_user (username, name, email, avatar_url, role, created_at, updated_at) VALUES (?, ?, ?, NULL, 'ROLE_USER', ?, ?)";
+
+    private static final String COPY_USER_SQL =
+            "INSERT INTO app_user (id, username, name, email, avatar_url, role, created_at, updated_at) VALUES (?, ?, ?, ?, NULL, 'ROLE_USER', ?, ?)";
+
+    private static final String INSERT_PLACEMENT_SQL =
+            "INSERT INTO user_shards (user_id, shard_id, migrating, updated_at) VALUES (?, ?, FALSE, ?)";
+
+    private static final String INSERT_PROJECT_SQL =
+            "INSERT INTO projects (name, description, color, icon_name, is_favorite, owner_id, created_at, updated_at)"
+                    + " VALUES (?, NULL, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TASK_SQL =
+            "INSERT INTO tasks (title, description, status, due_date, created_at, updated_at, status_changed_at, completed_at,"
+                    + " board_rank, project_id, assignee_id, priority) VALUES (?, NULL, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] COLORS = {"bg-indigo-500", "bg-sky-500", "bg-green-500", "bg-amber-500", "bg-rose-500"};
+    private static final String[] ICONS = {"Briefcase", "User", "BookOpen", "Code", "Home"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final TaskStatsService taskStatsService;
+
+    @Autowired
+    public SyntheticDatasetGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     ShardRouter shardRouter, TaskStatsService taskStatsService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.taskStatsService = taskStatsService;
+    }
+
+    /**
+     * @param users số người dùng
+     * @param projects tổng số dự án, chia vòng tròn cho người dùng
+     * @param tasks tổng số task, chia cho các dự án theo Zipf với số mũ projectSizeExponent
+     * @param historyDays task được tạo rải trong chừng này ngày gần đây
+     * @param prefix tiền tố username/email để nhiều lần chạy không trùng nhau
+     * @param rebuildStats tính lại bảng thống kê (task_daily_stats) sau khi sinh
+     */
+    public record Spec(int users, int projects, long tasks, double projectSizeExponent, int historyDays,
+                       long seed, int batchSize, String prefix, boolean rebuildStats) {
+    }
+
+    public record Summary(int users, int projects, long tasks, long millis) {
+    }
+
+    public Summary generate(Spec spec) {
+        if (spec.users() < 1 || spec.projects() < 1 || spec.tasks() < 0 || spec.batchSize() < 1 || spec.historyDays() < 1) {
+            throw new IllegalArgumentException("Cấu hình sinh dữ liệu không hợp lệ: " + spec);
+        }
+        long start = System.nanoTime();
+        Random random = new Random(spec.seed());
+        LocalDateTime now = LocalDateTime.now();
+        int shardCount = shardRouter.isSharded() ? shardRouter.getShardCount() : 1;
+
+        long[] userIds = insertUsers(spec, now, shardCount);
+        System.out.println("====== SyntheticDatasetGenerator: Đã tạo " + userIds.length + " người dùng ======");
+
+        List<List<ProjectPlan>> pending = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            pending.add(new ArrayList<>());
+        }
+        DatasetDistributions.ProjectSizes sizes =
+                new DatasetDistributions.ProjectSizes(spec.tasks(), spec.projects(), spec.projectSizeExponent(), random);
+        long[] tasks = {0};
+        int projectIndex = 0;
+        while (sizes.hasNext()) {
+            int owner = projectIndex % userIds.length;
+            int shard = owner % shardCount;
+            List<ProjectPlan> plans = pending.get(shard);
+            plans.add(new ProjectPlan(projectIndex, userIds[owner], sizes.next(), random.nextLong()));
+            projectIndex++;
+            if (plans.size() >= spec.batchSize()) {
+                flush(spec, shard, shardCount, plans, userIds, now, tasks);
+            }
+        }
+        for (int shard = 0; shard < shardCount; shard++) {
+            flush(spec, shard, shardCount, pending.get(shard), userIds, now, tasks);
+        }
+
+        if (spec.rebuildStats()) {
+            taskStatsService.rebuildCompletions();
+            taskStatsService.snapshotOverdue(LocalDate.now());
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("====== SyntheticDatasetGenerator: Hoàn tất " + userIds.length + " người dùng, " + spec.projects()
+                + " dự án, " + tasks[0] + " task trong " + millis + " ms ======");
+        return new Summary(userIds.length, spec.projects(), tasks[0], millis);
+    }
+
+    private void flush(Spec spec, int shard, int shardCount, List<ProjectPlan> plans, long[] userIds, LocalDateTime now, long[] tasks) {
+        if (plans.isEmpty()) {
+            return;
+        }
+        long before = tasks[0];
+        tasks[0] += onShard(shard, shardCount, () -> writeProjects(spec, plans, userIds, now));
+        plans.clear();
+        long reportEvery = Math.max(1, spec.tasks() / 20);
+        if (before / reportEvery != tasks[0] / reportEvery) {
+            System.out.println("====== SyntheticDatasetGenerator: Đã ghi " + tasks[0] + "/" + spec.tasks() + " task ======");
+        }
+    }
+
+    private record ProjectPlan(int index, long ownerId, long taskCount, long seed) {
+    }
+
+    private long[] insertUsers(Spec spec, LocalDateTime now, int shardCount) {
+        long[] ids = new long[spec.users()];
+        Timestamp timestamp = Timestamp.valueOf(now);
+        for (int from = 0; from < spec.users(); from += spec.batchSize()) {
+            int to = Math.min(spec.users(), from + spec.batchSize());
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                rows.add(new Object[] {spec.prefix() + "-u" + i, "Load User " + i, spec.prefix() + "-u" + i + "@dataset.test", timestamp, timestamp});
+            }
+            int offset = from;
+            // Bản ghi gốc nằm trên shard 0 (nơi có thư mục user_shards), sau đó chép sang các shard khác
+            List<Long> created = onShard(0, shardCount, () -> insertAndReadIds("app_user", INSERT_USER_SQL, rows));
+            for (int i = 0; i < created.size(); i++) {
+                ids[offset + i] = created.get(i);
+            }
+            if (shardCount > 1) {
+                List<Object[]> copies = new ArrayList<>(rows.size());
+                List<Object[]> placements = new ArrayList<>(rows.size());
+                for (int i = 0; i < rows.size(); i++) {
+                    Object[] row = rows.get(i);
+                    copies.add(new Object[] {created.get(i), row[0], row[1], row[2], timestamp, timestamp});
+                    placements.add(new Object[] {created.get(i), (offset + i) % shardCount, timestamp});
+                }
+                for (int shard = 1; shard < shardCount; shard++) {
+                    onShard(shard, shardCount, () -> transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(COPY_USER_SQL, copies)));
+                }
+                onShard(0, shardCount, () -> transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(INSERT_PLACEMENT_SQL, placements)));
+            }
+        }
+        return ids;
+    }
+
+    // Một giao dịch cho mỗi lô dự án; task được ghi theo lô batchSize dòng, mỗi lô một giao dịch
+    private long writeProjects(Spec spec, List<ProjectPlan> plans, long[] userIds, LocalDateTime now) {
+        List<Object[]> projectRows = new ArrayList<>(plans.size());
+        for (ProjectPlan plan : plans) {
+            Timestamp createdAt = Timestamp.valueOf(now.minusDays(spec.historyDays()));
+            projectRows.add(new Object[] {"Dự án " + plan.index(), COLORS[plan.index() % COLORS.length],
+                    ICONS[plan.index() % ICONS.length], plan.index() % 7 == 0, plan.ownerId(), createdAt, createdAt});
+        }
+        List<Long> projectIds = insertAndReadIds("projects", INSERT_PROJECT_SQL, projectRows);
+
+        long written = 0;
+        List<Object[]> taskRows = new ArrayList<>(spec.batchSize());
+        for (int p = 0; p < plans.size(); p++) {
+            ProjectPlan plan = plans.get(p);
+            long projectId = projectIds.get(p);
+            Random random = new Random(plan.seed());
+            // Thứ hạng cuối của từng cột, thêm dần vào cuối như TaskRankService.rankAtEnd
+            String[] lastRanks = new String[TaskStatus.values().length];
+            for (long t = 0; t < plan.taskCount(); t++) {
+                DatasetDistributions.TaskSample sample = DatasetDistributions.sampleTask(random, now, spec.historyDays());
+                int column = sample.status().ordinal();
+                lastRanks[column] = LexicographicRank.after(lastRanks[column]);
+                taskRows.add(new Object[] {"Task " + plan.index() + "-" + t, sample.status().name(),
+                        sample.dueDate() != null ? Date.valueOf(sample.dueDate()) : null,
+                        Timestamp.valueOf(sample.createdAt()), Timestamp.valueOf(sample.updatedAt()),
+                        Timestamp.valueOf(sample.statusChangedAt()),
+                        sample.completedAt() != null ? Timestamp.valueOf(sample.completedAt()) : null,
+                        lastRanks[column], projectId, assignee(random, plan.ownerId(), userIds), sample.priority().name()});
+                if (taskRows.size() >= spec.batchSize()) {
+                    written += insertTasks(taskRows);
+                }
+            }
+        }
+        if (!taskRows.isEmpty()) {
+            written += insertTasks(taskRows);
+        }
+        return written;
+    }
+
+    // 60% giao cho chủ dự án, 25% chưa giao, 15% cho một người dùng ngẫu nhiên khác
+    private static Long assignee(Random random, long ownerId, long[] userIds) {
+        double draw = random.nextDouble();
+        if (draw < 0.6) {
+            return ownerId;
+        }
+        if (draw < 0.85) {
+            return null;
+        }
+        return userIds[random.nextInt(userIds.length)];
+    }
+
+    private int insertTasks(List<Object[]> rows) {
+        int count = rows.size();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_TASK_SQL, rows));
+        rows.clear();
+        return count;
+    }
+
+    // INSERT cả lô rồi đọc lại id theo thứ tự, trong cùng giao dịch (cùng kết nối)
+    private List<Long> insertAndReadIds(String table, String sql, List<Object[]> rows) {
+        return transactionTemplate.execute(status -> {
+            Long maxBefore = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            jdbcTemplate.batchUpdate(sql, rows);
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?",
+                    Long.class, maxBefore, rows.size());
+            if (ids.size() != rows.size()) {
+                throw new IllegalStateException("Không đọc lại được id vừa tạo trong bảng " + table + " (có ghi đồng thời?)");
+            }
+            return ids;
+        });
+    }
+
+    private <T> T onShard(int shard, int shardCount, Supplier<T> action) {
+        return shardCount > 1 ? shardRouter.onShard(shard, action) : action.get();
+    }
+}
@@ -0,0 +1,204 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.dto.TaskResponse;
+import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
+import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.ArchivedTask;
+import com.laptrinhjava.task_management_backend.model.DomainEventType;
+import com.laptrinhjava.task_management_backend.model.Label;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.ArchivedTaskRepository;
+import com.laptrinhjava.task_management_backend.repository.LabelRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskLabelRepository;
+
+/**
+ * Chuyển task đã hoàn thành/huỷ lâu ngày từ bảng tasks sang tasks_archive để bảng nóng luôn nhỏ.
+ * Mỗi lô chạy trong một giao dịch riêng (khoá các dòng được chọn, chép sang bảng lưu trữ, xoá khỏi bảng nóng)
+ * nên tác vụ có thể dừng giữa chừng mà không mất hay nhân đôi dữ liệu.
+ */
+@Service
+public class TaskArchiveService {
+
+    private static final List<String> ARCHIVABLE_STATUSES = List.of(TaskStatus.DONE.name(), TaskStatus.CANCELLED.name());
+
+    // Task cha chỉ được lưu trữ khi mọi task con còn trong bảng nóng cũng đã xong
+    private static final String NO_ACTIVE_DESCENDANTS =
+            " AND NOT EXISTS (SELECT 1 FROM task_closure c JOIN tasks d ON d.id = c.descendant_id"
+                    + " WHERE c.ancestor_id = tasks.id AND d.status NOT IN (:statuses))";
+
+    private static final String SELECT_BATCH_SQL =
+            "SELECT id FROM tasks WHERE status IN (:statuses) AND updated_at < :cutoff" + NO_ACTIVE_DESCENDANTS
+                    + "%s ORDER BY id LIMIT :limit FOR UPDATE";
+
+    // Điều kiện được kiểm tra lại trong INSERT để không lưu trữ nhầm task vừa được mở lại
+    private static final String ARCHIVE_SQL =
+            "INSERT INTO tasks_archive (id, title, description, status, due_date, created_at, updated_at, board_rank, parent_id, project_id, assignee_id, status_changed_at, completed_at, workflow_state, priority, archived_at)"
+                    + " SELECT id, title, description, status, due_date, created_at, updated_at, board_rank, parent_id, project_id, assignee_id, status_changed_at, completed_at, workflow_state, priority, :archivedAt"
+                    + " FROM tasks WHERE id IN (:ids) AND status IN (:statuses) AND updated_at < :cutoff" + NO_ACTIVE_DESCENDANTS;
+
+    private static final String DELETE_ARCHIVED_SQL =
+            "DELETE FROM tasks WHERE id IN (:ids) AND id IN (SELECT id FROM tasks_archive WHERE id IN (:ids))";
+
+    private static final String RESTORE_SQL =
+            "INSERT INTO tasks (id, title, description, status, due_date, created_at, updated_at, board_rank, parent_id, project_id, assignee_id, status_changed_at, completed_at, workflow_state, priority)"
+                    + " SELECT id, title, description, status, due_date, created_at, ?, board_rank, parent_id, project_id, assignee_id, status_changed_at, completed_at, workflow_state, priority"
+                    + " FROM tasks_archive WHERE id = ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final UserService userService;
+    private final TaskService taskService;
+    private final TaskRankService taskRankService;
+    private final DependencyGraphCache dependencyGraphCache;
+    private final LabelRepository labelRepository;
+    private final TaskLabelRepository taskLabelRepository;
+    private final LabelIndexCache labelIndexCache;
+    private final OutboxService outboxService;
+    private final ShardDirectory shardDirectory;
+
+    @Value("${app.task-archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.task-archive.min-age-days:90}")
+    private long minAgeDays;
+
+    @Value("${app.task-archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.task-archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Autowired
+    public TaskArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                              ArchivedTaskRepository archivedTaskRepository, UserService userService, TaskService taskService,
+                              TaskRankService taskRankService, DependencyGraphCache dependencyGraphCache,
+                              LabelRepository labelRepository, TaskLabelRepository taskLabelRepository,
+                              LabelIndexCache labelIndexCache, OutboxService outboxService, ShardDirectory shardDirectory) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.userService = userService;
+        this.taskService = taskService;
+        this.taskRankService = taskRankService;
+        this.dependencyGraphCache = dependencyGraphCache;
+        this.labelRepository = labelRepository;
+        this.taskLabelRepository = taskLabelRepository;
+        this.labelIndexCache = labelIndexCache;
+        this.outboxService = outboxService;
+        this.shardDirectory = shardDirectory;
+    }
+
+    @Scheduled(cron = "${app.task-archive.cron:0 0 4 * * *}")
+    public void archiveCompletedTasks() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        shardRouter.forEachShard(() -> {
+            int archived = archiveOlderThan(cutoff);
+            if (archived > 0) {
+                System.out.println("====== TaskArchiveService: Đã lưu trữ " + archived + " task trên shard " + shardRouter.currentShard() + " ======");
+            }
+        });
+    }
+
+    /**
+     * Lưu trữ tối đa max-batches-per-run lô trên shard hiện tại; phần còn lại để lần chạy sau.
+     * @return số task đã chuyển sang bảng lưu trữ
+     */
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved != null ? moved : 0;
+            if (moved == null || moved < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        // Task của chủ đang được chuyển shard để lại cho lần chạy sau: bản sao đọc tasks và tasks_archive lần lượt
+        List<Long> migratingOwners = shardDirectory.migratingOwners();
+        Map<String, Object> params = Map.of("statuses", ARCHIVABLE_STATUSES, "cutoff", cutoff, "limit", batchSize,
+                "migratingOwners", migratingOwners);
+        List<Long> ids = jdbcTemplate.queryForList(ShardDirectory.excludingMigrating(SELECT_BATCH_SQL, migratingOwners), params, Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.update(ARCHIVE_SQL, Map.of("ids", ids, "statuses", ARCHIVABLE_STATUSES, "cutoff", cutoff,
+                "archivedAt", LocalDateTime.now()));
+        jdbcTemplate.update(DELETE_ARCHIVED_SQL, Map.of("ids", ids));
+        // Lô có thể trải trên nhiều dự án: bỏ toàn bộ đồ thị phụ thuộc đang cache, nạp lại khi cần
+        dependencyGraphCache.clear();
+        // Bitmap nhãn chỉ chứa task ở bảng nóng (dòng task_labels được giữ lại để khôi phục)
+        labelIndexCache.clear();
+        // Số dòng đã khoá quyết định có chạy lô tiếp theo hay không
+        return ids.size();
+    }
+
+    /**
+     * Đưa task từ bảng lưu trữ về bảng tasks với id cũ. Chủ dự án hoặc người được giao mới được khôi phục.
+     * updated_at được đặt lại để lần chạy lưu trữ kế tiếp không chuyển nó đi ngay và /api/sync nhìn thấy nó.
+     */
+    @Transactional
+    public TaskResponse restore(Long taskId) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để khôi phục task.");
+        }
+        ArchivedTask archived = archivedTaskRepository.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy task đã lưu trữ với ID: " + taskId));
+        boolean isOwner = archived.getProject() != null && archived.getProject().getOwner().getId().equals(currentUser.getId());
+        boolean isAssignee = archived.getAssignee() != null && archived.getAssignee().getId().equals(currentUser.getId());
+        if (!isOwner && !isAssignee) {
+            throw new UnauthorizedAccessException("Bạn không có quyền khôi phục task này. ID task: " + taskId);
+        }
+
+        JdbcTemplate jdbc = jdbcTemplate.getJdbcTemplate();
+        jdbc.update(RESTORE_SQL, LocalDateTime.now(), taskId);
+        jdbc.update("DELETE FROM tasks_archive WHERE id = ?", taskId);
+        // Task lưu trữ trước khi có bảng Kanban chưa có vị trí: xếp xuống cuối cột
+        if (archived.getBoardRank() == null && archived.getProject() != null) {
+            jdbc.update("UPDATE tasks SET board_rank = ? WHERE id = ?",
+                    taskRankService.rankAtEnd(archived.getProject().getId(), archived.getStatus()), taskId);
+        }
+        // Cạnh phụ thuộc của task vẫn nằm trong bảng nên nạp lại đồ thị thay vì chỉ thêm node
+        if (archived.getProject() != null) {
+            dependencyGraphCache.evict(archived.getProject().getId());
+        }
+        // Nhãn của task vẫn còn trong task_labels: thêm lại vào bitmap (sau khi commit) và trả về ngay trong phản hồi
+        List<Long> labelIds = taskLabelRepository.findLabelIdsByTaskId(taskId);
+        if (archived.getProject() != null && !labelIds.isEmpty()) {
+            labelIndexCache.taskLabelsChanged(archived.getProject().getId(), taskId, List.of(), labelIds);
+        }
+        TaskResponse response = taskService.getTaskByIdForCurrentUser(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        response.setLabels(labelRepository.findAllById(labelIds).stream().map(Label::getName).sorted().toList());
+        // Lưu trữ không phát sự kiện (task không đổi với bên nhận), khôi phục thì có vì updated_at được đặt lại
+        if (archived.getProject() != null) {
+            outboxService.taskChanged(DomainEventType.TASK_UPDATED, archived.getProject().getOwner().getId(), response);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,471 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.laptrinhjava.task_management_backend.dto.BulkTaskFilter;
+import com.laptrinhjava.task_management_backend.dto.BulkTaskRequest;
+import com.laptrinhjava.task_management_backend.dto.BulkTaskResponse;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
+import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.BulkTaskOperation;
+import com.laptrinhjava.task_management_backend.model.SyncEntityType;
+import com.laptrinhjava.task_management_backend.model.SyncTombstone;
+import com.laptrinhjava.task_management_backend.model.TaskHistory;
+import com.laptrinhjava.task_management_backend.model.TaskHistoryField;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.ProjectRepository;
+import com.laptrinhjava.task_management_backend.repository.SyncTombstoneRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskClosureRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskDependencyRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskLabelRepository;
+import com.laptrinhjava.task_management_backend.repository.UserRepository;
+
+/**
+ * Thao tác hàng loạt trên task của các dự án thuộc người dùng hiện tại (chỉ chủ dự án).
+ *
+ * Không nạp entity: một truy vấn khoá các dòng được chọn (kèm giá trị cũ để ghi lịch sử, tombstone, outbox),
+ * rồi mỗi nhóm tối đa {@value #ID_CHUNK_SIZE} id là một câu UPDATE/DELETE có điều kiện sở hữu.
+ * Task đã có sẵn giá trị đích được bỏ qua. Task giữ nguyên board_rank (vẫn là vị trí hợp lệ trong cột mới).
+ */
+@Service
+public class TaskBulkService {
+
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private static final String OWNED = " AND project_id IN (SELECT id FROM projects WHERE owner_id = :ownerId)";
+
+    private static final String SELECT_COLUMNS = "SELECT id, project_id, status, assignee_id, due_date, created_at, completed_at, workflow_state FROM tasks WHERE ";
+
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE tasks SET status = :status, workflow_state = :workflowState, status_changed_at = :now, completed_at = :completedAt, updated_at = :now"
+                    + " WHERE id IN (:ids)" + OWNED + " AND status <> :status";
+
+    private static final String UPDATE_ASSIGNEE_SQL =
+            "UPDATE tasks SET assignee_id = :assigneeId, updated_at = :now WHERE id IN (:ids)" + OWNED
+                    + " AND (assignee_id IS NULL OR assignee_id <> :assigneeId)";
+
+    private static final String UPDATE_PROJECT_SQL =
+            "UPDATE tasks SET project_id = :projectId, workflow_state = NULL, updated_at = :now WHERE id IN (:ids)" + OWNED + " AND project_id <> :projectId";
+
+    private static final String DELETE_SQL = "DELETE FROM tasks WHERE id IN (:ids)" + OWNED;
+
+    private static final String DELETE_ARCHIVED_SQL = "DELETE FROM tasks_archive WHERE id IN (:ids)" + OWNED;
+
+    // Giống TaskService.updateTask: task có cây con, task cha hoặc phụ thuộc không được chuyển dự án
+    private static final String FIND_UNMOVABLE_SQL =
+            "SELECT t.id FROM tasks t WHERE t.id IN (:ids) AND (t.parent_id IS NOT NULL"
+                    + " OR EXISTS (SELECT 1 FROM task_closure c WHERE c.ancestor_id = t.id)"
+                    + " OR EXISTS (SELECT 1 FROM task_dependencies d WHERE d.task_id = t.id OR d.blocked_by_id = t.id))";
+
+    // Hậu duệ lấy từ task_closure: task con đã được lưu trữ (không còn trong tasks) cũng bị xoá theo
+    private static final String FIND_DESCENDANTS_SQL =
+            "SELECT c.ancestor_id, c.descendant_id, COALESCE(t.assignee_id, a.assignee_id) FROM task_closure c"
+                    + " LEFT JOIN tasks t ON t.id = c.descendant_id LEFT JOIN tasks_archive a ON a.id = c.descendant_id"
+                    + " WHERE c.ancestor_id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskClosureRepository taskClosureRepository;
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final TaskHistoryService taskHistoryService;
+    private final DependencyGraphCache dependencyGraphCache;
+    private final TaskLabelRepository taskLabelRepository;
+    private final LabelIndexCache labelIndexCache;
+    private final ReminderScheduler reminderScheduler;
+    private final OutboxService outboxService;
+    private final TaskStatsService taskStatsService;
+    private final WorkflowService workflowService;
+
+    @Value("${app.tasks.bulk.max-tasks:5000}")
+    private int maxTasks;
+
+    @Autowired
+    public TaskBulkService(JdbcTemplate jdbcTemplate, UserService userService, UserRepository userRepository,
+                           ProjectRepository projectRepository, TaskClosureRepository taskClosureRepository,
+                           TaskDependencyRepository taskDependencyRepository,
+                           SyncTombstoneRepository syncTombstoneRepository,
+                           TaskHistoryService taskHistoryService, DependencyGraphCache dependencyGraphCache,
+                           ReminderScheduler reminderScheduler, OutboxService outboxService,
+                           TaskStatsService taskStatsService, WorkflowService workflowService,
+                           TaskLabelRepository taskLabelRepository, LabelIndexCache labelIndexCache) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.userService = userService;
+        this.userRepository = userRepository;
+        this.projectRepository = projectRepository;
+        this.taskClosureRepository = taskClosureRepository;
+        this.taskDependencyRepository = taskDependencyRepository;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.taskHistoryService = taskHistoryService;
+        this.dependencyGraphCache = dependencyGraphCache;
+        this.reminderScheduler = reminderScheduler;
+        this.outboxService = outboxService;
+        this.taskStatsService = taskStatsService;
+        this.workflowService = workflowService;
+        this.taskLabelRepository = taskLabelRepository;
+        this.labelIndexCache = labelIndexCache;
+    }
+
+    @Transactional
+    public BulkTaskResponse execute(BulkTaskRequest request) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để cập nhật task.");
+        }
+        validateOperation(request, currentUser);
+
+        Long ownerId = currentUser.getId();
+        List<Row> rows;
+        List<Long> skipped = new ArrayList<>();
+        if (request.getTaskIds() != null) {
+            if (request.getFilter() != null) {
+                throw new BadRequestException("Chỉ truyền một trong hai: taskIds hoặc filter.");
+            }
+            rows = selectByIds(request.getTaskIds(), ownerId, skipped);
+        } else if (request.getFilter() != null) {
+            rows = selectByFilter(request.getFilter(), ownerId);
+        } else {
+            throw new BadRequestException("Cần truyền taskIds hoặc filter.");
+        }
+
+        int affected = switch (request.getOperation()) {
+            case SET_STATUS -> setStatus(rows, request.getStatus(), currentUser);
+            case SET_ASSIGNEE -> setAssignee(rows, request.getAssigneeId(), currentUser);
+            case MOVE_TO_PROJECT -> moveToProject(rows, request.getTargetProjectId(), currentUser);
+            case DELETE -> delete(rows, ownerId);
+        };
+        return new BulkTaskResponse(request.getOperation(), rows.size(), affected, skipped);
+    }
+
+    private void validateOperation(BulkTaskRequest request, User currentUser) {
+        BulkTaskOperation operation = request.getOperation();
+        if (operation == BulkTaskOperation.SET_STATUS && request.getStatus() == null) {
+            throw new BadRequestException("SET_STATUS cần truyền status.");
+        }
+        if (operation == BulkTaskOperation.SET_ASSIGNEE) {
+            if (request.getAssigneeId() == null) {
+                throw new BadRequestException("SET_ASSIGNEE cần truyền assigneeId.");
+            }
+            if (!userRepository.existsById(request.getAssigneeId())) {
+                throw new ResourceNotFoundException("Người được giao mới không tồn tại với ID: " + request.getAssigneeId());
+            }
+        }
+        if (operation == BulkTaskOperation.MOVE_TO_PROJECT) {
+            if (request.getTargetProjectId() == null) {
+                throw new BadRequestException("MOVE_TO_PROJECT cần truyền targetProjectId.");
+            }
+            projectRepository.findByIdAndOwnerId(request.getTargetProjectId(), currentUser.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Dự án mới không tồn tại hoặc bạn không có quyền. ID dự án: " + request.getTargetProjectId()));
+        }
+    }
+
+    private List<Row> selectByIds(List<Long> taskIds, Long ownerId, List<Long> skipped) {
+        Set<Long> requested = new LinkedHashSet<>(taskIds);
+        requested.remove(null);
+        if (requested.isEmpty()) {
+            throw new BadRequestException("taskIds không được rỗng.");
+        }
+        if (requested.size() > maxTasks) {
+            throw new BadRequestException("Tối đa " + maxTasks + " task cho một lần thao tác hàng loạt.");
+        }
+        List<Row> rows = new ArrayList<>(requested.size());
+        for (List<Long> chunk : chunks(new ArrayList<>(requested))) {
+            rows.addAll(jdbcTemplate.query(SELECT_COLUMNS + "id IN (:ids)" + OWNED + " ORDER BY id FOR UPDATE",
+                    Map.of("ids", chunk, "ownerId", ownerId), this::mapRow));
+        }
+        Set<Long> found = new HashSet<>();
+        rows.forEach(row -> found.add(row.id()));
+        requested.stream().filter(id -> !found.contains(id)).forEach(skipped::add);
+        return rows;
+    }
+
+    private List<Row> selectByFilter(BulkTaskFilter filter, Long ownerId) {
+        StringBuilder where = new StringBuilder("1 = 1").append(OWNED);
+        Map<String, Object> params = new HashMap<>();
+        params.put("ownerId", ownerId);
+        if (filter.getProjectId() != null) {
+            where.append(" AND project_id = :projectId");
+            params.put("projectId", filter.getProjectId());
+        }
+        if (filter.getStatus() != null) {
+            where.append(" AND status = :status");
+            params.put("status", filter.getStatus().name());
+        }
+        if (filter.getAssigneeId() != null) {
+            where.append(" AND assignee_id = :assigneeId");
+            params.put("assigneeId", filter.getAssigneeId());
+        }
+        if (filter.getDueFrom() != null) {
+            where.append(" AND due_date >= :dueFrom");
+            params.put("dueFrom", filter.getDueFrom());
+        }
+        if (filter.getDueTo() != null) {
+            where.append(" AND due_date <= :dueTo");
+            params.put("dueTo", filter.getDueTo());
+        }
+        if (params.size() == 1) {
+            throw new BadRequestException("filter cần ít nhất một điều kiện (projectId, status, assigneeId, dueFrom, dueTo).");
+        }
+        params.put("limit", maxTasks + 1);
+        List<Row> rows = jdbcTemplate.query(SELECT_COLUMNS + where + " ORDER BY id LIMIT :limit FOR UPDATE", params, this::mapRow);
+        if (rows.size() > maxTasks) {
+            throw new BadRequestException("Có hơn " + maxTasks + " task khớp điều kiện, hãy thu hẹp filter.");
+        }
+        return rows;
+    }
+
+    private int setStatus(List<Row> rows, TaskStatus status, User actor) {
+        List<Row> changed = rows.stream().filter(row -> row.status() != status).toList();
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        // Trạng thái đích theo quy trình (đã cache) của từng dự án; một task không được phép chuyển thì từ chối cả lô
+        Map<Integer, List<Row>> byState = new LinkedHashMap<>();
+        List<Long> rejected = new ArrayList<>();
+        for (Row row : changed) {
+            Workflow workflow = workflowService.workflowFor(row.projectId());
+            int state = workflow.next(workflow.stateOf(row.workflowState(), row.status()), status);
+            if (state < 0) {
+                rejected.add(row.id());
+            } else {
+                byState.computeIfAbsent(state, key -> new ArrayList<>()).add(row);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            throw new BadRequestException("Quy trình của dự án không cho phép chuyển các task này sang nhóm " + status.name()
+                    + ". ID task: " + rejected.subList(0, Math.min(10, rejected.size())));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> values = new HashMap<>();
+        values.put("status", status.name());
+        values.put("completedAt", status == TaskStatus.DONE ? Timestamp.valueOf(now) : null);
+        int affected = 0;
+        for (Map.Entry<Integer, List<Row>> group : byState.entrySet()) {
+            values.put("workflowState", group.getKey());
+            affected += update(UPDATE_STATUS_SQL, group.getValue(), actor.getId(), now, values);
+        }
+
+        List<TaskHistory> history = new ArrayList<>(changed.size());
+        List<Map<String, Object>> patches = new ArrayList<>(changed.size());
+        for (Row row : changed) {
+            history.add(new TaskHistory(null, row.id(), actor.getId(), TaskHistoryField.STATUS, row.status().name(), status.name(), now));
+            patches.add(patch(row.id(), row.projectId(), "status", status.name()));
+            reminderScheduler.taskChanged(row.id(), status, row.dueDate());
+        }
+        taskStatsService.completionsChanged(completionsOf(changed), changed.stream()
+                .map(row -> TaskStatsService.Completion.of(row.projectId(), row.assigneeId(), status, row.createdAt(), now, row.dueDate()))
+                .toList());
+        taskHistoryService.record(history);
+        outboxService.tasksPatched(actor.getId(), patches);
+        projectIdsOf(changed).forEach(dependencyGraphCache::evict);
+        return affected;
+    }
+
+    private int setAssignee(List<Row> rows, Long assigneeId, User actor) {
+        List<Row> changed = rows.stream().filter(row -> !assigneeId.equals(row.assigneeId())).toList();
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        // Người được giao cũ (không phải chủ dự án) không còn thấy task: ghi tombstone như khi xoá
+        List<SyncTombstone> tombstones = new ArrayList<>();
+        for (Row row : changed) {
+            if (row.assigneeId() != null && !row.assigneeId().equals(actor.getId())) {
+                tombstones.add(new SyncTombstone(null, SyncEntityType.TASK, row.id(), row.assigneeId(), now));
+            }
+        }
+        syncTombstoneRepository.saveAll(tombstones);
+        int affected = update(UPDATE_ASSIGNEE_SQL, changed, actor.getId(), now, Map.of("assigneeId", assigneeId));
+
+        List<TaskHistory> history = new ArrayList<>(changed.size());
+        List<Map<String, Object>> patches = new ArrayList<>(changed.size());
+        for (Row row : changed) {
+            history.add(new TaskHistory(null, row.id(), actor.getId(), TaskHistoryField.ASSIGNEE,
+                    Objects.toString(row.assigneeId(), null), assigneeId.toString(), now));
+            patches.add(patch(row.id(), row.projectId(), "assigneeId", assigneeId));
+        }
+        List<TaskStatsService.Completion> completions = completionsOf(changed);
+        taskStatsService.completionsChanged(completions, completions.stream().map(completion -> completion.withUser(assigneeId)).toList());
+        taskHistoryService.record(history);
+        outboxService.tasksPatched(actor.getId(), patches);
+        return affected;
+    }
+
+    private int moveToProject(List<Row> rows, Long targetProjectId, User actor) {
+        List<Row> changed = rows.stream().filter(row -> row.projectId() != targetProjectId).toList();
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        for (List<Long> chunk : chunks(idsOf(changed))) {
+            List<Long> unmovable = jdbcTemplate.queryForList(FIND_UNMOVABLE_SQL, Map.of("ids", chunk), Long.class);
+            if (!unmovable.isEmpty()) {
+                throw new BadRequestException("Không thể chuyển task có task cha, task con hoặc phụ thuộc sang dự án khác. ID task: "
+                        + unmovable.subList(0, Math.min(10, unmovable.size())));
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int affected = update(UPDATE_PROJECT_SQL, changed, actor.getId(), now, Map.of("projectId", targetProjectId));
+        // Nhãn thuộc về dự án nên task chuyển sang dự án khác thì mất nhãn cũ
+        for (List<Long> chunk : chunks(idsOf(changed))) {
+            taskLabelRepository.deleteByTaskIds(chunk);
+        }
+
+        List<TaskHistory> history = new ArrayList<>(changed.size());
+        List<Map<String, Object>> patches = new ArrayList<>(changed.size());
+        for (Row row : changed) {
+            history.add(new TaskHistory(null, row.id(), actor.getId(), TaskHistoryField.PROJECT,
+                    String.valueOf(row.projectId()), targetProjectId.toString(), now));
+            Map<String, Object> patch = patch(row.id(), targetProjectId, "previousProjectId", row.projectId());
+            patches.add(patch);
+        }
+        List<TaskStatsService.Completion> completions = completionsOf(changed);
+        taskStatsService.completionsChanged(completions, completions.stream().map(completion -> completion.withProject(targetProjectId)).toList());
+        taskHistoryService.record(history);
+        outboxService.tasksPatched(actor.getId(), patches);
+        projectIdsOf(changed).forEach(dependencyGraphCache::evict);
+        dependencyGraphCache.evict(targetProjectId);
+        changed.stream().collect(Collectors.groupingBy(Row::projectId, Collectors.mapping(Row::id, Collectors.toList())))
+                .forEach(labelIndexCache::tasksRemoved);
+        return affected;
+    }
+
+    // Xoá cả cây con của mỗi task, giống TaskService.deleteTask
+    private int delete(List<Row> rows, Long ownerId) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> projectOf = new LinkedHashMap<>();
+        Map<Long, Long> assigneeOf = new HashMap<>();
+        for (Row row : rows) {
+            projectOf.put(row.id(), row.projectId());
+            assigneeOf.put(row.id(), row.assigneeId());
+        }
+        for (List<Long> chunk : chunks(idsOf(rows))) {
+            jdbcTemplate.query(FIND_DESCENDANTS_SQL, Map.of("ids", chunk), rs -> {
+                long descendantId = rs.getLong(2);
+                long assigneeId = rs.getLong(3);
+                projectOf.putIfAbsent(descendantId, projectOf.get(rs.getLong(1)));
+                assigneeOf.putIfAbsent(descendantId, rs.wasNull() ? null : assigneeId);
+            });
+        }
+        List<Long> subtreeIds = new ArrayList<>(projectOf.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        List<SyncTombstone> tombstones = new ArrayList<>();
+        for (Long taskId : subtreeIds) {
+            tombstones.add(new SyncTombstone(null, SyncEntityType.TASK, taskId, ownerId, now));
+            Long assigneeId = assigneeOf.get(taskId);
+            if (assigneeId != null && !assigneeId.equals(ownerId)) {
+                tombstones.add(new SyncTombstone(null, SyncEntityType.TASK, taskId, assigneeId, now));
+            }
+        }
+        int affected = 0;
+        for (List<Long> chunk : chunks(subtreeIds)) {
+            taskClosureRepository.deleteByDescendantIdIn(chunk);
+            taskClosureRepository.deleteByAncestorIdIn(chunk);
+            taskDependencyRepository.deleteByTaskIds(chunk);
+            taskLabelRepository.deleteByTaskIds(chunk);
+            affected += jdbcTemplate.update(DELETE_ARCHIVED_SQL, Map.of("ids", chunk, "ownerId", ownerId));
+            affected += jdbcTemplate.update(DELETE_SQL, Map.of("ids", chunk, "ownerId", ownerId));
+        }
+        syncTombstoneRepository.saveAll(tombstones);
+
+        Map<Long, List<Long>> idsByProject = new LinkedHashMap<>();
+        projectOf.forEach((taskId, projectId) -> idsByProject.computeIfAbsent(projectId, id -> new ArrayList<>()).add(taskId));
+        idsByProject.forEach((projectId, taskIds) -> {
+            outboxService.tasksDeleted(ownerId, projectId, taskIds);
+            dependencyGraphCache.evict(projectId);
+            labelIndexCache.tasksRemoved(projectId, taskIds);
+        });
+        reminderScheduler.tasksRemoved(subtreeIds);
+        return affected;
+    }
+
+    private int update(String sql, List<Row> rows, Long ownerId, LocalDateTime now, Map<String, Object> values) {
+        int affected = 0;
+        for (List<Long> chunk : chunks(idsOf(rows))) {
+            Map<String, Object> params = new HashMap<>(values);
+            params.put("ids", chunk);
+            params.put("ownerId", ownerId);
+            params.put("now", Timestamp.valueOf(now));
+            affected += jdbcTemplate.update(sql, params);
+        }
+        return affected;
+    }
+
+    private Row mapRow(java.sql.ResultSet rs, int rowNum) throws java.sql.SQLException {
+        long assigneeId = rs.getLong("assignee_id");
+        Long assignee = rs.wasNull() ? null : assigneeId;
+        java.sql.Date dueDate = rs.getDate("due_date");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp completedAt = rs.getTimestamp("completed_at");
+        short workflowState = rs.getShort("workflow_state");
+        return new Row(rs.getLong("id"), rs.getLong("project_id"), TaskStatus.valueOf(rs.getString("status")), assignee,
+                dueDate != null ? dueDate.toLocalDate() : null, createdAt != null ? createdAt.toLocalDateTime() : null,
+                completedAt != null ? completedAt.toLocalDateTime() : null, rs.wasNull() ? null : workflowState);
+    }
+
+    private static List<TaskStatsService.Completion> completionsOf(List<Row> rows) {
+        List<TaskStatsService.Completion> completions = new ArrayList<>();
+        for (Row row : rows) {
+            TaskStatsService.Completion completion = TaskStatsService.Completion.of(row.projectId(), row.assigneeId(),
+                    row.status(), row.createdAt(), row.completedAt(), row.dueDate());
+            if (completion != null) {
+                completions.add(completion);
+            }
+        }
+        return completions;
+    }
+
+    private static Map<String, Object> patch(long taskId, long projectId, String field, Object value) {
+        Map<String, Object> patch = new LinkedHashMap<>();
+        patch.put("id", taskId);
+        patch.put("projectId", projectId);
+        patch.put(field, value);
+        return patch;
+    }
+
+    private static List<Long> idsOf(List<Row> rows) {
+        return rows.stream().map(Row::id).toList();
+    }
+
+    private static Set<Long> projectIdsOf(List<Row> rows) {
+        Set<Long> projectIds = new LinkedHashSet<>();
+        rows.forEach(row -> projectIds.add(row.projectId()));
+        return projectIds;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private record Row(long id, long projectId, TaskStatus status, Long assigneeId, LocalDate dueDate,
+                       LocalDateTime createdAt, LocalDateTime completedAt, Short workflowState) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.model.TaskHistory;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ghi lịch sử thay đổi task theo lô.
+ *
+ * Chế độ "async" (mặc định): sau khi giao dịch nghiệp vụ commit, các thay đổi được đưa vào hàng đợi có giới hạn
+ * và một tác vụ định kỳ ghi chúng bằng batch INSERT; giao dịch nghiệp vụ không phải chờ thêm câu lệnh nào.
+ * Khi hàng đợi đầy, phần tràn được ghi ngay (không làm mất lịch sử).
+ * Chế độ "sync": ghi ngay trong giao dịch nghiệp vụ (bền vững tuyệt đối, đổi lại độ trễ ghi).
+ */
+@Service
+public class TaskHistoryService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO task_history (task_id, actor_id, field, old_value, new_value, changed_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNewTransaction;
+    // Mỗi phần tử nhớ shard của giao dịch đã sinh ra nó, để tác vụ flush ghi đúng nơi
+    private final BlockingQueue<PendingChange> queue;
+    private final ShardRouter shardRouter;
+    private final boolean inTransaction;
+    private final int batchSize;
+
+    @Autowired
+    public TaskHistoryService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ShardRouter shardRouter,
+                              @Value("${app.task-history.flush-mode:async}") String flushMode,
+                              @Value("${app.task-history.queue-capacity:10000}") int queueCapacity,
+                              @Value("${app.task-history.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.inTransaction = "sync".equalsIgnoreCase(flushMode);
+        this.batchSize = batchSize;
+    }
+
+    public void record(List<TaskHistory> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (inTransaction || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            insertBatch(changes);
+            return;
+        }
+        // Chỉ đưa vào hàng đợi khi giao dịch thật sự commit, tránh lịch sử "ma" khi rollback
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(changes);
+            }
+        });
+    }
+
+    private void enqueue(List<TaskHistory> changes) {
+        int shard = shardRouter.currentShard();
+        List<TaskHistory> overflow = new ArrayList<>();
+        for (TaskHistory change : changes) {
+            if (!queue.offer(new PendingChange(shard, change))) {
+                overflow.add(change);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            // Đang ở afterCommit nên phải mở giao dịch mới thì câu lệnh mới được commit
+            requiresNewTransaction.executeWithoutResult(status -> insertBatch(overflow));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.task-history.flush-interval-ms:1000}")
+    public void flush() {
+        List<PendingChange> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            Map<Integer, List<PendingChange>> byShard = batch.stream().collect(Collectors.groupingBy(PendingChange::shard));
+            boolean failed = false;
+            for (Map.Entry<Integer, List<PendingChange>> entry : byShard.entrySet()) {
+                List<TaskHistory> changes = entry.getValue().stream().map(PendingChange::change).toList();
+                try {
+                    shardRouter.runOnShard(entry.getKey(), () -> insertBatch(changes));
+                } catch (DataAccessException ex) {
+                    // Đưa lại vào hàng đợi để thử ở lần flush sau; phần không còn chỗ sẽ bị bỏ và được báo lỗi
+                    int dropped = 0;
+                    for (PendingChange change : entry.getValue()) {
+                        if (!queue.offer(change)) {
+                            dropped++;
+                        }
+                    }
+                    System.err.println("====== TaskHistoryService: Ghi lịch sử thất bại, sẽ thử lại (bỏ " + dropped + " bản ghi): " + ex.getMessage() + " ======");
+                    failed = true;
+                }
+            }
+            if (failed) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record PendingChange(int shard, TaskHistory change) {
+    }
+
+    private void insertBatch(List<TaskHistory> changes) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.getTaskId());
+            ps.setObject(2, change.getActorId());
+            ps.setString(3, change.getField().name());
+            ps.setString(4, change.getOldValue());
+            ps.setString(5, change.getNewValue());
+            ps.setTimestamp(6, Timestamp.valueOf(change.getChangedAt()));
+        });
+    }
+}
@@ -0,0 +1,420 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.Arrays;
+
+/**
+ * Tập id task nén theo kiểu Roaring: id được chia theo 16 bit cao (khoá, tăng dần) và 16 bit thấp (container).
+ * Container thưa (tối đa 4096 phần tử) là mảng char đã sắp xếp, container dày là bitmap 65536 bit (1024 long),
+ * nên giao/hiệu của hai tập chỉ duyệt các khoá chung và làm việc trên từng từ 64 bit.
+ *
+ * Bất biến: with/without chỉ sao chép mảng khoá và đúng một container, nên cập nhật tăng dần rẻ
+ * và các luồng đọc không cần khoá (giống {@link DependencyGraph}).
+ */
+final class TaskIdBitmap {
+
+    static final TaskIdBitmap EMPTY = new TaskIdBitmap(new long[0], new Object[0], 0);
+
+    // Container mảng lớn hơn ngưỡng này thì chuyển sang bitmap (cùng kích thước 8 KB)
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private final long[] keys;
+    // char[] (container mảng) hoặc long[WORDS] (container bitmap), song song với keys
+    private final Object[] containers;
+    private final long cardinality;
+
+    private TaskIdBitmap(long[] keys, Object[] containers, long cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    // Từ các id đã sắp xếp tăng dần (cho phép trùng)
+    static TaskIdBitmap ofSorted(long[] ids, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        long[] keys = new long[count];
+        Object[] containers = new Object[count];
+        int size = 0;
+        long total = 0;
+        char[] buffer = new char[1 << 16];
+        int i = 0;
+        while (i < count) {
+            long key = ids[i] >>> 16;
+            int n = 0;
+            while (i < count && ids[i] >>> 16 == key) {
+                char low = (char) ids[i];
+                if (n == 0 || buffer[n - 1] != low) {
+                    buffer[n++] = low;
+                }
+                i++;
+            }
+            keys[size] = key;
+            containers[size++] = fromSortedLows(buffer, n);
+            total += n;
+        }
+        return new TaskIdBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size), total);
+    }
+
+    long cardinality() {
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    boolean contains(long id) {
+        int index = Arrays.binarySearch(keys, id >>> 16);
+        return index >= 0 && containerContains(containers[index], (char) id);
+    }
+
+    TaskIdBitmap with(long id) {
+        int index = Arrays.binarySearch(keys, id >>> 16);
+        char low = (char) id;
+        if (index < 0) {
+            int at = -index - 1;
+            long[] newKeys = new long[keys.length + 1];
+            Object[] newContainers = new Object[containers.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(containers, 0, newContainers, 0, at);
+            newKeys[at] = id >>> 16;
+            newContainers[at] = new char[] { low };
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(containers, at, newContainers, at + 1, containers.length - at);
+            return new TaskIdBitmap(newKeys, newContainers, cardinality + 1);
+        }
+        if (containerContains(containers[index], low)) {
+            return this;
+        }
+        Object[] newContainers = containers.clone();
+        newContainers[index] = containerWith(containers[index], low);
+        return new TaskIdBitmap(keys, newContainers, cardinality + 1);
+    }
+
+    TaskIdBitmap without(long id) {
+        int index = Arrays.binarySearch(keys, id >>> 16);
+        char low = (char) id;
+        if (index < 0 || !containerContains(containers[index], low)) {
+            return this;
+        }
+        Object container = containerWithout(containers[index], low);
+        if (container == null) {
+            long[] newKeys = new long[keys.length - 1];
+            Object[] newContainers = new Object[containers.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(containers, 0, newContainers, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(containers, index + 1, newContainers, index, containers.length - index - 1);
+            return new TaskIdBitmap(newKeys, newContainers, cardinality - 1);
+        }
+        Object[] newContainers = containers.clone();
+        newContainers[index] = container;
+        return new TaskIdBitmap(keys, newContainers, cardinality - 1);
+    }
+
+    TaskIdBitmap and(TaskIdBitmap other) {
+        int capacity = Math.min(keys.length, other.keys.length);
+        long[] newKeys = new long[capacity];
+        Object[] newContainers = new Object[capacity];
+        int size = 0;
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Object container = containerAnd(containers[i], other.containers[j]);
+                if (container != null) {
+                    newKeys[size] = keys[i];
+                    newContainers[size++] = container;
+                    total += containerCardinality(container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return size == 0 ? EMPTY : new TaskIdBitmap(Arrays.copyOf(newKeys, size), Arrays.copyOf(newContainers, size), total);
+    }
+
+    TaskIdBitmap andNot(TaskIdBitmap other) {
+        long[] newKeys = new long[keys.length];
+        Object[] newContainers = new Object[keys.length];
+        int size = 0;
+        long total = 0;
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            Object container = j < other.keys.length && other.keys[j] == keys[i]
+                    ? containerAndNot(containers[i], other.containers[j])
+                    : containers[i];
+            if (container != null) {
+                newKeys[size] = keys[i];
+                newContainers[size++] = container;
+                total += containerCardinality(container);
+            }
+        }
+        return size == 0 ? EMPTY : new TaskIdBitmap(Arrays.copyOf(newKeys, size), Arrays.copyOf(newContainers, size), total);
+    }
+
+    TaskIdBitmap or(TaskIdBitmap other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        long[] newKeys = new long[keys.length + other.keys.length];
+        Object[] newContainers = new Object[newKeys.length];
+        int size = 0;
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            Object container;
+            if (j >= other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                newKeys[size] = keys[i];
+                container = containers[i++];
+            } else if (i >= keys.length || other.keys[j] < keys[i]) {
+                newKeys[size] = other.keys[j];
+                container = other.containers[j++];
+            } else {
+                newKeys[size] = keys[i];
+                container = containerOr(containers[i++], other.containers[j++]);
+            }
+            newContainers[size++] = container;
+            total += containerCardinality(container);
+        }
+        return new TaskIdBitmap(Arrays.copyOf(newKeys, size), Arrays.copyOf(newContainers, size), total);
+    }
+
+    /**
+     * Tối đa limit id theo thứ tự tăng (hoặc giảm) sau khi bỏ qua offset id đầu tiên;
+     * các container nằm trọn trong phần bỏ qua được nhảy qua theo số phần tử mà không duyệt.
+     */
+    long[] page(long offset, int limit, boolean descending) {
+        long[] out = new long[(int) Math.max(0, Math.min(limit, cardinality - offset))];
+        int n = 0;
+        long skip = offset;
+        for (int k = 0; k < keys.length && n < out.length; k++) {
+            int index = descending ? keys.length - 1 - k : k;
+            Object container = containers[index];
+            int size = containerCardinality(container);
+            if (skip >= size) {
+                skip -= size;
+                continue;
+            }
+            long high = keys[index] << 16;
+            if (container instanceof char[] values) {
+                for (int p = (int) skip; p < values.length && n < out.length; p++) {
+                    out[n++] = high | values[descending ? values.length - 1 - p : p];
+                }
+            } else {
+                long[] words = (long[]) container;
+                int seen = 0;
+                for (int w = 0; w < WORDS && n < out.length; w++) {
+                    int wordIndex = descending ? WORDS - 1 - w : w;
+                    long word = words[wordIndex];
+                    while (word != 0 && n < out.length) {
+                        int bit = descending ? 63 - Long.numberOfLeadingZeros(word) : Long.numberOfTrailingZeros(word);
+                        word &= ~(1L << bit);
+                        if (seen++ >= skip) {
+                            out[n++] = high | ((long) wordIndex << 6) | bit;
+                        }
+                    }
+                }
+            }
+            skip = 0;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    long[] toArray() {
+        return page(0, (int) Math.min(Integer.MAX_VALUE, cardinality), false);
+    }
+
+    // Các thao tác trên một container; null nghĩa là container rỗng
+
+    private static Object fromSortedLows(char[] lows, int n) {
+        if (n == 0) {
+            return null;
+        }
+        if (n <= ARRAY_MAX) {
+            return Arrays.copyOf(lows, n);
+        }
+        long[] words = new long[WORDS];
+        for (int i = 0; i < n; i++) {
+            words[lows[i] >>> 6] |= 1L << lows[i];
+        }
+        return words;
+    }
+
+    private static int containerCardinality(Object container) {
+        if (container instanceof char[] values) {
+            return values.length;
+        }
+        int total = 0;
+        for (long word : (long[]) container) {
+            total += Long.bitCount(word);
+        }
+        return total;
+    }
+
+    private static boolean containerContains(Object container, char low) {
+        if (container instanceof char[] values) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+        return (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    private static Object containerWith(Object container, char low) {
+        if (container instanceof char[] values) {
+            if (values.length < ARRAY_MAX) {
+                int at = -Arrays.binarySearch(values, low) - 1;
+                char[] result = new char[values.length + 1];
+                System.arraycopy(values, 0, result, 0, at);
+                result[at] = low;
+                System.arraycopy(values, at, result, at + 1, values.length - at);
+                return result;
+            }
+            container = toWords(values);
+        } else {
+            container = ((long[]) container).clone();
+        }
+        ((long[]) container)[low >>> 6] |= 1L << low;
+        return container;
+    }
+
+    private static Object containerWithout(Object container, char low) {
+        if (container instanceof char[] values) {
+            if (values.length == 1) {
+                return null;
+            }
+            int at = Arrays.binarySearch(values, low);
+            char[] result = new char[values.length - 1];
+            System.arraycopy(values, 0, result, 0, at);
+            System.arraycopy(values, at + 1, result, at, values.length - at - 1);
+            return result;
+        }
+        long[] words = ((long[]) container).clone();
+        words[low >>> 6] &= ~(1L << low);
+        return normalize(words);
+    }
+
+    private static Object containerAnd(Object a, Object b) {
+        if (a instanceof char[] left) {
+            return filter(left, b, true);
+        }
+        if (b instanceof char[] right) {
+            return filter(right, a, true);
+        }
+        long[] words = new long[WORDS];
+        long[] x = (long[]) a;
+        long[] y = (long[]) b;
+        for (int w = 0; w < WORDS; w++) {
+            words[w] = x[w] & y[w];
+        }
+        return normalize(words);
+    }
+
+    private static Object containerAndNot(Object a, Object b) {
+        if (a instanceof char[] left) {
+            return filter(left, b, false);
+        }
+        long[] words = ((long[]) a).clone();
+        if (b instanceof char[] right) {
+            for (char low : right) {
+                words[low >>> 6] &= ~(1L << low);
+            }
+        } else {
+            long[] y = (long[]) b;
+            for (int w = 0; w < WORDS; w++) {
+                words[w] &= ~y[w];
+            }
+        }
+        return normalize(words);
+    }
+
+    private static Object containerOr(Object a, Object b) {
+        if (a instanceof char[] left && b instanceof char[] right && left.length + right.length <= ARRAY_MAX) {
+            char[] merged = new char[left.length + right.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < left.length || j < right.length) {
+                char next = j >= right.length || (i < left.length && left[i] <= right[j]) ? left[i] : right[j];
+                if (i < left.length && left[i] == next) {
+                    i++;
+                }
+                if (j < right.length && right[j] == next) {
+                    j++;
+                }
+                merged[n++] = next;
+            }
+            return Arrays.copyOf(merged, n);
+        }
+        long[] words = a instanceof char[] left ? toWords(left) : ((long[]) a).clone();
+        if (b instanceof char[] right) {
+            for (char low : right) {
+                words[low >>> 6] |= 1L << low;
+            }
+        } else {
+            long[] y = (long[]) b;
+            for (int w = 0; w < WORDS; w++) {
+                words[w] |= y[w];
+            }
+        }
+        return words;
+    }
+
+    // Giữ (keep = true) hoặc bỏ các phần tử của mảng có mặt trong container kia
+    private static Object filter(char[] values, Object other, boolean keep) {
+        char[] result = new char[values.length];
+        int n = 0;
+        for (char low : values) {
+            if (containerContains(other, low) == keep) {
+                result[n++] = low;
+            }
+        }
+        return n == 0 ? null : Arrays.copyOf(result, n);
+    }
+
+    private static long[] toWords(char[] values) {
+        long[] words = new long[WORDS];
+        for (char low : values) {
+            words[low >>> 6] |= 1L << low;
+        }
+        return words;
+    }
+
+    // Bitmap còn ít phần tử thì đổi về mảng cho gọn
+    private static Object normalize(long[] words) {
+        int total = 0;
+        for (long word : words) {
+            total += Long.bitCount(word);
+        }
+        if (total == 0) {
+            return null;
+        }
+        if (total > ARRAY_MAX) {
+            return words;
+        }
+        char[] values = new char[total];
+        int n = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                values[n++] = (char) ((w << 6) | bit);
+                word &= word - 1;
+            }
+        }
+        return values;
+    }
+}
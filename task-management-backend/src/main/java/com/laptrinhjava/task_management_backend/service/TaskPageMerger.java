@@ -0,0 +1,92 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import com.laptrinhjava.task_management_backend.dto.TaskFilter;
+import com.laptrinhjava.task_management_backend.dto.TaskPageResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskResponse;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+
+/**
+ * Trộn các trang task lấy từ nhiều nguồn (nhiều shard, bảng nóng + bảng lưu trữ) thành một trang duy nhất.
+ * Mỗi nguồn được truy vấn với cửa sổ đã nới rộng ({@link #widen}) gồm (page + 1) * size bản ghi đầu tiên,
+ * sau đó {@link #merge} sắp xếp lại và cắt đúng trang client yêu cầu.
+ */
+final class TaskPageMerger {
+
+    private final Integer page;
+    private final Integer size;
+    private final int offset;
+    private final String sort;
+    private final boolean descending;
+
+    private TaskPageMerger(Integer page, Integer size, int offset, String sort, boolean descending) {
+        this.page = page;
+        this.size = size;
+        this.offset = offset;
+        this.sort = sort;
+        this.descending = descending;
+    }
+
+    /**
+     * Ghi nhớ trang client yêu cầu rồi sửa filter thành trang 0 cỡ offset + size để dùng cho từng nguồn.
+     */
+    static TaskPageMerger widen(TaskFilter filter) {
+        Integer page = filter.getPage();
+        Integer size = filter.getSize();
+        int offset = 0;
+        if (size != null) {
+            int pageIndex = page != null ? page : 0;
+            if (pageIndex < 0 || size < 1 || (long) (pageIndex + 1) * size > TaskService.MAX_PAGE_SIZE) {
+                throw new BadRequestException("Tham số phân trang không hợp lệ (page >= 0, 1 <= (page + 1) * size <= " + TaskService.MAX_PAGE_SIZE + ").");
+            }
+            offset = pageIndex * size;
+            filter.setPage(0);
+            filter.setSize(offset + size);
+        }
+        return new TaskPageMerger(page, size, offset, filter.getSort(), "desc".equalsIgnoreCase(filter.getDirection()));
+    }
+
+    TaskPageResponse merge(List<TaskPageResponse> parts) {
+        List<TaskResponse> merged = new ArrayList<>();
+        Long total = 0L;
+        boolean anyHasNext = false;
+        for (TaskPageResponse part : parts) {
+            merged.addAll(part.getContent());
+            total = total != null && part.getTotalElements() != null ? total + part.getTotalElements() : null;
+            anyHasNext |= part.isHasNext();
+        }
+        merged.sort(comparator(sort, descending));
+
+        if (size == null) {
+            return new TaskPageResponse(merged, 0, merged.size(), total, false);
+        }
+        List<TaskResponse> content = offset < merged.size()
+                ? new ArrayList<>(merged.subList(offset, Math.min(offset + size, merged.size())))
+                : new ArrayList<>();
+        boolean hasNext = anyHasNext || merged.size() > offset + size;
+        return new TaskPageResponse(content, page != null ? page : 0, size, total, hasNext);
+    }
+
+    // Cùng thứ tự với truy vấn SQL: NULL đứng đầu khi tăng dần, hoà thì xét tiếp id
+    private static Comparator<TaskResponse> comparator(String sort, boolean descending) {
+        Comparator<TaskResponse> primary = switch (sort == null ? "id" : sort) {
+            case "dueDate" -> nullsFirst(TaskResponse::getDueDate, Comparator.<LocalDate>naturalOrder());
+            case "createdAt" -> nullsFirst(TaskResponse::getCreatedAt, Comparator.<LocalDateTime>naturalOrder());
+            case "updatedAt" -> nullsFirst(TaskResponse::getUpdatedAt, Comparator.<LocalDateTime>naturalOrder());
+            case "title" -> nullsFirst(TaskResponse::getTitle, Comparator.<String>naturalOrder());
+            default -> Comparator.comparing(TaskResponse::getId);
+        };
+        Comparator<TaskResponse> full = primary.thenComparing(TaskResponse::getId);
+        return descending ? full.reversed() : full;
+    }
+
+    private static <K> Comparator<TaskResponse> nullsFirst(Function<TaskResponse, K> key, Comparator<K> order) {
+        return Comparator.comparing(key, Comparator.nullsFirst(order));
+    }
+}
@@ -0,0 +1,127 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.model.Task;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+import com.laptrinhjava.task_management_backend.repository.TaskRepository;
+import com.laptrinhjava.task_management_backend.util.LexicographicRank;
+
+/**
+ * Cấp thứ hạng Kanban (cột board_rank) cho task. Thông thường chỉ dòng được di chuyển bị ghi lại;
+ * cả cột chỉ được đánh số lại khi thứ hạng quá dài, bị trùng (hai task tạo đồng thời) hoặc còn thiếu.
+ */
+@Service
+public class TaskRankService {
+
+    // Nhỏ hơn độ dài cột board_rank (64) để luôn còn chỗ cho lần chèn kế tiếp
+    static final int MAX_RANK_LENGTH = 48;
+
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+
+    @Value("${app.board.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Autowired
+    public TaskRankService(TaskRepository taskRepository, JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+    }
+
+    public String rankAtEnd(Long projectId, TaskStatus status) {
+        return LexicographicRank.after(taskRepository.findMaxBoardRank(projectId, status));
+    }
+
+    /**
+     * Thứ hạng để đặt {@code moving} giữa hai task liền kề trong cột đích (null: đầu/cuối cột).
+     * Phải được gọi trong giao dịch của thao tác di chuyển.
+     */
+    public String rankBetween(Task moving, Long projectId, TaskStatus status, Task previous, Task next) {
+        String lower = previous != null ? previous.getBoardRank() : null;
+        String upper = next != null ? next.getBoardRank() : null;
+        boolean usable = (previous == null || lower != null) && (next == null || upper != null)
+                && (lower == null || upper == null || lower.compareTo(upper) < 0);
+        if (usable) {
+            String rank = rankFor(lower, upper);
+            if (rank.length() <= MAX_RANK_LENGTH) {
+                return rank;
+            }
+        }
+
+        Map<Long, String> ranks = rebalanceColumn(projectId, status, moving.getId());
+        lower = previous != null ? ranks.get(previous.getId()) : null;
+        upper = next != null ? ranks.get(next.getId()) : null;
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            throw new BadRequestException("previousTaskId phải đứng trước nextTaskId trong cột.");
+        }
+        return rankFor(lower, upper);
+    }
+
+    private static String rankFor(String lower, String upper) {
+        if (lower == null) {
+            return LexicographicRank.before(upper);
+        }
+        if (upper == null) {
+            return LexicographicRank.after(lower);
+        }
+        return LexicographicRank.between(lower, upper);
+    }
+
+    /**
+     * Đánh số lại cả cột với các thứ hạng cách đều, giữ nguyên thứ tự hiện tại (task chưa có thứ hạng xếp cuối theo id).
+     * Chỉ sửa board_rank, không đụng updated_at vì thứ tự không nằm trong dữ liệu đồng bộ.
+     * @return thứ hạng mới theo id task
+     */
+    Map<Long, String> rebalanceColumn(Long projectId, TaskStatus status, Long excludedTaskId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM tasks WHERE project_id = ? AND status = ? AND id <> ? ORDER BY board_rank IS NULL, board_rank, id",
+                Long.class, projectId, status.name(), excludedTaskId != null ? excludedTaskId : -1L);
+        String[] ranks = LexicographicRank.evenlySpaced(ids.size());
+        Map<Long, String> byId = new HashMap<>();
+        List<Object[]> updates = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            byId.put(ids.get(i), ranks[i]);
+            updates.add(new Object[] { ranks[i], ids.get(i) });
+        }
+        jdbcTemplate.batchUpdate("UPDATE tasks SET board_rank = ? WHERE id = ?", updates);
+        System.out.println("====== TaskRankService: Đã đánh số lại " + ids.size() + " task của dự án " + projectId + ", cột " + status + " ======");
+        return byId;
+    }
+
+    // Task tạo trước khi có cột board_rank được xếp vào cuối cột theo thứ tự id
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingRanks() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        shardRouter.forEachShard(() -> {
+            List<Map<String, Object>> columns = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT project_id, status FROM tasks WHERE board_rank IS NULL AND project_id IS NOT NULL");
+            for (Map<String, Object> column : columns) {
+                Long projectId = ((Number) column.get("project_id")).longValue();
+                TaskStatus status = TaskStatus.valueOf((String) column.get("status"));
+                transactionTemplate.executeWithoutResult(tx -> rebalanceColumn(projectId, status, null));
+            }
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Điểm "nên làm tiếp theo" của một task mở (GET /api/tasks/next):
+ *
+ *   score = priority-weight * mức ưu tiên (LOW = 0 ... URGENT = 3)
+ *         + due-weight * độ gấp của hạn chót
+ *         + age-weight * min(tuổi task theo ngày, age-cap-days)
+ *
+ * Độ gấp tăng tuyến tính từ 0 (còn từ due-horizon-days ngày trở lên) tới 1 (hết hạn hôm nay), tiếp tục tăng khi đã quá hạn
+ * và dừng ở 2 (quá hạn từ due-horizon-days ngày); task không có hạn chót có độ gấp 0.
+ * Chỉ tính trên số nguyên thủy để quét hàng chục nghìn task không tạo thêm đối tượng nào.
+ */
+@Component
+public class TaskScoring {
+
+    private static final double SECONDS_PER_DAY = 86_400;
+
+    private final double priorityWeight;
+    private final double dueWeight;
+    private final double dueHorizonDays;
+    private final double ageWeight;
+    private final double ageCapDays;
+
+    @Autowired
+    public TaskScoring(@Value("${app.tasks.next.priority-weight:10}") double priorityWeight,
+                       @Value("${app.tasks.next.due-weight:20}") double dueWeight,
+                       @Value("${app.tasks.next.due-horizon-days:14}") double dueHorizonDays,
+                       @Value("${app.tasks.next.age-weight:0.2}") double ageWeight,
+                       @Value("${app.tasks.next.age-cap-days:30}") double ageCapDays) {
+        if (dueHorizonDays <= 0 || ageCapDays < 0) {
+            throw new IllegalArgumentException("app.tasks.next.due-horizon-days phải > 0 và app.tasks.next.age-cap-days phải >= 0");
+        }
+        this.priorityWeight = priorityWeight;
+        this.dueWeight = dueWeight;
+        this.dueHorizonDays = dueHorizonDays;
+        this.ageWeight = ageWeight;
+        this.ageCapDays = ageCapDays;
+    }
+
+    /**
+     * @param priorityLevel      thứ tự của TaskPriority
+     * @param hasDueDate         false nếu task không có hạn chót (dueEpochDay bị bỏ qua)
+     * @param dueEpochDay        hạn chót (LocalDate.toEpochDay)
+     * @param createdEpochSecond thời điểm tạo, tính theo giây
+     * @param todayEpochDay      hôm nay (LocalDate.toEpochDay)
+     * @param nowEpochSecond     bây giờ, tính theo giây (cùng múi giờ với createdEpochSecond)
+     */
+    double score(int priorityLevel, boolean hasDueDate, long dueEpochDay, long createdEpochSecond,
+                 long todayEpochDay, long nowEpochSecond) {
+        double urgency = 0;
+        if (hasDueDate) {
+            double daysLeft = dueEpochDay - todayEpochDay;
+            urgency = daysLeft >= 0
+                    ? Math.max(0, 1 - daysLeft / dueHorizonDays)
+                    : 1 + Math.min(-daysLeft, dueHorizonDays) / dueHorizonDays;
+        }
+        double ageDays = Math.max(0, nowEpochSecond - createdEpochSecond) / SECONDS_PER_DAY;
+        return priorityWeight * priorityLevel + dueWeight * urgency + ageWeight * Math.min(ageDays, ageCapDays);
+    }
+}
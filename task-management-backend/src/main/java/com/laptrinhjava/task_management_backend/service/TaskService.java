@@ -1,32 +1,82 @@
 package com.laptrinhjava.task_management_backend.service;
 
+import com.laptrinhjava.task_management_backend.dto.BoardColumnResponse;
+import com.laptrinhjava.task_management_backend.dto.BoardResponse;
+import com.laptrinhjava.task_management_backend.dto.CalendarResponse;
+import com.laptrinhjava.task_management_backend.dto.NextTaskResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskLabelsRequest;
+import com.laptrinhjava.task_management_backend.dto.TaskFilter;
+import com.laptrinhjava.task_management_backend.dto.TaskHistoryResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskPageResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskParentRequest;
+import com.laptrinhjava.task_management_backend.dto.TaskProgressResponse;
+import com.laptrinhjava.task_management_backend.dto.TaskMoveRequest;
 import com.laptrinhjava.task_management_backend.dto.TaskRequest;
 import com.laptrinhjava.task_management_backend.dto.TaskResponse;
 import com.laptrinhjava.task_management_backend.exception.BadRequestException;
 import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
 import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.ArchivedTask;
+import com.laptrinhjava.task_management_backend.model.DomainEventType;
+import com.laptrinhjava.task_management_backend.model.Label;
 import com.laptrinhjava.task_management_backend.model.Project;
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+import com.laptrinhjava.task_management_backend.model.SyncEntityType;
+import com.laptrinhjava.task_management_backend.model.SyncTombstone;
 import com.laptrinhjava.task_management_backend.model.Task;
-// import com.laptrinhjava.task_management_backend.model.TaskStatus; // Không dùng trực tiếp trong PostConstruct nữa
+import com.laptrinhjava.task_management_backend.model.TaskHistory;
+import com.laptrinhjava.task_management_backend.model.TaskHistoryField;
+import com.laptrinhjava.task_management_backend.model.TaskLabel;
+import com.laptrinhjava.task_management_backend.model.TaskPriority;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
 import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.ArchivedTaskRepository;
+import com.laptrinhjava.task_management_backend.repository.LabelRepository;
 import com.laptrinhjava.task_management_backend.repository.ProjectRepository;
+import com.laptrinhjava.task_management_backend.repository.SyncTombstoneRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskClosureRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskDependencyRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskHistoryRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskLabelRepository;
 import com.laptrinhjava.task_management_backend.repository.TaskRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskSpecifications;
 import com.laptrinhjava.task_management_backend.repository.UserRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 // import org.springframework.beans.factory.annotation.Value; // Không dùng cho defaultUserEmailForDevData nữa
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-// import org.springframework.util.StringUtils; // Không dùng cho PostConstruct nữa
+import org.springframework.util.StringUtils;
 
 // import jakarta.annotation.PostConstruct; // Không dùng PostConstruct nữa
 // import java.time.LocalDate; // Không dùng trực tiếp trong PostConstruct nữa
 // import java.time.LocalDateTime; // Không dùng trực tiếp trong PostConstruct nữa
 // import java.util.ArrayList; // Không dùng cho PostConstruct nữa
 // import java.util.Arrays; // Không dùng cho PostConstruct nữa
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
@@ -35,23 +85,92 @@ public class TaskService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final UserService userService;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final TaskHistoryRepository taskHistoryRepository;
+    private final TaskHistoryService taskHistoryService;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskRankService taskRankService;
+    private final TaskClosureRepository taskClosureRepository;
+    private final TaskDependencyRepository taskDependencyRepository;
+    private final DependencyGraphCache dependencyGraphCache;
+    private final ReminderScheduler reminderScheduler;
+    private final OutboxService outboxService;
+    private final ProjectAccessService projectAccessService;
+    private final TaskStatsService taskStatsService;
+    private final WorkflowService workflowService;
+    private final LabelService labelService;
+    private final LabelIndexCache labelIndexCache;
+    private final LabelRepository labelRepository;
+    private final TaskLabelRepository taskLabelRepository;
+    private final TaskScoring taskScoring;
+    private final ShardRebalancer shardRebalancer;
+
+    static final int MAX_PAGE_SIZE = 500;
+    // Số id tối đa trong một mệnh đề IN khi thao tác trên cả cây con
+    private static final int ID_CHUNK_SIZE = 1000;
+    private static final List<TaskStatus> OPEN_STATUSES = List.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "dueDate", "createdAt", "updatedAt", "title");
+
+    @Value("${app.calendar.max-range-days:92}")
+    private int calendarMaxRangeDays;
+
+    @Value("${app.tasks.next.max-limit:100}")
+    private int nextMaxLimit;
 
     // @Value("${default.user.email:}") // Không cần thiết nếu bỏ PostConstruct
     // private String defaultUserEmailForDevData;
 
     @Autowired
     public TaskService(TaskRepository taskRepository, ProjectRepository projectRepository, 
-                       UserRepository userRepository, UserService userService) {
+                       UserRepository userRepository, UserService userService,
+                       SyncTombstoneRepository syncTombstoneRepository,
+                       TaskHistoryRepository taskHistoryRepository, TaskHistoryService taskHistoryService,
+                       ArchivedTaskRepository archivedTaskRepository, TaskRankService taskRankService,
+                       TaskClosureRepository taskClosureRepository, TaskDependencyRepository taskDependencyRepository,
+                       DependencyGraphCache dependencyGraphCache, ReminderScheduler reminderScheduler,
+                       OutboxService outboxService, ProjectAccessService projectAccessService,
+                       TaskStatsService taskStatsService, WorkflowService workflowService,
+                       LabelService labelService, LabelIndexCache labelIndexCache,
+                       LabelRepository labelRepository, TaskLabelRepository taskLabelRepository,
+                       TaskScoring taskScoring, ShardRebalancer shardRebalancer) {
         this.taskRepository = taskRepository;
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.userService = userService;
+        this.syncTombstoneRepository = syncTombstoneRepository;
+        this.taskHistoryRepository = taskHistoryRepository;
+        this.taskHistoryService = taskHistoryService;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskRankService = taskRankService;
+        this.taskClosureRepository = taskClosureRepository;
+        this.taskDependencyRepository = taskDependencyRepository;
+        this.dependencyGraphCache = dependencyGraphCache;
+        this.reminderScheduler = reminderScheduler;
+        this.outboxService = outboxService;
+        this.projectAccessService = projectAccessService;
+        this.taskStatsService = taskStatsService;
+        this.workflowService = workflowService;
+        this.labelService = labelService;
+        this.labelIndexCache = labelIndexCache;
+        this.labelRepository = labelRepository;
+        this.taskLabelRepository = taskLabelRepository;
+        this.taskScoring = taskScoring;
+        this.shardRebalancer = shardRebalancer;
     }
 
     private TaskResponse convertToDto(Task task) {
         if (task == null) {
             return null;
         }
+        return convertToDto(task, labelNames(List.of(task.getId())));
+    }
+
+    private List<TaskResponse> convertToDtos(List<Task> tasks) {
+        Map<Long, List<String>> labels = labelNames(tasks.stream().map(Task::getId).toList());
+        return tasks.stream().map(task -> convertToDto(task, labels)).collect(Collectors.toList());
+    }
+
+    private TaskResponse convertToDto(Task task, Map<Long, List<String>> labels) {
         return new TaskResponse(
             task.getId(),
             task.getTitle(),
@@ -63,10 +182,75 @@ public class TaskService {
             task.getProject() != null ? task.getProject().getId() : null,
             task.getProject() != null ? task.getProject().getName() : null,
             task.getAssignee() != null ? task.getAssignee().getId() : null,
-            task.getAssignee() != null ? task.getAssignee().getName() : null
+            task.getAssignee() != null ? task.getAssignee().getName() : null,
+            false,
+            task.getParentId(),
+            stateName(task.getProject() != null ? task.getProject().getId() : null, task.getWorkflowState(), task.getStatus()),
+            task.getProject() != null ? labels.getOrDefault(task.getId(), List.of()) : null,
+            priorityOf(task.getPriority())
         );
     }
 
+    private List<TaskResponse> convertArchivedToDtos(List<ArchivedTask> tasks) {
+        Map<Long, List<String>> labels = labelNames(tasks.stream().map(ArchivedTask::getId).toList());
+        return tasks.stream().map(task -> convertToDto(task, labels)).collect(Collectors.toList());
+    }
+
+    private TaskResponse convertToDto(ArchivedTask task, Map<Long, List<String>> labels) {
+        return new TaskResponse(
+            task.getId(),
+            task.getTitle(),
+            task.getDescription(),
+            task.getStatus(),
+            task.getDueDate(),
+            task.getCreatedAt(),
+            task.getUpdatedAt(),
+            task.getProject() != null ? task.getProject().getId() : null,
+            task.getProject() != null ? task.getProject().getName() : null,
+            task.getAssignee() != null ? task.getAssignee().getId() : null,
+            task.getAssignee() != null ? task.getAssignee().getName() : null,
+            true,
+            task.getParentId(),
+            stateName(task.getProject() != null ? task.getProject().getId() : null, task.getWorkflowState(), task.getStatus()),
+            task.getProject() != null ? labels.getOrDefault(task.getId(), List.of()) : null,
+            priorityOf(task.getPriority())
+        );
+    }
+
+    /**
+     * Tên nhãn của các task trong một trang, theo thứ tự tên: một truy vấn task_labels cho mỗi khối id thay vì nạp
+     * bitmap của cả dự án chỉ để hiển thị vài task. Task không có nhãn không có mặt trong kết quả.
+     */
+    private Map<Long, List<String>> labelNames(List<Long> taskIds) {
+        Map<Long, List<String>> labels = new HashMap<>();
+        for (List<Long> chunk : chunks(taskIds)) {
+            for (Object[] row : taskLabelRepository.findLabelNamesByTaskIdIn(chunk)) {
+                labels.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        return labels;
+    }
+
+    // Task tạo trước khi có cột priority (null) được coi là MEDIUM
+    static TaskPriority priorityOf(TaskPriority priority) {
+        return priority != null ? priority : TaskPriority.MEDIUM;
+    }
+
+    // Tên trạng thái quy trình của task, lấy từ quy trình đã cache của dự án
+    private String stateName(Long projectId, Short workflowState, TaskStatus status) {
+        if (projectId == null || status == null) {
+            return null;
+        }
+        Workflow workflow = workflowService.workflowFor(projectId);
+        return workflow.name(workflow.stateOf(workflowState, status));
+    }
+
+    private static void requireStatusOrState(TaskStatus status, String state) {
+        if (status == null && state == null) {
+            throw new BadRequestException("Trạng thái không được để trống");
+        }
+    }
+
     @Transactional
     public TaskResponse createTask(TaskRequest taskRequest) {
         User currentUser = userService.getCurrentAuthenticatedUserEntity();
@@ -77,16 +261,21 @@ public class TaskService {
         Task task = new Task();
         task.setTitle(taskRequest.getTitle());
         task.setDescription(taskRequest.getDescription());
-        task.setStatus(taskRequest.getStatus());
         task.setDueDate(taskRequest.getDueDate());
+        task.setPriority(priorityOf(taskRequest.getPriority()));
+        requireStatusOrState(taskRequest.getStatus(), taskRequest.getState());
 
         if (taskRequest.getProjectId() == null) {
             throw new BadRequestException("Task phải thuộc về một dự án (projectId không được để trống).");
         }
         
-        Project project = projectRepository.findByIdAndOwnerId(taskRequest.getProjectId(), currentUser.getId())
+        Project project = findProjectWithRole(taskRequest.getProjectId(), currentUser, ProjectRole.EDITOR)
                 .orElseThrow(() -> new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền thêm task vào dự án này. ID dự án: " + taskRequest.getProjectId()));
         task.setProject(project);
+        Workflow workflow = workflowService.workflowFor(project.getId());
+        int state = workflow.initial(taskRequest.getStatus(), taskRequest.getState());
+        task.setStatus(workflow.category(state));
+        task.setWorkflowState((short) state);
         
         if (taskRequest.getAssigneeId() != null) {
             User assignee = userRepository.findById(taskRequest.getAssigneeId())
@@ -95,36 +284,181 @@ public class TaskService {
         } else {
             task.setAssignee(currentUser); 
         }
+        task.setBoardRank(taskRankService.rankAtEnd(project.getId(), task.getStatus()));
+
+        Task parent = null;
+        if (taskRequest.getParentTaskId() != null) {
+            parent = taskRepository.findByIdAndProjectId(taskRequest.getParentTaskId(), project.getId())
+                .orElseThrow(() -> new BadRequestException("Task cha không tồn tại trong dự án này. ID task cha: " + taskRequest.getParentTaskId()));
+            task.setParentId(parent.getId());
+        }
 
         Task savedTask = taskRepository.save(task);
-        return convertToDto(savedTask);
+        if (parent != null) {
+            taskClosureRepository.attachSubtree(savedTask.getId(), parent.getId());
+        }
+        dependencyGraphCache.taskChanged(project.getId(), savedTask.getId(), savedTask.getStatus(), savedTask.getDueDate());
+        reminderScheduler.taskChanged(savedTask.getId(), savedTask.getStatus(), savedTask.getDueDate());
+        taskStatsService.completionChanged(null, TaskStatsService.Completion.of(savedTask));
+        TaskResponse response = convertToDto(savedTask);
+        outboxService.taskChanged(DomainEventType.TASK_CREATED, project.getOwner().getId(), response);
+        return response;
     }
 
     @Transactional(readOnly = true)
-    public List<TaskResponse> getAllTasksByProjectIdForCurrentUser(Long projectId) {
+    public TaskPageResponse findTasksByProjectIdForCurrentUser(Long projectId, TaskFilter filter) {
         User currentUser = userService.getCurrentAuthenticatedUserEntity();
         if (currentUser == null) {
             throw new UnauthorizedAccessException("Người dùng chưa được xác thực.");
         }
-        projectRepository.findByIdAndOwnerId(projectId, currentUser.getId())
-            .orElseThrow(() -> new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền truy cập. ID dự án: " + projectId));
-        
-        List<Task> tasks = taskRepository.findByProjectId(projectId);
-        return tasks.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+        if (!projectAccessService.hasRole(currentUser.getId(), projectId, ProjectRole.VIEWER)) {
+            throw new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền truy cập. ID dự án: " + projectId);
+        }
+
+        // Phạm vi dự án đã cố định nên bỏ qua projectIds do client gửi lên
+        filter.setProjectIds(null);
+        return findTasks(projectId, TaskSpecifications.inProject(projectId), TaskSpecifications.inProject(projectId), filter);
     }
-    
+
+    @Transactional(readOnly = true)
+    public TaskPageResponse findTasksAssignedToCurrentUser(TaskFilter filter) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực.");
+        }
+        // Phạm vi "giao cho tôi" đã cố định assignee
+        filter.setAssigneeId(null);
+        return findTasks(null, TaskSpecifications.assignedTo(currentUser.getId()), TaskSpecifications.assignedTo(currentUser.getId()), filter);
+    }
+
+    /**
+     * Mọi task người dùng nhìn thấy: thuộc dự án của họ, dự án được chia sẻ, hoặc được giao cho họ.
+     * Danh sách dự án lấy từ index quyền đã cache nên vẫn chỉ là một truy vấn trên bảng tasks.
+     */
     @Transactional(readOnly = true)
-    public List<TaskResponse> getAllTasksAssignedToCurrentUser() {
+    public TaskPageResponse findTasksVisibleToCurrentUser(TaskFilter filter) {
         User currentUser = userService.getCurrentAuthenticatedUserEntity();
         if (currentUser == null) {
             throw new UnauthorizedAccessException("Người dùng chưa được xác thực.");
         }
-        List<Task> tasks = taskRepository.findByAssigneeId(currentUser.getId());
-        return tasks.stream()
-                    .map(this::convertToDto)
-                    .collect(Collectors.toList());
+        List<Long> projectIds = projectAccessService.accessibleProjectIds(currentUser.getId(), ProjectRole.VIEWER);
+        return findTasks(null, TaskSpecifications.visibleTo(projectIds, currentUser.getId()),
+                TaskSpecifications.visibleTo(projectIds, currentUser.getId()), filter);
+    }
+
+    /**
+     * Điểm vào chung cho mọi endpoint danh sách task: ghép điều kiện phạm vi (đã kiểm tra quyền)
+     * với bộ lọc của client thành một câu truy vấn duy nhất, kèm phân trang và COUNT tuỳ chọn.
+     * Với includeArchived, truy vấn cả bảng nóng và bảng lưu trữ rồi trộn kết quả.
+     *
+     * Bộ lọc nhãn được trả lời trước bằng phép giao bitmap trong bộ nhớ (xem {@link LabelService#criteria}):
+     * trong một dự án, nếu nhãn là điều kiện duy nhất thì cắt trang ngay trên bitmap rồi chỉ nạp các task của trang đó;
+     * nếu không, câu truy vấn được thu hẹp về các id khớp (hoặc EXISTS trên task_labels khi tập id quá lớn).
+     */
+    private TaskPageResponse findTasks(Long projectId, Specification<Task> scope, Specification<ArchivedTask> archivedScope, TaskFilter filter) {
+        if (LabelService.hasLabelFilter(filter)) {
+            LabelService.LabelCriteria labels = labelService.criteria(projectId, filter);
+            if (labels.isEmpty()) {
+                return emptyPage(filter);
+            }
+            if (projectId != null && labels.matched() != null && onlyLabelConditions(filter)) {
+                return pageOf(labels.matched(), filter);
+            }
+            scope = scope.and(labels.toSpecification());
+            archivedScope = archivedScope.and(labels.toSpecification());
+        }
+        if (!filter.isIncludeArchived()) {
+            return findHotTasks(scope, filter);
+        }
+        TaskPageMerger merger = TaskPageMerger.widen(filter);
+        Pageable pageable = toPageable(filter);
+        Slice<ArchivedTask> archived = archivedTaskRepository.findAll(
+                archivedScope.and(TaskSpecifications.matching(filter)), pageable, filter.isCount());
+        List<TaskResponse> archivedContent = convertArchivedToDtos(archived.getContent());
+        TaskPageResponse archivedPart = new TaskPageResponse(archivedContent, 0, archivedContent.size(),
+                archived instanceof Page<ArchivedTask> page ? page.getTotalElements() : null, archived.hasNext());
+        return merger.merge(List.of(findHotTasks(scope, filter), archivedPart));
+    }
+
+    // Không có điều kiện nào ngoài nhãn và thứ tự theo id (thứ tự của bitmap)
+    private static boolean onlyLabelConditions(TaskFilter filter) {
+        return (filter.getStatus() == null || filter.getStatus().isEmpty()) && filter.getDueFrom() == null && filter.getDueTo() == null
+                && (filter.getProjectIds() == null || filter.getProjectIds().isEmpty()) && filter.getAssigneeId() == null
+                && filter.getCreatedSince() == null && filter.getUpdatedSince() == null && !StringUtils.hasText(filter.getQ())
+                && (!StringUtils.hasText(filter.getSort()) || "id".equals(filter.getSort()));
+    }
+
+    // Cắt trang trên tập id đã sắp xếp rồi nạp đúng các task của trang (kèm project và assignee)
+    private TaskPageResponse pageOf(TaskIdBitmap ids, TaskFilter filter) {
+        Pageable pageable = toPageable(filter);
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : (int) ids.cardinality();
+        long[] pageIds = ids.page(offset, limit, "desc".equalsIgnoreCase(filter.getDirection()));
+
+        List<Long> idList = new ArrayList<>(pageIds.length);
+        for (long id : pageIds) {
+            idList.add(id);
+        }
+        Map<Long, Task> tasks = new HashMap<>();
+        for (List<Long> chunk : chunks(idList)) {
+            taskRepository.findAllWithDetailsByIdIn(chunk).forEach(task -> tasks.put(task.getId(), task));
+        }
+        // Task vừa bị xoá trên node khác (bitmap chưa kịp cập nhật) thì bỏ qua
+        List<TaskResponse> content = convertToDtos(idList.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull)
+                .toList());
+        return new TaskPageResponse(content,
+                pageable.isPaged() ? pageable.getPageNumber() : 0,
+                pageable.isPaged() ? pageable.getPageSize() : content.size(),
+                filter.isCount() ? ids.cardinality() : null,
+                offset + pageIds.length < ids.cardinality());
+    }
+
+    private TaskPageResponse emptyPage(TaskFilter filter) {
+        Pageable pageable = toPageable(filter);
+        return new TaskPageResponse(List.of(),
+                pageable.isPaged() ? pageable.getPageNumber() : 0,
+                pageable.isPaged() ? pageable.getPageSize() : 0,
+                filter.isCount() ? 0L : null,
+                false);
+    }
+
+    private TaskPageResponse findHotTasks(Specification<Task> scope, TaskFilter filter) {
+        Pageable pageable = toPageable(filter);
+        Slice<Task> slice = taskRepository.findAll(scope.and(TaskSpecifications.matching(filter)), pageable, filter.isCount());
+
+        List<TaskResponse> content = convertToDtos(slice.getContent());
+        Long total = slice instanceof Page<Task> page ? page.getTotalElements() : null;
+        return new TaskPageResponse(content,
+                pageable.isPaged() ? pageable.getPageNumber() : 0,
+                pageable.isPaged() ? pageable.getPageSize() : content.size(),
+                total,
+                slice.hasNext());
+    }
+
+    private Pageable toPageable(TaskFilter filter) {
+        String sortProperty = StringUtils.hasText(filter.getSort()) ? filter.getSort() : "id";
+        if (!SORTABLE_PROPERTIES.contains(sortProperty)) {
+            throw new BadRequestException("Không thể sắp xếp theo trường: " + sortProperty);
+        }
+        Sort.Direction direction = "desc".equalsIgnoreCase(filter.getDirection()) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, sortProperty);
+        if (!"id".equals(sortProperty)) {
+            sort = sort.and(Sort.by(direction, "id")); // đảm bảo thứ tự ổn định giữa các trang
+        }
+
+        if (filter.getSize() == null) {
+            if (filter.getPage() != null) {
+                throw new BadRequestException("Cần truyền size khi phân trang.");
+            }
+            return Pageable.unpaged(sort);
+        }
+        int page = filter.getPage() != null ? filter.getPage() : 0;
+        if (page < 0 || filter.getSize() < 1 || filter.getSize() > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Tham số phân trang không hợp lệ (page >= 0, 1 <= size <= " + MAX_PAGE_SIZE + ").");
+        }
+        return PageRequest.of(page, filter.getSize(), sort);
     }
 
 
@@ -141,7 +475,7 @@ public class TaskService {
         }
 
         Task task = taskOptional.get();
-        if (task.getProject() != null && task.getProject().getOwner().getId().equals(currentUser.getId())) {
+        if (canAccess(task, currentUser, ProjectRole.VIEWER)) {
             return Optional.of(convertToDto(task));
         }
         if (task.getAssignee() != null && task.getAssignee().getId().equals(currentUser.getId())) {
@@ -153,40 +487,93 @@ public class TaskService {
 
     @Transactional
     public TaskResponse updateTask(Long taskId, TaskRequest taskRequest) {
-        User currentUser = userService.getCurrentAuthenticatedUserEntity();
-        if (currentUser == null) {
-            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để cập nhật task.");
+        return updateTask(taskId, taskRequest, null);
+    }
+
+    /**
+     * Bước đầu khi chuyển task sang dự án nằm trên shard khác, chạy trên shard đang chứa task: kiểm tra như updateTask
+     * đổi dự án và trả về dự án, trạng thái hiện tại để ghi lịch sử ở shard đích.
+     */
+    @Transactional(readOnly = true)
+    public MovedFrom checkMoveToProject(Long taskId, Long targetProjectId) {
+        User currentUser = requireUpdater();
+        Task task = taskRepository.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        requireCanUpdate(task, currentUser);
+        requireMovable(task);
+        if (!projectAccessService.hasRole(currentUser.getId(), targetProjectId, ProjectRole.EDITOR)) {
+            throw new ResourceNotFoundException("Dự án mới không tồn tại hoặc bạn không có quyền. ID dự án: " + targetProjectId);
         }
+        Long projectId = task.getProject().getId();
+        return new MovedFrom(projectId, stateName(projectId, task.getWorkflowState(), task.getStatus()));
+    }
+
+    /**
+     * Bước thứ hai, chạy trên shard của dự án mới: chép task (cùng lịch sử) từ shard cũ rồi áp request như updateTask
+     * đổi dự án, trong cùng một giao dịch. Bản ở shard cũ vẫn còn cho tới {@link #moveOutToShard}.
+     */
+    @Transactional
+    public TaskResponse moveInFromShard(Long taskId, int sourceShard, TaskRequest taskRequest, MovedFrom from) {
+        shardRebalancer.copyTask(taskId, sourceShard, taskRequest.getProjectId());
+        return updateTask(taskId, taskRequest, from);
+    }
+
+    /**
+     * Bước cuối, chạy trên shard cũ sau khi shard mới đã commit: bỏ phần đóng góp của task vào thống kê dự án cũ
+     * và xoá task (nhãn, lịch sử) khỏi shard này.
+     */
+    @Transactional
+    public void moveOutToShard(Long taskId) {
+        taskRepository.findById(taskId).ifPresent(task ->
+                taskStatsService.completionChanged(TaskStatsService.Completion.of(task), null));
+        shardRebalancer.deleteTask(taskId);
+    }
+
+    // from != null: task vừa được chép từ dự án from trên shard khác và đã gắn vào dự án mới
+    private TaskResponse updateTask(Long taskId, TaskRequest taskRequest, MovedFrom from) {
+        User currentUser = requireUpdater();
 
         Task existingTask = taskRepository.findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        requireCanUpdate(existingTask, currentUser);
 
-        boolean canUpdate = false;
-        if (existingTask.getProject() != null && existingTask.getProject().getOwner().getId().equals(currentUser.getId())) {
-            canUpdate = true;
-        } else if (existingTask.getAssignee() != null && existingTask.getAssignee().getId().equals(currentUser.getId())) {
-            canUpdate = true; 
-        }
-
-        if (!canUpdate) {
-            throw new UnauthorizedAccessException("Bạn không có quyền cập nhật task này. ID task: " + taskId);
-        }
+        requireStatusOrState(taskRequest.getStatus(), taskRequest.getState());
+        TaskStatus previousStatus = existingTask.getStatus();
+        LocalDate previousDueDate = existingTask.getDueDate();
+        Long previousProjectId = from != null ? from.projectId()
+                : existingTask.getProject() != null ? existingTask.getProject().getId() : null;
+        String previousState = from != null ? from.state() : stateName(previousProjectId, existingTask.getWorkflowState(), previousStatus);
+        TaskPriority previousPriority = priorityOf(existingTask.getPriority());
+        // Phần đóng góp vào thống kê dự án cũ được bỏ ở shard cũ (moveOutToShard)
+        TaskStatsService.Completion previousCompletion = from != null ? null : TaskStatsService.Completion.of(existingTask);
             
         existingTask.setTitle(taskRequest.getTitle());
         existingTask.setDescription(taskRequest.getDescription());
-        existingTask.setStatus(taskRequest.getStatus());
         existingTask.setDueDate(taskRequest.getDueDate());
+        if (taskRequest.getPriority() != null) {
+            existingTask.setPriority(taskRequest.getPriority());
+        }
 
         if (taskRequest.getProjectId() == null) {
              throw new BadRequestException("Task phải thuộc về một dự án (projectId không được để trống khi cập nhật).");
         }
 
         if (!taskRequest.getProjectId().equals(existingTask.getProject().getId())) {
-            Project newProject = projectRepository.findByIdAndOwnerId(taskRequest.getProjectId(), currentUser.getId())
+            requireMovable(existingTask);
+            Project newProject = findProjectWithRole(taskRequest.getProjectId(), currentUser, ProjectRole.EDITOR)
                 .orElseThrow(() -> new ResourceNotFoundException("Dự án mới không tồn tại hoặc bạn không có quyền. ID dự án: " + taskRequest.getProjectId()));
             existingTask.setProject(newProject);
         }
+
+        // Chuyển trạng thái theo quy trình của dự án (đã cache); sang dự án khác thì vào thẳng trạng thái yêu cầu
+        Workflow workflow = workflowService.workflowFor(existingTask.getProject().getId());
+        int state = existingTask.getProject().getId().equals(previousProjectId)
+                ? workflow.transition(workflow.stateOf(existingTask.getWorkflowState(), previousStatus), taskRequest.getStatus(), taskRequest.getState())
+                : workflow.initial(taskRequest.getStatus(), taskRequest.getState());
+        existingTask.changeStatus(workflow.category(state), LocalDateTime.now());
+        existingTask.setWorkflowState((short) state);
         
+        User previousAssignee = existingTask.getAssignee();
         if (taskRequest.getAssigneeId() != null) {
             if (existingTask.getAssignee() == null || !taskRequest.getAssigneeId().equals(existingTask.getAssignee().getId())) {
                 User newAssignee = userRepository.findById(taskRequest.getAssigneeId())
@@ -196,9 +583,308 @@ public class TaskService {
         } else {
             existingTask.setAssignee(null); 
         }
+        // Đổi cột (trạng thái) hoặc đổi dự án thì xếp xuống cuối cột mới
+        if (previousStatus != existingTask.getStatus() || !existingTask.getProject().getId().equals(previousProjectId)) {
+            existingTask.setBoardRank(taskRankService.rankAtEnd(existingTask.getProject().getId(), existingTask.getStatus()));
+        }
+        // Người được giao cũ (không phải chủ dự án) không còn thấy task này nữa
+        if (previousAssignee != null
+                && (existingTask.getAssignee() == null || !previousAssignee.getId().equals(existingTask.getAssignee().getId()))
+                && !previousAssignee.getId().equals(existingTask.getProject().getOwner().getId())) {
+            syncTombstoneRepository.save(new SyncTombstone(SyncEntityType.TASK, taskId, previousAssignee.getId()));
+        }
 
         Task updatedTaskEntity = taskRepository.save(existingTask);
-        return convertToDto(updatedTaskEntity);
+        Long projectId = updatedTaskEntity.getProject().getId();
+        if (!projectId.equals(previousProjectId)) {
+            // Nhãn thuộc về dự án nên task chuyển sang dự án khác thì mất nhãn cũ
+            taskLabelRepository.deleteByTaskIds(List.of(taskId));
+            labelIndexCache.tasksRemoved(previousProjectId, List.of(taskId));
+            dependencyGraphCache.tasksRemoved(previousProjectId, List.of(taskId));
+            dependencyGraphCache.taskChanged(projectId, taskId, updatedTaskEntity.getStatus(), updatedTaskEntity.getDueDate());
+        } else if (previousStatus != updatedTaskEntity.getStatus() || !Objects.equals(previousDueDate, updatedTaskEntity.getDueDate())) {
+            dependencyGraphCache.taskChanged(projectId, taskId, updatedTaskEntity.getStatus(), updatedTaskEntity.getDueDate());
+        }
+        // Task chuyển từ shard khác: lịch nhắc phải trỏ sang shard này dù hạn chót không đổi
+        if (from != null || previousStatus != updatedTaskEntity.getStatus() || !Objects.equals(previousDueDate, updatedTaskEntity.getDueDate())) {
+            reminderScheduler.taskChanged(taskId, updatedTaskEntity.getStatus(), updatedTaskEntity.getDueDate());
+        }
+        taskStatsService.completionChanged(previousCompletion, TaskStatsService.Completion.of(updatedTaskEntity));
+        taskHistoryService.record(diff(updatedTaskEntity, currentUser, previousStatus, previousState, previousDueDate, previousProjectId,
+                previousAssignee != null ? previousAssignee.getId() : null, previousPriority));
+        TaskResponse response = convertToDto(updatedTaskEntity);
+        outboxService.taskChanged(DomainEventType.TASK_UPDATED, updatedTaskEntity.getProject().getOwner().getId(), response);
+        return response;
+    }
+
+    private User requireUpdater() {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để cập nhật task.");
+        }
+        return currentUser;
+    }
+
+    // Người có quyền chỉnh sửa dự án, hoặc người được giao task
+    private void requireCanUpdate(Task task, User currentUser) {
+        if (!canAccess(task, currentUser, ProjectRole.EDITOR)
+                && (task.getAssignee() == null || !task.getAssignee().getId().equals(currentUser.getId()))) {
+            throw new UnauthorizedAccessException("Bạn không có quyền cập nhật task này. ID task: " + task.getId());
+        }
+    }
+
+    // Chỉ task đứng riêng (không cha, con hay phụ thuộc) mới được chuyển sang dự án khác
+    private void requireMovable(Task task) {
+        Long taskId = task.getId();
+        if (task.getParentId() != null || taskClosureRepository.existsByAncestorId(taskId)) {
+            throw new BadRequestException("Không thể chuyển task có task cha hoặc task con sang dự án khác. ID task: " + taskId);
+        }
+        if (taskDependencyRepository.existsByTaskIdOrBlockedById(taskId, taskId)) {
+            throw new BadRequestException("Không thể chuyển task đang có phụ thuộc sang dự án khác. ID task: " + taskId);
+        }
+    }
+
+    /**
+     * Bảng Kanban của một dự án: mỗi trạng thái một cột, đã sắp theo vị trí, phân trang riêng từng cột.
+     * Truyền status + cursor (nextCursor của lần gọi trước) để tải thêm một cột.
+     */
+    @Transactional(readOnly = true)
+    public BoardResponse getBoardForCurrentUser(Long projectId, TaskStatus status, String cursor, int size) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực.");
+        }
+        if (!projectAccessService.hasRole(currentUser.getId(), projectId, ProjectRole.VIEWER)) {
+            throw new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền truy cập. ID dự án: " + projectId);
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Tham số phân trang không hợp lệ (1 <= size <= " + MAX_PAGE_SIZE + ").");
+        }
+        if (cursor != null && status == null) {
+            throw new BadRequestException("Cần truyền status khi phân trang bằng cursor.");
+        }
+
+        Map<TaskStatus, Long> totals = new EnumMap<>(TaskStatus.class);
+        for (Object[] row : taskRepository.countByStatus(projectId)) {
+            totals.put((TaskStatus) row[0], (Long) row[1]);
+        }
+        List<BoardColumnResponse> columns = new ArrayList<>();
+        for (TaskStatus columnStatus : status != null ? List.of(status) : List.of(TaskStatus.values())) {
+            // Lấy dư một bản ghi để biết cột còn trang sau hay không
+            PageRequest window = PageRequest.of(0, size + 1);
+            List<Task> rows;
+            if (cursor == null) {
+                rows = taskRepository.findBoardColumn(projectId, columnStatus, window);
+            } else {
+                // cursor = "<board_rank>:<id>" của task cuối cùng đã trả về
+                int separator = cursor.lastIndexOf(':');
+                Long afterId;
+                try {
+                    afterId = Long.valueOf(cursor.substring(separator + 1));
+                } catch (NumberFormatException e) {
+                    afterId = null;
+                }
+                if (separator < 0 || afterId == null) {
+                    throw new BadRequestException("Cursor không hợp lệ: " + cursor);
+                }
+                rows = taskRepository.findBoardColumnAfter(projectId, columnStatus, cursor.substring(0, separator), afterId, window);
+            }
+            boolean hasNext = rows.size() > size;
+            if (hasNext) {
+                rows = rows.subList(0, size);
+            }
+            Task last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+            columns.add(new BoardColumnResponse(columnStatus,
+                    convertToDtos(rows),
+                    totals.getOrDefault(columnStatus, 0L),
+                    hasNext,
+                    hasNext ? Objects.toString(last.getBoardRank(), "") + ":" + last.getId() : null));
+        }
+        return new BoardResponse(projectId, columns);
+    }
+
+    /**
+     * Kéo thả task trên bảng Kanban. Chỉ dòng của task được ghi lại (thứ hạng và có thể cả trạng thái).
+     */
+    @Transactional
+    public TaskResponse moveTask(Long taskId, TaskMoveRequest moveRequest) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để di chuyển task.");
+        }
+        Task task = taskRepository.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        boolean isEditor = canAccess(task, currentUser, ProjectRole.EDITOR);
+        boolean isAssignee = task.getAssignee() != null && task.getAssignee().getId().equals(currentUser.getId());
+        if (!isEditor && !isAssignee) {
+            throw new UnauthorizedAccessException("Bạn không có quyền di chuyển task này. ID task: " + taskId);
+        }
+        if (task.getProject() == null) {
+            throw new BadRequestException("Task không thuộc dự án nào nên không có trên bảng Kanban. ID task: " + taskId);
+        }
+
+        Long projectId = task.getProject().getId();
+        Workflow workflow = workflowService.workflowFor(projectId);
+        int currentState = workflow.stateOf(task.getWorkflowState(), task.getStatus());
+        int targetState = moveRequest.getStatus() == null && moveRequest.getState() == null
+                ? currentState
+                : workflow.transition(currentState, moveRequest.getStatus(), moveRequest.getState());
+        TaskStatus targetStatus = workflow.category(targetState);
+        Task previous = boardNeighbour(moveRequest.getPreviousTaskId(), projectId, targetStatus, taskId);
+        Task next = boardNeighbour(moveRequest.getNextTaskId(), projectId, targetStatus, taskId);
+
+        String rank;
+        if (previous == null && next == null) {
+            rank = taskRankService.rankAtEnd(projectId, targetStatus);
+        } else {
+            // Client chỉ gửi một phía thì tự tìm task liền kề phía còn lại
+            if (next == null && previous.getBoardRank() != null) {
+                next = firstOther(taskRepository.findBoardColumnAfter(projectId, targetStatus,
+                        previous.getBoardRank(), previous.getId(), PageRequest.of(0, 2)), taskId);
+            } else if (previous == null && next.getBoardRank() != null) {
+                previous = firstOther(taskRepository.findBoardColumnBefore(projectId, targetStatus,
+                        next.getBoardRank(), next.getId(), PageRequest.of(0, 2)), taskId);
+            }
+            rank = taskRankService.rankBetween(task, projectId, targetStatus, previous, next);
+        }
+
+        TaskStatus previousStatus = task.getStatus();
+        String previousState = workflow.name(currentState);
+        Long assigneeId = task.getAssignee() != null ? task.getAssignee().getId() : null;
+        TaskStatsService.Completion previousCompletion = TaskStatsService.Completion.of(task);
+        task.changeStatus(targetStatus, LocalDateTime.now());
+        task.setWorkflowState((short) targetState);
+        task.setBoardRank(rank);
+        Task moved = taskRepository.save(task);
+        if (previousStatus != targetStatus) {
+            dependencyGraphCache.taskChanged(projectId, taskId, targetStatus, moved.getDueDate());
+            reminderScheduler.taskChanged(taskId, targetStatus, moved.getDueDate());
+        }
+        taskStatsService.completionChanged(previousCompletion, TaskStatsService.Completion.of(moved));
+        taskHistoryService.record(diff(moved, currentUser, previousStatus, previousState, moved.getDueDate(), projectId, assigneeId,
+                priorityOf(moved.getPriority())));
+        TaskResponse response = convertToDto(moved);
+        outboxService.taskChanged(DomainEventType.TASK_UPDATED, moved.getProject().getOwner().getId(), response);
+        return response;
+    }
+
+    /**
+     * Lịch các task đến hạn trong [from, to] thuộc mọi dự án của người dùng hoặc được giao cho họ, gom theo ngày/tuần.
+     * Chỉ hai truy vấn khoảng theo due_date (đếm và lấy limit task đầu mỗi ngày) cộng một lần nạp theo khoá chính.
+     */
+    @Transactional(readOnly = true)
+    public CalendarResponse getCalendarForCurrentUser(LocalDate from, LocalDate to, String granularity, int limit) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực.");
+        }
+        CalendarBuckets calendar = newCalendar(from, to, granularity, limit);
+        List<Long> projectIds = projectAccessService.accessibleProjectIds(currentUser.getId(), ProjectRole.VIEWER);
+        if (projectIds.isEmpty()) {
+            projectIds = List.of(-1L); // IN () rỗng không hợp lệ trong SQL
+        }
+        for (Object[] row : taskRepository.countByDueDate(from, to, projectIds, currentUser.getId())) {
+            calendar.addCount((LocalDate) row[0], (TaskStatus) row[1], (Long) row[2]);
+        }
+        // Tuần gồm nhiều ngày: limit task đầu của tuần luôn nằm trong limit task đầu của từng ngày
+        List<Long> ids = taskRepository.findFirstIdsPerDueDate(from, to, projectIds, currentUser.getId(), limit);
+        for (List<Long> chunk : chunks(ids)) {
+            convertToDtos(taskRepository.findAllWithDetailsByIdIn(chunk)).forEach(calendar::addTask);
+        }
+        return calendar.toResponse();
+    }
+
+    /**
+     * Ghi sự kiện TASK_CREATED cho các task vừa được chèn thẳng bằng JDBC (ví dụ task lặp lại), trong giao dịch đã chèn chúng.
+     * Payload giống hệt task tạo qua API.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreatedTasks(List<Long> taskIds) {
+        for (List<Long> chunk : chunks(taskIds)) {
+            List<Task> tasks = taskRepository.findAllWithDetailsByIdIn(chunk);
+            Map<Long, List<String>> labels = labelNames(chunk);
+            for (Task task : tasks) {
+                outboxService.taskChanged(DomainEventType.TASK_CREATED, task.getProject().getOwner().getId(), convertToDto(task, labels));
+            }
+        }
+    }
+
+    CalendarBuckets newCalendar(LocalDate from, LocalDate to, String granularity, int limit) {
+        return CalendarBuckets.of(from, to, granularity, limit, calendarMaxRangeDays);
+    }
+
+    /**
+     * limit task mở (TODO/IN_PROGRESS) được giao cho người dùng có điểm TaskScoring cao nhất, điểm cao trước.
+     * Quét luồng các cột xếp hạng trên index (assignee_id, status, ...) và chỉ giữ limit task tốt nhất trong heap,
+     * nên bộ nhớ không phụ thuộc số task được giao; chỉ limit task thắng cuộc được nạp đầy đủ.
+     */
+    @Transactional(readOnly = true)
+    public List<NextTaskResponse> findNextTasksForCurrentUser(int limit) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực.");
+        }
+        requireNextLimit(limit);
+        LocalDateTime now = LocalDateTime.now();
+        long today = now.toLocalDate().toEpochDay();
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+        TopScoredTasks top = new TopScoredTasks(limit);
+        try (Stream<Object[]> rows = taskRepository.streamRankInputs(currentUser.getId(), OPEN_STATUSES)) {
+            rows.forEach(row -> {
+                LocalDate dueDate = (LocalDate) row[2];
+                top.offer((Long) row[0], taskScoring.score(priorityOf((TaskPriority) row[1]).ordinal(),
+                        dueDate != null, dueDate != null ? dueDate.toEpochDay() : 0,
+                        ((LocalDateTime) row[3]).toEpochSecond(ZoneOffset.UTC), today, nowSecond));
+            });
+        }
+        List<TopScoredTasks.Scored> best = top.best();
+        if (best.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Task> tasks = taskRepository.findAllWithDetailsByIdIn(best.stream().map(TopScoredTasks.Scored::id).toList())
+                .stream().collect(Collectors.toMap(Task::getId, task -> task));
+        Map<Long, List<String>> labels = labelNames(List.copyOf(tasks.keySet()));
+        List<NextTaskResponse> result = new ArrayList<>(best.size());
+        for (TopScoredTasks.Scored scored : best) {
+            Task task = tasks.get(scored.id());
+            if (task != null) {
+                result.add(new NextTaskResponse(scored.score(), convertToDto(task, labels)));
+            }
+        }
+        return result;
+    }
+
+    void requireNextLimit(int limit) {
+        if (limit < 1 || limit > nextMaxLimit) {
+            throw new BadRequestException("Tham số limit không hợp lệ (1 <= limit <= " + nextMaxLimit + ").");
+        }
+    }
+
+    // Kiểm tra quyền theo project_id của task (không nạp dự án)
+    private boolean canAccess(Task task, User user, ProjectRole required) {
+        return task.getProject() != null && projectAccessService.hasRole(user.getId(), task.getProject().getId(), required);
+    }
+
+    private Optional<Project> findProjectWithRole(Long projectId, User user, ProjectRole required) {
+        if (!projectAccessService.hasRole(user.getId(), projectId, required)) {
+            return Optional.empty();
+        }
+        return projectRepository.findById(projectId);
+    }
+
+    private Task boardNeighbour(Long neighbourId, Long projectId, TaskStatus status, Long movingTaskId) {
+        if (neighbourId == null) {
+            return null;
+        }
+        return taskRepository.findById(neighbourId)
+            .filter(neighbour -> !neighbour.getId().equals(movingTaskId))
+            .filter(neighbour -> neighbour.getProject() != null && neighbour.getProject().getId().equals(projectId))
+            .filter(neighbour -> neighbour.getStatus() == status)
+            .orElseThrow(() -> new BadRequestException("Task tham chiếu không nằm trong cột đích: " + neighbourId));
+    }
+
+    private static Task firstOther(List<Task> candidates, Long taskId) {
+        return candidates.stream().filter(candidate -> !candidate.getId().equals(taskId)).findFirst().orElse(null);
     }
 
     @Transactional
@@ -210,10 +896,243 @@ public class TaskService {
         Task task = taskRepository.findById(taskId)
             .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
         
-        if (task.getProject() == null || !task.getProject().getOwner().getId().equals(currentUser.getId())) {
-            throw new UnauthorizedAccessException("Bạn không có quyền xóa task này vì không phải là chủ sở hữu dự án. ID task: " + taskId);
+        if (!canAccess(task, currentUser, ProjectRole.EDITOR)) {
+            throw new UnauthorizedAccessException("Bạn không có quyền xóa task này (cần quyền chỉnh sửa dự án). ID task: " + taskId);
+        }
+        // Xoá cả cây con; task con đã lưu trữ cũng bị xoá để không còn trỏ tới task cha không tồn tại
+        List<Long> descendantIds = taskClosureRepository.findDescendantIds(taskId);
+        List<Task> descendants = descendantIds.isEmpty() ? List.of() : taskRepository.findAllById(descendantIds);
+        List<Long> subtreeIds = new ArrayList<>(descendantIds);
+        subtreeIds.add(taskId);
+        for (List<Long> chunk : chunks(subtreeIds)) {
+            taskClosureRepository.deleteByDescendantIdIn(chunk);
+            taskDependencyRepository.deleteByTaskIds(chunk);
+            taskLabelRepository.deleteByTaskIds(chunk);
+            archivedTaskRepository.deleteAllByIdInBatch(chunk);
+            taskRepository.deleteAllByIdInBatch(chunk);
+        }
+        dependencyGraphCache.tasksRemoved(task.getProject().getId(), subtreeIds);
+        labelIndexCache.tasksRemoved(task.getProject().getId(), subtreeIds);
+        reminderScheduler.tasksRemoved(subtreeIds);
+        outboxService.tasksDeleted(task.getProject().getOwner().getId(), task.getProject().getId(), subtreeIds);
+        recordDeletion(task);
+        descendants.forEach(this::recordDeletion);
+    }
+
+    /**
+     * Đổi task cha (hoặc tách thành task gốc khi parentTaskId = null); cả cây con đi theo task.
+     * Cần quyền chỉnh sửa dự án; sự kiện outbox vẫn gắn với chủ dự án như các thay đổi khác của task.
+     */
+    @Transactional
+    public TaskResponse changeParent(Long taskId, TaskParentRequest parentRequest) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để cập nhật task.");
+        }
+        Task task = taskRepository.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        if (!canAccess(task, currentUser, ProjectRole.EDITOR)) {
+            throw new UnauthorizedAccessException("Bạn không có quyền đổi task cha (cần quyền chỉnh sửa dự án). ID task: " + taskId);
+        }
+        Long newParentId = parentRequest.getParentTaskId();
+        Long previousParentId = task.getParentId();
+        if (Objects.equals(newParentId, previousParentId)) {
+            return convertToDto(task);
         }
-        taskRepository.deleteById(taskId);
+        if (newParentId != null) {
+            taskRepository.findByIdAndProjectId(newParentId, task.getProject().getId())
+                .orElseThrow(() -> new BadRequestException("Task cha không tồn tại trong dự án này. ID task cha: " + newParentId));
+            if (newParentId.equals(taskId) || taskClosureRepository.existsByAncestorIdAndDescendantId(taskId, newParentId)) {
+                throw new BadRequestException("Không thể đặt task làm con của chính nó hoặc của task con của nó. ID task: " + taskId);
+            }
+        }
+
+        // Bỏ mọi đường đi từ tổ tiên cũ tới cây con, rồi nối cây con vào dưới task cha mới
+        List<Long> ancestorIds = taskClosureRepository.findAncestorIds(taskId);
+        if (!ancestorIds.isEmpty()) {
+            List<Long> subtreeIds = new ArrayList<>(taskClosureRepository.findDescendantIds(taskId));
+            subtreeIds.add(taskId);
+            for (List<Long> chunk : chunks(subtreeIds)) {
+                taskClosureRepository.deletePaths(ancestorIds, chunk);
+            }
+        }
+        if (newParentId != null) {
+            taskClosureRepository.attachSubtree(taskId, newParentId);
+        }
+
+        task.setParentId(newParentId);
+        Task updated = taskRepository.save(task);
+        taskHistoryService.record(List.of(new TaskHistory(null, taskId, currentUser.getId(), TaskHistoryField.PARENT,
+                Objects.toString(previousParentId, null), Objects.toString(newParentId, null), LocalDateTime.now())));
+        TaskResponse response = convertToDto(updated);
+        outboxService.taskChanged(DomainEventType.TASK_UPDATED, updated.getProject().getOwner().getId(), response);
+        return response;
+    }
+
+    /**
+     * Thay toàn bộ nhãn của task bằng các nhãn (cùng dự án) trong yêu cầu; bitmap nhãn được cập nhật tăng dần sau khi commit.
+     */
+    @Transactional
+    public TaskResponse setLabels(Long taskId, TaskLabelsRequest labelsRequest) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để cập nhật task.");
+        }
+        Task task = taskRepository.findById(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        boolean isAssignee = task.getAssignee() != null && task.getAssignee().getId().equals(currentUser.getId());
+        if (!canAccess(task, currentUser, ProjectRole.EDITOR) && !isAssignee) {
+            throw new UnauthorizedAccessException("Bạn không có quyền cập nhật task này. ID task: " + taskId);
+        }
+
+        Long projectId = task.getProject().getId();
+        Set<Long> requested = labelsRequest.getLabelIds().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<Label> labels = requested.isEmpty() ? List.of() : labelRepository.findAllById(requested);
+        if (labels.size() != requested.size() || labels.stream().anyMatch(label -> !label.getProjectId().equals(projectId))) {
+            throw new BadRequestException("Nhãn không tồn tại trong dự án của task. ID task: " + taskId);
+        }
+
+        Set<Long> current = new HashSet<>(taskLabelRepository.findLabelIdsByTaskId(taskId));
+        List<Long> removed = current.stream().filter(id -> !requested.contains(id)).toList();
+        List<Long> added = requested.stream().filter(id -> !current.contains(id)).toList();
+        TaskResponse response;
+        if (removed.isEmpty() && added.isEmpty()) {
+            response = convertToDto(task);
+        } else {
+            if (!removed.isEmpty()) {
+                taskLabelRepository.deleteByTaskIdAndLabelIdIn(taskId, removed);
+            }
+            taskLabelRepository.saveAll(added.stream().map(labelId -> new TaskLabel(taskId, labelId, projectId)).toList());
+            // Đổi updatedAt để client đồng bộ (sync) nhận được nhãn mới
+            task.setUpdatedAt(LocalDateTime.now());
+            Task updated = taskRepository.save(task);
+            labelIndexCache.taskLabelsChanged(projectId, taskId, removed, added);
+            response = convertToDto(updated);
+        }
+        // Index chỉ đổi sau khi commit nên lấy tên nhãn trực tiếp từ yêu cầu
+        response.setLabels(labels.stream().map(Label::getName).sorted().toList());
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            outboxService.taskChanged(DomainEventType.TASK_UPDATED, task.getProject().getOwner().getId(), response);
+        }
+        return response;
+    }
+
+    /**
+     * Task gốc và toàn bộ task con (tới maxDepth cấp) trong một truy vấn, sắp theo cấp rồi theo vị trí Kanban.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskResponse> getSubtreeForCurrentUser(Long taskId, int maxDepth) {
+        if (maxDepth < 1) {
+            throw new BadRequestException("maxDepth phải >= 1.");
+        }
+        TaskResponse root = getTaskByIdForCurrentUser(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        List<TaskResponse> subtree = new ArrayList<>();
+        subtree.add(root);
+        subtree.addAll(convertToDtos(taskRepository.findSubtree(taskId, maxDepth)));
+        return subtree;
+    }
+
+    /**
+     * Tiến độ cộng dồn của task và mọi task cha bên trong cây con của nó (task không có con bị bỏ qua).
+     */
+    @Transactional(readOnly = true)
+    public List<TaskProgressResponse> getProgressForCurrentUser(Long taskId) {
+        getTaskByIdForCurrentUser(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        return taskClosureRepository.rollUpProgress(taskId).stream()
+                .map(row -> new TaskProgressResponse(((Number) row[0]).longValue(),
+                        ((Number) row[1]).longValue(), ((Number) row[2]).longValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    // So sánh giá trị trước/sau của các trường cần lưu lịch sử
+    private List<TaskHistory> diff(Task task, User actor, TaskStatus previousStatus, String previousState, LocalDate previousDueDate,
+                                   Long previousProjectId, Long previousAssigneeId, TaskPriority previousPriority) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskHistory> changes = new ArrayList<>();
+        if (previousStatus != task.getStatus()) {
+            changes.add(new TaskHistory(null, task.getId(), actor.getId(), TaskHistoryField.STATUS,
+                    Objects.toString(previousStatus, null), Objects.toString(task.getStatus(), null), now));
+        }
+        // Quy trình mặc định thì tên trạng thái trùng status, không ghi thêm
+        if (task.getProject() != null && workflowService.workflowFor(task.getProject().getId()).isCustom()) {
+            String state = stateName(task.getProject().getId(), task.getWorkflowState(), task.getStatus());
+            if (!Objects.equals(previousState, state)) {
+                changes.add(new TaskHistory(null, task.getId(), actor.getId(), TaskHistoryField.STATE, previousState, state, now));
+            }
+        }
+        Long assigneeId = task.getAssignee() != null ? task.getAssignee().getId() : null;
+        if (!Objects.equals(previousAssigneeId, assigneeId)) {
+            changes.add(new TaskHistory(null, task.getId(), actor.getId(), TaskHistoryField.ASSIGNEE,
+                    Objects.toString(previousAssigneeId, null), Objects.toString(assigneeId, null), now));
+        }
+        Long projectId = task.getProject() != null ? task.getProject().getId() : null;
+        if (!Objects.equals(previousProjectId, projectId)) {
+            changes.add(new TaskHistory(null, task.getId(), actor.getId(), TaskHistoryField.PROJECT,
+                    Objects.toString(previousProjectId, null), Objects.toString(projectId, null), now));
+        }
+        if (!Objects.equals(previousDueDate, task.getDueDate())) {
+            changes.add(new TaskHistory(null, task.getId(), actor.getId(), TaskHistoryField.DUE_DATE,
+                    Objects.toString(previousDueDate, null), Objects.toString(task.getDueDate(), null), now));
+        }
+        if (previousPriority != priorityOf(task.getPriority())) {
+            changes.add(new TaskHistory(null, task.getId(), actor.getId(), TaskHistoryField.PRIORITY,
+                    previousPriority.name(), priorityOf(task.getPriority()).name(), now));
+        }
+        return changes;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TaskHistoryResponse> getTaskHistoryForCurrentUser(Long taskId, int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Tham số phân trang không hợp lệ (page >= 0, 1 <= size <= " + MAX_PAGE_SIZE + ").");
+        }
+        // Tái sử dụng kiểm tra quyền xem task (chủ dự án hoặc người được giao)
+        getTaskByIdForCurrentUser(taskId)
+            .orElseThrow(() -> new ResourceNotFoundException("Task không tồn tại với ID: " + taskId));
+        return taskHistoryRepository.findByTaskIdOrderByIdDesc(taskId, PageRequest.of(page, size))
+                .map(entry -> new TaskHistoryResponse(entry.getId(), entry.getTaskId(), entry.getActorId(), entry.getField(),
+                        entry.getOldValue(), entry.getNewValue(), entry.getChangedAt()));
+    }
+
+    // Ghi tombstone cho chủ dự án và người được giao để /api/sync báo xoá cho cả hai
+    private void recordDeletion(Task task) {
+        Long ownerId = task.getProject().getOwner().getId();
+        List<SyncTombstone> tombstones = new ArrayList<>();
+        tombstones.add(new SyncTombstone(SyncEntityType.TASK, task.getId(), ownerId));
+        if (task.getAssignee() != null && !task.getAssignee().getId().equals(ownerId)) {
+            tombstones.add(new SyncTombstone(SyncEntityType.TASK, task.getId(), task.getAssignee().getId()));
+        }
+        syncTombstoneRepository.saveAll(tombstones);
+    }
+
+    /**
+     * Các task mà người dùng nhìn thấy (thuộc dự án của họ hoặc được giao cho họ) đã thay đổi kể từ {@code since}.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskResponse> findTasksChangedSince(User user, LocalDateTime since) {
+        Map<Long, Task> changed = new LinkedHashMap<>();
+        List<Long> ownedProjectIds = projectRepository.findIdsByOwnerId(user.getId());
+        if (!ownedProjectIds.isEmpty()) {
+            taskRepository.findChangedInProjects(ownedProjectIds, since).forEach(task -> changed.put(task.getId(), task));
+        }
+        taskRepository.findChangedAssignedTo(user.getId(), since).forEach(task -> changed.putIfAbsent(task.getId(), task));
+        return convertToDtos(List.copyOf(changed.values()));
+    }
+
+    // Dự án và tên trạng thái của task trước khi chuyển sang shard khác (xem checkMoveToProject)
+    public record MovedFrom(Long projectId, String state) {
     }
 
     // Đã loại bỏ phương thức @PostConstruct initDefaultTasksForDevUser()
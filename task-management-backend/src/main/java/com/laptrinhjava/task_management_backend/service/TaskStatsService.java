@@ -0,0 +1,245 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.laptrinhjava.task_management_backend.config.ShardRouter;
+import com.laptrinhjava.task_management_backend.model.Task;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+/**
+ * Duy trì bảng tổng hợp task_daily_stats mà các API thống kê đọc (AnalyticsService).
+ *
+ * Số task hoàn thành, hoàn thành trễ hạn và tổng cycle time được cộng dồn theo ngày hoàn thành, trong cùng giao dịch
+ * với thay đổi trạng thái: mỗi lần task rời/vào DONE hoặc đổi người được giao, dự án thì phần đóng góp cũ bị trừ và
+ * phần mới được cộng (upsert tăng dần, không đọc lại bảng tasks). Xoá hay lưu trữ task không làm thay đổi số liệu đã ghi.
+ *
+ * Số task quá hạn chưa xong là ảnh chụp mỗi ngày một lần, nên không tính lại được cho những ngày đã qua.
+ */
+@Service
+public class TaskStatsService {
+
+    private static final String UPSERT_COMPLETIONS_SQL =
+            "INSERT INTO task_daily_stats (project_id, user_id, stat_date, completed_count, completed_late_count, cycle_time_seconds, overdue_open_count)"
+                    + " VALUES (?, ?, ?, ?, ?, ?, 0) ON DUPLICATE KEY UPDATE completed_count = completed_count + VALUES(completed_count),"
+                    + " completed_late_count = completed_late_count + VALUES(completed_late_count),"
+                    + " cycle_time_seconds = cycle_time_seconds + VALUES(cycle_time_seconds)";
+
+    private static final String UPSERT_OVERDUE_SQL =
+            "INSERT INTO task_daily_stats (project_id, user_id, stat_date, completed_count, completed_late_count, cycle_time_seconds, overdue_open_count)"
+                    + " VALUES (?, ?, ?, 0, 0, 0, ?) ON DUPLICATE KEY UPDATE overdue_open_count = VALUES(overdue_open_count)";
+
+    private static final String RESET_OVERDUE_SQL = "UPDATE task_daily_stats SET overdue_open_count = 0 WHERE stat_date = :today";
+
+    // Quét khoảng trên index due_date; người chưa được giao gộp vào user_id = 0
+    private static final String COUNT_OVERDUE_SQL =
+            "SELECT project_id, COALESCE(assignee_id, 0), COUNT(*) FROM tasks WHERE due_date < :today AND project_id IS NOT NULL"
+                    + " AND status NOT IN ('" + TaskStatus.DONE.name() + "', '" + TaskStatus.CANCELLED.name() + "')"
+                    + " GROUP BY project_id, COALESCE(assignee_id, 0)";
+
+    private static final String RESET_COMPLETIONS_SQL =
+            "UPDATE task_daily_stats SET completed_count = 0, completed_late_count = 0, cycle_time_seconds = 0";
+
+    private static final String DELETE_EMPTY_SQL =
+            "DELETE FROM task_daily_stats WHERE completed_count = 0 AND overdue_open_count = 0";
+
+    // Dòng cũ (trước khi có completed_at) lấy thời điểm đổi trạng thái gần nhất, không có thì updated_at
+    private static final String FILL_COMPLETED_AT_SQL =
+            "UPDATE %s SET completed_at = COALESCE(status_changed_at, updated_at) WHERE id IN (:ids) AND completed_at IS NULL";
+
+    private static final String SELECT_DONE_BATCH_SQL =
+            "SELECT id, project_id, assignee_id, created_at, due_date, COALESCE(completed_at, status_changed_at, updated_at) AS completed_at"
+                    + " FROM %s WHERE status = '" + TaskStatus.DONE.name() + "' AND id > :afterId ORDER BY id LIMIT :limit";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+
+    @Value("${app.analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.analytics.backfill-batch-size:1000}")
+    private int backfillBatchSize;
+
+    @Autowired
+    public TaskStatsService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ShardRouter shardRouter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Phần đóng góp của một task DONE vào bảng tổng hợp: một lần hoàn thành trong ngày {@code day}
+     * của cặp (dự án, người được giao; 0 = chưa giao).
+     */
+    public record Completion(long projectId, long userId, LocalDate day, boolean late, long cycleTimeSeconds) {
+
+        // null nếu task chưa xong (không đóng góp gì)
+        public static Completion of(Task task) {
+            return of(task.getProject() != null ? task.getProject().getId() : null,
+                    task.getAssignee() != null ? task.getAssignee().getId() : null,
+                    task.getStatus(), task.getCreatedAt(), task.getCompletedAt(), task.getDueDate());
+        }
+
+        public static Completion of(Long projectId, Long assigneeId, TaskStatus status, LocalDateTime createdAt,
+                                    LocalDateTime completedAt, LocalDate dueDate) {
+            if (status != TaskStatus.DONE || projectId == null || completedAt == null) {
+                return null;
+            }
+            LocalDate day = completedAt.toLocalDate();
+            long cycleTime = createdAt != null ? Math.max(0, Duration.between(createdAt, completedAt).getSeconds()) : 0;
+            return new Completion(projectId, assigneeId != null ? assigneeId : 0, day, dueDate != null && day.isAfter(dueDate), cycleTime);
+        }
+
+        public Completion withUser(Long userId) {
+            return new Completion(projectId, userId != null ? userId : 0, day, late, cycleTimeSeconds);
+        }
+
+        public Completion withProject(long projectId) {
+            return new Completion(projectId, userId, day, late, cycleTimeSeconds);
+        }
+    }
+
+    private record Key(long projectId, long userId, LocalDate day) {
+    }
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparingLong(Key::projectId)
+            .thenComparing(Key::day).thenComparingLong(Key::userId);
+
+    /** Thay phần đóng góp cũ bằng phần mới; phải gọi trong giao dịch đang ghi task (cùng shard). */
+    public void completionChanged(Completion before, Completion after) {
+        if (before == null ? after == null : before.equals(after)) {
+            return;
+        }
+        completionsChanged(before != null ? List.of(before) : List.of(), after != null ? List.of(after) : List.of());
+    }
+
+    public void completionsChanged(Collection<Completion> removed, Collection<Completion> added) {
+        // Gộp theo khoá rồi ghi theo thứ tự khoá cố định để các giao dịch đồng thời khoá dòng cùng một thứ tự
+        Map<Key, long[]> deltas = new TreeMap<>(KEY_ORDER);
+        accumulate(deltas, removed, -1);
+        accumulate(deltas, added, 1);
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0 && delta[2] == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> args.add(new Object[] {key.projectId(), key.userId(), Date.valueOf(key.day()),
+                delta[0], delta[1], delta[2]}));
+        jdbcTemplate.batchUpdate(UPSERT_COMPLETIONS_SQL, args);
+    }
+
+    private static void accumulate(Map<Key, long[]> deltas, Collection<Completion> completions, int sign) {
+        for (Completion completion : completions) {
+            if (completion == null) {
+                continue;
+            }
+            long[] delta = deltas.computeIfAbsent(new Key(completion.projectId(), completion.userId(), completion.day()), key -> new long[3]);
+            delta[0] += sign;
+            delta[1] += completion.late() ? sign : 0;
+            delta[2] += sign * completion.cycleTimeSeconds();
+        }
+    }
+
+    @Scheduled(cron = "${app.analytics.overdue-snapshot-cron:0 5 0 * * *}")
+    public void snapshotOverdueScheduled() {
+        if (enabled) {
+            snapshotOverdue(LocalDate.now());
+        }
+    }
+
+    /**
+     * Ghi số task quá hạn chưa xong của ngày {@code today} trên mọi shard. Chạy lại trong ngày sẽ ghi đè ảnh chụp cũ.
+     * @return tổng số task quá hạn
+     */
+    public long snapshotOverdue(LocalDate today) {
+        long[] total = new long[1];
+        shardRouter.forEachShard(() -> transactionTemplate.executeWithoutResult(status -> {
+            NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+            Map<String, Object> params = Map.of("today", Date.valueOf(today));
+            named.update(RESET_OVERDUE_SQL, params);
+            List<Object[]> args = named.query(COUNT_OVERDUE_SQL, params,
+                    (rs, rowNum) -> new Object[] {rs.getLong(1), rs.getLong(2), Date.valueOf(today), rs.getLong(3)});
+            jdbcTemplate.batchUpdate(UPSERT_OVERDUE_SQL, args);
+            args.forEach(row -> total[0] += (Long) row[3]);
+        }));
+        System.out.println("====== TaskStatsService: Ảnh chụp quá hạn ngày " + today + ": " + total[0] + " task ======");
+        return total[0];
+    }
+
+    /**
+     * Tính lại các cột completed_* từ task DONE (cả bảng lưu trữ) trên mọi shard, theo lô id tăng dần.
+     * Ảnh chụp quá hạn của các ngày đã qua được giữ nguyên. Nên chạy khi đã tạm dừng ghi (như khi cân bằng shard):
+     * task đổi trạng thái trong lúc chạy có thể bị đếm lệch.
+     * @return số task DONE đã được tính
+     */
+    public long rebuildCompletions() {
+        long[] total = new long[1];
+        shardRouter.forEachShard(() -> {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(RESET_COMPLETIONS_SQL));
+            for (String table : List.of("tasks", "tasks_archive")) {
+                total[0] += rebuildCompletions(table);
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(DELETE_EMPTY_SQL));
+        });
+        System.out.println("====== TaskStatsService: Đã tính lại thống kê hoàn thành từ " + total[0] + " task ======");
+        return total[0];
+    }
+
+    private long rebuildCompletions(String table) {
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        String selectSql = String.format(SELECT_DONE_BATCH_SQL, table);
+        String fillSql = String.format(FILL_COMPLETED_AT_SQL, table);
+        long[] afterId = {0};
+        long processed = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Long> ids = new ArrayList<>();
+                List<Completion> completions = new ArrayList<>();
+                named.query(selectSql, Map.of("afterId", afterId[0], "limit", backfillBatchSize), rs -> {
+                    ids.add(rs.getLong("id"));
+                    long assigneeId = rs.getLong("assignee_id");
+                    Long assignee = rs.wasNull() ? null : assigneeId;
+                    long projectId = rs.getLong("project_id");
+                    Long project = rs.wasNull() ? null : projectId;
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    Timestamp completedAt = rs.getTimestamp("completed_at");
+                    Date dueDate = rs.getDate("due_date");
+                    completions.add(Completion.of(project, assignee, TaskStatus.DONE,
+                            createdAt != null ? createdAt.toLocalDateTime() : null,
+                            completedAt != null ? completedAt.toLocalDateTime() : null,
+                            dueDate != null ? dueDate.toLocalDate() : null));
+                });
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                named.update(fillSql, Map.of("ids", ids));
+                completionsChanged(List.of(), completions);
+                afterId[0] = ids.get(ids.size() - 1);
+                return ids.size();
+            });
+            if (batch == null || batch == 0) {
+                return processed;
+            }
+            processed += batch;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Giữ k task có điểm cao nhất trong một luồng task đi qua (min-heap kích thước k trên hai mảng nguyên thủy).
+ *
+ * Gốc heap là task "tệ nhất" đang giữ; task mới chỉ vào heap khi tốt hơn gốc. Mỗi task tốn O(log k), bộ nhớ O(k)
+ * dù luồng có bao nhiêu task. Cùng điểm thì task có id nhỏ hơn (tạo trước) được ưu tiên để kết quả ổn định.
+ * Không an toàn luồng.
+ */
+final class TopScoredTasks {
+
+    private final double[] scores;
+    private final long[] ids;
+    private int size;
+
+    TopScoredTasks(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity phải >= 1");
+        }
+        this.scores = new double[capacity];
+        this.ids = new long[capacity];
+    }
+
+    void offer(long id, double score) {
+        if (size < scores.length) {
+            scores[size] = score;
+            ids[size] = id;
+            siftUp(size++);
+        } else if (worse(0, score, id)) {
+            scores[0] = score;
+            ids[0] = id;
+            siftDown(0);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Các task đang giữ, tốt nhất trước. Không làm thay đổi heap.
+     */
+    List<Scored> best() {
+        List<Scored> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Scored(ids[i], scores[i]));
+        }
+        result.sort((a, b) -> a.score() != b.score() ? Double.compare(b.score(), a.score()) : Long.compare(a.id(), b.id()));
+        return result;
+    }
+
+    // Phần tử ở vị trí i kém hơn (score, id)
+    private boolean worse(int i, double score, long id) {
+        return scores[i] < score || (scores[i] == score && ids[i] > id);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(i, scores[parent], ids[parent])) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && worse(right, scores[left], ids[left])) {
+                worst = right;
+            }
+            if (!worse(worst, scores[i], ids[i])) {
+                return;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+
+    record Scored(long id, double score) {
+    }
+}
@@ -0,0 +1,103 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.UserRepository;
+
+/**
+ * Tạo hoặc cập nhật bản ghi người dùng khi đăng nhập.
+ *
+ * Người dùng đã có: một truy vấn theo email; chỉ khi tên hoặc ảnh đại diện đổi mới chạy một câu UPDATE
+ * và sao chép sang các shard khác, nên đăng nhập lại thông thường không ghi gì.
+ * Người dùng mới: username được chọn bằng một truy vấn tiền tố ({@link UsernameAllocator}) và INSERT trong giao dịch riêng.
+ * Nếu vướng khoá unique (cùng email đăng nhập đồng thời, hoặc username vừa bị người khác lấy) thì đọc lại và thử lại.
+ */
+@Service
+public class UserProvisioningService {
+
+    private static final int MAX_INSERT_ATTEMPTS = 8;
+
+    private final UserRepository userRepository;
+    private final UsernameAllocator usernameAllocator;
+    private final ShardDirectory shardDirectory;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public UserProvisioningService(UserRepository userRepository, UsernameAllocator usernameAllocator,
+                                   ShardDirectory shardDirectory, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.usernameAllocator = usernameAllocator;
+        this.shardDirectory = shardDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Lỗi trùng khoá chỉ huỷ giao dịch của lần thử này, kể cả khi nơi gọi đang có giao dịch
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param preferredUsername username mong muốn (ví dụ 'sub' của Google), null thì lấy phần trước @ của email
+     * @param name tên hiển thị từ nhà cung cấp, để trống thì giữ tên cũ (hoặc dùng phần trước @ của email cho người mới)
+     */
+    public User upsert(String email, String name, String avatarUrl, String preferredUsername, String role) {
+        Optional<User> existing = userRepository.findByEmail(email);
+        if (existing.isPresent()) {
+            return updateIfChanged(existing.get(), name, avatarUrl);
+        }
+        String base = StringUtils.hasText(preferredUsername) ? preferredUsername : localPart(email);
+        for (int attempt = 1; ; attempt++) {
+            int currentAttempt = attempt;
+            try {
+                User created = transactionTemplate.execute(status -> {
+                    User user = new User();
+                    user.setEmail(email);
+                    user.setUsername(usernameAllocator.allocate(base, currentAttempt));
+                    user.setName(StringUtils.hasText(name) ? name : localPart(email));
+                    user.setAvatarUrl(avatarUrl);
+                    user.setRole(role);
+                    return userRepository.saveAndFlush(user);
+                });
+                // Ngoài giao dịch nên được sao chép ngay
+                shardDirectory.replicateUser(created);
+                return created;
+            } catch (DataIntegrityViolationException ex) {
+                Optional<User> concurrent = userRepository.findByEmail(email);
+                if (concurrent.isPresent()) {
+                    return updateIfChanged(concurrent.get(), name, avatarUrl);
+                }
+                if (attempt >= MAX_INSERT_ATTEMPTS) {
+                    throw ex;
+                }
+                System.out.println("====== UserProvisioningService: Username bị trùng khi tạo " + email + ", thử lại lần " + (attempt + 1) + " ======");
+            }
+        }
+    }
+
+    private User updateIfChanged(User user, String name, String avatarUrl) {
+        String newName = StringUtils.hasText(name) ? name : user.getName();
+        if (Objects.equals(newName, user.getName()) && Objects.equals(avatarUrl, user.getAvatarUrl())) {
+            return user;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> userRepository.updateProfile(user.getId(), newName, avatarUrl, now));
+        user.setName(newName);
+        user.setAvatarUrl(avatarUrl);
+        user.setUpdatedAt(now);
+        shardDirectory.replicateUser(user);
+        return user;
+    }
+
+    private static String localPart(String email) {
+        int at = email.indexOf('@');
+        return at > 0 ? email.substring(0, at) : email;
+    }
+}
@@ -23,6 +23,7 @@ import jakarta.annotation.PostConstruct;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserProvisioningService userProvisioningService;
 
     @Value("${default.user.email:}")
     private String defaultUserEmailForDev;
@@ -37,8 +38,9 @@ public class UserService {
     private String defaultUserRoleForDev;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserProvisioningService userProvisioningService) {
         this.userRepository = userRepository;
+        this.userProvisioningService = userProvisioningService;
     }
 
     private UserResponseDTO convertToDTO(User user) {
@@ -58,22 +60,8 @@ public class UserService {
     @Transactional
     protected void createDefaultUserForDevelopmentIfNeeded() {
         if (StringUtils.hasText(defaultUserEmailForDev) && userRepository.count() == 0) {
-            if (userRepository.findByEmail(defaultUserEmailForDev).isEmpty()) {
-                User devUser = new User();
-                String username = defaultUserEmailForDev.split("@")[0];
-                int count = 0;
-                String finalUsername = username;
-                while(userRepository.findByUsername(finalUsername).isPresent()) {
-                    count++;
-                    finalUsername = username + count;
-                }
-                devUser.setUsername(finalUsername);
-                devUser.setName(defaultUserNameForDev);
-                devUser.setEmail(defaultUserEmailForDev);
-                devUser.setAvatarUrl(defaultUserAvatarUrlForDev);
-                devUser.setRole(defaultUserRoleForDev);
-                userRepository.save(devUser);
-            }
+            userProvisioningService.upsert(defaultUserEmailForDev, defaultUserNameForDev, defaultUserAvatarUrlForDev,
+                    null, defaultUserRoleForDev);
         }
     }
 
@@ -0,0 +1,76 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chọn username chưa dùng cho người dùng mới: base, nếu trùng thì base1, base2, ...
+ *
+ * Một truy vấn LIKE tiền tố (dùng index unique của cột username) lấy mọi username bắt đầu bằng base,
+ * rồi chọn hậu tố nhỏ nhất còn trống trong bộ nhớ. Kết quả có thể bị request đồng thời chiếm mất trước khi INSERT,
+ * nên nơi gọi phải bắt lỗi trùng khoá và gọi lại (xem UserProvisioningService). Khi gọi lại, username được chọn ngẫu nhiên
+ * trong một khoảng các hậu tố còn trống, rộng dần theo số lần thử, để các request cùng tranh một base không đụng nhau mãi.
+ */
+@Component
+public class UsernameAllocator {
+
+    static final int MIN_LENGTH = 3;
+    static final int MAX_LENGTH = 50;
+    // Chừa chỗ cho hậu tố số để username không vượt quá MAX_LENGTH
+    static final int MAX_BASE_LENGTH = 40;
+
+    private static final String TAKEN_SQL = "SELECT username FROM app_user WHERE username LIKE ? ESCAPE '!'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UsernameAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param attempt lần thử (từ 1); lần đầu luôn lấy hậu tố nhỏ nhất còn trống
+     */
+    public String allocate(String base, int attempt) {
+        String normalized = normalize(base);
+        String pattern = normalized.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        int skip = attempt <= 1 ? 0 : ThreadLocalRandom.current().nextInt(1 << Math.min(2 * (attempt - 1), 16));
+        return freeCandidate(normalized, jdbcTemplate.queryForList(TAKEN_SQL, String.class, pattern), skip);
+    }
+
+    static String normalize(String base) {
+        String normalized = base != null ? base.trim() : "";
+        if (normalized.length() > MAX_BASE_LENGTH) {
+            normalized = normalized.substring(0, MAX_BASE_LENGTH);
+        }
+        if (normalized.length() < MIN_LENGTH) {
+            normalized = "user" + normalized;
+        }
+        return normalized;
+    }
+
+    // So sánh không phân biệt hoa thường như collation mặc định của MySQL; bỏ qua skip ứng viên còn trống đầu tiên
+    static String freeCandidate(String base, Collection<String> taken, int skip) {
+        Set<String> used = new HashSet<>(taken.size() * 2);
+        for (String username : taken) {
+            used.add(username.toLowerCase(Locale.ROOT));
+        }
+        String lowerBase = base.toLowerCase(Locale.ROOT);
+        int remaining = skip;
+        if (!used.contains(lowerBase) && remaining-- == 0) {
+            return base;
+        }
+        for (long suffix = 1; ; suffix++) {
+            if (!used.contains(lowerBase + suffix) && remaining-- == 0) {
+                return base + suffix;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache giá trị bất biến theo id (dự án, người dùng) cho các service tự nạp và tự cập nhật dữ liệu của mình.
+ *
+ * TTL chỉ để bắt kịp thay đổi từ các node khác. Mọi thay đổi tăng một số phiên bản chung; bản nạp xong mà phiên bản đã
+ * khác lúc bắt đầu nạp thì vẫn được trả về nhưng không được đưa vào cache. Khi đầy, mục nạp lâu nhất bị loại (quét O(n),
+ * chỉ xảy ra khi thêm mục mới vào cache đã đầy). Các phương thức thay đổi chạy ngay; service tự hoãn chúng tới sau commit.
+ */
+final class VersionedTtlCache<V> {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Long, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong modifications = new AtomicLong();
+
+    VersionedTtlCache(long ttlMs, int maxEntries) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxEntries = maxEntries;
+    }
+
+    V get(Long key, Function<Long, V> loader) {
+        Entry<V> cached = entries.get(key);
+        if (cached != null && System.nanoTime() - cached.loadedAt() < ttlNanos) {
+            return cached.value();
+        }
+        long version = modifications.get();
+        V value = loader.apply(key);
+        if (modifications.get() == version) {
+            if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+                evictOldest();
+            }
+            entries.put(key, new Entry<>(value, System.nanoTime()));
+        }
+        return value;
+    }
+
+    // Áp thay đổi lên bản đang cache (nếu có), giữ nguyên thời điểm nạp
+    void update(Long key, UnaryOperator<V> change) {
+        modifications.incrementAndGet();
+        entries.computeIfPresent(key, (id, entry) -> new Entry<>(change.apply(entry.value()), entry.loadedAt()));
+    }
+
+    void remove(Long key) {
+        modifications.incrementAndGet();
+        entries.remove(key);
+    }
+
+    void removeAll(Collection<Long> keys) {
+        modifications.incrementAndGet();
+        keys.forEach(entries::remove);
+    }
+
+    void clear() {
+        modifications.incrementAndGet();
+        entries.clear();
+    }
+
+    private void evictOldest() {
+        entries.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().loadedAt(), b.getValue().loadedAt()))
+                .ifPresent(oldest -> entries.remove(oldest.getKey(), oldest.getValue()));
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
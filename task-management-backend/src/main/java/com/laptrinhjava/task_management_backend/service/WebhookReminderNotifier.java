@@ -0,0 +1,70 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Gửi nhắc hạn tới một URL bằng POST JSON. Lỗi chỉ được ghi log (lần nhắc đã được đánh dấu là đã gửi).
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.reminders", name = "notifier", havingValue = "webhook")
+public class WebhookReminderNotifier implements ReminderNotifier {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI url;
+    private final Duration timeout;
+
+    @Autowired
+    public WebhookReminderNotifier(ObjectMapper objectMapper,
+                                   @Value("${app.reminders.webhook-url:}") String url,
+                                   @Value("${app.reminders.webhook-timeout-ms:5000}") long timeoutMs) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("Cần cấu hình app.reminders.webhook-url khi app.reminders.notifier=webhook");
+        }
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void notify(Reminder reminder) {
+        try {
+            String body = objectMapper.writeValueAsString(Map.of(
+                    "taskId", reminder.taskId(),
+                    "projectId", reminder.projectId(),
+                    "title", reminder.title(),
+                    "dueDate", reminder.dueDate().toString(),
+                    "recipientId", reminder.recipientId()));
+            HttpRequest request = HttpRequest.newBuilder(url)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                System.out.println("====== WebhookReminderNotifier: Webhook trả về " + response.statusCode() + " cho task " + reminder.taskId() + " ======");
+            }
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        } catch (IOException ex) {
+            System.out.println("====== WebhookReminderNotifier: Không gửi được nhắc cho task " + reminder.taskId() + ": " + ex.getMessage() + " ======");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.laptrinhjava.task_management_backend.dto.WorkflowStateDTO;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.model.ProjectWorkflowState;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+/**
+ * Bảng chuyển trạng thái của một dự án: các mảng đánh chỉ số theo stateId (0..63), mỗi trạng thái một bitmask
+ * các trạng thái đích được phép, nên kiểm tra một lần chuyển chỉ là một phép dịch bit. Bất biến, đọc đồng thời không cần khoá.
+ *
+ * Mỗi trạng thái thuộc một nhóm TaskStatus và mỗi nhóm có ít nhất một trạng thái, nên client chỉ biết TaskStatus
+ * vẫn dùng được: đổi status nghĩa là sang trạng thái đầu tiên (theo thứ tự hiển thị) của nhóm đó mà quy trình cho phép.
+ */
+final class Workflow {
+
+    static final int MAX_STATES = Long.SIZE;
+
+    private static final TaskStatus[] CATEGORIES = TaskStatus.values();
+
+    // Quy trình mặc định: mỗi TaskStatus một trạng thái (stateId = ordinal), chuyển tự do như trước khi có quy trình
+    static final Workflow DEFAULT = defaultWorkflow();
+
+    private final boolean custom;
+    private final String[] names;
+    private final TaskStatus[] categories;
+    private final long[] transitions;
+    // stateId theo thứ tự hiển thị
+    private final int[] order;
+    // Trạng thái mặc định của từng nhóm, đánh chỉ số theo TaskStatus.ordinal()
+    private final int[] defaults;
+    private final Map<String, Integer> byName;
+
+    private Workflow(boolean custom, String[] names, TaskStatus[] categories, long[] transitions, int[] order) {
+        this.custom = custom;
+        this.names = names;
+        this.categories = categories;
+        this.transitions = transitions;
+        this.order = order;
+        this.defaults = new int[CATEGORIES.length];
+        Arrays.fill(defaults, -1);
+        this.byName = new HashMap<>();
+        for (int id : order) {
+            if (defaults[categories[id].ordinal()] < 0) {
+                defaults[categories[id].ordinal()] = id;
+            }
+            byName.put(key(names[id]), id);
+        }
+    }
+
+    private static Workflow defaultWorkflow() {
+        String[] names = new String[MAX_STATES];
+        TaskStatus[] categories = new TaskStatus[MAX_STATES];
+        long[] transitions = new long[MAX_STATES];
+        int[] order = new int[CATEGORIES.length];
+        long all = (1L << CATEGORIES.length) - 1;
+        for (TaskStatus status : CATEGORIES) {
+            names[status.ordinal()] = status.name();
+            categories[status.ordinal()] = status;
+            transitions[status.ordinal()] = all;
+            order[status.ordinal()] = status.ordinal();
+        }
+        return new Workflow(false, names, categories, transitions, order);
+    }
+
+    // Từ các dòng project_workflow_states đã sắp theo position; không có dòng nào thì là quy trình mặc định
+    static Workflow of(List<ProjectWorkflowState> rows) {
+        if (rows.isEmpty()) {
+            return DEFAULT;
+        }
+        String[] names = new String[MAX_STATES];
+        TaskStatus[] categories = new TaskStatus[MAX_STATES];
+        long[] transitions = new long[MAX_STATES];
+        int[] order = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ProjectWorkflowState row = rows.get(i);
+            int id = row.getStateId();
+            names[id] = row.getName();
+            categories[id] = row.getCategory();
+            transitions[id] = row.getTransitions();
+            order[i] = id;
+        }
+        return new Workflow(true, names, categories, transitions, order);
+    }
+
+    /**
+     * Quy trình mới theo định nghĩa của client. Trạng thái trùng tên và nhóm với quy trình hiện tại giữ nguyên stateId
+     * (task đang ở đó không bị ảnh hưởng); trạng thái mới nhận stateId chưa dùng.
+     */
+    static Workflow define(Workflow current, List<WorkflowStateDTO> states) {
+        if (states.isEmpty() || states.size() > MAX_STATES) {
+            throw new BadRequestException("Quy trình phải có từ 1 đến " + MAX_STATES + " trạng thái.");
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        boolean[] covered = new boolean[CATEGORIES.length];
+        for (int i = 0; i < states.size(); i++) {
+            WorkflowStateDTO state = states.get(i);
+            if (state.getName() == null || state.getName().isBlank() || state.getCategory() == null) {
+                throw new BadRequestException("Mỗi trạng thái cần có tên và nhóm (category).");
+            }
+            if (positions.put(key(state.getName()), i) != null) {
+                throw new BadRequestException("Tên trạng thái bị trùng: " + state.getName().trim());
+            }
+            covered[state.getCategory().ordinal()] = true;
+        }
+        for (TaskStatus status : CATEGORIES) {
+            if (!covered[status.ordinal()]) {
+                throw new BadRequestException("Quy trình cần ít nhất một trạng thái thuộc nhóm " + status.name() + ".");
+            }
+        }
+
+        int[] ids = new int[states.size()];
+        long used = 0;
+        for (int i = 0; i < states.size(); i++) {
+            Integer existing = current.byName.get(key(states.get(i).getName()));
+            ids[i] = existing != null && current.categories[existing] == states.get(i).getCategory() ? existing : -1;
+            if (ids[i] >= 0) {
+                used |= 1L << ids[i];
+            }
+        }
+        // Ưu tiên stateId chưa từng có trong quy trình hiện tại, hết mới dùng lại id của trạng thái bị bỏ
+        long taken = used | current.idMask();
+        for (int i = 0; i < states.size(); i++) {
+            if (ids[i] < 0) {
+                long free = ~taken != 0 ? ~taken : ~used;
+                ids[i] = Long.numberOfTrailingZeros(free);
+                used |= 1L << ids[i];
+                taken |= 1L << ids[i];
+            }
+        }
+
+        String[] names = new String[MAX_STATES];
+        TaskStatus[] categories = new TaskStatus[MAX_STATES];
+        long[] transitions = new long[MAX_STATES];
+        for (int i = 0; i < states.size(); i++) {
+            WorkflowStateDTO state = states.get(i);
+            long mask = 0;
+            if (state.getTransitions() != null) {
+                for (String target : state.getTransitions()) {
+                    Integer position = target != null ? positions.get(key(target)) : null;
+                    if (position == null) {
+                        throw new BadRequestException("Trạng thái '" + state.getName().trim() + "' chuyển tới trạng thái không tồn tại: " + target);
+                    }
+                    mask |= 1L << ids[position];
+                }
+            }
+            names[ids[i]] = state.getName().trim();
+            categories[ids[i]] = state.getCategory();
+            transitions[ids[i]] = mask;
+        }
+        return new Workflow(true, names, categories, transitions, ids);
+    }
+
+    boolean isCustom() {
+        return custom;
+    }
+
+    /**
+     * Trạng thái hiện tại của task: stateId đã lưu nếu còn tồn tại và cùng nhóm với status,
+     * ngược lại (null, quy trình đã đổi, task chuyển dự án...) là trạng thái mặc định của nhóm status.
+     */
+    int stateOf(Short stored, TaskStatus status) {
+        if (stored != null && stored >= 0 && stored < MAX_STATES && categories[stored] == status) {
+            return stored;
+        }
+        return defaults[status.ordinal()];
+    }
+
+    boolean allows(int from, int to) {
+        return from == to || (transitions[from] >>> to & 1L) != 0;
+    }
+
+    /**
+     * Trạng thái đích khi task đang ở from được yêu cầu sang state (theo tên) hoặc status (theo nhóm).
+     * Chỉ gửi status: giữ nguyên nếu đã cùng nhóm, nếu không thì trạng thái đầu tiên của nhóm được phép chuyển tới.
+     */
+    int transition(int from, TaskStatus status, String state) {
+        if (state != null) {
+            int to = named(state, status);
+            if (!allows(from, to)) {
+                throw new BadRequestException("Quy trình của dự án không cho phép chuyển từ '" + names[from] + "' sang '" + names[to] + "'.");
+            }
+            return to;
+        }
+        int to = next(from, status);
+        if (to < 0) {
+            throw new BadRequestException("Quy trình của dự án không cho phép chuyển từ '" + names[from] + "' sang nhóm " + status.name() + ".");
+        }
+        return to;
+    }
+
+    // Như transition khi chỉ có status, trả về -1 nếu không có trạng thái nào của nhóm được phép chuyển tới
+    int next(int from, TaskStatus status) {
+        if (categories[from] == status) {
+            return from;
+        }
+        for (int to : order) {
+            if (categories[to] == status && allows(from, to)) {
+                return to;
+            }
+        }
+        return -1;
+    }
+
+    // Trạng thái khi task mới vào dự án (tạo mới hoặc chuyển từ dự án khác): không kiểm tra chuyển trạng thái
+    int initial(TaskStatus status, String state) {
+        return state != null ? named(state, status) : defaults[status.ordinal()];
+    }
+
+    private int named(String state, TaskStatus status) {
+        Integer id = byName.get(key(state));
+        if (id == null) {
+            throw new BadRequestException("Trạng thái không tồn tại trong quy trình của dự án: " + state);
+        }
+        if (status != null && categories[id] != status) {
+            throw new BadRequestException("Trạng thái '" + names[id] + "' thuộc nhóm " + categories[id].name() + ", không khớp status " + status.name() + ".");
+        }
+        return id;
+    }
+
+    String name(int id) {
+        return names[id];
+    }
+
+    TaskStatus category(int id) {
+        return categories[id];
+    }
+
+    // stateId của quy trình này mà quy trình next không còn giữ (khác tên hoặc khác nhóm)
+    List<Short> removedIn(Workflow next) {
+        List<Short> removed = new ArrayList<>();
+        for (int id : order) {
+            if (next.names[id] == null || !key(next.names[id]).equals(key(names[id])) || next.categories[id] != categories[id]) {
+                removed.add((short) id);
+            }
+        }
+        return removed;
+    }
+
+    List<ProjectWorkflowState> toRows(Long projectId) {
+        List<ProjectWorkflowState> rows = new ArrayList<>(order.length);
+        for (int i = 0; i < order.length; i++) {
+            int id = order[i];
+            rows.add(new ProjectWorkflowState(projectId, (short) id, names[id], categories[id], transitions[id], i));
+        }
+        return rows;
+    }
+
+    List<WorkflowStateDTO> toStates() {
+        List<WorkflowStateDTO> states = new ArrayList<>(order.length);
+        for (int id : order) {
+            List<String> targets = new ArrayList<>();
+            for (int to : order) {
+                if (to != id && allows(id, to)) {
+                    targets.add(names[to]);
+                }
+            }
+            states.add(new WorkflowStateDTO(names[id], categories[id], targets));
+        }
+        return states;
+    }
+
+    private long idMask() {
+        long mask = 0;
+        for (int id : order) {
+            mask |= 1L << id;
+        }
+        return mask;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,126 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static com.laptrinhjava.task_management_backend.util.TransactionCallbacks.afterCommit;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.laptrinhjava.task_management_backend.dto.WorkflowRequest;
+import com.laptrinhjava.task_management_backend.dto.WorkflowResponse;
+import com.laptrinhjava.task_management_backend.exception.ResourceNotFoundException;
+import com.laptrinhjava.task_management_backend.exception.UnauthorizedAccessException;
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.ArchivedTaskRepository;
+import com.laptrinhjava.task_management_backend.repository.ProjectWorkflowStateRepository;
+import com.laptrinhjava.task_management_backend.repository.TaskRepository;
+
+/**
+ * Quy trình (workflow) riêng của từng dự án, cache trong bộ nhớ dưới dạng {@link Workflow} để TaskService kiểm tra
+ * mỗi lần đổi trạng thái mà không truy vấn thêm. Dự án chưa định nghĩa quy trình cũng được cache (quy trình mặc định).
+ *
+ * Sửa quy trình trên node này làm mới cache sau khi giao dịch commit; TTL chỉ để bắt kịp thay đổi từ các node khác.
+ */
+@Service
+public class WorkflowService {
+
+    private final ProjectWorkflowStateRepository workflowStateRepository;
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final UserService userService;
+    private final ProjectAccessService projectAccessService;
+    private final VersionedTtlCache<Workflow> cache;
+
+    @Autowired
+    public WorkflowService(ProjectWorkflowStateRepository workflowStateRepository, TaskRepository taskRepository,
+                           ArchivedTaskRepository archivedTaskRepository, UserService userService,
+                           ProjectAccessService projectAccessService,
+                           @Value("${app.workflows.cache-ttl-ms:300000}") long ttlMs,
+                           @Value("${app.workflows.max-cached-projects:10000}") int maxCachedProjects) {
+        this.workflowStateRepository = workflowStateRepository;
+        this.taskRepository = taskRepository;
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.userService = userService;
+        this.projectAccessService = projectAccessService;
+        this.cache = new VersionedTtlCache<>(ttlMs, maxCachedProjects);
+    }
+
+    @Transactional(readOnly = true)
+    public WorkflowResponse getWorkflow(Long projectId) {
+        requireRole(projectId, ProjectRole.VIEWER);
+        return toResponse(projectId, workflowFor(projectId));
+    }
+
+    /**
+     * Thay toàn bộ quy trình. Trạng thái giữ nguyên tên và nhóm thì task đang ở đó không đổi;
+     * task ở trạng thái bị bỏ quay về trạng thái mặc định của nhóm (status của task không đổi).
+     */
+    @Transactional
+    public WorkflowResponse updateWorkflow(Long projectId, WorkflowRequest request) {
+        requireRole(projectId, ProjectRole.ADMIN);
+        Workflow current = load(projectId);
+        Workflow next = Workflow.define(current, request.getStates());
+        replace(projectId, current, next);
+        return toResponse(projectId, next);
+    }
+
+    // Quay về quy trình mặc định
+    @Transactional
+    public void resetWorkflow(Long projectId) {
+        requireRole(projectId, ProjectRole.ADMIN);
+        replace(projectId, load(projectId), Workflow.DEFAULT);
+    }
+
+    private void replace(Long projectId, Workflow current, Workflow next) {
+        List<Short> removed = current.removedIn(next);
+        workflowStateRepository.deleteByProjectId(projectId);
+        workflowStateRepository.flush();
+        if (next.isCustom()) {
+            workflowStateRepository.saveAll(next.toRows(projectId));
+        }
+        if (!removed.isEmpty()) {
+            taskRepository.clearWorkflowStates(projectId, removed);
+            archivedTaskRepository.clearWorkflowStates(projectId, removed);
+        }
+        evict(projectId);
+    }
+
+    /**
+     * Quy trình hiện tại của dự án; gọi trong giao dịch trên shard của dự án (như DependencyGraphCache).
+     */
+    Workflow workflowFor(Long projectId) {
+        return cache.get(projectId, this::load);
+    }
+
+    private Workflow load(Long projectId) {
+        return Workflow.of(workflowStateRepository.findByProjectIdOrderByPosition(projectId));
+    }
+
+    // Bỏ quy trình của dự án khỏi cache sau khi giao dịch hiện tại commit (sửa quy trình, xoá dự án)
+    public void evict(Long projectId) {
+        afterCommit(() -> cache.remove(projectId));
+    }
+
+    private static WorkflowResponse toResponse(Long projectId, Workflow workflow) {
+        return new WorkflowResponse(projectId, workflow.isCustom(), workflow.toStates());
+    }
+
+    // Không có quyền xem thì coi như dự án không tồn tại; có quyền xem nhưng thiếu quyền thì báo không đủ quyền
+    private void requireRole(Long projectId, ProjectRole required) {
+        User currentUser = userService.getCurrentAuthenticatedUserEntity();
+        if (currentUser == null) {
+            throw new UnauthorizedAccessException("Người dùng chưa được xác thực để quản lý quy trình dự án.");
+        }
+        ProjectRole role = projectAccessService.roleOf(currentUser.getId(), projectId);
+        if (role == null) {
+            throw new ResourceNotFoundException("Dự án không tồn tại hoặc bạn không có quyền truy cập. ID: " + projectId);
+        }
+        if (!role.includes(required)) {
+            throw new UnauthorizedAccessException("Bạn không có quyền sửa quy trình của dự án này. ID dự án: " + projectId);
+        }
+    }
+}
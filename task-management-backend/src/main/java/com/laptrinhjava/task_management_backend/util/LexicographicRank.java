@@ -0,0 +1,134 @@
+package com.laptrinhjava.task_management_backend.util;
+
+/**
+ * Thứ hạng dạng chuỗi cơ số 36 ('0'-'9', 'a'-'z') so sánh theo thứ tự từ điển, coi như phần thập phân 0.xxx.
+ * Luôn tìm được một chuỗi nằm giữa hai chuỗi bất kỳ nên di chuyển một task chỉ cần ghi lại đúng một dòng.
+ * Chuỗi sinh ra không bao giờ kết thúc bằng '0' (nếu không sẽ không có chuỗi nào nằm giữa "a" và "a0").
+ */
+public final class LexicographicRank {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    // Thêm vào đầu/cuối cột bằng cách cộng/trừ một bước cố định ở độ dài WIDTH ký tự,
+    // nhờ vậy việc liên tục thêm vào cuối không làm chuỗi dài ra như khi chia đôi khoảng
+    private static final int WIDTH = 6;
+    private static final long STEP = (long) BASE * BASE;
+
+    private LexicographicRank() {
+    }
+
+    public static String initial() {
+        return String.valueOf(DIGITS.charAt(BASE / 2));
+    }
+
+    /**
+     * Thứ hạng đứng sau {@code lower} (null: cột rỗng).
+     */
+    public static String after(String lower) {
+        if (lower == null) {
+            return initial();
+        }
+        long value = prefixValue(lower, WIDTH) + STEP;
+        if (value < pow(WIDTH)) {
+            return encode(value, WIDTH);
+        }
+        return between(lower, null);
+    }
+
+    /**
+     * Thứ hạng đứng trước {@code upper} (null: cột rỗng).
+     */
+    public static String before(String upper) {
+        if (upper == null) {
+            return initial();
+        }
+        long value = prefixValue(upper, WIDTH) - STEP;
+        if (value > 0) {
+            return encode(value, WIDTH);
+        }
+        return between(null, upper);
+    }
+
+    /**
+     * Chuỗi nằm giữa {@code lower} và {@code upper} (null lần lượt là cận dưới/cận trên vô hạn).
+     * @throws IllegalArgumentException nếu lower không nhỏ hơn upper
+     */
+    public static String between(String lower, String upper) {
+        String a = lower == null ? "" : lower;
+        if (upper != null && a.compareTo(upper) >= 0) {
+            throw new IllegalArgumentException("Thứ hạng không hợp lệ: " + lower + " >= " + upper);
+        }
+        StringBuilder result = new StringBuilder();
+        int n = 0;
+        while (true) {
+            int low = n < a.length() ? digit(a.charAt(n)) : 0;
+            int high = upper != null && n < upper.length() ? digit(upper.charAt(n)) : BASE;
+            if (low == high) {
+                result.append(DIGITS.charAt(low));
+                n++;
+                continue;
+            }
+            if (high - low > 1) {
+                return result.append(DIGITS.charAt((low + high) / 2)).toString();
+            }
+            // Hai chữ số liền nhau: giữ chữ số dưới rồi tìm điểm giữa của phần còn lại và cận trên vô hạn
+            result.append(DIGITS.charAt(low));
+            return result.append(between(n + 1 < a.length() ? a.substring(n + 1) : null, null)).toString();
+        }
+    }
+
+    /**
+     * {@code count} thứ hạng cách đều nhau, tăng dần, dùng khi cân bằng lại cả một cột.
+     */
+    public static String[] evenlySpaced(int count) {
+        int width = WIDTH;
+        while (pow(width) / (count + 1) < STEP && width < 12) {
+            width++;
+        }
+        long gap = pow(width) / (count + 1);
+        String[] ranks = new String[count];
+        for (int i = 0; i < count; i++) {
+            ranks[i] = encode(gap * (i + 1), width);
+        }
+        return ranks;
+    }
+
+    private static long prefixValue(String rank, int width) {
+        long value = 0;
+        for (int i = 0; i < width; i++) {
+            value = value * BASE + (i < rank.length() ? digit(rank.charAt(i)) : 0);
+        }
+        return value;
+    }
+
+    // Bỏ các số 0 ở cuối: giá trị không đổi và thứ tự từ điển vẫn đúng
+    private static String encode(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        int length = width;
+        while (length > 1 && chars[length - 1] == '0') {
+            length--;
+        }
+        return new String(chars, 0, length);
+    }
+
+    private static int digit(char c) {
+        int digit = DIGITS.indexOf(c);
+        if (digit < 0) {
+            throw new IllegalArgumentException("Ký tự không hợp lệ trong thứ hạng: " + c);
+        }
+        return digit;
+    }
+
+    private static long pow(int width) {
+        long value = 1;
+        for (int i = 0; i < width; i++) {
+            value *= BASE;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,43 @@
+package com.laptrinhjava.task_management_backend.util;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+/**
+ * Đọc danh tính người dùng hiện tại từ SecurityContext mà không cần truy vấn DB.
+ * Dùng cho các thành phần hạ tầng (định tuyến DataSource, giới hạn tần suất...) cần một khoá theo người dùng.
+ */
+public final class SecurityUtils {
+
+    private SecurityUtils() {
+    }
+
+    /**
+     * @return email của người dùng đã xác thực (cùng khoá mà UserService dùng để tra cứu User),
+     *         hoặc tên principal nếu không có email; null nếu chưa xác thực.
+     */
+    public static String currentUserKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        switch (authentication.getPrincipal()) {
+            case OidcUser oidcUser -> {
+                if (oidcUser.getEmail() != null) {
+                    return oidcUser.getEmail();
+                }
+            }
+            case OAuth2User oauth2User -> {
+                String email = oauth2User.getAttribute("email");
+                if (email != null) {
+                    return email;
+                }
+            }
+            default -> {
+            }
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,27 @@
+package com.laptrinhjava.task_management_backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hoãn thay đổi trạng thái trong bộ nhớ (cache, hàng đợi) tới khi giao dịch hiện tại commit, để giao dịch bị rollback
+ * không để lại dấu vết. Ngoài giao dịch thì chạy ngay.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hai cơ sở dữ liệu H2 in-memory đóng vai primary và replica; mỗi bên có một bảng "node" ghi tên của chính nó.
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = embeddedDatabase("primary");
+        replica = embeddedDatabase("replica");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, new ReadYourWritesTracker(60_000), 1);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        loginAs("alice@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readWriteTransactionsGoToPrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readsAfterOwnWriteStayOnPrimaryWithinWindow() {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET touched = touched + 1"));
+
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        loginAs("bob@example.com");
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    @Test
+    void unhealthyReplicaFailsOverToPrimary() {
+        replica.setUrl("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        routingDataSource.checkReplicaHealth();
+        assertFalse(routingDataSource.isReplicaHealthy("replica-0"));
+        assertEquals("primary", readOnly.execute(status -> currentNode()));
+
+        replica.setUrl(urlOf("replica"));
+        routingDataSource.checkReplicaHealth();
+        assertTrue(routingDataSource.isReplicaHealthy("replica-0"));
+        assertEquals("replica", readOnly.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private final String suffix = UUID.randomUUID().toString();
+
+    private String urlOf(String name) {
+        return "jdbc:h2:mem:" + name + "-" + suffix + ";DB_CLOSE_DELAY=-1";
+    }
+
+    private DriverManagerDataSource embeddedDatabase(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(urlOf(name), "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE node (name VARCHAR(20), touched INT)");
+        template.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+
+    private static void loginAs(String email) {
+        DefaultOAuth2User principal = new DefaultOAuth2User(List.of(), Map.of("email", email, "sub", email), "sub");
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(principal, null, "ROLE_USER");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
@@ -0,0 +1,230 @@
+package com.laptrinhjava.task_management_backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oidcLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.UserRepository;
+import com.laptrinhjava.task_management_backend.service.ShardDirectory;
+import com.laptrinhjava.task_management_backend.service.ShardRebalancer;
+
+/**
+ * Hai cơ sở dữ liệu H2 in-memory đóng vai shard 0 và shard 1.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:shard0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.security.oauth2.client.registration.google.client-id=test",
+    "spring.security.oauth2.client.registration.google.client-secret=test",
+    "default.user.email=",
+    "app.task-history.flush-mode=sync",
+    "app.sharding.directory-cache-ttl-ms=100",
+    "app.sharding.move-drain-ms=1000",
+    "app.sharding.enabled=true",
+    "app.sharding.shards[0].url=jdbc:h2:mem:shard1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "app.sharding.shards[0].username=sa",
+    "app.sharding.shards[0].password=",
+    "app.sharding.shards[0].driver-class-name=org.h2.Driver"
+})
+@AutoConfigureMockMvc
+class ShardingIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    @Qualifier("shardIdentityAligner")
+    private SmartInitializingSingleton shardIdentityAligner;
+
+    @Test
+    void ownersDataLivesOnTheirShardAndCanBeMoved() throws Exception {
+        User alice = createUser("alice");
+        User bob = createUser("bob");
+        assertEquals(0, shardDirectory.placementFor(alice.getEmail()).shard());
+        assertEquals(1, shardDirectory.placementFor(bob.getEmail()).shard());
+
+        // Dữ liệu của bob nằm trên shard 1 với id do shard 1 cấp
+        long bobProject = id(call(bob, post("/api/projects").content("{\"name\":\"Bob\"}")));
+        long bobTask = id(call(bob, post("/api/tasks").content("{\"title\":\"B1\",\"status\":\"TODO\",\"projectId\":" + bobProject + "}")));
+        assertEquals(1, shardRouter.originShardOf(bobProject));
+        assertEquals(1, shardRouter.originShardOf(bobTask));
+        assertEquals(1, countOn(1, "SELECT COUNT(*) FROM projects WHERE owner_id = ?", bob.getId()));
+        assertEquals(0, countOn(0, "SELECT COUNT(*) FROM projects WHERE owner_id = ?", bob.getId()));
+
+        // alice (shard 0) giao một task cho bob: bob thấy cả hai task và mở được task nằm ở shard khác
+        long aliceProject = id(call(alice, post("/api/projects").content("{\"name\":\"Alice\"}")));
+        long aliceTask = id(call(alice, post("/api/tasks").content("{\"title\":\"A1\",\"status\":\"TODO\",\"projectId\":" + aliceProject
+                + ",\"assigneeId\":" + bob.getId() + "}")));
+        assertEquals(0, shardRouter.originShardOf(aliceTask));
+        mockMvc.perform(as(bob, get("/api/tasks/assigned")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(as(bob, get("/api/tasks/" + aliceTask)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("A1"));
+        mockMvc.perform(as(alice, get("/api/projects")))
+                .andExpect(jsonPath("$.length()").value(1));
+
+        // Chuyển bob sang shard 0: id giữ nguyên, shard 1 không còn dữ liệu của bob
+        shardRebalancer.moveOwner(bob.getId(), 0);
+        assertEquals(0, countOn(1, "SELECT COUNT(*) FROM projects WHERE owner_id = ?", bob.getId()));
+        assertEquals(0, countOn(1, "SELECT COUNT(*) FROM tasks WHERE id = ?", bobTask));
+        assertEquals(0, shardDirectory.placementFor(bob.getEmail()).shard());
+        mockMvc.perform(as(bob, get("/api/tasks/" + bobTask)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projectId").value(bobProject));
+    }
+
+    @Test
+    void membersWriteIntoProjectsSharedFromAnotherShard() throws Exception {
+        // H2 (MODE=MySQL) dời bộ đếm identity khi chèn id tường minh như moveOwner ở test khác; căn lại như lúc khởi động
+        shardIdentityAligner.afterSingletonsInstantiated();
+        User carol = createUser("carol");
+        User dave = createUser("dave");
+        shardDirectory.placementFor(carol.getEmail());
+        shardDirectory.placementFor(dave.getEmail());
+        shardRebalancer.moveOwner(carol.getId(), 0);
+        shardRebalancer.moveOwner(dave.getId(), 1);
+
+        // carol (shard 0) chia sẻ dự án cho dave (shard 1) với quyền EDITOR
+        long shared = id(call(carol, post("/api/projects").content("{\"name\":\"Shared\"}")));
+        mockMvc.perform(as(carol, put("/api/projects/" + shared + "/members/" + dave.getId()).content("{\"role\":\"EDITOR\"}")))
+                .andExpect(status().isOk());
+
+        // projectId chỉ có trong body nhưng task vẫn được ghi vào shard của dự án
+        long created = id(call(dave, post("/api/tasks").content("{\"title\":\"D1\",\"status\":\"TODO\",\"projectId\":" + shared + "}")));
+        assertEquals(1, countOn(0, "SELECT COUNT(*) FROM tasks WHERE id = ? AND project_id = ?", created, shared));
+
+        // Chuyển task của dự án riêng (shard 1) vào dự án được chia sẻ: task và lịch sử sang shard 0, id giữ nguyên
+        long own = id(call(dave, post("/api/projects").content("{\"name\":\"Own\"}")));
+        long moved = id(call(dave, post("/api/tasks").content("{\"title\":\"D2\",\"status\":\"TODO\",\"projectId\":" + own + "}")));
+        mockMvc.perform(as(dave, put("/api/tasks/" + moved).content("{\"title\":\"D2\",\"status\":\"IN_PROGRESS\",\"projectId\":" + shared + "}")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.projectId").value(shared))
+                .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+        assertEquals(0, countOn(1, "SELECT COUNT(*) FROM tasks WHERE id = ?", moved));
+        assertEquals(1, countOn(0, "SELECT COUNT(*) FROM tasks WHERE id = ? AND project_id = ?", moved, shared));
+        assertEquals(1, countOn(0, "SELECT COUNT(*) FROM task_history WHERE task_id = ? AND field = 'PROJECT'", moved));
+        mockMvc.perform(as(carol, get("/api/projects/" + shared + "/tasks")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void membersCannotWriteWhileTheOwnerIsMoving() throws Exception {
+        shardIdentityAligner.afterSingletonsInstantiated();
+        User erin = createUser("erin");
+        User frank = createUser("frank");
+        shardDirectory.placementFor(erin.getEmail());
+        shardDirectory.placementFor(frank.getEmail());
+        shardRebalancer.moveOwner(erin.getId(), 0);
+        shardRebalancer.moveOwner(frank.getId(), 0);
+
+        long project = id(call(erin, post("/api/projects").content("{\"name\":\"Moving\"}")));
+        mockMvc.perform(as(erin, put("/api/projects/" + project + "/members/" + frank.getId()).content("{\"role\":\"EDITOR\"}")))
+                .andExpect(status().isOk());
+        long task = id(call(erin, post("/api/tasks").content("{\"title\":\"E1\",\"status\":\"TODO\",\"projectId\":" + project + "}")));
+
+        CompletableFuture<Integer> move = CompletableFuture.supplyAsync(() -> shardRebalancer.moveOwner(erin.getId(), 1));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!shardDirectory.isMigrating(erin.getId())) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        assertEquals(List.of(erin.getId()), shardDirectory.migratingOwners());
+
+        // frank không đang chuyển và cùng ở shard nguồn: ghi theo id task lẫn theo projectId trong body đều bị chặn
+        String update = "{\"title\":\"F1\",\"status\":\"IN_PROGRESS\",\"projectId\":" + project + "}";
+        mockMvc.perform(as(frank, put("/api/tasks/" + task).content(update)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+        mockMvc.perform(as(frank, post("/api/tasks").content("{\"title\":\"F2\",\"status\":\"TODO\",\"projectId\":" + project + "}")))
+                .andExpect(status().isServiceUnavailable());
+
+        // Sau khi chuyển xong, bản ghi của frank vào shard đích và không còn bản cũ nào ở shard nguồn
+        assertTrue(move.get(10, TimeUnit.SECONDS) > 0);
+        assertFalse(shardDirectory.isMigrating(erin.getId()));
+        mockMvc.perform(as(frank, put("/api/tasks/" + task).content(update)))
+                .andExpect(status().isOk());
+        assertEquals(1, countOn(1, "SELECT COUNT(*) FROM tasks WHERE id = ? AND title = 'F1'", task));
+        assertEquals(0, countOn(0, "SELECT COUNT(*) FROM tasks WHERE id = ?", task));
+        assertEquals(0, countOn(0, "SELECT COUNT(*) FROM tasks WHERE title = 'F2'"));
+    }
+
+    private User createUser(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setRole("ROLE_USER");
+        userRepository.save(user);
+        shardDirectory.replicateUser(user);
+        return user;
+    }
+
+    private MockHttpServletRequestBuilder as(User user, MockHttpServletRequestBuilder request) {
+        return request.with(oidcLogin().idToken(token -> token.claim("email", user.getEmail())))
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private String call(User user, MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(as(user, request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private long id(String json) throws Exception {
+        JsonNode node = objectMapper.readTree(json);
+        return node.get("id").asLong();
+    }
+
+    private int countOn(int shard, String sql, Object... args) {
+        return new JdbcTemplate(shardRouter.shardDataSource(shard)).queryForObject(sql, Integer.class, args);
+    }
+}
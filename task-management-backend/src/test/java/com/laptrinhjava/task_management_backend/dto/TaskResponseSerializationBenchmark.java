@@ -0,0 +1,85 @@
+package com.laptrinhjava.task_management_backend.dto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.laptrinhjava.task_management_backend.config.BinaryFormatsConfig;
+import com.laptrinhjava.task_management_backend.model.TaskPriority;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+/**
+ * So sánh kích thước payload và thời gian serialize một bảng lớn giữa JSON, Smile và CBOR.
+ * Chạy thủ công: mvn test -Dtest=TaskResponseSerializationBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TaskResponseSerializationBenchmark {
+
+    private static final int TASK_COUNT = 5_000;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+
+    @Test
+    void compareFormats() throws IOException {
+        List<TaskResponse> tasks = sampleBoard();
+        BinaryFormatsConfig config = new BinaryFormatsConfig();
+
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+        mappers.put("smile", config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)).getObjectMapper());
+        mappers.put("cbor", config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)).getObjectMapper());
+
+        System.out.printf("%-6s %12s %12s %14s%n", "format", "bytes", "gzip bytes", "serialize µs");
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] payload = mapper.writeValueAsBytes(tasks);
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                mapper.writeValueAsBytes(tasks);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ROUNDS; i++) {
+                mapper.writeValueAsBytes(tasks);
+            }
+            long micros = (System.nanoTime() - start) / MEASURED_ROUNDS / 1_000;
+            System.out.printf("%-6s %12d %12d %14d%n", entry.getKey(), payload.length, gzip(payload).length, micros);
+        }
+    }
+
+    private static List<TaskResponse> sampleBoard() {
+        List<TaskResponse> tasks = new ArrayList<>(TASK_COUNT);
+        TaskStatus[] statuses = TaskStatus.values();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < TASK_COUNT; i++) {
+            long projectId = i % 12;
+            long assigneeId = i % 7;
+            tasks.add(new TaskResponse((long) i, "Công việc số " + i, i % 3 == 0 ? "Mô tả chi tiết cho công việc " + i : null,
+                    statuses[i % statuses.length], LocalDate.now().plusDays(i % 60), now.minusHours(i), now.minusMinutes(i),
+                    projectId, "Dự án " + projectId, assigneeId, "Thành viên " + assigneeId, false, null,
+                    statuses[i % statuses.length].name(), i % 4 == 0 ? List.of("bug", "backend") : List.of(),
+                    TaskPriority.values()[i % TaskPriority.values().length]));
+        }
+        return tasks;
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,75 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.laptrinhjava.task_management_backend.dto.AnalyticsPoint;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+
+class AnalyticsSeriesTests {
+
+    // Thứ Tư
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 5);
+    private static final LocalDate TO = LocalDate.of(2025, 3, 18);
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 14);
+
+    @Test
+    void weeklyBucketsAreClippedAndEmptyBucketsAreKept() {
+        AnalyticsSeries series = AnalyticsSeries.of(FROM, TO, "week", 366, TODAY);
+        series.add(LocalDate.of(2025, 3, 5), 2, 1, 7200, 0);
+        series.add(LocalDate.of(2025, 3, 9), 1, 0, 3600, 0);
+
+        List<AnalyticsPoint> points = series.toResponse().getPoints();
+        assertEquals(3, points.size());
+        assertEquals(FROM, points.get(0).getStart());
+        assertEquals(LocalDate.of(2025, 3, 9), points.get(0).getEnd());
+        assertEquals(3, points.get(0).getCompleted());
+        assertEquals(1, points.get(0).getCompletedLate());
+        assertEquals(1.0, points.get(0).getAverageCycleTimeHours());
+        assertEquals(0, points.get(1).getCompleted());
+        assertNull(points.get(1).getAverageCycleTimeHours());
+        assertEquals(LocalDate.of(2025, 3, 17), points.get(2).getStart());
+        assertEquals(TO, points.get(2).getEnd());
+    }
+
+    @Test
+    void rowsFromSeveralShardsAndReversalsAreSummed() {
+        AnalyticsSeries series = AnalyticsSeries.of(FROM, FROM, "day", 366, TODAY);
+        series.add(FROM, 2, 1, 100, 3);
+        series.add(FROM, -1, -1, -40, 4);
+
+        AnalyticsPoint point = series.toResponse().getPoints().get(0);
+        assertEquals(1, point.getCompleted());
+        assertEquals(0, point.getCompletedLate());
+        assertEquals(60 / 3600.0, point.getAverageCycleTimeHours());
+        assertEquals(7, point.getOverdueOpen());
+    }
+
+    @Test
+    void overdueTakesLatestSnapshotInBucketUpToToday() {
+        AnalyticsSeries series = AnalyticsSeries.of(FROM, TO, "week", 366, TODAY);
+        series.add(LocalDate.of(2025, 3, 6), 0, 0, 0, 4);
+        series.add(LocalDate.of(2025, 3, 8), 0, 0, 0, 6);
+        series.add(LocalDate.of(2025, 3, 12), 0, 0, 0, 9);
+        // Sau hôm nay (dữ liệu lệch giờ) không được dùng
+        series.add(LocalDate.of(2025, 3, 16), 0, 0, 0, 1);
+
+        List<AnalyticsPoint> points = series.toResponse().getPoints();
+        assertEquals(6, points.get(0).getOverdueOpen());
+        assertEquals(9, points.get(1).getOverdueOpen());
+        assertNull(points.get(2).getOverdueOpen());
+    }
+
+    @Test
+    void rejectsInvalidRangeAndGranularity() {
+        assertThrows(BadRequestException.class, () -> AnalyticsSeries.of(TO, FROM, "day", 366, TODAY));
+        assertThrows(BadRequestException.class, () -> AnalyticsSeries.of(FROM, TO, "day", 7, TODAY));
+        assertThrows(BadRequestException.class, () -> AnalyticsSeries.of(FROM, TO, "month", 366, TODAY));
+    }
+}
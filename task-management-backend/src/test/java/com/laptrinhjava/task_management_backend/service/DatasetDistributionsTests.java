@@ -0,0 +1,88 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.laptrinhjava.task_management_backend.model.TaskPriority;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+class DatasetDistributionsTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Test
+    void projectSizesSumExactlyToTotalAndAreSkewed() {
+        DatasetDistributions.ProjectSizes sizes = new DatasetDistributions.ProjectSizes(1_000_003, 1000, 1.1, new Random(7));
+        List<Long> counts = new ArrayList<>();
+        while (sizes.hasNext()) {
+            long count = sizes.next();
+            assertTrue(count >= 0);
+            counts.add(count);
+        }
+        assertEquals(1000, counts.size());
+        assertEquals(1_000_003, counts.stream().mapToLong(Long::longValue).sum());
+
+        long first = counts.get(0);
+        counts.sort(null);
+        long largest = counts.get(counts.size() - 1);
+        long median = counts.get(counts.size() / 2);
+        assertTrue(largest > 50 * median, "Dự án lớn nhất phải lớn hơn nhiều so với trung vị");
+        // Hạng được xáo trộn nên dự án đầu tiên không phải lúc nào cũng lớn nhất
+        assertTrue(first < largest);
+    }
+
+    @Test
+    void projectSizesHandleMoreProjectsThanTasks() {
+        DatasetDistributions.ProjectSizes sizes = new DatasetDistributions.ProjectSizes(5, 20, 1.0, new Random(1));
+        long total = 0;
+        while (sizes.hasNext()) {
+            total += sizes.next();
+        }
+        assertEquals(5, total);
+    }
+
+    @Test
+    void sampledTasksAreConsistent() {
+        Random random = new Random(42);
+        Map<TaskStatus, Integer> mix = new EnumMap<>(TaskStatus.class);
+        Map<TaskPriority, Integer> priorities = new EnumMap<>(TaskPriority.class);
+        int withoutDueDate = 0;
+        int samples = 20_000;
+        for (int i = 0; i < samples; i++) {
+            DatasetDistributions.TaskSample task = DatasetDistributions.sampleTask(random, NOW, 365);
+            mix.merge(task.status(), 1, Integer::sum);
+            priorities.merge(task.priority(), 1, Integer::sum);
+            assertTrue(!task.createdAt().isAfter(NOW) && task.createdAt().isAfter(NOW.minusDays(366)));
+            assertFalse(task.statusChangedAt().isBefore(task.createdAt()));
+            assertFalse(task.statusChangedAt().isAfter(NOW));
+            if (task.status() == TaskStatus.DONE) {
+                assertNotNull(task.completedAt());
+            } else {
+                assertNull(task.completedAt());
+            }
+            if (task.dueDate() == null) {
+                withoutDueDate++;
+            } else {
+                assertFalse(task.dueDate().isBefore(task.createdAt().toLocalDate()));
+            }
+        }
+        assertTrue(mix.get(TaskStatus.DONE) > samples / 2, "Phần lớn task cũ đã hoàn thành");
+        assertTrue(mix.get(TaskStatus.TODO) > mix.get(TaskStatus.IN_PROGRESS));
+        assertTrue(mix.get(TaskStatus.CANCELLED) > samples * 0.03 && mix.get(TaskStatus.CANCELLED) < samples * 0.07);
+        assertTrue(withoutDueDate > samples * 0.15 && withoutDueDate < samples * 0.25);
+        assertTrue(priorities.get(TaskPriority.MEDIUM) > samples * 0.45 && priorities.get(TaskPriority.MEDIUM) < samples * 0.55);
+        assertTrue(priorities.get(TaskPriority.URGENT) > samples * 0.03 && priorities.get(TaskPriority.URGENT) < samples * 0.07);
+    }
+}
@@ -0,0 +1,87 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DependencyGraphTests {
+
+    private static final int TODAY = 20_000;
+    private static final int NONE = DependencyGraph.NO_DUE_DATE;
+
+    // 1 <- 2 <- 3 (3 bị 2 chặn, 2 bị 1 chặn), 4 độc lập; id đưa vào không theo thứ tự
+    private static DependencyGraph chain() {
+        return DependencyGraph.build(new long[] {3, 1, 4, 2}, new boolean[4], new int[] {NONE, NONE, NONE, NONE},
+                new long[] {3, 2}, new long[] {2, 1}, 2);
+    }
+
+    @Test
+    void blockedOnlyWhileABlockerIsUnfinished() {
+        DependencyGraph graph = chain();
+        assertFalse(graph.isBlocked(graph.indexOf(1)));
+        assertTrue(graph.isBlocked(graph.indexOf(2)));
+        assertTrue(graph.isBlocked(graph.indexOf(3)));
+
+        graph = graph.withTask(1, true, NONE);
+        assertFalse(graph.isBlocked(graph.indexOf(2)));
+        assertTrue(graph.isBlocked(graph.indexOf(3)));
+        assertArrayEquals(new long[] {2}, graph.blockerIds(graph.indexOf(3)));
+        assertArrayEquals(new long[] {3}, graph.dependentIds(graph.indexOf(2)));
+    }
+
+    @Test
+    void criticalPathFollowsLongestChainWithoutDueDates() {
+        DependencyGraph graph = chain();
+        DependencyGraph.Schedule schedule = graph.schedule(TODAY, 2);
+        assertEquals(List.of(1L, 2L, 3L), ids(graph, schedule.criticalPath()));
+        assertEquals(6, schedule.projectFinish());
+        assertEquals(2, schedule.earliestFinish()[graph.indexOf(4)]);
+    }
+
+    // Task trễ hạn nhiều nhất quyết định đường găng, kể cả khi chuỗi của nó không dài nhất
+    @Test
+    void criticalPathEndsAtLatestTaskRelativeToDueDate() {
+        DependencyGraph graph = chain()
+                .withTask(3, false, TODAY + 10)
+                .withTask(4, false, TODAY - 1);
+        DependencyGraph.Schedule schedule = graph.schedule(TODAY, 1);
+        assertEquals(List.of(4L), ids(graph, schedule.criticalPath()));
+
+        graph = graph.withTask(4, true, TODAY - 1);
+        assertEquals(List.of(1L, 2L, 3L), ids(graph, graph.schedule(TODAY, 1).criticalPath()));
+    }
+
+    @Test
+    void incrementalChangesMatchFreshBuild() {
+        DependencyGraph graph = chain()
+                .withTask(5, false, NONE)
+                .withEdge(5, 3)
+                .withEdge(5, 3)
+                .withoutEdge(2, 1)
+                .withoutTasks(List.of(4L));
+        assertEquals(4, graph.size());
+        assertEquals(2, graph.edgeCount());
+        assertTrue(graph.hasEdge(5, 3));
+        assertFalse(graph.hasEdge(2, 1));
+        assertEquals(List.of(2L, 3L, 5L), ids(graph, graph.schedule(TODAY, 1).criticalPath()));
+        assertSame(graph, graph.withoutTasks(List.of(42L)));
+    }
+
+    @Test
+    void edgesToUnknownTasksAreIgnored() {
+        DependencyGraph graph = DependencyGraph.build(new long[] {1, 2}, new boolean[2], new int[] {NONE, NONE},
+                new long[] {2, 2, 9}, new long[] {9, 1, 1}, 3);
+        assertEquals(1, graph.edgeCount());
+        assertTrue(graph.isBlocked(graph.indexOf(2)));
+    }
+
+    private static List<Long> ids(DependencyGraph graph, int[] nodes) {
+        return java.util.Arrays.stream(nodes).mapToObj(graph::idAt).toList();
+    }
+}
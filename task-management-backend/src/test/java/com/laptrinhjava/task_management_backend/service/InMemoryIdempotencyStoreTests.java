@@ -0,0 +1,39 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class InMemoryIdempotencyStoreTests {
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @Test
+    void fullStripeKeepsRequestsInFlight() {
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(1, 2);
+        IdempotencyStore.Reservation first = store.reserve("a", "f", TTL);
+        assertTrue(first.isOwner());
+        for (int i = 0; i < 5; i++) {
+            store.reserve("done-" + i, "f", TTL);
+            store.complete("done-" + i, "{}");
+        }
+        // "a" vẫn đang xử lý: không bị loại dù stripe đã đầy, lần thử lại chờ đúng response của lần đầu
+        IdempotencyStore.Reservation retry = store.reserve("a", "f", TTL);
+        assertFalse(retry.isOwner());
+        store.complete("a", "{\"id\":1}");
+        assertEquals("{\"id\":1}", retry.awaitResponse(Duration.ofSeconds(1)));
+        assertEquals("{\"id\":1}", first.awaitResponse(Duration.ofSeconds(1)));
+
+        // Đã có response thì lại được loại như bình thường
+        store.reserve("b", "f", TTL);
+        store.complete("b", "{}");
+        store.reserve("c", "f", TTL);
+        store.complete("c", "{}");
+        assertEquals(2, store.size());
+        assertTrue(store.reserve("a", "f", TTL).isOwner());
+    }
+}
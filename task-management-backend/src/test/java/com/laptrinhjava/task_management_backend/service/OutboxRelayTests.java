@@ -0,0 +1,210 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * OutboxService ghi trong giao dịch của thay đổi; OutboxRelay giao theo lô qua một đích ghi lại mọi lô nhận được
+ * và một đích lỗi theo yêu cầu. Relay theo lịch được tắt, test tự gọi relayCurrentShard.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.security.oauth2.client.registration.google.client-id=test",
+    "spring.security.oauth2.client.registration.google.client-secret=test",
+    "default.user.email=",
+    "app.outbox.relay.enabled=false",
+    "app.outbox.relay.batch-size=2",
+    "app.outbox.relay.initial-backoff-ms=400",
+    "app.outbox.relay.max-backoff-ms=60000",
+    "app.outbox.listener.enabled=false"
+})
+class OutboxRelayTests {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private RecordingSink recordingSink;
+
+    @Autowired
+    private FailingSink failingSink;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Mỗi test giao thành công ở cuối nên relay không còn trong thời gian chờ khi test sau bắt đầu
+    @BeforeEach
+    void reset() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        recordingSink.batches.clear();
+        failingSink.failuresLeft = 0;
+        failingSink.calls = 0;
+    }
+
+    @Test
+    void eventsAreWrittenOnlyWithTheirTransaction() {
+        assertThrows(IllegalTransactionStateException.class, () -> outboxService.projectDeleted(1L, 10L));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            outboxService.projectDeleted(1L, 11L);
+            status.setRollbackOnly();
+        });
+        assertEquals(0, pending());
+
+        transaction.executeWithoutResult(status -> outboxService.tasksDeleted(1L, 12L, List.of(5L, 6L)));
+        assertEquals(2, pending());
+    }
+
+    @Test
+    void failedBatchIsRedeliveredInIdOrderAfterBackoff() throws InterruptedException {
+        List<Long> ids = writeEvents(3);
+        jdbcTemplate.update("UPDATE outbox_events SET created_at = ?", LocalDateTime.now().minusSeconds(30));
+
+        failingSink.failuresLeft = 1;
+        assertEquals(0, outboxRelay.relayCurrentShard());
+        // Lô lỗi rollback: chưa dòng nào bị xoá dù đích đầu tiên đã nhận lô
+        assertEquals(3, pending());
+        assertEquals(List.of(ids.subList(0, 2)), recordingSink.batches);
+        assertTrue(outboxRelay.lagMillis(0) >= 30_000);
+        assertEquals(outboxRelay.lagMillis(0) / 1000.0, meterRegistry.get("app.outbox.lag").tag("shard", "0").gauge().value());
+
+        // Còn trong thời gian chờ: không gọi tới đích nào
+        assertEquals(0, outboxRelay.relayCurrentShard());
+        assertEquals(1, failingSink.calls);
+
+        Thread.sleep(500);
+        assertEquals(3, outboxRelay.relayCurrentShard());
+        assertEquals(0, pending());
+        assertEquals(List.of(ids.subList(0, 2), ids.subList(0, 2), ids.subList(2, 3)), recordingSink.batches);
+        assertEquals(0, outboxRelay.lagMillis(0));
+    }
+
+    @Test
+    void backoffDoublesWhileTheSinkKeepsFailing() throws InterruptedException {
+        List<Long> ids = writeEvents(1);
+        failingSink.failuresLeft = 2;
+        assertEquals(0, outboxRelay.relayCurrentShard());
+        Thread.sleep(500);
+        // Lần thứ hai lỗi: chờ 800 ms thay vì 400 ms
+        assertEquals(0, outboxRelay.relayCurrentShard());
+        assertEquals(2, failingSink.calls);
+        Thread.sleep(500);
+        assertEquals(0, outboxRelay.relayCurrentShard());
+        assertEquals(2, failingSink.calls);
+        assertEquals(1, pending());
+
+        Thread.sleep(500);
+        assertEquals(1, outboxRelay.relayCurrentShard());
+        assertEquals(0, pending());
+        assertEquals(List.of(ids, ids, ids), recordingSink.batches);
+    }
+
+    private List<Long> writeEvents(int count) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (long projectId = 1; projectId <= count; projectId++) {
+                outboxService.projectDeleted(1L, projectId);
+            }
+        });
+        return jdbcTemplate.queryForList("SELECT id FROM outbox_events ORDER BY id", Long.class);
+    }
+
+    private int pending() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class);
+    }
+
+    @TestConfiguration
+    static class Sinks {
+
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+
+        @Bean
+        FailingSink failingSink() {
+            return new FailingSink();
+        }
+    }
+
+    // Đích đầu tiên: ghi lại id của mọi lô nhận được, kể cả lô sau đó bị rollback
+    static class RecordingSink implements OutboxSink, Ordered {
+
+        final List<List<Long>> batches = new ArrayList<>();
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void publish(List<Event> events) {
+            batches.add(events.stream().map(Event::id).toList());
+        }
+
+        @Override
+        public int getOrder() {
+            return 1;
+        }
+    }
+
+    // Đích thứ hai: lỗi failuresLeft lần tiếp theo
+    static class FailingSink implements OutboxSink, Ordered {
+
+        volatile int failuresLeft;
+        volatile int calls;
+
+        @Override
+        public String name() {
+            return "failing";
+        }
+
+        @Override
+        public void publish(List<Event> events) {
+            calls++;
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("đích tạm thời không nhận");
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return 2;
+        }
+    }
+}
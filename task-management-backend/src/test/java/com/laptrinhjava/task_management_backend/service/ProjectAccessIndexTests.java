@@ -0,0 +1,52 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.laptrinhjava.task_management_backend.model.ProjectRole;
+
+class ProjectAccessIndexTests {
+
+    @Test
+    void looksUpRolesFromUnsortedInput() {
+        ProjectAccessIndex index = ProjectAccessIndex.build(
+                new long[] { 40, 7, 19, 3 },
+                new ProjectRole[] { ProjectRole.VIEWER, ProjectRole.OWNER, ProjectRole.EDITOR, ProjectRole.ADMIN }, 4);
+
+        assertEquals(4, index.size());
+        assertEquals(ProjectRole.OWNER, index.roleOf(7));
+        assertEquals(ProjectRole.EDITOR, index.roleOf(19));
+        assertNull(index.roleOf(8));
+        assertTrue(index.allows(3, ProjectRole.EDITOR));
+        assertFalse(index.allows(40, ProjectRole.EDITOR));
+        assertFalse(index.allows(99, ProjectRole.VIEWER));
+    }
+
+    @Test
+    void duplicateProjectsKeepHighestRole() {
+        ProjectAccessIndex index = ProjectAccessIndex.build(
+                new long[] { 5, 5, 2, 5 },
+                new ProjectRole[] { ProjectRole.VIEWER, ProjectRole.ADMIN, ProjectRole.VIEWER, ProjectRole.EDITOR }, 4);
+
+        assertEquals(2, index.size());
+        assertEquals(ProjectRole.ADMIN, index.roleOf(5));
+    }
+
+    @Test
+    void listsProjectIdsWithAtLeastRequiredRole() {
+        ProjectAccessIndex index = ProjectAccessIndex.build(
+                new long[] { 30, 10, 20, 99 },
+                new ProjectRole[] { ProjectRole.OWNER, ProjectRole.VIEWER, ProjectRole.EDITOR, ProjectRole.VIEWER }, 3);
+
+        assertEquals(List.of(10L, 20L, 30L), index.projectIds(ProjectRole.VIEWER));
+        assertEquals(List.of(20L, 30L), index.projectIds(ProjectRole.EDITOR));
+        assertEquals(List.of(30L), index.projectIds(ProjectRole.OWNER));
+        assertEquals(List.of(), ProjectAccessIndex.build(new long[0], new ProjectRole[0], 0).projectIds(ProjectRole.VIEWER));
+    }
+}
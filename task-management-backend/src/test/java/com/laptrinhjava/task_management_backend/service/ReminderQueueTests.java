@@ -0,0 +1,72 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ReminderQueueTests {
+
+    private static final LocalDate DUE = LocalDate.of(2025, 3, 10);
+
+    @Test
+    void pollsOnlyDueEntriesInFireOrder() {
+        ReminderQueue queue = new ReminderQueue();
+        queue.schedule(3, 0, DUE, 300);
+        queue.schedule(1, 0, DUE, 100);
+        queue.schedule(2, 1, DUE, 100);
+
+        assertEquals(List.of(1L, 2L), ids(queue.pollDue(200, 10)));
+        assertEquals(300, queue.nextFireAt());
+        assertEquals(List.of(), queue.pollDue(299, 10));
+        assertEquals(List.of(3L), ids(queue.pollDue(300, 10)));
+        assertEquals(Long.MAX_VALUE, queue.nextFireAt());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void rescheduleAndCancelReplaceEarlierEntries() {
+        ReminderQueue queue = new ReminderQueue();
+        queue.schedule(1, 0, DUE, 100);
+        queue.schedule(1, 0, DUE.plusDays(1), 500);
+        queue.schedule(2, 0, DUE, 200);
+        queue.cancel(2);
+
+        assertEquals(1, queue.size());
+        assertEquals(500, queue.nextFireAt());
+        List<ReminderQueue.Entry> due = queue.pollDue(1_000, 10);
+        assertEquals(List.of(1L), ids(due));
+        assertEquals(DUE.plusDays(1), due.get(0).dueDate());
+    }
+
+    @Test
+    void scheduleIfAbsentKeepsNewerEntry() {
+        ReminderQueue queue = new ReminderQueue();
+        queue.schedule(1, 0, DUE, 100);
+        assertFalse(queue.scheduleIfAbsent(1, 0, DUE.minusDays(1), 50));
+        assertTrue(queue.scheduleIfAbsent(2, 0, DUE, 60));
+        assertEquals(List.of(2L, 1L), ids(queue.pollDue(100, 10)));
+    }
+
+    // Nhiều lần đổi lịch không làm heap phình ra và vẫn trả đúng mục
+    @Test
+    void respectsMaxAndSurvivesManyReschedules() {
+        ReminderQueue queue = new ReminderQueue();
+        for (int round = 0; round < 1_000; round++) {
+            for (long id = 1; id <= 5; id++) {
+                queue.schedule(id, 0, DUE, round + id);
+            }
+        }
+        assertEquals(5, queue.size());
+        assertEquals(List.of(1L, 2L), ids(queue.pollDue(Long.MAX_VALUE, 2)));
+        assertEquals(List.of(3L, 4L, 5L), ids(queue.pollDue(Long.MAX_VALUE, 10)));
+    }
+
+    private static List<Long> ids(List<ReminderQueue.Entry> entries) {
+        return entries.stream().map(ReminderQueue.Entry::taskId).toList();
+    }
+}
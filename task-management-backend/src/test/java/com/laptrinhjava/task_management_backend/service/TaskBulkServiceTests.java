@@ -0,0 +1,272 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oidcLogin;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.laptrinhjava.task_management_backend.model.User;
+import com.laptrinhjava.task_management_backend.repository.UserRepository;
+
+/**
+ * POST /api/tasks:bulk trên H2: mỗi thao tác kiểm tra số task bị ảnh hưởng, lịch sử, task_daily_stats, outbox
+ * và các id bị bỏ qua (task của người khác hoặc không tồn tại).
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:bulk;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.security.oauth2.client.registration.google.client-id=test",
+    "spring.security.oauth2.client.registration.google.client-secret=test",
+    "default.user.email=",
+    "app.task-history.flush-mode=sync",
+    "app.outbox.relay.enabled=false"
+})
+@AutoConfigureMockMvc
+class TaskBulkServiceTests {
+
+    private static final long MISSING_TASK_ID = 999_999L;
+
+    private static final String TODO = "\"status\":\"TODO\"";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskArchiveService taskArchiveService;
+
+    @Test
+    void setStatusMovesEachTaskToTheStateItsWorkflowAllows() throws Exception {
+        User owner = createUser("status-owner");
+        long plain = project(owner, "Plain");
+        long flow = project(owner, "Flow");
+        // Từ Backlog chỉ sang được Review, từ Ready chỉ sang được Doing
+        mockMvc.perform(as(owner, put("/api/projects/" + flow + "/workflow").content("{\"states\":["
+                        + "{\"name\":\"Backlog\",\"category\":\"TODO\",\"transitions\":[\"Review\"]},"
+                        + "{\"name\":\"Ready\",\"category\":\"TODO\",\"transitions\":[\"Doing\"]},"
+                        + "{\"name\":\"Doing\",\"category\":\"IN_PROGRESS\",\"transitions\":[\"Done\"]},"
+                        + "{\"name\":\"Review\",\"category\":\"IN_PROGRESS\",\"transitions\":[\"Done\"]},"
+                        + "{\"name\":\"Done\",\"category\":\"DONE\",\"transitions\":[]},"
+                        + "{\"name\":\"Cancelled\",\"category\":\"CANCELLED\",\"transitions\":[]}]}")))
+                .andExpect(status().isOk());
+        long backlog = task(owner, flow, "\"state\":\"Backlog\"");
+        long ready = task(owner, flow, "\"state\":\"Ready\"");
+        long todo = task(owner, plain, TODO);
+        long started = task(owner, plain, "\"status\":\"IN_PROGRESS\"");
+        long foreign = foreignTask();
+
+        mockMvc.perform(as(owner, post("/api/tasks:bulk").content("{\"operation\":\"SET_STATUS\",\"status\":\"IN_PROGRESS\",\"taskIds\":["
+                        + backlog + "," + ready + "," + todo + "," + started + "," + foreign + "," + MISSING_TASK_ID + "]}")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(4))
+                .andExpect(jsonPath("$.affected").value(3))
+                .andExpect(jsonPath("$.skippedTaskIds.length()").value(2))
+                .andExpect(jsonPath("$.skippedTaskIds[0]").value(foreign))
+                .andExpect(jsonPath("$.skippedTaskIds[1]").value(MISSING_TASK_ID));
+        expectState(owner, backlog, "Review");
+        expectState(owner, ready, "Doing");
+        expectState(owner, todo, "IN_PROGRESS");
+        assertEquals("TODO", jdbcTemplate.queryForObject("SELECT status FROM tasks WHERE id = ?", String.class, foreign));
+        assertEquals(3, count("SELECT COUNT(*) FROM task_history WHERE task_id IN (?, ?, ?, ?) AND field = 'STATUS'", backlog, ready, todo, started));
+        assertEquals(3, count("SELECT COUNT(*) FROM outbox_events WHERE aggregate_id IN (?, ?, ?, ?) AND event_type = 'TASK_UPDATED'",
+                backlog, ready, todo, started));
+
+        // Hoàn thành được tính vào task_daily_stats của dự án (task tạo không chỉ định người được giao thì giao cho người tạo)
+        mockMvc.perform(as(owner, post("/api/tasks:bulk").content("{\"operation\":\"SET_STATUS\",\"status\":\"DONE\",\"taskIds\":["
+                        + backlog + "," + todo + "]}")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+        assertEquals(1, completed(plain, owner.getId()));
+        assertEquals(1, completed(flow, owner.getId()));
+
+        // Doing chỉ sang được Done: cả lô bị từ chối, task đã DONE không bị huỷ
+        mockMvc.perform(as(owner, post("/api/tasks:bulk").content("{\"operation\":\"SET_STATUS\",\"status\":\"CANCELLED\",\"taskIds\":["
+                        + todo + "," + ready + "]}")))
+                .andExpect(status().isBadRequest());
+        expectState(owner, todo, "DONE");
+        assertEquals(1, completed(plain, owner.getId()));
+    }
+
+    @Test
+    void setAssigneeMovesCompletionsAndTombstonesThePreviousAssignee() throws Exception {
+        User owner = createUser("assign-owner");
+        User before = createUser("assign-before");
+        User after = createUser("assign-after");
+        long projectId = project(owner, "Assign");
+        long done = task(owner, projectId, "\"status\":\"DONE\",\"assigneeId\":" + before.getId());
+        long open = task(owner, projectId, TODO + ",\"assigneeId\":" + before.getId());
+        long already = task(owner, projectId, TODO + ",\"assigneeId\":" + after.getId());
+        long foreign = foreignTask();
+        assertEquals(1, completed(projectId, before.getId()));
+
+        mockMvc.perform(as(owner, post("/api/tasks:bulk").content("{\"operation\":\"SET_ASSIGNEE\",\"assigneeId\":" + after.getId()
+                        + ",\"taskIds\":[" + done + "," + open + "," + already + "," + foreign + "]}")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(3))
+                .andExpect(jsonPath("$.affected").value(2))
+                .andExpect(jsonPath("$.skippedTaskIds[0]").value(foreign));
+        assertEquals(2, count("SELECT COUNT(*) FROM tasks WHERE id IN (?, ?) AND assignee_id = ?", done, open, after.getId()));
+        assertEquals(2, count("SELECT COUNT(*) FROM task_history WHERE task_id IN (?, ?, ?) AND field = 'ASSIGNEE'", done, open, already));
+        assertEquals(2, count("SELECT COUNT(*) FROM sync_tombstones WHERE entity_id IN (?, ?) AND user_id = ?", done, open, before.getId()));
+        assertEquals(0, completed(projectId, before.getId()));
+        assertEquals(1, completed(projectId, after.getId()));
+        assertEquals(2, count("SELECT COUNT(*) FROM outbox_events WHERE aggregate_id IN (?, ?, ?) AND event_type = 'TASK_UPDATED'"
+                + " AND payload LIKE '%\"partial\":true%'", done, open, already));
+    }
+
+    @Test
+    void moveToProjectDropsLabelsAndRefusesTasksInATree() throws Exception {
+        User owner = createUser("move-owner");
+        long source = project(owner, "Source");
+        long target = project(owner, "Target");
+        long done = task(owner, source, "\"status\":\"DONE\"");
+        long open = task(owner, source, TODO);
+        long label = id(mockMvc.perform(as(owner, post("/api/projects/" + source + "/labels").content("{\"name\":\"bug\",\"color\":\"#ff0000\"}")))
+                .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString());
+        mockMvc.perform(as(owner, put("/api/tasks/" + open + "/labels").content("{\"labelIds\":[" + label + "]}")))
+                .andExpect(status().isOk());
+        long parent = task(owner, source, TODO);
+        long child = task(owner, source, TODO + ",\"parentTaskId\":" + parent);
+        long foreign = foreignTask();
+
+        // Task cha không được chuyển: cả lô bị từ chối
+        mockMvc.perform(as(owner, post("/api/tasks:bulk").content("{\"operation\":\"MOVE_TO_PROJECT\",\"targetProjectId\":" + target
+                        + ",\"taskIds\":[" + open + "," + parent + "]}")))
+                .andExpect(status().isBadRequest());
+        assertEquals(source, projectOf(open));
+
+        mockMvc.perform(as(owner, post("/api/tasks:bulk").content("{\"operation\":\"MOVE_TO_PROJECT\",\"targetProjectId\":" + target
+                        + ",\"taskIds\":[" + done + "," + open + "," + foreign + "]}")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(2))
+                .andExpect(jsonPath("$.affected").value(2))
+                .andExpect(jsonPath("$.skippedTaskIds[0]").value(foreign));
+        assertEquals(target, projectOf(done));
+        assertEquals(target, projectOf(open));
+        assertEquals(source, projectOf(child));
+        assertEquals(0, count("SELECT COUNT(*) FROM task_labels WHERE task_id = ?", open));
+        assertEquals(2, count("SELECT COUNT(*) FROM task_history WHERE task_id IN (?, ?) AND field = 'PROJECT'", done, open));
+        assertEquals(0, completed(source, owner.getId()));
+        assertEquals(1, completed(target, owner.getId()));
+    }
+
+    @Test
+    void deleteRemovesTheSubtreeIncludingArchivedDescendants() throws Exception {
+        User owner = createUser("delete-owner");
+        User assignee = createUser("delete-assignee");
+        long projectId = project(owner, "Delete");
+        long parent = task(owner, projectId, TODO);
+        long child = task(owner, projectId, TODO + ",\"parentTaskId\":" + parent);
+        long archived = task(owner, projectId, "\"status\":\"DONE\",\"parentTaskId\":" + child + ",\"assigneeId\":" + assignee.getId());
+        long foreign = foreignTask();
+        // Task con DONE dưới task cha còn mở vẫn được lưu trữ
+        jdbcTemplate.update("UPDATE tasks SET updated_at = ? WHERE id = ?", LocalDateTime.now().minusDays(400), archived);
+        taskArchiveService.archiveOlderThan(LocalDateTime.now().minusDays(365));
+        assertEquals(1, count("SELECT COUNT(*) FROM tasks_archive WHERE id = ?", archived));
+        long completedBefore = completed(projectId, assignee.getId());
+
+        mockMvc.perform(as(owner, post("/api/tasks:bulk").content("{\"operation\":\"DELETE\",\"taskIds\":[" + parent + "," + foreign + "]}")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(1))
+                .andExpect(jsonPath("$.affected").value(3))
+                .andExpect(jsonPath("$.skippedTaskIds[0]").value(foreign));
+        assertEquals(0, count("SELECT COUNT(*) FROM tasks WHERE id IN (?, ?)", parent, child));
+        assertEquals(0, count("SELECT COUNT(*) FROM tasks_archive WHERE id = ?", archived));
+        assertEquals(0, count("SELECT COUNT(*) FROM task_closure WHERE ancestor_id IN (?, ?, ?) OR descendant_id IN (?, ?, ?)",
+                parent, child, archived, parent, child, archived));
+        assertEquals(3, count("SELECT COUNT(*) FROM sync_tombstones WHERE entity_id IN (?, ?, ?) AND user_id = ?",
+                parent, child, archived, owner.getId()));
+        assertEquals(1, count("SELECT COUNT(*) FROM sync_tombstones WHERE entity_id = ? AND user_id = ?", archived, assignee.getId()));
+        assertEquals(3, count("SELECT COUNT(*) FROM outbox_events WHERE aggregate_id IN (?, ?, ?) AND event_type = 'TASK_DELETED'",
+                parent, child, archived));
+        // Xoá không đụng tới số liệu đã tổng hợp
+        assertEquals(completedBefore, completed(projectId, assignee.getId()));
+        assertEquals(1, count("SELECT COUNT(*) FROM tasks WHERE id = ?", foreign));
+    }
+
+    private User createUser(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setRole("ROLE_USER");
+        return userRepository.save(user);
+    }
+
+    // Task trong dự án của người khác: phải nằm trong skippedTaskIds và không bị đổi
+    private long foreignTask() throws Exception {
+        User stranger = userRepository.findByEmail("stranger@example.com").orElseGet(() -> createUser("stranger"));
+        return task(stranger, project(stranger, "Stranger"), TODO);
+    }
+
+    private long project(User owner, String name) throws Exception {
+        return id(call(owner, post("/api/projects").content("{\"name\":\"" + name + "\"}")));
+    }
+
+    // fields gồm status hoặc state và các trường tuỳ chọn khác
+    private long task(User owner, long projectId, String fields) throws Exception {
+        return id(call(owner, post("/api/tasks").content("{\"title\":\"T\",\"projectId\":" + projectId + "," + fields + "}")));
+    }
+
+    private void expectState(User owner, long taskId, String state) throws Exception {
+        mockMvc.perform(as(owner, get("/api/tasks/" + taskId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value(state));
+    }
+
+    private MockHttpServletRequestBuilder as(User user, MockHttpServletRequestBuilder request) {
+        return request.with(oidcLogin().idToken(token -> token.claim("email", user.getEmail())))
+                .contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private String call(User user, MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(as(user, request))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private long id(String json) throws Exception {
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private long projectOf(long taskId) {
+        return jdbcTemplate.queryForObject("SELECT project_id FROM tasks WHERE id = ?", Long.class, taskId);
+    }
+
+    private long completed(long projectId, long userId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(completed_count), 0) FROM task_daily_stats WHERE project_id = ? AND user_id = ?",
+                Long.class, projectId, userId);
+    }
+
+    private int count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, args);
+    }
+}
@@ -0,0 +1,108 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class TaskIdBitmapTests {
+
+    @Test
+    void setOperationsMatchTreeSet() {
+        Random random = new Random(49);
+        for (int round = 0; round < 20; round++) {
+            // Trộn container thưa và dày, trải trên vài khoá 16 bit
+            TreeSet<Long> a = randomIds(random, 1 + random.nextInt(12000));
+            TreeSet<Long> b = randomIds(random, 1 + random.nextInt(12000));
+            TaskIdBitmap x = bitmap(a);
+            TaskIdBitmap y = bitmap(b);
+            assertContents(a, x);
+
+            TreeSet<Long> and = new TreeSet<>(a);
+            and.retainAll(b);
+            assertContents(and, x.and(y));
+            TreeSet<Long> andNot = new TreeSet<>(a);
+            andNot.removeAll(b);
+            assertContents(andNot, x.andNot(y));
+            TreeSet<Long> or = new TreeSet<>(a);
+            or.addAll(b);
+            assertContents(or, x.or(y));
+        }
+    }
+
+    @Test
+    void incrementalUpdatesConvertBetweenContainers() {
+        TreeSet<Long> expected = new TreeSet<>();
+        TaskIdBitmap bitmap = TaskIdBitmap.EMPTY;
+        // Vượt ngưỡng 4096 trong cùng một khoá để container mảng chuyển sang bitmap rồi quay lại
+        for (long id = 70_000; id < 70_000 + 5000; id++) {
+            bitmap = bitmap.with(id);
+            expected.add(id);
+        }
+        assertContents(expected, bitmap);
+        assertSame(bitmap, bitmap.with(70_000));
+        for (long id = 70_000; id < 70_000 + 4990; id += 2) {
+            bitmap = bitmap.without(id);
+            expected.remove(id);
+        }
+        assertContents(expected, bitmap);
+        for (long id : new ArrayList<>(expected)) {
+            bitmap = bitmap.without(id);
+        }
+        assertTrue(bitmap.isEmpty());
+        assertFalse(bitmap.contains(70_001));
+    }
+
+    @Test
+    void pagesSkipWholeContainers() {
+        Random random = new Random(7);
+        TreeSet<Long> ids = randomIds(random, 20000);
+        TaskIdBitmap bitmap = bitmap(ids);
+        List<Long> ascending = new ArrayList<>(ids);
+        List<Long> descending = new ArrayList<>(ids.descendingSet());
+        for (int offset : new int[] { 0, 1, 4095, 4096, 9000, 19990, 20000, 25000 }) {
+            assertArrayEquals(slice(ascending, offset, 25), bitmap.page(offset, 25, false));
+            assertArrayEquals(slice(descending, offset, 25), bitmap.page(offset, 25, true));
+        }
+    }
+
+    private static TreeSet<Long> randomIds(Random random, int count) {
+        TreeSet<Long> ids = new TreeSet<>();
+        long base = random.nextInt(3) * 65_536L;
+        while (ids.size() < count) {
+            ids.add(base + random.nextInt(4 * 65_536));
+        }
+        return ids;
+    }
+
+    private static TaskIdBitmap bitmap(TreeSet<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        // Cho phép trùng lặp trong đầu vào
+        list.add(list.get(0));
+        Collections.sort(list);
+        long[] sorted = list.stream().mapToLong(Long::longValue).toArray();
+        return TaskIdBitmap.ofSorted(sorted, sorted.length);
+    }
+
+    private static void assertContents(TreeSet<Long> expected, TaskIdBitmap bitmap) {
+        assertEquals(expected.size(), bitmap.cardinality());
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), bitmap.toArray());
+        for (long id : expected) {
+            assertTrue(bitmap.contains(id));
+        }
+    }
+
+    private static long[] slice(List<Long> ids, int offset, int limit) {
+        return ids.subList(Math.min(offset, ids.size()), Math.min(offset + limit, ids.size()))
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+}
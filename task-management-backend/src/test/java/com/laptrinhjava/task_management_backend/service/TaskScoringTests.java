@@ -0,0 +1,43 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import com.laptrinhjava.task_management_backend.model.TaskPriority;
+
+class TaskScoringTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 15, 12, 0);
+    private static final TaskScoring SCORING = new TaskScoring(10, 20, 14, 0.2, 30);
+
+    @Test
+    void dueUrgencyRisesUntilCappedOverdue() {
+        assertEquals(0, score(TaskPriority.LOW, null, NOW), 1e-9);
+        assertEquals(0, score(TaskPriority.LOW, NOW.toLocalDate().plusDays(30), NOW), 1e-9);
+        assertEquals(10, score(TaskPriority.LOW, NOW.toLocalDate().plusDays(7), NOW), 1e-9);
+        assertEquals(20, score(TaskPriority.LOW, NOW.toLocalDate(), NOW), 1e-9);
+        assertEquals(30, score(TaskPriority.LOW, NOW.toLocalDate().minusDays(7), NOW), 1e-9);
+        assertEquals(40, score(TaskPriority.LOW, NOW.toLocalDate().minusDays(14), NOW), 1e-9);
+        assertEquals(40, score(TaskPriority.LOW, NOW.toLocalDate().minusDays(400), NOW), 1e-9);
+    }
+
+    @Test
+    void priorityAndCappedAgeAddUp() {
+        assertEquals(30, score(TaskPriority.URGENT, null, NOW), 1e-9);
+        assertEquals(10 + 0.2 * 5, score(TaskPriority.MEDIUM, null, NOW.minusDays(5)), 1e-9);
+        assertEquals(10 + 0.2 * 30, score(TaskPriority.MEDIUM, null, NOW.minusDays(90)), 1e-9);
+        // Hạn chót hôm nay vượt mức ưu tiên cao hơn một bậc nhưng không có hạn
+        assertTrue(score(TaskPriority.MEDIUM, NOW.toLocalDate(), NOW) > score(TaskPriority.HIGH, null, NOW));
+    }
+
+    private static double score(TaskPriority priority, LocalDate dueDate, LocalDateTime createdAt) {
+        return SCORING.score(priority.ordinal(), dueDate != null, dueDate != null ? dueDate.toEpochDay() : 0,
+                createdAt.toEpochSecond(ZoneOffset.UTC), NOW.toLocalDate().toEpochDay(), NOW.toEpochSecond(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,44 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TopScoredTasksTests {
+
+    @Test
+    void keepsSameTasksAsFullSort() {
+        Random random = new Random(50);
+        for (int round = 0; round < 50; round++) {
+            int capacity = 1 + random.nextInt(20);
+            int count = random.nextInt(2000);
+            TopScoredTasks top = new TopScoredTasks(capacity);
+            List<TopScoredTasks.Scored> all = new ArrayList<>();
+            for (long id = 1; id <= count; id++) {
+                // Điểm rời rạc để có nhiều task cùng điểm
+                double score = random.nextInt(40) / 4.0;
+                top.offer(id, score);
+                all.add(new TopScoredTasks.Scored(id, score));
+            }
+            all.sort(Comparator.comparingDouble(TopScoredTasks.Scored::score).reversed()
+                    .thenComparingLong(TopScoredTasks.Scored::id));
+            assertEquals(all.subList(0, Math.min(capacity, count)), top.best());
+        }
+    }
+
+    @Test
+    void tieKeepsOlderTaskRegardlessOfArrivalOrder() {
+        TopScoredTasks top = new TopScoredTasks(2);
+        top.offer(9, 1.0);
+        top.offer(7, 1.0);
+        top.offer(8, 1.0);
+        top.offer(3, 0.5);
+        assertEquals(List.of(new TopScoredTasks.Scored(7, 1.0), new TopScoredTasks.Scored(8, 1.0)), top.best());
+        assertEquals(2, top.size());
+    }
+}
@@ -0,0 +1,84 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Đo thông lượng đăng nhập khi nhiều người dùng mới cùng đăng nhập lần đầu (username gốc trùng nhau),
+ * rồi khi chính họ đăng nhập lại (không ghi gì). Chạy thủ công trên H2:
+ * mvn test -Dtest=UserProvisioningBenchmark -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:login-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.hikari.maximum-pool-size=16",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "spring.security.oauth2.client.registration.google.client-id=test",
+    "spring.security.oauth2.client.registration.google.client-secret=test",
+    "default.user.email="
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UserProvisioningBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int USERS = 4_000;
+    // Số username gốc khác nhau: mỗi gốc có USERS / BASES người tranh nhau
+    private static final int BASES = 20;
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentFirstAndRepeatLogins() throws Exception {
+        long firstMillis = run("first");
+        assertEquals(USERS, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT username) FROM app_user", Integer.class));
+        run("warm");
+        long repeatMillis = run("repeat");
+
+        System.out.printf("%-7s %8s %10s %12s%n", "login", "users", "ms", "logins/s");
+        System.out.printf("%-7s %8d %10d %12d%n", "first", USERS, firstMillis, USERS * 1000L / Math.max(1, firstMillis));
+        System.out.printf("%-7s %8d %10d %12d%n", "repeat", USERS, repeatMillis, USERS * 1000L / Math.max(1, repeatMillis));
+    }
+
+    private long run(String label) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = next.getAndIncrement(); i < USERS; i = next.getAndIncrement()) {
+                    // Cùng phần trước @ nhưng khác tên miền: username gốc trùng nhau
+                    String email = "user" + (i % BASES) + "@d" + (i / BASES) + ".example.com";
+                    userProvisioningService.upsert(email, "User " + i, null, null, "ROLE_USER");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("====== UserProvisioningBenchmark: " + label + " " + millis + " ms ======");
+        return millis;
+    }
+}
@@ -0,0 +1,40 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class UsernameAllocatorTests {
+
+    @Test
+    void keepsBaseWhenFree() {
+        assertEquals("alice", UsernameAllocator.freeCandidate("alice", List.of("alice1", "alicex"), 0));
+    }
+
+    @Test
+    void picksSmallestFreeSuffixIgnoringCase() {
+        assertEquals("alice3", UsernameAllocator.freeCandidate("alice", List.of("Alice", "alice1", "ALICE2", "alice4", "alicexyz"), 0));
+    }
+
+    @Test
+    void skipsFreeCandidatesOnRetry() {
+        List<String> taken = List.of("bob", "bob2");
+        assertEquals("bob1", UsernameAllocator.freeCandidate("bob", taken, 0));
+        assertEquals("bob3", UsernameAllocator.freeCandidate("bob", taken, 1));
+        assertEquals("bob4", UsernameAllocator.freeCandidate("bob", taken, 2));
+        assertEquals("carol1", UsernameAllocator.freeCandidate("carol", List.of(), 1));
+    }
+
+    @Test
+    void normalizesShortAndLongBases() {
+        assertEquals("userab", UsernameAllocator.normalize(" ab "));
+        String longBase = "x".repeat(70);
+        String normalized = UsernameAllocator.normalize(longBase);
+        assertEquals(UsernameAllocator.MAX_BASE_LENGTH, normalized.length());
+        // Hậu tố lớn nhất vẫn nằm trong giới hạn độ dài cột
+        assertTrue((normalized + Integer.MAX_VALUE).length() <= UsernameAllocator.MAX_LENGTH);
+    }
+}
@@ -0,0 +1,40 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class VersionedTtlCacheTests {
+
+    @Test
+    void loadRacingWithChangeIsNotCached() {
+        VersionedTtlCache<String> cache = new VersionedTtlCache<>(60_000, 10);
+        AtomicInteger loads = new AtomicInteger();
+        // Một thay đổi commit trong lúc đang nạp: bản vừa nạp có thể đã cũ nên chỉ được trả về, không được cache
+        assertEquals("v1", cache.get(1L, id -> {
+            cache.remove(2L);
+            return "v" + loads.incrementAndGet();
+        }));
+        assertEquals("v2", cache.get(1L, id -> "v" + loads.incrementAndGet()));
+        assertEquals("v2", cache.get(1L, id -> "v" + loads.incrementAndGet()));
+
+        cache.update(1L, value -> value + "+");
+        assertEquals("v2+", cache.get(1L, id -> "reloaded"));
+        // Không có bản cache thì update không làm gì
+        cache.update(3L, value -> value + "+");
+        assertEquals("loaded", cache.get(3L, id -> "loaded"));
+    }
+
+    @Test
+    void fullCacheEvictsOldestLoad() throws InterruptedException {
+        VersionedTtlCache<Long> cache = new VersionedTtlCache<>(60_000, 2);
+        cache.get(1L, id -> id);
+        Thread.sleep(1);
+        cache.get(2L, id -> id);
+        cache.get(3L, id -> id);
+        assertEquals(-1L, cache.get(1L, id -> -id));
+        assertEquals(3L, cache.get(3L, id -> -id));
+    }
+}
@@ -0,0 +1,106 @@
+package com.laptrinhjava.task_management_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.laptrinhjava.task_management_backend.dto.WorkflowStateDTO;
+import com.laptrinhjava.task_management_backend.exception.BadRequestException;
+import com.laptrinhjava.task_management_backend.model.TaskStatus;
+
+class WorkflowTests {
+
+    // Backlog -> Doing -> Review -> Done, huỷ được từ mọi trạng thái chưa xong; Review trả lại Doing được
+    private static final List<WorkflowStateDTO> REVIEW_FLOW = List.of(
+            new WorkflowStateDTO("Backlog", TaskStatus.TODO, List.of("Doing", "Cancelled")),
+            new WorkflowStateDTO("Doing", TaskStatus.IN_PROGRESS, List.of("Review", "Cancelled")),
+            new WorkflowStateDTO("Review", TaskStatus.IN_PROGRESS, List.of("Doing", "Done", "Cancelled")),
+            new WorkflowStateDTO("Done", TaskStatus.DONE, List.of()),
+            new WorkflowStateDTO("Cancelled", TaskStatus.CANCELLED, List.of("Backlog")));
+
+    @Test
+    void defaultWorkflowAllowsEveryTransition() {
+        Workflow workflow = Workflow.DEFAULT;
+        for (TaskStatus from : TaskStatus.values()) {
+            int state = workflow.stateOf(null, from);
+            assertEquals(from.name(), workflow.name(state));
+            for (TaskStatus to : TaskStatus.values()) {
+                assertEquals(to, workflow.category(workflow.transition(state, to, null)));
+            }
+        }
+    }
+
+    @Test
+    void transitionsFollowTheBitmask() {
+        Workflow workflow = Workflow.define(Workflow.DEFAULT, REVIEW_FLOW);
+        int backlog = workflow.stateOf(null, TaskStatus.TODO);
+        assertEquals("Backlog", workflow.name(backlog));
+
+        // Chỉ gửi status: sang trạng thái đầu tiên của nhóm được phép
+        int doing = workflow.transition(backlog, TaskStatus.IN_PROGRESS, null);
+        assertEquals("Doing", workflow.name(doing));
+        assertThrows(BadRequestException.class, () -> workflow.transition(backlog, TaskStatus.DONE, null));
+        assertThrows(BadRequestException.class, () -> workflow.transition(doing, TaskStatus.DONE, null));
+
+        int review = workflow.transition(doing, null, "review");
+        assertEquals(TaskStatus.IN_PROGRESS, workflow.category(review));
+        assertEquals(review, workflow.transition(review, TaskStatus.IN_PROGRESS, null));
+        assertEquals("Done", workflow.name(workflow.transition(review, TaskStatus.DONE, null)));
+        assertTrue(workflow.allows(review, doing));
+        assertFalse(workflow.allows(doing, backlog));
+        assertEquals(-1, workflow.next(workflow.stateOf(null, TaskStatus.DONE), TaskStatus.TODO));
+
+        // state và status không cùng nhóm
+        assertThrows(BadRequestException.class, () -> workflow.transition(doing, TaskStatus.DONE, "Review"));
+        assertThrows(BadRequestException.class, () -> workflow.transition(doing, null, "Unknown"));
+    }
+
+    @Test
+    void storedStateFallsBackToCategoryDefault() {
+        Workflow workflow = Workflow.define(Workflow.DEFAULT, REVIEW_FLOW);
+        int review = workflow.initial(null, "Review");
+        assertEquals(review, workflow.stateOf((short) review, TaskStatus.IN_PROGRESS));
+        // stateId không cùng nhóm với status (ví dụ status bị đổi bởi luồng không biết quy trình)
+        assertEquals("Backlog", workflow.name(workflow.stateOf((short) review, TaskStatus.TODO)));
+        assertEquals("Doing", workflow.name(workflow.stateOf((short) 63, TaskStatus.IN_PROGRESS)));
+    }
+
+    @Test
+    void redefiningKeepsIdsOfUnchangedStates() {
+        Workflow first = Workflow.define(Workflow.DEFAULT, REVIEW_FLOW);
+        int review = first.initial(null, "Review");
+        int doing = first.initial(null, "Doing");
+
+        Workflow second = Workflow.define(first, List.of(
+                new WorkflowStateDTO("Backlog", TaskStatus.TODO, List.of("Doing")),
+                new WorkflowStateDTO("Doing", TaskStatus.IN_PROGRESS, List.of("QA")),
+                new WorkflowStateDTO("QA", TaskStatus.IN_PROGRESS, List.of("Done")),
+                new WorkflowStateDTO("Done", TaskStatus.DONE, null),
+                new WorkflowStateDTO("Cancelled", TaskStatus.CANCELLED, null)));
+        assertEquals(doing, second.initial(null, "doing"));
+        int qa = second.initial(null, "QA");
+        assertTrue(qa != review, "Trạng thái mới không dùng lại id vừa bị bỏ");
+        assertEquals(List.of((short) review), first.removedIn(second));
+        assertEquals(5, second.toRows(1L).size());
+        assertEquals(List.of("QA"), second.toStates().get(1).getTransitions());
+    }
+
+    @Test
+    void invalidDefinitionsAreRejected() {
+        assertThrows(BadRequestException.class, () -> Workflow.define(Workflow.DEFAULT, List.of(
+                new WorkflowStateDTO("Todo", TaskStatus.TODO, null),
+                new WorkflowStateDTO("todo", TaskStatus.IN_PROGRESS, null))));
+        // Thiếu nhóm CANCELLED
+        assertThrows(BadRequestException.class, () -> Workflow.define(Workflow.DEFAULT, REVIEW_FLOW.subList(0, 4)));
+        assertThrows(BadRequestException.class, () -> Workflow.define(Workflow.DEFAULT, List.of(
+                new WorkflowStateDTO("A", TaskStatus.TODO, List.of("B")),
+                new WorkflowStateDTO("Doing", TaskStatus.IN_PROGRESS, null),
+                new WorkflowStateDTO("Done", TaskStatus.DONE, null),
+                new WorkflowStateDTO("Cancelled", TaskStatus.CANCELLED, null))));
+    }
+}
@@ -0,0 +1,77 @@
+package com.laptrinhjava.task_management_backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LexicographicRankTests {
+
+    @Test
+    void betweenIsStrictlyInsideBounds() {
+        assertBetween("a", "a1", LexicographicRank.between("a", "a1"));
+        assertBetween("az", "b", LexicographicRank.between("az", "b"));
+        assertBetween(null, "01", LexicographicRank.between(null, "01"));
+        assertBetween("zz", null, LexicographicRank.between("zz", null));
+        assertThrows(IllegalArgumentException.class, () -> LexicographicRank.between("b", "b"));
+    }
+
+    @Test
+    void appendingKeepsRanksShort() {
+        String rank = null;
+        for (int i = 0; i < 10_000; i++) {
+            String next = LexicographicRank.after(rank);
+            assertTrue(rank == null || next.compareTo(rank) > 0);
+            rank = next;
+        }
+        assertTrue(rank.length() <= 6, rank);
+
+        rank = null;
+        for (int i = 0; i < 10_000; i++) {
+            String previous = LexicographicRank.before(rank);
+            assertTrue(rank == null || previous.compareTo(rank) < 0);
+            rank = previous;
+        }
+        assertTrue(rank.length() <= 8, rank);
+    }
+
+    // Mô phỏng kéo thả ngẫu nhiên: danh sách sắp theo thứ hạng phải đúng thứ tự đã chèn
+    @Test
+    void randomInsertsPreserveOrder() {
+        Random random = new Random(42);
+        List<String> column = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int position = random.nextInt(column.size() + 1);
+            String lower = position > 0 ? column.get(position - 1) : null;
+            String upper = position < column.size() ? column.get(position) : null;
+            String rank = lower == null ? LexicographicRank.before(upper)
+                    : upper == null ? LexicographicRank.after(lower)
+                    : LexicographicRank.between(lower, upper);
+            assertBetween(lower, upper, rank);
+            column.add(position, rank);
+        }
+        List<String> sorted = new ArrayList<>(column);
+        sorted.sort(null);
+        assertEquals(column, sorted);
+    }
+
+    @Test
+    void evenlySpacedRanksAreIncreasing() {
+        String[] ranks = LexicographicRank.evenlySpaced(100_000);
+        for (int i = 1; i < ranks.length; i++) {
+            assertTrue(ranks[i - 1].compareTo(ranks[i]) < 0);
+        }
+    }
+
+    private static void assertBetween(String lower, String upper, String rank) {
+        assertFalse(rank.endsWith("0"), rank);
+        assertTrue(lower == null || rank.compareTo(lower) > 0, lower + " < " + rank);
+        assertTrue(upper == null || rank.compareTo(upper) < 0, rank + " < " + upper);
+    }
+}